@@ -14,6 +14,8 @@ Required Args:
   url (String) The JDBC database connection URL
     OBFUSCATED
 Optional Args:
+  all (Boolean) Calculate the checksums of all changesets in the changelog and write them to a checksum manifest
+    Default: false
   changesetAuthor (String) ChangeSet Author attribute
     Default: null
   changesetId (String) ChangeSet ID attribute
@@ -30,6 +32,8 @@ Optional Args:
     Default: null
   driverPropertiesFile (String) The JDBC driver properties file
     Default: null
+  manifestFile (String) Checksum manifest file to write when 'all' is set. Defaults to the changelog file name with a '.checksums' suffix
+    Default: null
   password (String) Password to use to connect to the database
     Default: null
     OBFUSCATED
@@ -66,6 +66,8 @@ Optional Args:
     Default: null
   skipObjectSorting (Boolean) When true will skip object sorting. This can be useful on databases that have a lot of packages/procedures that are linked to each other
     Default: false
+  streamChangesets (Boolean) If true, changesets are written as they are generated instead of keeping the whole changelog in memory
+    Default: false
   useOrReplaceOption (Boolean) If true, will add 'OR REPLACE' option to the create view change object
     Default: false
   username (String) Username to use to connect to the database
@@ -22,6 +22,9 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
     public static final ConfigurationDefinition<Charset> FILE_ENCODING;
     public static final ConfigurationDefinition<Long> CHANGELOGLOCK_WAIT_TIME;
     public static final ConfigurationDefinition<Long> CHANGELOGLOCK_POLL_RATE;
+    public static final ConfigurationDefinition<Boolean> CHANGELOGLOCK_ADAPTIVE_POLL_RATE;
+    public static final ConfigurationDefinition<Boolean> CHANGELOGLOCK_USE_DATABASE_LOCK;
+    public static final ConfigurationDefinition<Long> CHANGELOGLOCK_LEASE_DURATION;
     public static final ConfigurationDefinition<Boolean> CONVERT_DATA_TYPES;
     public static final ConfigurationDefinition<Boolean> GENERATE_CHANGESET_CREATED_VALUES;
     public static final ConfigurationDefinition<Boolean> AUTO_REORG;
@@ -30,6 +33,13 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
     public static final ConfigurationDefinition<Boolean> GENERATED_CHANGESET_IDS_INCLUDE_DESCRIPTION;
     public static final ConfigurationDefinition<Boolean> INCLUDE_CATALOG_IN_SPECIFICATION;
     public static final ConfigurationDefinition<Boolean> SHOULD_SNAPSHOT_DATA;
+    public static final ConfigurationDefinition<Integer> SNAPSHOT_THREADS;
+    public static final ConfigurationDefinition<Integer> DIFF_THREADS;
+    public static final ConfigurationDefinition<String> SNAPSHOT_CACHE_DIRECTORY;
+    public static final ConfigurationDefinition<Integer> SNAPSHOT_METADATA_CACHE_SIZE;
+    public static final ConfigurationDefinition<Boolean> PRECONDITION_SNAPSHOT_CACHE;
+    public static final ConfigurationDefinition<Integer> LOAD_DATA_CHUNK_SIZE;
+    public static final ConfigurationDefinition<Boolean> LOAD_DATA_BULK_LOAD;
     public static final ConfigurationDefinition<Boolean> INCLUDE_RELATIONS_FOR_COMPUTED_COLUMNS;
     public static final ConfigurationDefinition<Boolean> PRESERVE_SCHEMA_CASE;
     public static final ConfigurationDefinition<Boolean> SHOW_BANNER;
@@ -57,6 +67,13 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
 
     public static final ConfigurationDefinition<Boolean> PRESERVE_CLASSPATH_PREFIX_IN_NORMALIZED_PATHS;
 
+    public static final ConfigurationDefinition<String> CHECKSUM_MANIFEST_FILE;
+
+    public static final ConfigurationDefinition<String> CHANGELOG_HISTORY_CACHE_DIRECTORY;
+
+    public static final ConfigurationDefinition<Integer> CHANGELOG_HISTORY_BATCH_SIZE;
+    public static final ConfigurationDefinition<Boolean> PERSIST_DEPLOYMENT_FINGERPRINT;
+
     static {
         ConfigurationDefinition.Builder builder = new ConfigurationDefinition.Builder("liquibase");
 
@@ -84,6 +101,20 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
                 .setDefaultValue(10L)
                 .build();
 
+        CHANGELOGLOCK_ADAPTIVE_POLL_RATE = builder.define("changelogLockAdaptivePollRate", Boolean.class)
+                .setDescription("If true, checks for the changelog lock start a fraction of a second apart and back off exponentially, with random jitter, up to changelogLockPollRate seconds")
+                .setDefaultValue(false)
+                .build();
+
+        CHANGELOGLOCK_USE_DATABASE_LOCK = builder.define("changelogLockUseDatabaseLock", Boolean.class)
+                .setDescription("If true, on PostgreSQL, MySQL, MariaDB and SQL Server waiting for the changelog lock also blocks on a session-level database lock, so waiting instances continue as soon as the lock is released instead of polling")
+                .setDefaultValue(false)
+                .build();
+
+        CHANGELOGLOCK_LEASE_DURATION = builder.define("changelogLockLeaseDuration", Long.class)
+                .setDescription("Number of seconds the changelog lock is leased for. If set, the instance holding the lock renews the lease from a background thread, or between changesets if it cannot open a second connection, and waiting instances take over a lease which has not been renewed for this long, e.g. because its holder was killed. All instances using the same database should use the same value, and changelogLockWaitTimeInMinutes should be longer than the lease. Not set by default, which disables leases")
+                .build();
+
         LIQUIBASE_TABLESPACE_NAME = builder.define("liquibaseTablespaceName", String.class)
                 .addAliasKey("liquibase.liquibaseTableSpaceName")
                 .addAliasKey("liquibase.databaseChangeLogTablespaceName")
@@ -176,6 +207,40 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
                 .setDefaultValue(false)
                 .build();
 
+        SNAPSHOT_THREADS = builder.define("snapshotThreads", Integer.class)
+                .setDescription("Number of additional connections used to read table, view, column and constraint metadata in parallel at the start of a database snapshot. Only used for connections Liquibase opened from a URL, since a connection passed in by an application cannot be reopened; its metadata is read over the main connection. Set to 1 to read all metadata over the main connection.")
+                .setDefaultValue(1)
+                .build();
+
+        DIFF_THREADS = builder.define("diffThreads", Integer.class)
+                .setDescription("Number of threads used to compare snapshot objects in diff and diff-changelog. Object types and schemas are compared in parallel and the results are identical to a single-threaded diff. Set to 1 to compare everything on the calling thread.")
+                .setDefaultValue(1)
+                .build();
+
+        SNAPSHOT_CACHE_DIRECTORY = builder.define("snapshotCacheDirectory", String.class)
+                .setDescription("Local directory used to keep a copy of schema snapshots. Later snapshots of the same schemas only read tables and views again if their catalog change marker changed since the copy was written. Other object types are always read. Only used on PostgreSQL, Oracle and SQL Server. Caching is disabled if not set.")
+                .build();
+
+        SNAPSHOT_METADATA_CACHE_SIZE = builder.define("snapshotMetadataCacheSize", Integer.class)
+                .setDescription("Maximum estimated memory in megabytes a snapshot uses to keep metadata read in bulk. When it is exceeded, the metadata of the least recently used schemas is released and read table by table from then on. Kept metadata is always released when the snapshot is complete. Set to 0 for no limit.")
+                .setDefaultValue(0)
+                .build();
+
+        PRECONDITION_SNAPSHOT_CACHE = builder.define("preconditionSnapshotCache", Boolean.class)
+                .setDescription("If true, existence preconditions checked during one update share the objects read from the database. Each schema is read once per object type, and is read again after a changeset changed its structure.")
+                .setDefaultValue(true)
+                .build();
+
+        LOAD_DATA_CHUNK_SIZE = builder.define("loadDataChunkSize", Integer.class)
+                .setDescription("Number of CSV rows loadData and loadUpdateData read and send to the database at a time, so that memory use does not grow with the size of the file. The generated SQL is the same. Set to 0 to read the whole file before running any statement.")
+                .setDefaultValue(0)
+                .build();
+
+        LOAD_DATA_BULK_LOAD = builder.define("loadDataBulkLoad", Boolean.class)
+                .setDescription("If true, loadData uses the native bulk load mechanism of the database, such as COPY on PostgreSQL, when the loaded values need no statement-level handling. Other data, and databases without a bulk loader, use insert statements.")
+                .setDefaultValue(false)
+                .build();
+
         INCLUDE_RELATIONS_FOR_COMPUTED_COLUMNS = builder.define("includeRelationsForComputedColumns", Boolean.class)
                 .setDescription("If true, the parent relationship for computed columns is preserved in snapshot-dependent commands: snapshot and diff")
                 .setDefaultValue(false)
@@ -261,6 +326,24 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
                 .setDescription("If true 'classpath:' prefix will be preserved in normalized paths, allowing to resolve hierarchical resources under a classpath-based root.")
                 .setDefaultValue(false)
                 .build();
+
+        CHECKSUM_MANIFEST_FILE = builder.define("checksumManifestFile", String.class)
+                .setDescription("Path to a checksum manifest created with 'calculate-checksum --all'. Changeset checksums are read from the manifest instead of being recalculated as long as the changeset definition has not changed since the manifest was created.")
+                .build();
+
+        CHANGELOG_HISTORY_CACHE_DIRECTORY = builder.define("changelogHistoryCacheDirectory", String.class)
+                .setDescription("Local directory used to cache the rows read from the DATABASECHANGELOG table. On later runs against the same database only rows added since the cached copy was written are read, after checking the row count and the checksums and tags of the newest rows. Other changes to the table are only noticed if they are made by Liquibase. Caching is disabled if not set.")
+                .build();
+
+        CHANGELOG_HISTORY_BATCH_SIZE = builder.define("changelogHistoryBatchSize", Integer.class)
+                .setDescription("Maximum number of DATABASECHANGELOG rows that changelog-sync holds back and inserts together. Rows are always written after a failure and at the end of the command, and a sync that was interrupted before they were written can simply be run again. Update always writes each row right after its changeset. Set to 1 to write each row right away.")
+                .setDefaultValue(1)
+                .build();
+
+        PERSIST_DEPLOYMENT_FINGERPRINT = builder.define("persistDeploymentFingerprint", Boolean.class)
+                .setDescription("If true, a successful update stores a fingerprint of the changelog, contexts and labels in the DATABASECHANGELOGLOCK table once the database is up to date. Later updates with the same fingerprint skip checking the changelog against the DATABASECHANGELOG table, as long as the number of DATABASECHANGELOG rows and the checksums and tags of the newest rows did not change. Changes made directly to older rows are not noticed.")
+                .setDefaultValue(false)
+                .build();
     }
 
     public enum DuplicateFileMode {
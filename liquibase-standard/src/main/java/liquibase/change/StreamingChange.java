@@ -0,0 +1,35 @@
+package liquibase.change;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Adding this interface to your Change class allows executors to run its statements while they are still being generated,
+ * instead of first collecting all of them from {@link Change#generateStatements(Database)}. This keeps memory use bounded
+ * for changes which generate a very large number of statements, such as loading a large data file.
+ * <p>
+ * The statements handed over must be the same, in the same order, as the ones {@link Change#generateStatements(Database)} returns,
+ * unless the change runs them itself over other connections, as loadData does with parallelism set.
+ */
+public interface StreamingChange extends Change {
+
+    /**
+     * Receives the statements of a {@link StreamingChange} one part at a time.
+     */
+    @FunctionalInterface
+    interface StatementConsumer {
+        void accept(SqlStatement[] statements) throws DatabaseException;
+    }
+
+    /**
+     * @return true if the statements for the given database should be generated in parts with {@link #generateStatements(Database, StatementConsumer)}
+     */
+    boolean generateStatementsInParts(Database database);
+
+    /**
+     * Generates the statements for the given database, passing each part to the consumer as soon as it is complete.
+     * Exceptions thrown by the consumer are passed on.
+     */
+    void generateStatements(Database database, StatementConsumer consumer) throws DatabaseException;
+}
@@ -5,17 +5,23 @@ import liquibase.CatalogAndSchema;
 import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.change.*;
+import liquibase.change.core.loaddata.BulkLoaderFactory;
+import liquibase.change.core.loaddata.LoadDataProgress;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.datatype.LiquibaseDataType;
 import liquibase.exception.*;
+import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.executor.LoggingExecutor;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.io.EmptyLineAndCommentSkippingInputStream;
 import liquibase.logging.Logger;
 import liquibase.resource.Resource;
@@ -23,7 +29,9 @@ import liquibase.resource.ResourceAccessor;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sqlgenerator.core.InsertGenerator;
 import liquibase.statement.BatchDmlExecutablePreparedStatement;
+import liquibase.statement.BulkLoadDataStatement;
 import liquibase.statement.ExecutablePreparedStatementBase;
 import liquibase.statement.InsertExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
@@ -34,6 +42,7 @@ import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Table;
 import liquibase.util.BooleanUtil;
+import liquibase.util.ConcurrencyUtil;
 import liquibase.util.ObjectUtil;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtil;
@@ -46,6 +55,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 
@@ -57,7 +73,7 @@ import static liquibase.change.ChangeParameterMetaData.ALL;
         priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "table",
         since = "1.7")
 @SuppressWarnings("java:S2583")
-public class LoadDataChange extends AbstractTableChange implements ChangeWithColumns<LoadDataColumnConfig> {
+public class LoadDataChange extends AbstractTableChange implements ChangeWithColumns<LoadDataColumnConfig>, StreamingChange {
     /**
      * CSV Lines starting with that sign(s) will be treated as comments by default
      */
@@ -65,6 +81,7 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
     public static final Pattern BASE64_PATTERN = Pattern.compile("^(?:[A-Za-z0-9+/]{4})*(?:[A-Za-z0-9+/]{2}==|[A-Za-z0-9+/]{3}=)?$");
     private static final Logger LOG = Scope.getCurrentScope().getLog(LoadDataChange.class);
     private static final ResourceBundle coreBundle = getBundle("liquibase/i18n/liquibase-core");
+    private static final int DEFAULT_PART_SIZE = 10000;
     @Setter
     private String file;
     private String commentLineStartsWith = DEFAULT_COMMENT_PATTERN;
@@ -79,6 +96,10 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
 
     @Setter
     private Boolean usePreparedStatements;
+    @Setter
+    private Integer parallelism;
+    @Setter
+    private Boolean resumable;
 
     /**
      * Transform a value read from a CSV file into a string to be written into the database if the column type
@@ -132,6 +153,21 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
         return usePreparedStatements;
     }
 
+    @DatabaseChangeProperty(supportsDatabase = ALL,
+        description = "Number of additional connections to load the file over in parallel. Each part of the file is committed on its own, " +
+            "and a load which failed part way continues with the missing parts. If fewer than two additional connections can be opened, " +
+            "the parts are loaded one after another over the connection of the changeset. Default: 1, loading over the connection of the changeset")
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    @DatabaseChangeProperty(supportsDatabase = ALL,
+        description = "Whether to commit each part of the file as it is loaded, together with a record of the loaded parts, " +
+            "so that a load which failed part way continues with the missing parts. The changeset is then not applied in a single transaction. Default: false")
+    public Boolean getResumable() {
+        return resumable;
+    }
+
     @DatabaseChangeProperty(supportsDatabase = ALL,
         description = "Lines starting with this are treated as comments and ignored. "+
             "To disable comments, set 'commentLineStartsWith' to an empty value. Default: " + DEFAULT_COMMENT_PATTERN)
@@ -237,6 +273,289 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        List<SqlStatement> statements = new ArrayList<>();
+        try {
+            readRows(database, 0, rows -> Collections.addAll(statements, generateStatementsFromRows(database, rows)));
+        } catch (DatabaseException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return statements.toArray(SqlStatement.EMPTY_SQL_STATEMENT);
+    }
+
+    @Override
+    public boolean generateStatementsInParts(Database database) {
+        return (getChunkSize(database) > 0) || isParallel(database) || isResumable(database);
+    }
+
+    @Override
+    public void generateStatements(Database database, StatementConsumer consumer) throws DatabaseException {
+        if (isParallel(database) && loadInParallel(database)) {
+            return;
+        }
+        if ((isResumable(database) || isParallel(database)) && loadResumably(database, consumer)) {
+            return;
+        }
+        readRows(database, getChunkSize(database), rows -> consumer.accept(generateStatementsFromRows(database, rows)));
+    }
+
+    /**
+     * Returns the number of rows to read before their statements are generated, or 0 to read the whole file first.
+     * Rounded up to whole multi-row inserts so that the generated SQL does not depend on it.
+     */
+    protected int getChunkSize(Database database) {
+        Integer chunkSize = GlobalConfiguration.LOAD_DATA_CHUNK_SIZE.getCurrentValue();
+        if ((chunkSize == null) || (chunkSize <= 0)) {
+            return 0;
+        }
+        return roundToWholeInserts(chunkSize);
+    }
+
+    private int roundToWholeInserts(int rows) {
+        int rowsPerInsert = getRowsPerInsert();
+        return ((rows + rowsPerInsert - 1) / rowsPerInsert) * rowsPerInsert;
+    }
+
+    /**
+     * Returns the number of rows written by one multi-row insert.
+     */
+    protected int getRowsPerInsert() {
+        return createStatementSet(getCatalogName(), getSchemaName(), getTableName()).getBatchThreshold() + 1;
+    }
+
+    /**
+     * Receives the rows read from the CSV file one chunk at a time.
+     */
+    @FunctionalInterface
+    private interface RowsConsumer {
+        void accept(List<LoadDataRowConfig> rows) throws DatabaseException;
+    }
+
+    /**
+     * @return true if the file should be loaded in parts over additional connections, because parallelism is set and
+     * the statements are run against a JDBC connection.
+     */
+    private boolean isParallel(Database database) {
+        return (parallelism != null) && (parallelism > 1) && canCommitParts(database);
+    }
+
+    /**
+     * @return true if each part of the file should be committed as it is loaded, because resumable is set and the
+     * statements are run against a JDBC connection.
+     */
+    protected boolean isResumable(Database database) {
+        return Boolean.TRUE.equals(resumable) && canCommitParts(database);
+    }
+
+    private boolean canCommitParts(Database database) {
+        if (!(database.getConnection() instanceof JdbcConnection) || isLoggingExecutor(database)) {
+            return false;
+        }
+        return Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database) instanceof JdbcExecutor;
+    }
+
+    /**
+     * Returns the number of rows in each committed part: the chunk size, or {@value #DEFAULT_PART_SIZE} if no chunk size is configured.
+     */
+    private int getPartSize(Database database) {
+        int partSize = getChunkSize(database);
+        if (partSize <= 0) {
+            partSize = roundToWholeInserts(DEFAULT_PART_SIZE);
+        }
+        return partSize;
+    }
+
+    /**
+     * Loads the file in parts over the connection of the changeset, committing each part together with its record in the
+     * {@link LoadDataProgress} table, so that parts loaded by an earlier, failed run are skipped. The progress records are
+     * removed together with the rest of the changeset. Also used for parallel loads which cannot open additional connections.
+     *
+     * @return false without loading anything if the change does not belong to a changeset
+     */
+    private boolean loadResumably(Database database, StatementConsumer consumer) throws DatabaseException {
+        int partSize = getPartSize(database);
+        LoadDataProgress progress = LoadDataProgress.forChange(this, "parts of " + partSize);
+        if (progress == null) {
+            return false;
+        }
+        LoadDataProgress.createTableIfMissing(database);
+        Set<Integer> completedParts = progress.getCompletedParts(database);
+        logCompletedParts(completedParts);
+
+        AtomicInteger partNumber = new AtomicInteger();
+        readRows(database, partSize, rows -> {
+            int part = partNumber.getAndIncrement();
+            if (completedParts.contains(part)) {
+                return;
+            }
+            consumer.accept(generateStatementsFromRows(database, rows));
+            progress.partCompleted(database, part, rows.size());
+            database.commit();
+        });
+        progress.clear(database);
+        return true;
+    }
+
+    private void logCompletedParts(Set<Integer> completedParts) {
+        if (!completedParts.isEmpty()) {
+            LOG.info("Continuing the load of " + getFile() + ", skipping " + completedParts.size() + " parts loaded before");
+        }
+    }
+
+    /**
+     * Loads the file in parts of {@link #getPartSize(Database)} rows over up to {@link #getParallelism()} additional connections. Each part is committed together with
+     * its record in the {@link LoadDataProgress} table, so parts which were loaded by an earlier, failed run are skipped.
+     * <p>
+     * The connection of the changeset is committed first, so that the additional connections see tables created earlier
+     * in the changeset. The progress records are removed over the connection of the changeset, together with its changes.
+     *
+     * @return false without loading anything if fewer than two additional connections could be opened
+     */
+    private boolean loadInParallel(Database database) throws DatabaseException {
+        ExecutorService executorService = Scope.getCurrentScope().getSingleton(ExecutorService.class);
+        List<Database> partDatabases = new ArrayList<>();
+        BlockingQueue<Database> freeDatabases = new LinkedBlockingQueue<>();
+        List<Future<?>> parts = new ArrayList<>();
+        java.util.concurrent.ExecutorService threads = null;
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                Database partDatabase = DatabaseFactory.getInstance().openAdditionalDatabase(database);
+                if (partDatabase == null) {
+                    break;
+                }
+                partDatabases.add(partDatabase);
+                partDatabase.setAutoCommit(false);
+                executorService.getExecutor("jdbc", partDatabase);
+                freeDatabases.add(partDatabase);
+            }
+            if (partDatabases.size() < 2) {
+                LOG.warning("Cannot open additional connections for parallelism=" + parallelism + ", loading " + getFile()
+                        + " in parts over the connection of the changeset");
+                return false;
+            }
+
+            int partSize = getPartSize(database);
+            LoadDataProgress progress = LoadDataProgress.forChange(this, "parts of " + partSize);
+            Set<Integer> completedParts = new HashSet<>();
+            if (progress != null) {
+                LoadDataProgress.createTableIfMissing(partDatabases.get(0));
+                completedParts = progress.getCompletedParts(partDatabases.get(0));
+                logCompletedParts(completedParts);
+            }
+            database.commit();
+
+            threads = Executors.newFixedThreadPool(partDatabases.size(), ConcurrencyUtil.newScopedThreadFactory("liquibase-load-data"));
+            java.util.concurrent.ExecutorService finalThreads = threads;
+            Set<Integer> skippedParts = completedParts;
+            AtomicInteger partNumber = new AtomicInteger();
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            readRows(database, partSize, rows -> {
+                int part = partNumber.getAndIncrement();
+                throwFailure(failure);
+                if (skippedParts.contains(part)) {
+                    return;
+                }
+                Database partDatabase;
+                try {
+                    partDatabase = freeDatabases.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseException(e);
+                }
+                parts.add(finalThreads.submit(() -> {
+                    try {
+                        loadPart(partDatabase, progress, part, rows);
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        freeDatabases.add(partDatabase);
+                    }
+                }));
+            });
+            waitFor(parts);
+            throwFailure(failure);
+
+            if (progress != null) {
+                progress.clear(database);
+            }
+            return true;
+        } finally {
+            if (threads != null) {
+                // parts still running after a failure are left to finish before their connections are closed
+                for (Future<?> part : parts) {
+                    try {
+                        part.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (ExecutionException e) {
+                        LOG.fine("Part of " + getFile() + " failed", e);
+                    }
+                }
+                threads.shutdownNow();
+            }
+            for (Database partDatabase : partDatabases) {
+                try {
+                    partDatabase.close();
+                } catch (DatabaseException e) {
+                    LOG.fine("Failed to close load data connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the statements of one part on its own connection and commits them together with the progress record.
+     */
+    private void loadPart(Database partDatabase, LoadDataProgress progress, int part, List<LoadDataRowConfig> rows) throws DatabaseException {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", partDatabase);
+        try {
+            for (SqlStatement statement : generateStatementsFromRows(partDatabase, rows)) {
+                executor.execute(statement);
+            }
+            if (progress != null) {
+                progress.partCompleted(partDatabase, part, rows.size());
+            }
+            partDatabase.commit();
+        } catch (DatabaseException | RuntimeException e) {
+            try {
+                partDatabase.rollback();
+            } catch (DatabaseException rollbackException) {
+                LOG.fine("Failed to roll back part " + part + " of " + getFile(), rollbackException);
+            }
+            throw e;
+        }
+    }
+
+    private static void waitFor(List<Future<?>> parts) throws DatabaseException {
+        for (Future<?> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseException(e);
+            } catch (ExecutionException e) {
+                throw new DatabaseException(e.getCause());
+            }
+        }
+    }
+
+    private static void throwFailure(AtomicReference<Exception> failure) throws DatabaseException {
+        Exception e = failure.get();
+        if (e instanceof DatabaseException) {
+            throw (DatabaseException) e;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e != null) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Reads the CSV file and passes its rows to the consumer, every chunkSize rows or all at once if chunkSize is 0.
+     */
+    private void readRows(Database database, int chunkSize, RowsConsumer consumer) throws DatabaseException {
         supportsBatchUpdates(database);
 
         try (CSVReader reader = getCSVReader()) {
@@ -462,11 +781,19 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
                         actuallyUsePreparedStatements = needsPreparedStatement || (!isLoggingExecutor(database) && preferPreparedStatements(database));
                     }
                 }
-                rows.add(new LoadDataRowConfig(actuallyUsePreparedStatements, columnsFromCsv));
+                rows.add(new LoadDataRowConfig(actuallyUsePreparedStatements, needsPreparedStatement, columnsFromCsv));
+                if (rows.size() == chunkSize) {
+                    consumer.accept(rows);
+                    rows = new ArrayList<>();
+                }
+            }
+            if ((chunkSize == 0) || !rows.isEmpty()) {
+                consumer.accept(rows);
             }
-            return generateStatementsFromRows(database, rows);
         } catch (CsvMalformedLineException e) {
             throw new RuntimeException("Error parsing " + getRelativeTo() + " on line " + e.getLineNumber() + ": " + e.getMessage());
+        } catch (DatabaseException e) {
+            throw e;
         } catch (IOException | LiquibaseException e) {
             throw new RuntimeException(e);
         } catch (UnexpectedLiquibaseException ule) {
@@ -474,14 +801,12 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
                     .getFailOnError()) {
                 LOG.info("Changeset " + getChangeSet().toString(false) +
                         " failed, but failOnError was false.  Error: " + ule.getMessage());
-                return SqlStatement.EMPTY_SQL_STATEMENT;
             } else {
                 throw ule;
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        // Do nothing
     }
 
     /**
@@ -824,6 +1149,70 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
 
 
     protected SqlStatement[] generateStatementsFromRows(Database database, List<LoadDataRowConfig> rows) {
+        BulkLoadDataStatement bulkLoadStatement = createBulkLoadStatement(database, rows);
+        if (bulkLoadStatement != null) {
+            return new SqlStatement[]{bulkLoadStatement};
+        }
+        return generateInsertStatements(database, rows);
+    }
+
+    /**
+     * Returns a statement loading the rows with the native bulk loader of the database, or null if they need insert statements.
+     * Rows can be bulk loaded when they are run against a JDBC connection and only hold plain values: no large objects,
+     * functions or sequences, and prepared statements were not requested with usePreparedStatements. The change set must
+     * not have modifySql visitors either, since they rewrite the insert statements which the bulk load skips.
+     */
+    protected BulkLoadDataStatement createBulkLoadStatement(Database database, List<LoadDataRowConfig> rows) {
+        if (rows.isEmpty() || !GlobalConfiguration.LOAD_DATA_BULK_LOAD.getCurrentValue() || !hasPreparedStatementsImplemented()
+                || Boolean.TRUE.equals(usePreparedStatements) || !(database.getConnection() instanceof JdbcConnection)
+                || isLoggingExecutor(database)
+                || ((getChangeSet() != null) && (getChangeSet().getSqlVisitors() != null) && !getChangeSet().getSqlVisitors().isEmpty())) {
+            return null;
+        }
+        ExecutorService executorService = Scope.getCurrentScope().getSingleton(ExecutorService.class);
+        if (!(executorService.getExecutor("jdbc", database) instanceof JdbcExecutor)
+                || (Scope.getCurrentScope().getSingleton(BulkLoaderFactory.class).getBulkLoader(database) == null)) {
+            return null;
+        }
+
+        List<String> columnNames = new ArrayList<>();
+        for (LoadDataColumnConfig column : rows.get(0).getColumns()) {
+            columnNames.add(column.getName());
+        }
+        List<List<LoadDataColumnConfig>> bulkRows = new ArrayList<>(rows.size());
+        for (LoadDataRowConfig row : rows) {
+            if (row.hasLargeObjects() || !hasPlainValues(row.getColumns(), columnNames, database)) {
+                return null;
+            }
+            bulkRows.add(row.getColumns());
+        }
+        return new BulkLoadDataStatement(database, getCatalogName(), getSchemaName(), getTableName(), columnNames, bulkRows,
+                () -> generateInsertStatements(database, rows));
+    }
+
+    private boolean hasPlainValues(List<LoadDataColumnConfig> columns, List<String> columnNames, Database database) {
+        if (columns.size() != columnNames.size()) {
+            return false;
+        }
+        InsertGenerator insertGenerator = new InsertGenerator();
+        for (int i = 0; i < columns.size(); i++) {
+            LoadDataColumnConfig column = columns.get(i);
+            if ((column.getName() == null) || !column.getName().equals(columnNames.get(i)) || column.getName().contains("(")) {
+                return false;
+            }
+            Object value = column.getValueObject();
+            if (value instanceof String) {
+                if (insertGenerator.looksLikeFunctionCall((String) value, database)) {
+                    return false;
+                }
+            } else if ((value != null) && !(value instanceof Number) && !(value instanceof Boolean) && !(value instanceof Date)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private SqlStatement[] generateInsertStatements(Database database, List<LoadDataRowConfig> rows) {
         List<SqlStatement> statements = new ArrayList<>();
         List<ExecutablePreparedStatementBase> preparedStatements = new ArrayList<>();
 
@@ -926,10 +1315,16 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
     protected static class LoadDataRowConfig {
 
         private final boolean needsPreparedStatement;
+        private final boolean largeObjects;
         private final List<LoadDataColumnConfig> columns;
 
         public LoadDataRowConfig(boolean needsPreparedStatement, List<LoadDataColumnConfig> columns) {
+            this(needsPreparedStatement, needsPreparedStatement, columns);
+        }
+
+        public LoadDataRowConfig(boolean needsPreparedStatement, boolean largeObjects, List<LoadDataColumnConfig> columns) {
             this.needsPreparedStatement = needsPreparedStatement;
+            this.largeObjects = largeObjects;
             this.columns = columns;
         }
 
@@ -937,6 +1332,13 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
             return needsPreparedStatement;
         }
 
+        /**
+         * Returns true if the row has BLOB or CLOB values which can only be loaded with a prepared statement.
+         */
+        public boolean hasLargeObjects() {
+            return largeObjects;
+        }
+
         public List<LoadDataColumnConfig> getColumns() {
             return columns;
         }
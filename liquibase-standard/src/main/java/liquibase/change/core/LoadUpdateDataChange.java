@@ -9,17 +9,23 @@ import liquibase.database.Database;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.RollbackImpossibleException;
 import liquibase.resource.ResourceAccessor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.BatchDmlExecutablePreparedStatement;
 import liquibase.statement.ExecutablePreparedStatementBase;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.util.StringUtil;
 import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static liquibase.change.ChangeParameterMetaData.ALL;
 
@@ -84,6 +90,77 @@ public class LoadUpdateDataChange extends LoadDataChange {
                 "LoadUpdateDataChange yet. Very sorry.");
     }
 
+    /**
+     * When the file is loaded resumably, inserts or updates the rows in groups of {@link #getRowsPerInsert()} with one
+     * set-based statement each, if the database has a generator for it. Otherwise each row gets its own statement.
+     * Sets following another set of the same columns are marked so that generators can reuse what the previous set
+     * prepared, as all statements generated from the rows run in order on the same connection.
+     */
+    @Override
+    protected SqlStatement[] generateStatementsFromRows(Database database, List<LoadDataRowConfig> rows) {
+        SqlStatement[] statements = super.generateStatementsFromRows(database, rows);
+        if (!isResumable(database)) {
+            return statements;
+        }
+        int rowsPerSet = getRowsPerInsert();
+        List<SqlStatement> result = new ArrayList<>();
+        Set<String> previousColumnNames = null;
+        for (int start = 0; start < statements.length; start += rowsPerSet) {
+            SqlStatement[] group = Arrays.copyOfRange(statements, start, Math.min(start + rowsPerSet, statements.length));
+            InsertOrUpdateSetStatement statementSet = createUpsertSet(group);
+            if ((statementSet == null) || !SqlGeneratorFactory.getInstance().supports(statementSet, database)) {
+                Collections.addAll(result, group);
+            } else {
+                Set<String> columnNames = statementSet.peek().getColumnValues().keySet();
+                statementSet.setFirstSet(!columnNames.equals(previousColumnNames));
+                result.add(statementSet);
+                previousColumnNames = columnNames;
+            }
+        }
+        return result.toArray(SqlStatement.EMPTY_SQL_STATEMENT);
+    }
+
+    /**
+     * Combines the statements into one {@link InsertOrUpdateSetStatement}, or returns null if they are not all insert or
+     * update statements of the same columns, or if a primary key value is null or occurs more than once. Statements run
+     * one by one match null keys with IS NULL and let the last of several rows with the same key win.
+     */
+    private InsertOrUpdateSetStatement createUpsertSet(SqlStatement[] statements) {
+        if ((statements.length < 2) || (primaryKey == null)) {
+            return null;
+        }
+        InsertOrUpdateSetStatement statementSet = new InsertOrUpdateSetStatement(getCatalogName(), getSchemaName(), getTableName(),
+                primaryKey, getOnlyUpdate());
+        Set<List<Object>> keys = new HashSet<>();
+        List<String> columnNames = null;
+        for (SqlStatement statement : statements) {
+            if (!(statement instanceof InsertOrUpdateStatement)) {
+                return null;
+            }
+            InsertOrUpdateStatement row = (InsertOrUpdateStatement) statement;
+            List<String> rowColumnNames = new ArrayList<>(row.getColumnValues().keySet());
+            if (columnNames == null) {
+                columnNames = rowColumnNames;
+            } else if (!columnNames.equals(rowColumnNames)) {
+                return null;
+            }
+
+            List<Object> key = new ArrayList<>();
+            for (String keyColumn : primaryKey.split(",")) {
+                Object value = row.getColumnValue(keyColumn.trim());
+                if ((value == null) || StringUtil.equalsWordNull(value.toString())) {
+                    return null;
+                }
+                key.add(value);
+            }
+            if (!keys.add(key)) {
+                return null;
+            }
+            statementSet.addStatement(row);
+        }
+        return statementSet;
+    }
+
     @Override
     public SqlStatement[] generateRollbackStatements(Database database) throws RollbackImpossibleException {
         List<SqlStatement> statements = new ArrayList<>();
@@ -95,6 +172,8 @@ public class LoadUpdateDataChange extends LoadDataChange {
                 finalForwardList.addAll(
                         ((BatchDmlExecutablePreparedStatement)thisForward).getIndividualStatements()
                 );
+            } else if (thisForward instanceof InsertOrUpdateSetStatement) {
+                finalForwardList.addAll(((InsertOrUpdateSetStatement) thisForward).getStatements());
             } else {
                 finalForwardList.add(thisForward);
             }
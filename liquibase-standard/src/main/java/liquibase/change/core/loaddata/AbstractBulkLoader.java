@@ -0,0 +1,85 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.BulkLoadDataStatement;
+import liquibase.structure.core.Column;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.StringJoiner;
+
+/**
+ * Convenience base class for {@link BulkLoader} implementations.
+ */
+public abstract class AbstractBulkLoader implements BulkLoader {
+
+    protected String escapeTableName(BulkLoadDataStatement statement, Database database) {
+        return database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+    }
+
+    protected String escapeColumnNames(BulkLoadDataStatement statement, Database database) {
+        StringJoiner columnNames = new StringJoiner(", ");
+        for (String columnName : statement.getColumnNames()) {
+            columnNames.add(database.escapeObjectName(columnName, Column.class));
+        }
+        return columnNames.toString();
+    }
+
+    /**
+     * Returns the JDBC connection of the database, or null if it does not have one.
+     */
+    protected Connection getConnection(Database database) {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+        return ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+    }
+
+    /**
+     * Returns the given driver class if the connection's driver provides it, otherwise null.
+     */
+    protected Class<?> findDriverClass(Object connectionOrStatement, String className) {
+        try {
+            return Class.forName(className, false, connectionOrStatement.getClass().getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the text the database reads from a data file for the given value, which is not null.
+     */
+    protected String toText(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if ((value instanceof Date) && !(value instanceof java.sql.Date) && !(value instanceof Time) && !(value instanceof Timestamp)) {
+            return new Timestamp(((Date) value).getTime()).toString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Converts an exception thrown by a driver method called through reflection.
+     */
+    protected DatabaseException toDatabaseException(Exception e) {
+        Throwable cause = e;
+        if ((e instanceof InvocationTargetException) && (e.getCause() != null)) {
+            cause = e.getCause();
+        }
+        if (cause instanceof DatabaseException) {
+            return (DatabaseException) cause;
+        }
+        if (cause instanceof SQLException) {
+            return new DatabaseException(cause.getMessage(), cause);
+        }
+        return new DatabaseException(cause);
+    }
+}
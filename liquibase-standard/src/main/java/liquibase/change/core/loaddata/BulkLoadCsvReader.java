@@ -0,0 +1,107 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.statement.BulkLoadDataStatement;
+
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads the rows of a {@link BulkLoadDataStatement} as CSV, one line per row, without holding more than one row as text.
+ * Non-null values are always quoted, so that an unquoted null text can be told apart from an empty string.
+ */
+class BulkLoadCsvReader extends Reader {
+
+    private final BulkLoadDataStatement statement;
+    private final Iterator<List<LoadDataColumnConfig>> rows;
+    private final Function<Object, String> toText;
+    private final String nullText;
+    private final boolean backslashEscapes;
+
+    private String header;
+    private String line;
+    private int position;
+
+    /**
+     * @param toText           converts non-null values to text
+     * @param nullText         written unquoted for null values
+     * @param backslashEscapes if true, quotes and backslashes in values are escaped with a backslash, otherwise quotes are doubled
+     * @param header           first line to read, without line separator, or null for none
+     */
+    BulkLoadCsvReader(BulkLoadDataStatement statement, Function<Object, String> toText, String nullText,
+                      boolean backslashEscapes, String header) {
+        this.statement = statement;
+        this.rows = statement.getRows().iterator();
+        this.toText = toText;
+        this.nullText = nullText;
+        this.backslashEscapes = backslashEscapes;
+        this.header = header;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        while ((line == null) || (position >= line.length())) {
+            if (!nextLine()) {
+                return -1;
+            }
+        }
+        int count = Math.min(length, line.length() - position);
+        line.getChars(position, position + count, buffer, offset);
+        position += count;
+        return count;
+    }
+
+    private boolean nextLine() {
+        position = 0;
+        if (header != null) {
+            line = header + "\n";
+            header = null;
+            return true;
+        }
+        if (!rows.hasNext()) {
+            line = null;
+            return false;
+        }
+
+        List<LoadDataColumnConfig> row = rows.next();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < row.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            Object value = statement.getValue(row, i);
+            if (value == null) {
+                builder.append(nullText);
+            } else {
+                appendQuoted(builder, toText.apply(value));
+            }
+        }
+        line = builder.append('\n').toString();
+        return true;
+    }
+
+    private void appendQuoted(StringBuilder builder, String text) {
+        builder.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                builder.append(backslashEscapes ? "\\\"" : "\"\"");
+            } else if ((c == '\\') && backslashEscapes) {
+                builder.append("\\\\");
+            } else {
+                builder.append(c);
+            }
+        }
+        builder.append('"');
+    }
+
+    @Override
+    public void close() {
+        line = null;
+    }
+}
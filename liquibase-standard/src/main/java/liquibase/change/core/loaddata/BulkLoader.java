@@ -0,0 +1,27 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.plugin.Plugin;
+import liquibase.statement.BulkLoadDataStatement;
+
+/**
+ * Loads the rows of a {@link BulkLoadDataStatement} with a database specific mechanism.
+ * The implementation with the highest priority for the database is used. Implementations are found with {@link BulkLoaderFactory}.
+ */
+public interface BulkLoader extends Plugin {
+
+    /**
+     * Priority of this loader for the given database, or {@link #PRIORITY_NOT_APPLICABLE} if it cannot load into it.
+     */
+    int getPriority(Database database);
+
+    /**
+     * Loads all rows of the statement.
+     *
+     * @return false if the mechanism turned out not to be available, for example because it is disabled in the driver.
+     * Nothing has been loaded in that case, and the rows are inserted with statements instead.
+     * @throws DatabaseException if loading the rows failed
+     */
+    boolean load(BulkLoadDataStatement statement, Database database) throws DatabaseException;
+}
@@ -0,0 +1,34 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.database.Database;
+import liquibase.plugin.AbstractPluginFactory;
+
+/**
+ * Singleton for finding the {@link BulkLoader} for a database.
+ */
+public class BulkLoaderFactory extends AbstractPluginFactory<BulkLoader> {
+
+    private BulkLoaderFactory() {
+    }
+
+    @Override
+    protected Class<BulkLoader> getPluginClass() {
+        return BulkLoader.class;
+    }
+
+    @Override
+    protected int getPriority(BulkLoader obj, Object... args) {
+        return obj.getPriority((Database) args[0]);
+    }
+
+    /**
+     * Returns the loader to use for the given database, or null if there is none.
+     */
+    public BulkLoader getBulkLoader(Database database) {
+        return getPlugin(database);
+    }
+
+    public void unregister(BulkLoader bulkLoader) {
+        removeInstance(bulkLoader);
+    }
+}
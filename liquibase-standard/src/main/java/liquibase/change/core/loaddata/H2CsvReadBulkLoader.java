@@ -0,0 +1,86 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.BulkLoadDataStatement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Loads rows into an embedded H2 database by writing them to a temporary CSV file and inserting the result of {@code CSVREAD}.
+ * H2 reads the file itself, so databases accessed over the network fall back to insert statements.
+ */
+public class H2CsvReadBulkLoader extends AbstractBulkLoader {
+
+    @Override
+    public int getPriority(Database database) {
+        if (database instanceof H2Database) {
+            return PRIORITY_DATABASE;
+        }
+        return PRIORITY_NOT_APPLICABLE;
+    }
+
+    @Override
+    public boolean load(BulkLoadDataStatement statement, Database database) throws DatabaseException {
+        Connection connection = getConnection(database);
+        if ((connection == null) || !isEmbedded(database.getConnection().getURL())) {
+            return false;
+        }
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("liquibase-load-data", ".csv");
+            StringJoiner header = new StringJoiner(",");
+            for (int i = 0; i < statement.getColumnNames().size(); i++) {
+                header.add("C" + i);
+            }
+            try (Reader reader = new BulkLoadCsvReader(statement, this::toText, "", false, header.toString());
+                 Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                char[] buffer = new char[8192];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    writer.write(buffer, 0, read);
+                }
+            }
+
+            try (Statement jdbcStatement = connection.createStatement()) {
+                jdbcStatement.execute(generateSql(statement, database, file));
+            }
+        } catch (IOException | SQLException e) {
+            throw toDatabaseException(e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    file.toFile().deleteOnExit();
+                }
+            }
+        }
+        return true;
+    }
+
+    String generateSql(BulkLoadDataStatement statement, Database database, Path file) {
+        return "INSERT INTO " + escapeTableName(statement, database) + " (" + escapeColumnNames(statement, database) + ") "
+                + "SELECT * FROM CSVREAD('" + file.toAbsolutePath().toString().replace("'", "''") + "', NULL, 'charset=UTF-8')";
+    }
+
+    private boolean isEmbedded(String url) {
+        if (url == null) {
+            return false;
+        }
+        String lowerUrl = url.toLowerCase(Locale.US);
+        return lowerUrl.startsWith("jdbc:h2:") && !lowerUrl.startsWith("jdbc:h2:tcp:") && !lowerUrl.startsWith("jdbc:h2:ssl:");
+    }
+}
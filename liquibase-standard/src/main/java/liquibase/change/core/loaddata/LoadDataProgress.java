@@ -0,0 +1,162 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.change.Change;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.jvm.ChangelogJdbcMdcListener;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.NotNullConstraint;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CreateTableStatement;
+import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import liquibase.structure.core.Table;
+import liquibase.util.MD5Util;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records which parts of a data load have been committed, so that a load which failed part way continues with the parts
+ * which are missing instead of starting over.
+ * <p>
+ * Parts are numbered from 0 in the order they are read from the file. Each completed part is a row in the
+ * {@link #getTableName(Database) load progress table} in the Liquibase schema, written in the same transaction as the data
+ * of the part. A load is identified by its changeset, its position in the changeset, the checksum of its data and how
+ * the data is split into parts, so changing any of them starts the load from the beginning.
+ */
+public class LoadDataProgress {
+
+    private final String loadId;
+
+    public LoadDataProgress(String loadId) {
+        this.loadId = loadId;
+    }
+
+    /**
+     * Returns the progress of the given change when its data is split into parts as described by {@code partitioning},
+     * or null if the change does not belong to a changeset.
+     */
+    public static LoadDataProgress forChange(Change change, String partitioning) {
+        ChangeSet changeSet = change.getChangeSet();
+        if (changeSet == null) {
+            return null;
+        }
+        String key = changeSet.getFilePath() + "::" + changeSet.getId() + "::" + changeSet.getAuthor() + "::"
+                + changeSet.getChanges().indexOf(change) + "::" + change.generateCheckSum() + "::" + partitioning;
+        return new LoadDataProgress(MD5Util.computeMD5(key));
+    }
+
+    /**
+     * Returns the name of the load progress table, the DATABASECHANGELOG table name followed by LOAD.
+     */
+    public static String getTableName(Database database) {
+        String changeLogTableName = database.getDatabaseChangeLogTableName();
+        return changeLogTableName + (changeLogTableName.equals(changeLogTableName.toLowerCase()) ? "load" : "LOAD");
+    }
+
+    public String getLoadId() {
+        return loadId;
+    }
+
+    /**
+     * Creates the load progress table if it does not exist yet, and commits.
+     */
+    public static void createTableIfMissing(Database database) throws DatabaseException {
+        if (hasTable(database)) {
+            return;
+        }
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            SqlStatement createTable = new CreateTableStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database))
+                    .setTablespace(database.getLiquibaseTablespaceName())
+                    .addColumn("LOADID", DataTypeFactory.getInstance().fromDescription("varchar(32)", database), null, null, new NotNullConstraint())
+                    .addColumn("PART", DataTypeFactory.getInstance().fromDescription("int", database), null, null, new NotNullConstraint())
+                    .addColumn("ROWSLOADED", DataTypeFactory.getInstance().fromDescription("int", database))
+                    .addColumn("DATELOADED", DataTypeFactory.getInstance().fromDescription("datetime", database));
+            ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(createTable));
+            database.commit();
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Returns true if the load progress table exists.
+     */
+    public static boolean hasTable(Database database) throws DatabaseException {
+        try {
+            return SnapshotGeneratorFactory.getInstance().has(new Table().setName(getTableName(database))
+                    .setSchema(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName()), database);
+        } catch (InvalidExampleException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Returns the numbers of the parts completed so far.
+     */
+    public Set<Integer> getCompletedParts(Database database) throws DatabaseException {
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            SqlStatement select = new RawParameterizedSqlStatement("SELECT " + database.escapeColumnName(null, null, null, "PART") + " FROM " +
+                    database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database)) +
+                    " WHERE " + database.escapeColumnName(null, null, null, "LOADID") + " = ?", loadId);
+            List<Map<String, ?>> rows = ChangelogJdbcMdcListener.query(database, executor -> executor.queryForList(select));
+            Set<Integer> parts = new HashSet<>();
+            for (Map<String, ?> row : rows) {
+                parts.add(((Number) row.get("PART")).intValue());
+            }
+            return parts;
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Records that the given part is loaded. It is not committed, so that it is committed together with the data of the part.
+     */
+    public void partCompleted(Database database, int part, int rowsLoaded) throws DatabaseException {
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            SqlStatement insert = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database))
+                    .addColumnValue("LOADID", loadId)
+                    .addColumnValue("PART", part)
+                    .addColumnValue("ROWSLOADED", rowsLoaded)
+                    .addColumnValue("DATELOADED", new DatabaseFunction(database.getCurrentDateTimeFunction()));
+            ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(insert));
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Removes the record of this load once it is complete. It is not committed, so that it is committed together with the changeset.
+     */
+    public void clear(Database database) throws DatabaseException {
+        if (!hasTable(database)) {
+            return;
+        }
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            SqlStatement delete = new DeleteStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName(database))
+                    .setWhere(database.escapeColumnName(null, null, null, "LOADID") + " = ?")
+                    .addWhereParameter(loadId);
+            ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(delete));
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.LiquibaseTableNames;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.core.DropTableStatement;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Makes the {@link LoadDataProgress} table known as a Liquibase table, so that it is left out of snapshots and dropped with the others.
+ */
+public class LoadDataProgressTableNames implements LiquibaseTableNames {
+
+    @Override
+    public List<String> getLiquibaseGeneratedTableNames(Database database) {
+        return Collections.singletonList(LoadDataProgress.getTableName(database));
+    }
+
+    @Override
+    public void destroy(Database database) throws DatabaseException {
+        if (LoadDataProgress.hasTable(database)) {
+            Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database).execute(
+                    new DropTableStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), LoadDataProgress.getTableName(database), false));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+}
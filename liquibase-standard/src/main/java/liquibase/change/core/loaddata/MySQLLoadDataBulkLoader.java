@@ -0,0 +1,182 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.Scope;
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.BulkLoadDataStatement;
+import liquibase.structure.core.Column;
+import org.apache.commons.io.input.ReaderInputStream;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Loads rows into MySQL and MariaDB with {@code LOAD DATA LOCAL INFILE}, reading the file from a stream set on the statement
+ * of the JDBC driver. Local files must be allowed by the driver, for example with {@code allowLoadLocalInfile=true}, and by the server.
+ * If they are not, the rows are inserted with statements instead.
+ * <p>
+ * With LOCAL, the server skips rows with duplicate keys and stores converted values instead of failing. The load therefore
+ * fails if fewer rows were loaded than were sent or if the server reported warnings, which rolls back the change set.
+ */
+public class MySQLLoadDataBulkLoader extends AbstractBulkLoader {
+
+    private static final List<String> STATEMENT_CLASSES = Arrays.asList(
+            "com.mysql.cj.jdbc.JdbcStatement", "org.mariadb.jdbc.MariaDbStatement", "org.mariadb.jdbc.Statement");
+
+    /**
+     * Error codes for local files disabled by the server, rejected by the client, or disabled by the client.
+     */
+    private static final List<Integer> LOCAL_INFILE_DISABLED_ERRORS = Arrays.asList(1148, 2068, 3948);
+
+    private static final String STREAM_FILE_NAME = "liquibase-load-data.csv";
+
+    @Override
+    public int getPriority(Database database) {
+        if (database instanceof MySQLDatabase) {
+            return PRIORITY_DATABASE;
+        }
+        return PRIORITY_NOT_APPLICABLE;
+    }
+
+    @Override
+    public boolean load(BulkLoadDataStatement statement, Database database) throws DatabaseException {
+        Connection connection = getConnection(database);
+        if (connection == null) {
+            return false;
+        }
+
+        try (Statement jdbcStatement = connection.createStatement();
+             InputStream data = ReaderInputStream.builder()
+                     .setReader(new BulkLoadCsvReader(statement, this::toText, "\\N", true, null))
+                     .setCharset(StandardCharsets.UTF_8)
+                     .get()) {
+            if (!setLocalInfileInputStream(jdbcStatement, data)) {
+                Scope.getCurrentScope().getLog(getClass()).fine("JDBC driver does not support LOAD DATA LOCAL INFILE from a stream");
+                return false;
+            }
+            jdbcStatement.execute(generateSql(statement, database));
+            verifyLoad(statement, jdbcStatement.getUpdateCount(), readWarnings(jdbcStatement));
+        } catch (SQLException e) {
+            if (isLocalInfileDisabled(e)) {
+                Scope.getCurrentScope().getLog(getClass()).fine("LOAD DATA LOCAL INFILE is not allowed: " + e.getMessage());
+                return false;
+            }
+            throw toDatabaseException(e);
+        } catch (Exception e) {
+            throw toDatabaseException(e);
+        }
+        return true;
+    }
+
+    /**
+     * Columns of booleans are read into variables and converted to numbers, because MySQL stores booleans in BIT columns
+     * which would otherwise receive the character code of the text.
+     */
+    String generateSql(BulkLoadDataStatement statement, Database database) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder conversions = new StringBuilder();
+        List<String> columnNames = statement.getColumnNames();
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) {
+                columns.append(", ");
+            }
+            String columnName = database.escapeObjectName(columnNames.get(i), Column.class);
+            if (isBooleanColumn(statement, i)) {
+                columns.append("@v").append(i);
+                conversions.append((conversions.length() == 0) ? " SET " : ", ")
+                        .append(columnName).append(" = CAST(@v").append(i).append(" AS UNSIGNED)");
+            } else {
+                columns.append(columnName);
+            }
+        }
+
+        return "LOAD DATA LOCAL INFILE '" + STREAM_FILE_NAME + "' INTO TABLE " + escapeTableName(statement, database)
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'"
+                + " LINES TERMINATED BY '\\n' (" + columns + ")" + conversions;
+    }
+
+    /**
+     * Fails if the number of loaded rows differs from the number of rows of the statement, or if there are warnings.
+     */
+    void verifyLoad(BulkLoadDataStatement statement, long loadedRows, List<String> warnings) throws DatabaseException {
+        if ((loadedRows == statement.getRows().size()) && warnings.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("LOAD DATA loaded ").append(loadedRows).append(" of ")
+                .append(statement.getRows().size()).append(" rows into ").append(statement.getTableName());
+        for (String warning : warnings) {
+            message.append(System.lineSeparator()).append(warning);
+        }
+        throw new DatabaseException(message.toString());
+    }
+
+    @Override
+    protected String toText(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? "1" : "0";
+        }
+        return super.toText(value);
+    }
+
+    /**
+     * Returns the warnings and errors of the last statement, without notes.
+     */
+    private List<String> readWarnings(Statement jdbcStatement) throws SQLException {
+        List<String> warnings = new ArrayList<>();
+        try (ResultSet resultSet = jdbcStatement.executeQuery("SHOW WARNINGS")) {
+            while (resultSet.next()) {
+                String level = resultSet.getString("Level");
+                if (!"Note".equalsIgnoreCase(level)) {
+                    warnings.add(level + " " + resultSet.getInt("Code") + ": " + resultSet.getString("Message"));
+                }
+            }
+        }
+        return warnings;
+    }
+
+    private boolean isLocalInfileDisabled(SQLException e) {
+        if (LOCAL_INFILE_DISABLED_ERRORS.contains(e.getErrorCode())) {
+            return true;
+        }
+        String message = (e.getMessage() == null) ? "" : e.getMessage().toLowerCase(Locale.US);
+        return message.contains("local data") || message.contains("local infile");
+    }
+
+    private boolean isBooleanColumn(BulkLoadDataStatement statement, int columnIndex) {
+        for (List<LoadDataColumnConfig> row : statement.getRows()) {
+            Object value = statement.getValue(row, columnIndex);
+            if (value != null) {
+                return value instanceof Boolean;
+            }
+        }
+        return false;
+    }
+
+    private boolean setLocalInfileInputStream(Statement jdbcStatement, InputStream data) throws SQLException, ReflectiveOperationException {
+        for (String className : STATEMENT_CLASSES) {
+            Class<?> statementClass = findDriverClass(jdbcStatement, className);
+            if ((statementClass != null) && jdbcStatement.isWrapperFor(statementClass)) {
+                Method method;
+                try {
+                    method = statementClass.getMethod("setLocalInfileInputStream", InputStream.class);
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+                method.invoke(jdbcStatement.unwrap(statementClass), data);
+                return true;
+            }
+        }
+        return false;
+    }
+}
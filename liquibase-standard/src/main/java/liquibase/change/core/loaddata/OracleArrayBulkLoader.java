@@ -0,0 +1,87 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.database.Database;
+import liquibase.database.core.OracleDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.BulkLoadDataStatement;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Loads rows into Oracle with a single insert statement whose parameters are bound for many rows at once.
+ * The Oracle JDBC driver sends each batch as array binds, which the server executes as one array DML call.
+ */
+public class OracleArrayBulkLoader extends AbstractBulkLoader {
+
+    /**
+     * Number of rows sent to the database in one array.
+     */
+    static final int ROWS_PER_ARRAY = 1000;
+
+    @Override
+    public int getPriority(Database database) {
+        if (database instanceof OracleDatabase) {
+            return PRIORITY_DATABASE;
+        }
+        return PRIORITY_NOT_APPLICABLE;
+    }
+
+    @Override
+    public boolean load(BulkLoadDataStatement statement, Database database) throws DatabaseException {
+        Connection connection = getConnection(database);
+        if (connection == null) {
+            return false;
+        }
+
+        int columnCount = statement.getColumnNames().size();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(generateSql(statement, database))) {
+            int rowsInArray = 0;
+            for (List<LoadDataColumnConfig> row : statement.getRows()) {
+                for (int i = 0; i < columnCount; i++) {
+                    setParameter(preparedStatement, i + 1, statement.getValue(row, i));
+                }
+                preparedStatement.addBatch();
+                if (++rowsInArray == ROWS_PER_ARRAY) {
+                    preparedStatement.executeBatch();
+                    rowsInArray = 0;
+                }
+            }
+            if (rowsInArray > 0) {
+                preparedStatement.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw toDatabaseException(e);
+        }
+        return true;
+    }
+
+    String generateSql(BulkLoadDataStatement statement, Database database) {
+        StringBuilder parameters = new StringBuilder();
+        for (int i = 0; i < statement.getColumnNames().size(); i++) {
+            parameters.append((i == 0) ? "?" : ", ?");
+        }
+        return "INSERT INTO " + escapeTableName(statement, database) + " (" + escapeColumnNames(statement, database) + ") VALUES (" + parameters + ")";
+    }
+
+    private void setParameter(PreparedStatement preparedStatement, int index, Object value) throws SQLException {
+        if (value == null) {
+            preparedStatement.setNull(index, Types.VARCHAR);
+        } else if (value instanceof Boolean) {
+            preparedStatement.setInt(index, ((Boolean) value) ? 1 : 0);
+        } else if (value instanceof Timestamp) {
+            preparedStatement.setTimestamp(index, (Timestamp) value);
+        } else if (value instanceof Time) {
+            preparedStatement.setTime(index, (Time) value);
+        } else if (value instanceof java.sql.Date) {
+            preparedStatement.setDate(index, (java.sql.Date) value);
+        } else if (value instanceof java.util.Date) {
+            preparedStatement.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+        } else if (value instanceof Number) {
+            preparedStatement.setObject(index, value);
+        } else {
+            preparedStatement.setString(index, value.toString());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package liquibase.change.core.loaddata;
+
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.core.CockroachDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.BulkLoadDataStatement;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Loads rows into PostgreSQL with {@code COPY ... FROM STDIN} through the {@code CopyManager} of the PostgreSQL JDBC driver.
+ * The driver is accessed through reflection, so other drivers fall back to insert statements.
+ */
+public class PostgresCopyBulkLoader extends AbstractBulkLoader {
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    @Override
+    public int getPriority(Database database) {
+        if ((database instanceof PostgresDatabase) && !(database instanceof CockroachDatabase)) {
+            return PRIORITY_DATABASE;
+        }
+        return PRIORITY_NOT_APPLICABLE;
+    }
+
+    @Override
+    public boolean load(BulkLoadDataStatement statement, Database database) throws DatabaseException {
+        Connection connection = getConnection(database);
+        if (connection == null) {
+            return false;
+        }
+
+        Object copyManager;
+        try {
+            Class<?> pgConnectionClass = findDriverClass(connection, PG_CONNECTION_CLASS);
+            if ((pgConnectionClass == null) || !connection.isWrapperFor(pgConnectionClass)) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Connection is not a PostgreSQL driver connection, not using COPY");
+                return false;
+            }
+            copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnectionClass));
+        } catch (SQLException | ReflectiveOperationException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot use COPY: " + e.getMessage(), e);
+            return false;
+        }
+
+        try (Reader reader = new BulkLoadCsvReader(statement, this::toText, "", false, null)) {
+            copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager, generateSql(statement, database), reader);
+        } catch (Exception e) {
+            throw toDatabaseException(e);
+        }
+        return true;
+    }
+
+    String generateSql(BulkLoadDataStatement statement, Database database) {
+        return "COPY " + escapeTableName(statement, database) + " (" + escapeColumnNames(statement, database) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Bulk loaders used by {@link liquibase.change.core.LoadDataChange} to load rows with the native mechanism of a database,
+ * such as COPY on PostgreSQL, instead of insert statements. Additional loaders can be registered as
+ * {@link liquibase.change.core.loaddata.BulkLoader} services.
+ */
+package liquibase.change.core.loaddata;
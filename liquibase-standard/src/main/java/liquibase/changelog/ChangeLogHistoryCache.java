@@ -0,0 +1,304 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.SingletonObject;
+import liquibase.change.ColumnConfig;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.jvm.ChangelogJdbcMdcListener;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.SelectFromDatabaseChangeLogStatement;
+import liquibase.util.LiquibaseUtil;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.*;
+
+/**
+ * Persists the rows read from the DATABASECHANGELOG table to a local directory so that later runs against the same
+ * database only need to read the rows added since then.
+ * <p>
+ * Entries are keyed by the connection URL, the liquibase catalog and schema and the DATABASECHANGELOG table name.
+ * {@link StandardChangeLogHistoryService} uses the highest ORDEREXECUTED value of the cached rows as a high-water mark,
+ * reads only rows above it and then compares the number of rows and the ORDEREXECUTED, MD5SUM and TAG values of the newest
+ * rows with the table, see {@link #readHistoryMarker(Database)}. This detects rows that were deleted, re-run or added below the
+ * high-water mark and changes to the newest row without reading the whole table. Any mismatch causes a full read.
+ * Updates made through {@link StandardChangeLogHistoryService} that the check cannot detect, such as replacing the checksum or
+ * tag of an older row, remove the cached rows instead.
+ * <p>
+ * Caching is disabled unless {@link GlobalConfiguration#CHANGELOG_HISTORY_CACHE_DIRECTORY} is set.
+ * Any problem reading or writing the cache is logged and treated as a cache miss.
+ */
+public class ChangeLogHistoryCache implements SingletonObject {
+
+    private static final String CACHE_FILE_EXTENSION = ".history";
+
+    private ChangeLogHistoryCache() {
+    }
+
+    /**
+     * Returns true if a cache directory has been configured.
+     */
+    public boolean isEnabled() {
+        return getCacheDirectory() != null;
+    }
+
+    /**
+     * Returns the rows cached for the given database, or null if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, ?>> read(Database database) {
+        Path cacheFile = getCacheFile(database);
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (ObjectInputStream stream = new RestrictedObjectInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            Object value = stream.readObject();
+            if (value instanceof List) {
+                return (List<Map<String, ?>>) value;
+            }
+            Scope.getCurrentScope().getLog(getClass()).fine("Ignoring cached changelog history " + cacheFile + " with unexpected type " + (value == null ? null : value.getClass().getName()));
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read cached changelog history " + cacheFile + ": " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the rows cached for the given database.
+     * Numbers are stored as longs and other values except dates as strings, matching how {@link StandardChangeLogHistoryService#getRanChangeSets()} reads them.
+     */
+    public void write(Database database, List<Map<String, ?>> rows) {
+        Path cacheFile = getCacheFile(database);
+        if (cacheFile == null) {
+            return;
+        }
+        ArrayList<HashMap<String, Object>> cachedRows = new ArrayList<>(rows.size());
+        for (Map<String, ?> row : rows) {
+            HashMap<String, Object> cachedRow = new HashMap<>();
+            for (Map.Entry<String, ?> entry : row.entrySet()) {
+                cachedRow.put(entry.getKey(), toCachedValue(entry.getValue()));
+            }
+            cachedRows.add(cachedRow);
+        }
+
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), "liquibase-", ".tmp");
+            try (ObjectOutputStream stream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                stream.writeObject(cachedRows);
+            }
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot write cached changelog history " + cacheFile + ": " + e.getMessage(), e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    //nothing to clean up
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the rows cached for the given database. Called after DATABASECHANGELOG rows are updated in ways the
+     * check of the newest rows may not detect, such as replacing a checksum or a tag.
+     */
+    public void invalidate(Database database) {
+        Path cacheFile = getCacheFile(database);
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(cacheFile);
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot delete cached changelog history " + cacheFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the number of DATABASECHANGELOG rows and the ORDEREXECUTED, MD5SUM and TAG values of the rows with the highest
+     * ORDEREXECUTED, and returns them hashed like {@link #computeHistoryMarker(List)} does for rows already read.
+     * Only the newest rows are transferred, so a changed checksum or tag of an older row is not noticed.
+     */
+    static String readHistoryMarker(Database database) throws DatabaseException {
+        SqlStatement countStatement = new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("COUNT(*)", true));
+        int rowCount = ChangelogJdbcMdcListener.query(database, executor -> executor.queryForInt(countStatement));
+        SqlStatement newestStatement = new SelectFromDatabaseChangeLogStatement(new SelectFromDatabaseChangeLogStatement.ByMaxOrderExecuted(),
+                new ColumnConfig().setName("ORDEREXECUTED"), new ColumnConfig().setName("MD5SUM"), new ColumnConfig().setName("TAG"));
+        List<Map<String, ?>> newestRows = ChangelogJdbcMdcListener.query(database, executor -> executor.queryForList(newestStatement));
+        return computeHistoryMarker(rowCount, newestRows);
+    }
+
+    /**
+     * Returns a hash of the number of rows and the ORDEREXECUTED, MD5SUM and TAG values of the rows with the highest
+     * ORDEREXECUTED, independent of the order of the rows and of the types the values are read as.
+     */
+    static String computeHistoryMarker(List<Map<String, ?>> rows) {
+        Long maxOrderExecuted = null;
+        for (Map<String, ?> row : rows) {
+            Long orderExecuted = toOrderExecuted(row.get("ORDEREXECUTED"));
+            if (orderExecuted != null && (maxOrderExecuted == null || orderExecuted > maxOrderExecuted)) {
+                maxOrderExecuted = orderExecuted;
+            }
+        }
+        List<Map<String, ?>> newestRows = new ArrayList<>();
+        if (maxOrderExecuted != null) {
+            for (Map<String, ?> row : rows) {
+                if (maxOrderExecuted.equals(toOrderExecuted(row.get("ORDEREXECUTED")))) {
+                    newestRows.add(row);
+                }
+            }
+        }
+        return computeHistoryMarker(rows.size(), newestRows);
+    }
+
+    private static String computeHistoryMarker(int rowCount, List<Map<String, ?>> newestRows) {
+        List<String> values = new ArrayList<>(newestRows.size() + 1);
+        for (Map<String, ?> row : newestRows) {
+            values.add(toOrderExecuted(row.get("ORDEREXECUTED")) + "\0" + toHashValue(row.get("MD5SUM")) + "\0" + toHashValue(row.get("TAG")));
+        }
+        Collections.sort(values);
+        values.add(0, String.valueOf(rowCount));
+        return computeHash(values);
+    }
+
+    private static String toHashValue(Object value) {
+        if (value == null) {
+            return "\1";
+        }
+        return value.toString();
+    }
+
+    /**
+     * Sorts rows by DATEEXECUTED and ORDEREXECUTED, the order in which {@link StandardChangeLogHistoryService} reads them from the table.
+     */
+    static void sortByExecution(List<Map<String, ?>> rows) {
+        rows.sort(Comparator.<Map<String, ?>, Long>comparing(row -> toMillis(row.get("DATEEXECUTED")), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(row -> toOrderExecuted(row.get("ORDEREXECUTED")), Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
+
+    private static Long toMillis(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant().toEpochMilli();
+        }
+        if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant().toEpochMilli();
+        }
+        if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        return null;
+    }
+
+    private static Long toOrderExecuted(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString()).longValue();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Object toCachedValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        if (value instanceof Temporal && value instanceof Serializable) {
+            return value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value.toString();
+    }
+
+    private Path getCacheFile(Database database) {
+        Path cacheDirectory = getCacheDirectory();
+        if (cacheDirectory == null || database.getConnection() == null) {
+            return null;
+        }
+        return cacheDirectory.resolve(computeKey(database) + CACHE_FILE_EXTENSION);
+    }
+
+    private Path getCacheDirectory() {
+        String directory = GlobalConfiguration.CHANGELOG_HISTORY_CACHE_DIRECTORY.getCurrentValue();
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        return Paths.get(directory.trim());
+    }
+
+    static String computeKey(Database database) {
+        return computeHash(Arrays.asList(LiquibaseUtil.getBuildVersion(), database.getConnection().getURL(),
+                database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName()));
+    }
+
+    private static String computeHash(List<String> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Only allows the plain JDK value types written by {@link #write(Database, List)} to be deserialized from the cache directory.
+     */
+    private static class RestrictedObjectInputStream extends ObjectInputStream {
+
+        RestrictedObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            if (!(name.startsWith("java.lang.")
+                    || name.startsWith("java.util.")
+                    || name.startsWith("java.time.")
+                    || name.startsWith("["))) {
+                throw new InvalidClassException(name, "Class is not allowed in the changelog history cache");
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
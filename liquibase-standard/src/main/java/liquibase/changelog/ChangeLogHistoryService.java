@@ -44,6 +44,14 @@ public interface ChangeLogHistoryService extends Plugin {
         return this.getRanChangeSets();
     }
 
+    /**
+     * Returns an indexed view of {@link #getRanChangeSets()} for constant-time lookups by changeset or tag.
+     * Implementations that keep the ran changesets in memory should cache the index until that list changes.
+     */
+    default RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        return new RanChangeSetIndex(getRanChangeSets());
+    }
+
     RanChangeSet getRanChangeSet(ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException;
 
     ChangeSet.RunStatus getRunStatus(ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException;
@@ -55,6 +63,21 @@ public interface ChangeLogHistoryService extends Plugin {
 
     void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException;
 
+    /**
+     * Records the exec type like {@link #setExecType(ChangeSet, ChangeSet.ExecType)}, but implementations may hold the row back
+     * and write it together with rows queued later. Queued rows are visible through {@link #getRanChangeSets()} right away
+     * and are written no later than the next call to {@link #flushExecTypes()}.
+     */
+    default void queueExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        setExecType(changeSet, execType);
+    }
+
+    /**
+     * Writes and commits any rows held back by {@link #queueExecType(ChangeSet, ChangeSet.ExecType)}.
+     */
+    default void flushExecTypes() throws DatabaseException {
+    }
+
     void removeFromHistory(ChangeSet changeSet) throws DatabaseException;
 
     int getNextSequenceValue() throws LiquibaseException;
@@ -150,14 +150,40 @@ public class ChangeLogIterator {
                         }
                     });
                 }
+                if (hasQueuedExecTypes(env)) {
+                    Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(env.getTargetDatabase()).flushExecTypes();
+                }
             });
         } catch (Exception e) {
+            flushExecTypes(env, e);
             throw new LiquibaseException(e);
         } finally {
             databaseChangeLog.setRuntimeEnvironment(null);
         }
     }
 
+    /**
+     * Returns true if visitors may have queued history rows with {@link ChangeLogHistoryService#queueExecType(ChangeSet, ChangeSet.ExecType)}.
+     */
+    private boolean hasQueuedExecTypes(RuntimeEnvironment env) {
+        Integer batchSize = GlobalConfiguration.CHANGELOG_HISTORY_BATCH_SIZE.getCurrentValue();
+        return (env.getTargetDatabase() != null) && (batchSize != null) && (batchSize > 1);
+    }
+
+    /**
+     * Writes history rows queued by visitors before the iteration failed, adding any failure to do so to the original exception.
+     */
+    private void flushExecTypes(RuntimeEnvironment env, Exception cause) {
+        if (!hasQueuedExecTypes(env)) {
+            return;
+        }
+        try {
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(env.getTargetDatabase()).flushExecTypes();
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+        }
+    }
+
     /**
      *
      * Make sure that any changeset which has a runWith=<executor> setting
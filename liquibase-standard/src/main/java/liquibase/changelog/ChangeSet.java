@@ -58,6 +58,13 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      */
     private CheckSum storedCheckSum;
 
+    /**
+     * Digest of the expanded definition this changeset was loaded from, used to validate {@link ChecksumManifest} entries.
+     * Only recorded when a manifest is in use, otherwise null.
+     */
+    @Getter
+    private String sourceDigest;
+
     private static final String AND = " AND ";
     private static final String COMMA = ",";
     private static final String WHITESPACE = " ";
@@ -385,6 +392,14 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         try {
             return Scope.child(Collections.singletonMap(Scope.Attr.checksumVersion.name(), version), () -> {
                 if (checkSum == null) {
+                    ChecksumManifest manifest = ChecksumManifest.getConfigured();
+                    if (manifest != null) {
+                        checkSum = manifest.get(this, version, Scope.getCurrentScope().getDatabase());
+                        if (checkSum != null) {
+                            return checkSum;
+                        }
+                    }
+
                     StringBuilder stringToMD5 = new StringBuilder();
                     for (Change change : this.getChanges()) {
                         // checksum v8 requires changes that are applied even to other databases to be calculated
@@ -411,6 +426,9 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
     @Override
     public void load(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
+        if (ChecksumManifest.isSourceDigestRequired()) {
+            this.sourceDigest = ChecksumManifest.computeSourceDigest(node);
+        }
         this.id = node.getChildValue(null, "id", String.class);
         this.author = node.getChildValue(null, "author", String.class);
         this.alwaysRun = node.getChildValue(null, "runAlways", node.getChildValue(null, "alwaysRun", false));
@@ -1617,6 +1635,10 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         if (! change.supports(database)) {
             return null;
         }
+        if (!generateRollbackStatements && (change instanceof StreamingChange) && ((StreamingChange) change).generateStatementsInParts(database)) {
+            // generating everything up front is what streaming avoids
+            return null;
+        }
         AtomicReference<SqlStatement[]> statementsReference = new AtomicReference<>();
         Map<String, Object> scopeValues = new HashMap<>();
         scopeValues.put(Change.SHOULD_EXECUTE, Boolean.FALSE);
@@ -0,0 +1,189 @@
+package liquibase.changelog;
+
+import liquibase.ChecksumVersion;
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.*;
+import liquibase.change.core.LoadDataChange;
+import liquibase.change.core.SQLFileChange;
+import liquibase.change.custom.CustomChangeWrapper;
+import liquibase.database.Database;
+import liquibase.parser.core.ParsedNode;
+import liquibase.resource.Resource;
+import liquibase.util.MD5Util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A precomputed set of changeset checksums, generated with {@code calculate-checksum --all} and shipped next to the changelog.
+ * When {@link GlobalConfiguration#CHECKSUM_MANIFEST_FILE} is set, {@link ChangeSet#generateCheckSum(ChecksumVersion)} takes
+ * checksums from the manifest instead of serializing every change again.
+ * <p>
+ * Each entry is keyed by changeset identity, checksum version and database type, and stores a digest of the changeset's
+ * expanded definition next to the checksum. An entry is only used while that digest still matches the loaded changeset, so an
+ * outdated manifest falls back to the regular calculation rather than returning a wrong checksum.
+ * Changesets with changes that read other files (loadData, sqlFile, a path on createView, ...) are never added,
+ * because the digest cannot cover the contents of those files.
+ */
+public class ChecksumManifest {
+
+    /**
+     * Set to true in the scope while changelogs are parsed to generate a manifest, so source digests are recorded even if no manifest is configured.
+     */
+    public static final String GENERATING_MANIFEST_SCOPE_KEY = "liquibase.generatingChecksumManifest";
+
+    private static final String ENTRY_SEPARATOR = " ";
+    private static final Map<String, ChecksumManifest> CONFIGURED_MANIFESTS = new ConcurrentHashMap<>();
+
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the manifest configured with {@link GlobalConfiguration#CHECKSUM_MANIFEST_FILE}, or null if none is configured.
+     * A manifest that cannot be read is logged and treated as empty.
+     */
+    public static ChecksumManifest getConfigured() {
+        String path = GlobalConfiguration.CHECKSUM_MANIFEST_FILE.getCurrentValue();
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        return CONFIGURED_MANIFESTS.computeIfAbsent(path.trim(), manifestPath -> {
+            ChecksumManifest manifest = new ChecksumManifest();
+            try {
+                Resource resource = Scope.getCurrentScope().getResourceAccessor().get(manifestPath);
+                if (resource.exists()) {
+                    try (InputStream stream = resource.openInputStream()) {
+                        manifest.load(stream);
+                    }
+                } else {
+                    Scope.getCurrentScope().getLog(ChecksumManifest.class).warning("Checksum manifest " + manifestPath + " does not exist, checksums will be calculated");
+                }
+            } catch (IOException e) {
+                Scope.getCurrentScope().getLog(ChecksumManifest.class).warning("Cannot read checksum manifest " + manifestPath + ", checksums will be calculated: " + e.getMessage(), e);
+            }
+            return manifest;
+        });
+    }
+
+    /**
+     * Forgets any manifests loaded by {@link #getConfigured()}.
+     */
+    public static void reset() {
+        CONFIGURED_MANIFESTS.clear();
+    }
+
+    /**
+     * Returns true if changesets need to record their {@link ChangeSet#getSourceDigest()} while they are loaded.
+     */
+    static boolean isSourceDigestRequired() {
+        return GlobalConfiguration.CHECKSUM_MANIFEST_FILE.getCurrentValue() != null
+                || Scope.getCurrentScope().get(GENERATING_MANIFEST_SCOPE_KEY, false);
+    }
+
+    /**
+     * Computes a digest of a changeset definition after changelog parameters have been expanded.
+     */
+    static String computeSourceDigest(ParsedNode node) {
+        StringBuilder builder = new StringBuilder();
+        appendNode(builder, node);
+        return MD5Util.computeMD5(builder.toString());
+    }
+
+    private static void appendNode(StringBuilder builder, ParsedNode node) {
+        builder.append(node.getName()).append('=');
+        Object value = node.getValue();
+        if (value != null) {
+            String valueString = value.toString();
+            builder.append(valueString.length()).append(':').append(valueString);
+        }
+        builder.append('{');
+        for (ParsedNode child : node.getChildren()) {
+            appendNode(builder, child);
+        }
+        builder.append('}');
+    }
+
+    public void load(InputStream stream) throws IOException {
+        Properties properties = new Properties();
+        properties.load(stream);
+        for (String key : properties.stringPropertyNames()) {
+            entries.put(key, properties.getProperty(key));
+        }
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        Properties properties = new Properties() {
+            @Override
+            public synchronized Enumeration<Object> keys() {
+                return Collections.enumeration(new TreeSet<>(super.keySet()));
+            }
+        };
+        properties.putAll(entries);
+        properties.store(stream, "Liquibase checksum manifest");
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the checksum stored for the given changeset, or null if there is no entry or the changeset definition has changed since the entry was added.
+     */
+    public CheckSum get(ChangeSet changeSet, ChecksumVersion version, Database database) {
+        if (changeSet.getSourceDigest() == null || entries.isEmpty()) {
+            return null;
+        }
+        String entry = entries.get(getKey(changeSet, version, database));
+        if (entry == null) {
+            return null;
+        }
+        int separator = entry.indexOf(ENTRY_SEPARATOR);
+        if (separator < 0 || !entry.substring(0, separator).equals(changeSet.getSourceDigest())) {
+            return null;
+        }
+        return CheckSum.parse(entry.substring(separator + 1));
+    }
+
+    /**
+     * Adds the checksum for the given changeset.
+     *
+     * @return false if the changeset cannot be added because its definition is unknown or it reads other files
+     */
+    public boolean put(ChangeSet changeSet, ChecksumVersion version, Database database, CheckSum checkSum) {
+        if (changeSet.getSourceDigest() == null || readsOtherFiles(changeSet)) {
+            return false;
+        }
+        entries.put(getKey(changeSet, version, database), changeSet.getSourceDigest() + ENTRY_SEPARATOR + checkSum.toString());
+        return true;
+    }
+
+    private String getKey(ChangeSet changeSet, ChecksumVersion version, Database database) {
+        return version.getVersion() + "::" + (database == null ? "none" : database.getShortName()) + "::" + changeSet.getFilePath() + "::" + changeSet.getId() + "::" + changeSet.getAuthor();
+    }
+
+    private boolean readsOtherFiles(ChangeSet changeSet) {
+        ChangeFactory changeFactory = Scope.getCurrentScope().getSingleton(ChangeFactory.class);
+        for (Change change : changeSet.getChanges()) {
+            if (change instanceof LoadDataChange || change instanceof SQLFileChange || change instanceof CustomChangeWrapper) {
+                return true;
+            }
+            for (ChangeParameterMetaData parameter : changeFactory.getChangeMetaData(change).getParameters().values()) {
+                if (("path".equals(parameter.getParameterName()) || "file".equals(parameter.getParameterName()))
+                        && parameter.getCurrentValue(change) != null) {
+                    return true;
+                }
+            }
+            if (change instanceof ChangeWithColumns) {
+                for (ColumnConfig column : ((ChangeWithColumns<?>) change).getColumns()) {
+                    if (column.getValueBlobFile() != null || column.getValueClobFile() != null) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -23,6 +23,7 @@ import liquibase.logging.mdc.customobjects.MdcChangeset;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserConfiguration;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.ParsedChangeLogCache;
 import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
 import liquibase.parser.core.json.JsonChangeLogParser;
@@ -34,6 +35,7 @@ import liquibase.precondition.core.PreconditionContainer;
 import liquibase.resource.Resource;
 import liquibase.resource.ResourceAccessor;
 import liquibase.servicelocator.LiquibaseService;
+import liquibase.util.ConcurrencyUtil;
 import liquibase.util.ExceptionUtil;
 import liquibase.util.FileUtil;
 import liquibase.util.StringUtil;
@@ -46,6 +48,8 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -445,6 +449,24 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         if (nodeObjectQuotingStrategy != null) {
             setObjectQuotingStrategy(ObjectQuotingStrategy.valueOf(nodeObjectQuotingStrategy));
         }
+        List<String> includePaths = getIncludePathsToPrefetch(parsedNode, resourceAccessor);
+        if (includePaths.isEmpty()) {
+            loadChildNodes(parsedNode, resourceAccessor);
+        } else {
+            try {
+                Scope.child(Collections.singletonMap(ParsedChangeLogCache.PREFETCHED_SCOPE_KEY, new ConcurrentHashMap<>()), () -> {
+                    prefetchIncludes(includePaths, resourceAccessor);
+                    loadChildNodes(parsedNode, resourceAccessor);
+                });
+            } catch (ParsedNodeException | SetupException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SetupException(e);
+            }
+        }
+    }
+
+    private void loadChildNodes(ParsedNode parsedNode, ResourceAccessor resourceAccessor) throws ParsedNodeException, SetupException {
         for (ParsedNode childNode : parsedNode.getChildren()) {
             if (childNode.getName().equals((new ChangeSet(null)).getSerializedObjectName())) {
                 this.currentlyLoadedChangeSetNode = childNode;
@@ -454,6 +476,60 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         this.currentlyLoadedChangeSetNode = null;
     }
 
+    /**
+     * Returns the normalized paths of the files directly included by the given changelog node which can be read ahead of time,
+     * or an empty list if {@link ChangeLogParserConfiguration#CHANGELOG_PARSE_THREADS} does not allow concurrent parsing.
+     * Paths that use changelog properties are skipped because they can only be resolved while the changelog is loaded.
+     */
+    private List<String> getIncludePathsToPrefetch(ParsedNode parsedNode, ResourceAccessor resourceAccessor) throws ParsedNodeException {
+        if (ChangeLogParserConfiguration.CHANGELOG_PARSE_THREADS.getCurrentValue() < 2) {
+            return Collections.emptyList();
+        }
+        List<String> paths = new ArrayList<>();
+        for (ParsedNode childNode : parsedNode.getChildren(null, INCLUDE)) {
+            String path = childNode.getChildValue(null, FILE, String.class);
+            if (path == null || path.contains("${")) {
+                continue;
+            }
+            path = path.replace('\\', '/');
+            if (childNode.getChildValue(null, RELATIVE_TO_CHANGELOG_FILE, false)) {
+                try {
+                    path = resourceAccessor.get(this.getPhysicalFilePath()).resolveSibling(path).getPath();
+                    path = normalizePath(normalizePathViaPaths(path, false));
+                } catch (IOException e) {
+                    continue;
+                }
+            }
+            paths.add(path);
+        }
+        return paths.size() < 2 ? Collections.emptyList() : paths;
+    }
+
+    /**
+     * Reads the given included files on up to {@link ChangeLogParserConfiguration#CHANGELOG_PARSE_THREADS} threads so that the
+     * following include() calls can use the results. Files are still added to this changelog one at a time and in their original
+     * order, so changelog property scoping and duplicate changeset handling are the same as for sequential parsing.
+     * Problems are only logged here; include() reads the file again and reports them with full context.
+     */
+    private void prefetchIncludes(List<String> paths, ResourceAccessor resourceAccessor) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String path : paths) {
+            tasks.add(() -> {
+                try {
+                    ChangeLogParserFactory.getInstance().getParser(path, resourceAccessor).prefetch(path, resourceAccessor);
+                } catch (Exception e) {
+                    LOG.fine("Cannot read " + path + " ahead of time: " + e.getMessage(), e);
+                }
+                return null;
+            });
+        }
+        try {
+            ConcurrencyUtil.runAll(tasks, ChangeLogParserConfiguration.CHANGELOG_PARSE_THREADS.getCurrentValue());
+        } catch (Exception e) {
+            LOG.fine("Cannot read included changelogs ahead of time: " + e.getMessage(), e);
+        }
+    }
+
     protected void expandExpressions(ParsedNode parsedNode) throws UnknownChangeLogParameterException {
         if (changeLogParameters == null) {
             return;
@@ -826,7 +902,16 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         }
         try {
             Set<String> seenChangelogPaths = Scope.getCurrentScope().get(SEEN_CHANGELOGS_PATHS_SCOPE_KEY, new HashSet<>());
-            Scope.child(Collections.singletonMap(SEEN_CHANGELOGS_PATHS_SCOPE_KEY, seenChangelogPaths), () -> {
+            Map<String, Object> scopeValues = new HashMap<>();
+            scopeValues.put(SEEN_CHANGELOGS_PATHS_SCOPE_KEY, seenChangelogPaths);
+            boolean prefetch = ChangeLogParserConfiguration.CHANGELOG_PARSE_THREADS.getCurrentValue() > 1 && resources.size() > 1;
+            if (prefetch) {
+                scopeValues.put(ParsedChangeLogCache.PREFETCHED_SCOPE_KEY, new ConcurrentHashMap<>());
+            }
+            Scope.child(scopeValues, () -> {
+                if (prefetch) {
+                    prefetchIncludes(resources.stream().map(Resource::getPath).collect(Collectors.toList()), resourceAccessor);
+                }
                 for (Resource resource : resources) {
                     Scope.getCurrentScope().getLog(getClass()).info("Reading resource: " + resource);
                     include(resource.getPath(), false, errorIfMissingOrEmpty, resourceAccessor, includeContextFilter,
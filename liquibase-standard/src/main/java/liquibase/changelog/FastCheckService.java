@@ -4,10 +4,23 @@ import liquibase.*;
 import liquibase.changelog.filter.*;
 import liquibase.changelog.visitor.ListVisitor;
 import liquibase.database.Database;
+import liquibase.database.ObjectQuotingStrategy;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.ChangelogJdbcMdcListener;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import liquibase.statement.core.UpdateStatement;
+import liquibase.util.LiquibaseUtil;
 import org.apache.commons.lang3.BooleanUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -16,9 +29,17 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service to perform a fast check of the historyService to determine if there is no unrun changesets without obtaining an exclusive write lock.
+ * <p>
+ * If {@link GlobalConfiguration#PERSIST_DEPLOYMENT_FINGERPRINT} is set, the result is also shared with other processes through a
+ * deployment fingerprint stored in the DATABASECHANGELOGLOCK table, see {@link #saveDeploymentFingerprint(List, Database, DatabaseChangeLog, Contexts, LabelExpression)}.
  */
 public class FastCheckService implements SingletonObject {
 
+    /**
+     * ID of the DATABASECHANGELOGLOCK row holding the deployment fingerprint in its LOCKEDBY column. The lock itself is row 1.
+     */
+    public static final int DEPLOYMENT_FINGERPRINT_ID = 2;
+
     private FastCheckService() {
     }
 
@@ -37,6 +58,12 @@ public class FastCheckService implements SingletonObject {
     public boolean isUpToDateFastCheck(List<ChangeSetFilter> changesetFilters, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labelExpression) throws LiquibaseException {
         String cacheKey = String.format("%s/%s/%s/%s/%s/%s", contexts, labelExpression, database.getDefaultSchemaName(), database.getDefaultCatalogName(), database.getConnection().getURL(), databaseChangeLog.getLogicalFilePath());
         if (!upToDateFastCheck.containsKey(cacheKey) || BooleanUtils.isFalse(upToDateFastCheck.get(cacheKey))) {
+            if (GlobalConfiguration.PERSIST_DEPLOYMENT_FINGERPRINT.getCurrentValue()
+                    && matchesDeploymentFingerprint(changesetFilters, database, databaseChangeLog, contexts, labelExpression)) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Fast check found a matching deployment fingerprint");
+                upToDateFastCheck.put(cacheKey, true);
+                return true;
+            }
             ChangeLogHistoryService changeLogService = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database);
             try {
                 if (changeLogService.isDatabaseChecksumsCompatible() && listUnrunChangeSets(changesetFilters, database, databaseChangeLog, contexts, labelExpression).isEmpty()) {
@@ -68,8 +95,12 @@ public class FastCheckService implements SingletonObject {
      * @throws LiquibaseException if there was a problem building our ChangeLogIterator or checking the database
      */
     private List<ChangeSet> listUnrunChangeSets(List<ChangeSetFilter> changesetFilters, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labels) throws LiquibaseException {
-        ListVisitor visitor = new ListVisitor();
         databaseChangeLog.validate(database, contexts, labels);
+        return listUnrunChangeSetsWithoutValidation(changesetFilters, database, databaseChangeLog, contexts, labels);
+    }
+
+    private List<ChangeSet> listUnrunChangeSetsWithoutValidation(List<ChangeSetFilter> changesetFilters, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labels) throws LiquibaseException {
+        ListVisitor visitor = new ListVisitor();
         if (changesetFilters == null) {
             changesetFilters = getStandardChangelogIteratorFilters(database, contexts, labels);
         }
@@ -86,6 +117,131 @@ public class FastCheckService implements SingletonObject {
                 new IgnoreChangeSetFilter()));
     }
 
+    /**
+     * Stores the deployment fingerprint of the given changelog, contexts and labels in the DATABASECHANGELOGLOCK table, so that
+     * {@link #isUpToDateFastCheck(List, Database, DatabaseChangeLog, Contexts, LabelExpression)} in any process can tell the
+     * database is up to date from a single query. Must be called while holding the changelog lock, after a successful update.
+     * <p>
+     * Does nothing unless {@link GlobalConfiguration#PERSIST_DEPLOYMENT_FINGERPRINT} is set, statements are only being logged,
+     * or changesets are still left to run, e.g. because they run always or were skipped by a precondition.
+     */
+    public void saveDeploymentFingerprint(List<ChangeSetFilter> changesetFilters, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labelExpression) throws LiquibaseException {
+        if (!GlobalConfiguration.PERSIST_DEPLOYMENT_FINGERPRINT.getCurrentValue()) {
+            return;
+        }
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        if (!executor.updatesDatabase()) {
+            return;
+        }
+        if (changesetFilters == null) {
+            changesetFilters = getStandardChangelogIteratorFilters(database, contexts, labelExpression);
+        }
+        String fingerprint = computeDeploymentFingerprint(changesetFilters, database, databaseChangeLog, contexts, labelExpression);
+        if (!listUnrunChangeSetsWithoutValidation(new ArrayList<>(changesetFilters), database, databaseChangeLog, contexts, labelExpression).isEmpty()) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Not saving deployment fingerprint, there are changesets left to run");
+            return;
+        }
+
+        // use LEGACY quoting since we're dealing with system objects
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            String value = fingerprint + ":" + ChangeLogHistoryCache.readHistoryMarker(database);
+
+            SqlStatement updateStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogLockTableName())
+                    .addNewColumnValue("LOCKEDBY", value)
+                    .addNewColumnValue("LOCKGRANTED", new DatabaseFunction(database.getCurrentDateTimeFunction()))
+                    .setWhereClause(database.escapeColumnName(null, null, null, "ID") + " = " + DEPLOYMENT_FINGERPRINT_ID);
+            int rowsUpdated = ChangelogJdbcMdcListener.query(database, ex -> ex.update(updateStatement));
+            if (rowsUpdated == 0) {
+                SqlStatement insertStatement = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogLockTableName())
+                        .addColumnValue("ID", DEPLOYMENT_FINGERPRINT_ID)
+                        .addColumnValue("LOCKED", Boolean.FALSE)
+                        .addColumnValue("LOCKGRANTED", new DatabaseFunction(database.getCurrentDateTimeFunction()))
+                        .addColumnValue("LOCKEDBY", value);
+                ChangelogJdbcMdcListener.execute(database, ex -> ex.execute(insertStatement));
+            }
+            database.commit();
+            upToDateFastCheck.clear();
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).info("Could not save deployment fingerprint: " + e.getMessage());
+            database.rollback();
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Returns true if the deployment fingerprint stored by {@link #saveDeploymentFingerprint(List, Database, DatabaseChangeLog, Contexts, LabelExpression)}
+     * matches the given changelog, contexts and labels, and the DATABASECHANGELOG table still has the number of rows and the
+     * newest rows it had when the fingerprint was saved. Returns false if there is no fingerprint or it cannot be read.
+     */
+    boolean matchesDeploymentFingerprint(List<ChangeSetFilter> changesetFilters, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labelExpression) {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        if (!executor.updatesDatabase()) {
+            return false;
+        }
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            SqlStatement statement = new RawParameterizedSqlStatement("SELECT " + database.escapeColumnName(null, null, null, "LOCKEDBY") + " FROM " +
+                    database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogLockTableName()) +
+                    " WHERE " + database.escapeColumnName(null, null, null, "ID") + " = " + DEPLOYMENT_FINGERPRINT_ID);
+            List<Map<String, ?>> rows = ChangelogJdbcMdcListener.query(database, ex -> ex.queryForList(statement));
+            if (rows.isEmpty() || (rows.get(0).get("LOCKEDBY") == null)) {
+                return false;
+            }
+            if (changesetFilters == null) {
+                changesetFilters = getStandardChangelogIteratorFilters(database, contexts, labelExpression);
+            }
+            String expectedValue = computeDeploymentFingerprint(changesetFilters, database, databaseChangeLog, contexts, labelExpression)
+                    + ":" + ChangeLogHistoryCache.readHistoryMarker(database);
+            return expectedValue.equals(rows.get(0).get("LOCKEDBY").toString());
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read deployment fingerprint: " + e.getMessage());
+            try {
+                database.rollback();
+            } catch (DatabaseException rollbackException) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Failed to rollback", rollbackException);
+            }
+            return false;
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Hashes everything that decides which changesets of the changelog should be deployed: the identities, checksums and
+     * attributes of all changesets, the contexts, labels and filters and the Liquibase version.
+     */
+    String computeDeploymentFingerprint(List<ChangeSetFilter> changesetFilters, Database database, DatabaseChangeLog databaseChangeLog, Contexts contexts, LabelExpression labelExpression) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            List<Object> parts = new ArrayList<>(Arrays.asList(LiquibaseUtil.getBuildVersion(), contexts, labelExpression,
+                    database.getDefaultCatalogName(), database.getDefaultSchemaName()));
+            for (ChangeSetFilter filter : changesetFilters) {
+                parts.add(filter.getClass().getName());
+            }
+            for (ChangeSet changeSet : databaseChangeLog.getChangeSets()) {
+                parts.addAll(Arrays.asList(DatabaseChangeLog.normalizePath(changeSet.getFilePath()), changeSet.getId(), changeSet.getAuthor(),
+                        changeSet.generateCheckSum(ChecksumVersion.latest()), changeSet.getContextFilter(), changeSet.getLabels(),
+                        changeSet.getDbmsSet(), changeSet.isAlwaysRun(), changeSet.isRunOnChange(), changeSet.isIgnore()));
+            }
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte b : digest.digest()) {
+                fingerprint.append(String.format("%02x", b));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Clear fastCheck cache
      */
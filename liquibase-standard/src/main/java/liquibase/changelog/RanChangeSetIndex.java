@@ -0,0 +1,80 @@
+package liquibase.changelog;
+
+import java.util.*;
+
+/**
+ * Hash-indexed, read-only view of a list of {@link RanChangeSet}s, so filters and visitors can find the ran changeset for a
+ * {@link ChangeSet} without scanning the whole list.
+ * <p>
+ * Lookups match the same entries as {@link RanChangeSet#isSameAs(ChangeSet)}: id, author and normalized path compared case-insensitively.
+ * When several entries match, they are returned in the order of the original list, which is the order they were executed in.
+ * The index does not follow later changes to the list it was created from.
+ */
+public class RanChangeSetIndex {
+
+    private final List<RanChangeSet> ranChangeSets;
+    private final Map<String, List<RanChangeSet>> byIdentity;
+    private final Map<String, List<RanChangeSet>> byTag;
+
+    public RanChangeSetIndex(List<RanChangeSet> ranChangeSets) {
+        this.ranChangeSets = Collections.unmodifiableList(new ArrayList<>(ranChangeSets));
+        this.byIdentity = new HashMap<>(ranChangeSets.size() * 2);
+        this.byTag = new HashMap<>();
+        for (RanChangeSet ranChangeSet : this.ranChangeSets) {
+            byIdentity.computeIfAbsent(getKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor()), key -> new ArrayList<>(1))
+                    .add(ranChangeSet);
+            if (ranChangeSet.getTag() != null) {
+                byTag.computeIfAbsent(ranChangeSet.getTag().toLowerCase(Locale.US), key -> new ArrayList<>(1)).add(ranChangeSet);
+            }
+        }
+    }
+
+    /**
+     * Returns the first ran changeset matching the given changeset, or null if it has not been run.
+     */
+    public RanChangeSet get(ChangeSet changeSet) {
+        List<RanChangeSet> matches = getAll(changeSet);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Returns all ran changesets matching the given changeset in execution order. Normally there is at most one.
+     */
+    public List<RanChangeSet> getAll(ChangeSet changeSet) {
+        if (changeSet.getFilePath() == null) {
+            return Collections.emptyList();
+        }
+        List<RanChangeSet> matches = byIdentity.get(getKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+        return (matches == null) ? Collections.emptyList() : Collections.unmodifiableList(matches);
+    }
+
+    public boolean contains(ChangeSet changeSet) {
+        return get(changeSet) != null;
+    }
+
+    /**
+     * Returns the ran changesets with the given tag, compared case-insensitively, in execution order.
+     */
+    public List<RanChangeSet> getByTag(String tag) {
+        if (tag == null) {
+            return Collections.emptyList();
+        }
+        List<RanChangeSet> matches = byTag.get(tag.toLowerCase(Locale.US));
+        return (matches == null) ? Collections.emptyList() : Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * Returns all ran changesets in execution order.
+     */
+    public List<RanChangeSet> getRanChangeSets() {
+        return ranChangeSets;
+    }
+
+    public int size() {
+        return ranChangeSets.size();
+    }
+
+    private static String getKey(String filePath, String id, String author) {
+        return (DatabaseChangeLog.normalizePath(filePath) + "::" + id + "::" + author).toLowerCase(Locale.US);
+    }
+}
@@ -5,8 +5,11 @@ import liquibase.change.Change;
 import liquibase.change.CheckSum;
 import liquibase.change.ColumnConfig;
 import liquibase.database.Database;
+import liquibase.database.ObjectQuotingStrategy;
 import liquibase.database.core.DB2Database;
 import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
 import liquibase.database.core.SQLiteDatabase;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.ChangeGeneratorFactory;
@@ -16,11 +19,14 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
 import liquibase.executor.jvm.ChangelogJdbcMdcListener;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sqlgenerator.SqlGenerator;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.MarkChangeSetRanGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.DatabaseObject;
@@ -38,10 +44,12 @@ import java.util.*;
 public class StandardChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
     private List<RanChangeSet> ranChangeSetList;
+    private RanChangeSetIndex ranChangeSetIndex;
     private boolean serviceInitialized;
     private Boolean hasDatabaseChangeLogTable;
     private boolean databaseChecksumsCompatible = true;
     private Integer lastChangeSetSequenceValue;
+    private final List<InsertStatement> pendingExecTypes = new ArrayList<>();
 
     protected static final String LABELS_SIZE = "255";
     protected static final String CONTEXTS_SIZE = "255";
@@ -74,7 +82,13 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     public void reset() {
+        try {
+            flushExecTypes();
+        } catch (DatabaseException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
         this.ranChangeSetList = null;
+        this.ranChangeSetIndex = null;
         this.serviceInitialized = false;
         this.hasDatabaseChangeLogTable = null;
     }
@@ -284,6 +298,8 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             //reset the cache if there was a change to the table. Especially catches things like md5 changes
             // which might have been updated but would still be wrong in the cache
             this.ranChangeSetList = null;
+            this.ranChangeSetIndex = null;
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class).invalidate(database);
             Scope.getCurrentScope().getSingleton(FastCheckService.class).clearCache();
         }
         serviceInitialized = true;
@@ -296,12 +312,20 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         getDatabase().commit();
     }
 
+    @Override
+    public void replaceChecksum(ChangeSet changeSet) throws DatabaseException {
+        flushExecTypes();
+        super.replaceChecksum(changeSet);
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class).invalidate(getDatabase());
+    }
+
     /**
      * Returns the ChangeSets that have been run against the current getDatabase().
      */
     @Override
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
         if (this.ranChangeSetList == null) {
+            flushExecTypes();
             Database database = getDatabase();
             String databaseChangeLogTableName = getDatabase().escapeTableName(getLiquibaseCatalogName(),
                 getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
@@ -356,44 +380,191 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             }
 
             this.ranChangeSetList = ranChangeSets;
+            this.ranChangeSetIndex = null;
         }
         return Collections.unmodifiableList(ranChangeSetList);
     }
 
+    @Override
+    public RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        List<RanChangeSet> ranChangeSets = getRanChangeSets();
+        if (this.ranChangeSetIndex == null) {
+            this.ranChangeSetIndex = new RanChangeSetIndex(ranChangeSets);
+        }
+        return this.ranChangeSetIndex;
+    }
+
     public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database) throws DatabaseException {
-        SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new ColumnConfig()
+        ChangeLogHistoryCache cache = Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class);
+        if (!cache.isEnabled()) {
+            return selectFromDatabaseChangeLog(null);
+        }
+
+        List<Map<String, ?>> rows = null;
+        List<Map<String, ?>> cachedRows = cache.read(database);
+        if (cachedRows != null) {
+            rows = readNewRows(cachedRows);
+        }
+        if (rows == null) {
+            rows = selectFromDatabaseChangeLog(null);
+        }
+        cache.write(database, rows);
+        return rows;
+    }
+
+    private List<Map<String, ?>> selectFromDatabaseChangeLog(SelectFromDatabaseChangeLogStatement.WhereClause whereClause) throws DatabaseException {
+        SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(whereClause, new ColumnConfig()
             .setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
         return ChangelogJdbcMdcListener.query(getDatabase(), executor -> executor.queryForList(select));
     }
 
+    /**
+     * Adds the rows with an ORDEREXECUTED above the highest one in the cached rows, replacing cached rows for the same changeset,
+     * and orders the result like a full read. Returns null if the number of rows or the newest rows of the result do not match
+     * the table, meaning rows were deleted or updated since they were cached.
+     */
+    private List<Map<String, ?>> readNewRows(List<Map<String, ?>> cachedRows) throws DatabaseException {
+        int highWaterMark = 0;
+        for (Map<String, ?> row : cachedRows) {
+            Object orderExecuted = row.get("ORDEREXECUTED");
+            if (!(orderExecuted instanceof Number)) {
+                return null;
+            }
+            highWaterMark = Math.max(highWaterMark, ((Number) orderExecuted).intValue());
+        }
+
+        List<Map<String, ?>> newRows = selectFromDatabaseChangeLog(new SelectFromDatabaseChangeLogStatement.ByOrderExecutedAbove(highWaterMark));
+        Set<String> newKeys = new HashSet<>();
+        for (Map<String, ?> row : newRows) {
+            newKeys.add(getRowKey(row));
+        }
+        List<Map<String, ?>> rows = new ArrayList<>(cachedRows.size() + newRows.size());
+        for (Map<String, ?> row : cachedRows) {
+            if (!newKeys.contains(getRowKey(row))) {
+                rows.add(row);
+            }
+        }
+        rows.addAll(newRows);
+        ChangeLogHistoryCache.sortByExecution(rows);
+
+        if (!ChangeLogHistoryCache.computeHistoryMarker(rows).equals(ChangeLogHistoryCache.readHistoryMarker(getDatabase()))) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cached " + getDatabaseChangeLogTableName() + " rows are out of date, reading all rows");
+            return null;
+        }
+        Scope.getCurrentScope().getLog(getClass()).fine("Read " + newRows.size() + " new " + getDatabaseChangeLogTableName() + " rows after ORDEREXECUTED " + highWaterMark);
+        return rows;
+    }
+
+    private String getRowKey(Map<String, ?> row) {
+        return row.get("ID") + "::" + row.get("AUTHOR") + "::" + row.get("FILENAME");
+    }
+
     @Override
     public RanChangeSet getRanChangeSet(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
         if (!hasDatabaseChangeLogTable()) {
             return null;
         }
 
-        return super.getRanChangeSet(changeSet);
+        return getRanChangeSetIndex().get(changeSet);
     }
 
     @Override
     public void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        flushExecTypes();
         SqlStatement markChangeSetRanStatement = new MarkChangeSetRanStatement(changeSet, execType);
         ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(markChangeSetRanStatement));
         getDatabase().commit();
         if (this.ranChangeSetList != null) {
             this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
+            this.ranChangeSetIndex = null;
         }
 
     }
 
+    /**
+     * Holds back rows for executed changesets until {@link GlobalConfiguration#CHANGELOG_HISTORY_BATCH_SIZE} rows are queued.
+     * The insert statement of each row is created right away, so it records the checksum and ORDEREXECUTED of the changeset
+     * at this point. Changesets that ran before, tag the database or did not execute are written right away, after any rows
+     * already queued.
+     */
+    @Override
+    public void queueExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        Integer batchSize = GlobalConfiguration.CHANGELOG_HISTORY_BATCH_SIZE.getCurrentValue();
+        if ((batchSize == null) || (batchSize <= 1) || !ChangeSet.ExecType.EXECUTED.equals(execType)
+            || (MarkChangeSetRanGenerator.getTagFromChangeset(changeSet) != null) || (getMarkChangeSetRanGenerator() == null)
+            || (Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", getDatabase()) instanceof LoggingExecutor)) {
+            setExecType(changeSet, execType);
+            return;
+        }
+
+        Database database = getDatabase();
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            pendingExecTypes.add((InsertStatement) getMarkChangeSetRanGenerator().createRunStatement(new MarkChangeSetRanStatement(changeSet, execType), database));
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+        if (this.ranChangeSetList != null) {
+            this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
+            this.ranChangeSetIndex = null;
+        }
+        if (pendingExecTypes.size() >= batchSize) {
+            flushExecTypes();
+        }
+    }
+
+    /**
+     * Writes queued rows as multi-row inserts where the database supports them, otherwise one insert at a time, and commits once.
+     */
+    @Override
+    public void flushExecTypes() throws DatabaseException {
+        if (pendingExecTypes.isEmpty()) {
+            return;
+        }
+        List<SqlStatement> runStatements = new ArrayList<>(pendingExecTypes);
+        int rowCount = pendingExecTypes.size();
+        pendingExecTypes.clear();
+
+        Database database = getDatabase();
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            if ((database instanceof MSSQLDatabase) || (database instanceof MySQLDatabase) || (database instanceof PostgresDatabase)) {
+                InsertSetStatement insertSet = new InsertSetStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
+                for (SqlStatement runStatement : runStatements) {
+                    insertSet.addInsertStatement((InsertStatement) runStatement);
+                }
+                runStatements = Collections.singletonList(insertSet);
+            }
+            for (SqlStatement runStatement : runStatements) {
+                ChangelogJdbcMdcListener.execute(database, executor -> executor.execute(runStatement));
+            }
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+        database.commit();
+        Scope.getCurrentScope().getLog(getClass()).fine("Wrote " + rowCount + " queued rows to " + getDatabaseChangeLogTableName());
+    }
+
+    private MarkChangeSetRanGenerator getMarkChangeSetRanGenerator() {
+        SortedSet<SqlGenerator> generators = SqlGeneratorFactory.getInstance().getGenerators(new MarkChangeSetRanStatement(null, ChangeSet.ExecType.EXECUTED), getDatabase());
+        if (generators.isEmpty() || !(generators.first() instanceof MarkChangeSetRanGenerator)) {
+            return null;
+        }
+        return (MarkChangeSetRanGenerator) generators.first();
+    }
+
     @Override
     public void removeFromHistory(final ChangeSet changeSet) throws DatabaseException {
+        flushExecTypes();
         SqlStatement removeChangeSetRanStatusStatement = new RemoveChangeSetRanStatusStatement(changeSet);
         ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(removeChangeSetRanStatusStatement));
         getDatabase().commit();
 
         if (this.ranChangeSetList != null) {
             this.ranChangeSetList.remove(new RanChangeSet(changeSet));
+            this.ranChangeSetIndex = null;
         }
     }
 
@@ -416,6 +587,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
      */
     @Override
     public void tag(final String tagString) throws DatabaseException {
+        flushExecTypes();
         SqlStatement totalRowsStatement = new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("COUNT(*)", true));
         int totalRows = ChangelogJdbcMdcListener.query(getDatabase(), executor -> executor.queryForInt(totalRowsStatement));
         if (totalRows == 0) {
@@ -427,9 +599,11 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         SqlStatement tagStatement = new TagDatabaseStatement(tagString);
         ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(tagStatement));
         getDatabase().commit();
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class).invalidate(getDatabase());
 
         if (this.ranChangeSetList != null) {
             ranChangeSetList.get(ranChangeSetList.size() - 1).setTag(tagString);
+            this.ranChangeSetIndex = null;
         }
     }
 
@@ -443,12 +617,14 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     public void clearAllCheckSums() throws LiquibaseException {
+        flushExecTypes();
         Database database = getDatabase();
         UpdateStatement updateStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database
             .getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
         updateStatement.addNewColumnValue("MD5SUM", null);
         ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(updateStatement));
         database.commit();
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class).invalidate(database);
     }
 
     @Override
@@ -476,6 +652,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
                 SqlStatement[] sqlStatement = change[0].generateStatements(database);
                 ChangelogJdbcMdcListener.execute(getDatabase(), executor -> executor.execute(sqlStatement[0]));
             }
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class).invalidate(database);
             reset();
         } catch (InvalidExampleException e) {
             throw new UnexpectedLiquibaseException(e);
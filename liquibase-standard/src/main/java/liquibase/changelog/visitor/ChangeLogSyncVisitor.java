@@ -1,5 +1,6 @@
 package liquibase.changelog.visitor;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
@@ -39,7 +40,12 @@ public class ChangeLogSyncVisitor implements ChangeSetVisitor {
     public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
         try {
             preRunMdc(changeSet);
-            this.database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+            if (isHistoryBatchingEnabled()) {
+                Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(this.database)
+                        .queueExecType(changeSet, ChangeSet.ExecType.EXECUTED);
+            } else {
+                this.database.markChangeSetExecStatus(changeSet, ChangeSet.ExecType.EXECUTED);
+            }
             postRunMdc(changeSet);
             if(listener != null) {
                 listener.markedRan(changeSet, databaseChangeLog, database);
@@ -58,6 +64,15 @@ public class ChangeLogSyncVisitor implements ChangeSetVisitor {
 
     }
 
+    /**
+     * Rows of synced changesets may be held back and written together, since syncing again after an interruption only writes
+     * the rows that are missing. Update writes each row right after its changeset, which has already been committed.
+     */
+    private static boolean isHistoryBatchingEnabled() {
+        Integer batchSize = GlobalConfiguration.CHANGELOG_HISTORY_BATCH_SIZE.getCurrentValue();
+        return (batchSize != null) && (batchSize > 1);
+    }
+
     private void preRunMdc(ChangeSet changeSet) {
         Date start = new Date();
         Scope.getCurrentScope().addMdcValue(MdcKey.CHANGESET_OPERATION_START_TIME, new ISODateFormat().format(start));
@@ -16,11 +16,11 @@ import java.util.*;
 public class StatusVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor {
 
     private final LinkedHashMap<ChangeSet, ChangeSetStatus> changeSetStatuses = new LinkedHashMap<>();
-    private final List<RanChangeSet> ranChangeSets;
+    private final RanChangeSetIndex ranChangeSetIndex;
+    private final Set<RanChangeSet> matchedRanChangeSets = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public StatusVisitor(Database database) throws LiquibaseException {
-        ranChangeSets = new ArrayList<>(
-            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getRanChangeSets());
+        ranChangeSetIndex = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getRanChangeSetIndex();
     }
 
     @Override
@@ -53,22 +53,16 @@ public class StatusVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor
     }
 
     private void removeRanChangeSets(ChangeSet changeSet, ChangeSetStatus status) {
-        RanChangeSet ranChangeSetToRemove = null;
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
-            if (ranChangeSet.isSameAs(changeSet)) {
+        for (RanChangeSet ranChangeSet : ranChangeSetIndex.getAll(changeSet)) {
+            if (matchedRanChangeSets.add(ranChangeSet)) {
                 status.setPreviouslyRan(true);
                 status.setDateLastExecuted(ranChangeSet.getDateExecuted());
                 status.setStoredCheckSum(ranChangeSet.getLastCheckSum());
                 status.setRanChangeSet(ranChangeSet);
 
-                ranChangeSetToRemove = ranChangeSet;
-
                 break;
             }
         }
-        if (ranChangeSetToRemove != null) {
-            ranChangeSets.remove(ranChangeSetToRemove);
-        }
     }
 
     /**
@@ -85,7 +79,10 @@ public class StatusVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor
      */
     public List<ChangeSetStatus> getStatuses() {
         ArrayList<ChangeSetStatus> returnList = new ArrayList<>();
-        for (RanChangeSet changeSet : ranChangeSets) {
+        for (RanChangeSet changeSet : ranChangeSetIndex.getRanChangeSets()) {
+            if (matchedRanChangeSets.contains(changeSet)) {
+                continue;
+            }
             ChangeSetStatus status = new ChangeSetStatus(new ChangeSet(changeSet.getId(), changeSet.getAuthor(), false, false, changeSet.getChangeLog(), null, null, null));
             status.setPreviouslyRan(true);
             status.setDateLastExecuted(changeSet.getDateExecuted());
@@ -20,6 +20,10 @@ import liquibase.exception.MigrationFailedException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.executor.LoggingExecutor;
+import liquibase.lockservice.LeaseLockService;
+import liquibase.lockservice.LockService;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.precondition.PreconditionSnapshotCache;
 
 import java.util.List;
 import java.util.Objects;
@@ -67,6 +71,10 @@ public class UpdateVisitor implements ChangeSetVisitor {
                 (this.shouldRunChangeSetFilter == null || this.shouldRunChangeSetFilter.accepts(changeSet).isAccepted());
         CheckSum oldChecksum = updateCheckSumIfRequired(changeSet);
         if (isAccepted) {
+            LockService lockService = LockServiceFactory.getInstance().getLockService(this.database);
+            if (lockService instanceof LeaseLockService) {
+                ((LeaseLockService) lockService).verifyLease();
+            }
             executeAcceptedChange(changeSet, databaseChangeLog, database);
             this.database.commit();
         } else if ((oldChecksum == null || oldChecksum.getVersion() < ChecksumVersion.latest().getVersion())) {
@@ -128,6 +136,11 @@ public class UpdateVisitor implements ChangeSetVisitor {
         } catch (MigrationFailedException e) {
             fireRunFailed(changeSet, databaseChangeLog, database, e);
             throw e;
+        } finally {
+            PreconditionSnapshotCache preconditionSnapshotCache = PreconditionSnapshotCache.getCurrent(this.database);
+            if (preconditionSnapshotCache != null) {
+                preconditionSnapshotCache.changeSetExecuted(changeSet, this.database);
+            }
         }
         if (!Objects.equals(runStatus, RunStatus.NOT_RAN) && Objects.equals(execType, ExecType.EXECUTED)) {
             execType = ExecType.RERAN;
@@ -22,6 +22,7 @@ import liquibase.logging.mdc.MdcKey;
 import liquibase.logging.mdc.MdcObject;
 import liquibase.logging.mdc.MdcValue;
 import liquibase.logging.mdc.customobjects.ChangesetsUpdated;
+import liquibase.precondition.PreconditionSnapshotCache;
 import liquibase.report.UpdateReportParameters;
 import liquibase.util.ShowSummaryUtil;
 import liquibase.util.StringUtil;
@@ -109,6 +110,7 @@ public abstract class AbstractUpdateCommandStep extends AbstractCommandStep impl
             HashMap<String, Object> scopeValues = new HashMap<>();
             scopeValues.put("showSummary", getShowSummary(commandScope));
             scopeValues.put(ROWS_AFFECTED_SCOPE_KEY, rowsAffected);
+            scopeValues.put(PreconditionSnapshotCache.SCOPE_KEY, new PreconditionSnapshotCache());
             Scope.child(scopeValues, () -> {
                 try {
                     runChangeLogIterator.run(new UpdateVisitor(database, changeExecListener, new ShouldRunChangeSetFilter(database)),
@@ -124,6 +126,8 @@ public abstract class AbstractUpdateCommandStep extends AbstractCommandStep impl
             });
             updateReportParameters.getOperationInfo().setRowsAffected(rowsAffected.get());
             database.afterUpdate();
+            Scope.getCurrentScope().getSingleton(FastCheckService.class).saveDeploymentFingerprint(
+                    getStandardChangelogIteratorFilters(database, contexts, labelExpression), database, databaseChangeLog, contexts, labelExpression);
             resultsBuilder.addResult("statusCode", 0);
             addChangelogFileToMdc(getChangelogFileArg(commandScope), databaseChangeLog);
             Scope.getCurrentScope().addMdcValue(MdcKey.ROWS_AFFECTED, String.valueOf(rowsAffected.get()));
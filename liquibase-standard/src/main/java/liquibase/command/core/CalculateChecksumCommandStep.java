@@ -7,6 +7,7 @@ import liquibase.changelog.ChangeLogHistoryService;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChecksumManifest;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
 import liquibase.command.AbstractCommandStep;
@@ -20,10 +21,13 @@ import liquibase.command.CommonArgumentNames;
 import liquibase.database.Database;
 import liquibase.exception.LiquibaseException;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.OpenOptions;
+import liquibase.resource.PathHandlerFactory;
 import liquibase.resource.ResourceAccessor;
 import liquibase.util.StringUtil;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 
@@ -42,6 +46,10 @@ public class CalculateChecksumCommandStep extends AbstractCommandStep {
 
     public static final CommandArgumentDefinition<String> CHANGESET_IDENTIFIER_ARG;
 
+    public static final CommandArgumentDefinition<Boolean> ALL_ARG;
+
+    public static final CommandArgumentDefinition<String> MANIFEST_FILE_ARG;
+
     private static final int CHANGESET_IDENTIFIER_PARTS_LENGTH = 3;
     private static final int CHANGESET_IDENTIFIER_AUTHOR_PART = 2;
     private static final int CHANGESET_IDENTIFIER_ID_PART = 1;
@@ -68,6 +76,15 @@ public class CalculateChecksumCommandStep extends AbstractCommandStep {
                                       .description("ChangeSet Author attribute")
                                       .build();
 
+        ALL_ARG = builder.argument("all", Boolean.class)
+                                .description("Calculate the checksums of all changesets in the changelog and write them to a checksum manifest")
+                                .defaultValue(false)
+                                .build();
+
+        MANIFEST_FILE_ARG = builder.argument("manifestFile", String.class)
+                                .description("Checksum manifest file to write when 'all' is set. Defaults to the changelog file name with a '.checksums' suffix")
+                                .build();
+
         CHECKSUM_RESULT = builder.result("checksumResult", CheckSum.class).description("Calculated checksum").build();
     }
 
@@ -87,6 +104,11 @@ public class CalculateChecksumCommandStep extends AbstractCommandStep {
 
         final String changeSetIdentifier = commandScope.getArgumentValue(CHANGESET_IDENTIFIER_ARG);
         final String changeLogFile = commandScope.getArgumentValue(CHANGELOG_FILE_ARG).replace('\\', '/');
+
+        if (Boolean.TRUE.equals(commandScope.getArgumentValue(ALL_ARG))) {
+            writeManifest(commandScope, changeLogFile);
+            return;
+        }
         String changeSetPath;
         String changeSetId;
         String changeSetAuthor;
@@ -137,6 +159,41 @@ public class CalculateChecksumCommandStep extends AbstractCommandStep {
         );
     }
 
+    /**
+     * Calculates the latest checksum of every changeset in the changelog and writes them to a {@link ChecksumManifest}
+     * which can be used with {@link liquibase.GlobalConfiguration#CHECKSUM_MANIFEST_FILE}.
+     */
+    private void writeManifest(CommandScope commandScope, String changeLogFile) throws Exception {
+        final Database database = (Database) commandScope.getDependency(Database.class);
+        String manifestFile = commandScope.getArgumentValue(MANIFEST_FILE_ARG);
+        if (StringUtils.isEmpty(manifestFile)) {
+            manifestFile = changeLogFile + ".checksums";
+        }
+
+        ResourceAccessor resourceAccessor = Scope.getCurrentScope().getResourceAccessor();
+        DatabaseChangeLog changeLog = Scope.child(Collections.singletonMap(ChecksumManifest.GENERATING_MANIFEST_SCOPE_KEY, true),
+                () -> ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor)
+                        .parse(changeLogFile, new ChangeLogParameters(database), resourceAccessor));
+
+        ChecksumManifest manifest = new ChecksumManifest();
+        int skipped = Scope.child(Collections.singletonMap(Scope.Attr.database.name(), database), () -> {
+            int notAdded = 0;
+            for (ChangeSet changeSet : changeLog.getChangeSets()) {
+                if (!manifest.put(changeSet, ChecksumVersion.latest(), database, changeSet.generateCheckSum(ChecksumVersion.latest()))) {
+                    notAdded++;
+                }
+            }
+            return notAdded;
+        });
+
+        PathHandlerFactory pathHandlerFactory = Scope.getCurrentScope().getSingleton(PathHandlerFactory.class);
+        try (OutputStream stream = pathHandlerFactory.openResourceOutputStream(manifestFile, new OpenOptions())) {
+            manifest.write(stream);
+        }
+        Scope.getCurrentScope().getUI().sendMessage(String.format("Wrote %d checksums to %s. %d changesets were not added because they read other files.",
+                manifest.size(), manifestFile, skipped));
+    }
+
     private void validateIdentifierParameters(CommandScope commandScope, String changeSetIdentifier) throws LiquibaseException {
         final boolean isAmbiguousNumberOfIdentifierProvided = (commandScope.getArgumentValue(CHANGESET_ID_ARG) != null ||
                 commandScope.getArgumentValue(CHANGESET_AUTHOR_ARG) != null || commandScope.getArgumentValue(CHANGESET_PATH_ARG) != null)
@@ -211,7 +268,10 @@ public class CalculateChecksumCommandStep extends AbstractCommandStep {
                                         "2. Individual changeSet parameters\n\n" +
                                         "The second option requires all three parameters to be defined.\n" +
                                         "This variant offers some more flexibility in naming conventions for path, id and author.\n\n"+
-                                        "liquibase calculateCheckSum --changesetId myId --changesetAuthor myAuthor --changesetPath myPath\n"
+                                        "liquibase calculateCheckSum --changesetId myId --changesetAuthor myAuthor --changesetPath myPath\n\n" +
+                                        "To write the checksums of all changesets to a checksum manifest, which can be used with the\n" +
+                                        "'checksumManifestFile' setting to avoid recalculating checksums, pass --all instead.\n\n" +
+                                        "liquibase calculateCheckSum --all --manifestFile changelog.checksums\n"
         );
     }
 }
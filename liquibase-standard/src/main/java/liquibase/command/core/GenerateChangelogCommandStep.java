@@ -47,6 +47,7 @@ public class GenerateChangelogCommandStep extends AbstractChangelogCommandStep {
     public static final CommandArgumentDefinition<String> REFERENCE_LIQUIBASE_CATALOG_NAME_ARG;
 
     public static final CommandArgumentDefinition<Boolean> USE_OR_REPLACE_OPTION;
+    public static final CommandArgumentDefinition<Boolean> STREAM_CHANGESETS_ARG;
 
     static {
         final CommandBuilder builder = new CommandBuilder(COMMAND_NAME);
@@ -91,6 +92,10 @@ public class GenerateChangelogCommandStep extends AbstractChangelogCommandStep {
                 .description("If true, will add 'OR REPLACE' option to the create view change object")
                 .defaultValue(false)
                 .build();
+        STREAM_CHANGESETS_ARG = builder.argument("streamChangesets", Boolean.class)
+                .description("If true, changesets are written as they are generated instead of keeping the whole changelog in memory")
+                .defaultValue(false)
+                .build();
         builder.addArgument(AbstractChangelogCommandStep.RUN_ON_CHANGE_TYPES_ARG).build();
         builder.addArgument(AbstractChangelogCommandStep.REPLACE_IF_EXISTS_TYPES_ARG).build();
         builder.addArgument(AbstractChangelogCommandStep.SKIP_OBJECT_SORTING).build();
@@ -144,6 +149,7 @@ public class GenerateChangelogCommandStep extends AbstractChangelogCommandStep {
         changeLogWriter.setChangeSetPath(changeLogFile);
         changeLogWriter.setChangeSetRunOnChangeTypes(commandScope.getArgumentValue(RUN_ON_CHANGE_TYPES_ARG).split("\\s*,\\s*"));
         changeLogWriter.setChangeReplaceIfExistsTypes(commandScope.getArgumentValue(REPLACE_IF_EXISTS_TYPES_ARG).split("\\s*,\\s*"));
+        changeLogWriter.setStreamChangeSets(commandScope.getArgumentValue(STREAM_CHANGESETS_ARG));
 
         ObjectQuotingStrategy originalStrategy = referenceDatabase.getObjectQuotingStrategy();
         try {
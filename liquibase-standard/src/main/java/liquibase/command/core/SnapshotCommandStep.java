@@ -5,7 +5,9 @@ import liquibase.GlobalConfiguration;
 import liquibase.command.*;
 import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
+import liquibase.serializer.SnapshotSerializer;
 import liquibase.serializer.SnapshotSerializerFactory;
+import liquibase.serializer.core.binary.BinarySnapshotSerializer;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
@@ -32,7 +34,7 @@ public class SnapshotCommandStep extends AbstractCommandStep {
         CommandBuilder builder = new CommandBuilder(COMMAND_NAME);
         SCHEMAS_ARG = builder.argument("schemas", String.class).description("The schemas to snapshot").build();
         SNAPSHOT_FORMAT_ARG = builder.argument("snapshotFormat", String.class)
-                .description("Output format to use (JSON, YAML, or TXT)").build();
+                .description("Output format to use (JSON, YAML, TXT, or BINARY)").build();
         SNAPSHOT_CONTROL_ARG = builder.argument("snapshotControl", SnapshotControl.class).hidden().build();
     }
 
@@ -83,10 +85,15 @@ public class SnapshotCommandStep extends AbstractCommandStep {
 
             OutputStream outputStream = resultsBuilder.getOutputStream();
             if (outputStream != null) {
-                String result = printSnapshot(commandScope, snapshot);
-                Writer outputWriter = getOutputWriter(outputStream);
-                outputWriter.write(result);
-                outputWriter.flush();
+                SnapshotSerializer serializer = getSerializer(commandScope);
+                if (serializer instanceof BinarySnapshotSerializer) {
+                    serializer.write(snapshot, outputStream);
+                } else {
+                    String result = serializer.serialize(snapshot, true);
+                    Writer outputWriter = getOutputWriter(outputStream);
+                    outputWriter.write(result);
+                    outputWriter.flush();
+                }
             }
         } finally {
             //
@@ -112,15 +119,14 @@ public class SnapshotCommandStep extends AbstractCommandStep {
         return new OutputStreamWriter(outputStream, charsetName);
     }
 
-    private String printSnapshot(CommandScope commandScope, DatabaseSnapshot snapshot) {
+    private SnapshotSerializer getSerializer(CommandScope commandScope) {
         String format = commandScope.getArgumentValue(SNAPSHOT_FORMAT_ARG);
         if (format == null) {
             format = "txt";
         }
 
         return SnapshotSerializerFactory.getInstance()
-                                        .getSerializer(format.toLowerCase(Locale.US))
-                                        .serialize(snapshot, true);
+                                        .getSerializer(format.toLowerCase(Locale.US));
     }
 
 }
@@ -134,6 +134,36 @@ public class DatabaseFactory implements SingletonObject {
         return returnDatabase;
     }
 
+    /**
+     * Opens another connection to the database the given {@link Database} is connected to, for work that has to run in parallel
+     * or independently of its transactions. The returned database uses the same default and Liquibase catalogs and schemas,
+     * Liquibase table names and quoting strategy. Returns null if another connection cannot be opened, see {@link JdbcConnection#openNewConnection()}.
+     * The caller must close the returned database.
+     */
+    public Database openAdditionalDatabase(Database database) throws DatabaseException {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+        JdbcConnection connection = ((JdbcConnection) database.getConnection()).openNewConnection();
+        if (connection == null) {
+            return null;
+        }
+        Database additionalDatabase = findCorrectDatabaseImplementation(connection);
+        try {
+            additionalDatabase.setDefaultCatalogName(database.getDefaultCatalogName());
+            additionalDatabase.setDefaultSchemaName(database.getDefaultSchemaName());
+        } catch (DatabaseException e) {
+            additionalDatabase.close();
+            throw e;
+        }
+        additionalDatabase.setLiquibaseCatalogName(database.getLiquibaseCatalogName());
+        additionalDatabase.setLiquibaseSchemaName(database.getLiquibaseSchemaName());
+        additionalDatabase.setDatabaseChangeLogTableName(database.getDatabaseChangeLogTableName());
+        additionalDatabase.setDatabaseChangeLogLockTableName(database.getDatabaseChangeLogLockTableName());
+        additionalDatabase.setObjectQuotingStrategy(database.getObjectQuotingStrategy());
+        return additionalDatabase;
+    }
+
     public Database openDatabase(String url,
                             String username,
                             String password,
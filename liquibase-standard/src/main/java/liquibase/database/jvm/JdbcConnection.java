@@ -17,6 +17,9 @@ import java.util.regex.Pattern;
  */
 public class JdbcConnection implements DatabaseConnection {
     private java.sql.Connection con;
+    private String openedUrl;
+    private Driver openedDriver;
+    private Properties openedDriverProperties;
     private static final Pattern PROXY_USER = Pattern.compile(".*(?:thin|oci)\\:(.+)/@.*");
 
     private static final List<ConnectionPatterns> JDBC_CONNECTION_PATTERNS = Scope.getCurrentScope().getServiceLocator().findInstances(ConnectionPatterns.class);
@@ -43,6 +46,9 @@ public class JdbcConnection implements DatabaseConnection {
             if (this.con == null) {
                 throw new DatabaseException(errorMessage + ".  Possibly the wrong driver for the given database URL");
             }
+            this.openedUrl = url;
+            this.openedDriver = driverObject;
+            this.openedDriverProperties = driverProperties;
         } catch (SQLException sqle) {
             if (driverClassName.equals("org.h2.Driver")) {
                 errorMessage += ". Make sure your H2 database is active and accessible by opening a new terminal window, run \"liquibase init start-h2\", and then return to this terminal window to run commands";
@@ -51,6 +57,20 @@ public class JdbcConnection implements DatabaseConnection {
         }
     }
 
+    /**
+     * Opens another connection to the same database, using the URL, driver and properties this connection was opened with.
+     * Returns null if this connection wraps a {@link java.sql.Connection} created elsewhere, since it is not known how to open another one,
+     * and once this connection is closed, since the URL and properties, including any password, are only kept until then.
+     */
+    public JdbcConnection openNewConnection() throws DatabaseException {
+        if (openedUrl == null) {
+            return null;
+        }
+        JdbcConnection connection = new JdbcConnection();
+        connection.open(openedUrl, openedDriver, openedDriverProperties);
+        return connection;
+    }
+
     @Override
     public void attached(Database database) {
         try {
@@ -232,6 +252,9 @@ public class JdbcConnection implements DatabaseConnection {
 
     @Override
     public void close() throws DatabaseException {
+        openedUrl = null;
+        openedDriver = null;
+        openedDriverProperties = null;
         rollback();
         try {
             con.close();
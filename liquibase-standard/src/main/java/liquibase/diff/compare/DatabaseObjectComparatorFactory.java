@@ -10,6 +10,7 @@ import liquibase.structure.core.Schema;
 import liquibase.util.StringUtil;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseObjectComparatorFactory {
 
@@ -17,8 +18,8 @@ public class DatabaseObjectComparatorFactory {
 
     private final List<DatabaseObjectComparator> comparators = new ArrayList<>();
 
-    private final Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new HashMap<>();
-    private final Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new HashMap<>();
+    private final Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new ConcurrentHashMap<>();
+    private final Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new ConcurrentHashMap<>();
 
     private DatabaseObjectComparatorFactory() {
         try {
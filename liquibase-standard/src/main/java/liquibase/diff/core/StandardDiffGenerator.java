@@ -1,5 +1,6 @@
 package liquibase.diff.core;
 
+import liquibase.GlobalConfiguration;
 import liquibase.database.Database;
 import liquibase.diff.DiffGenerator;
 import liquibase.diff.DiffResult;
@@ -14,9 +15,14 @@ import liquibase.snapshot.EmptyDatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Schema;
+import liquibase.util.ConcurrencyUtil;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 public class StandardDiffGenerator implements DiffGenerator {
 
@@ -48,13 +54,65 @@ public class StandardDiffGenerator implements DiffGenerator {
         typesToCompare.retainAll(referenceSnapshot.getSnapshotControl().getTypesToInclude());
         typesToCompare.retainAll(comparisonSnapshot.getSnapshotControl().getTypesToInclude());
 
-        for (Class<? extends DatabaseObject> typeToCompare : typesToCompare) {
-            compareObjectType(typeToCompare, referenceSnapshot, comparisonSnapshot, diffResult);
+        Integer threads = GlobalConfiguration.DIFF_THREADS.getCurrentValue();
+        if ((threads != null) && (threads > 1)) {
+            compareObjectTypesInParallel(typesToCompare, referenceSnapshot, comparisonSnapshot, diffResult, threads);
+        } else {
+            for (Class<? extends DatabaseObject> typeToCompare : typesToCompare) {
+                compareObjectType(typeToCompare, referenceSnapshot, comparisonSnapshot, diffResult);
+            }
         }
 
         return diffResult;
     }
 
+    /**
+     * Compares each type and schema comparison on its own worker thread, see {@link GlobalConfiguration#DIFF_THREADS}.
+     * Every task collects its differences in a separate {@link DiffResult}, and those are merged into the given one in the same
+     * type and schema order as the single-threaded comparison, so the outcome does not depend on which task finishes first.
+     * Calls {@link #compareObjectType(Class, CompareControl.SchemaComparison, DatabaseSnapshot, DatabaseSnapshot, DiffResult)} directly,
+     * so subclasses overriding the per-type method are only used when comparing on a single thread.
+     */
+    protected void compareObjectTypesInParallel(Set<Class<? extends DatabaseObject>> typesToCompare, DatabaseSnapshot referenceSnapshot,
+                                                DatabaseSnapshot comparisonSnapshot, DiffResult diffResult, int threads) throws DatabaseException {
+        CompareControl.SchemaComparison[] schemaComparisons = diffResult.getCompareControl().getSchemaComparisons();
+        if (schemaComparisons == null) {
+            return;
+        }
+
+        List<Callable<DiffResult>> tasks = new ArrayList<>();
+        for (Class<? extends DatabaseObject> typeToCompare : typesToCompare) {
+            for (CompareControl.SchemaComparison schemaComparison : schemaComparisons) {
+                tasks.add(() -> {
+                    DiffResult partialResult = new DiffResult(referenceSnapshot, comparisonSnapshot, diffResult.getCompareControl());
+                    compareObjectType(typeToCompare, schemaComparison, referenceSnapshot, comparisonSnapshot, partialResult);
+                    return partialResult;
+                });
+            }
+        }
+
+        List<DiffResult> partialResults;
+        try {
+            partialResults = ConcurrencyUtil.runAll(tasks, threads);
+        } catch (DatabaseException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+
+        for (DiffResult partialResult : partialResults) {
+            for (DatabaseObject missingObject : partialResult.getMissingObjects()) {
+                diffResult.addMissingObject(missingObject);
+            }
+            for (DatabaseObject unexpectedObject : partialResult.getUnexpectedObjects()) {
+                diffResult.addUnexpectedObject(unexpectedObject);
+            }
+            for (Map.Entry<DatabaseObject, ObjectDifferences> changedObject : partialResult.getChangedObjects().entrySet()) {
+                diffResult.addChangedObject(changedObject.getKey(), changedObject.getValue());
+            }
+        }
+    }
+
     protected void checkVersionInfo(DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, DiffResult diffResult) throws DatabaseException {
 
         if ((comparisonSnapshot != null) && (comparisonSnapshot.getDatabase() != null)) {
@@ -66,57 +124,65 @@ public class StandardDiffGenerator implements DiffGenerator {
 
     protected <T extends DatabaseObject> void compareObjectType(Class<T> type, DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, DiffResult diffResult) {
 
-        Database comparisonDatabase = comparisonSnapshot.getDatabase();
-        Database referenceDatabase = referenceSnapshot.getDatabase();
-
         CompareControl.SchemaComparison[] schemaComparisons = diffResult.getCompareControl().getSchemaComparisons();
         if (schemaComparisons != null) {
             for (CompareControl.SchemaComparison schemaComparison : schemaComparisons) {
-                for (T referenceObject : referenceSnapshot.get(type)) {
-                    Schema referenceObjectSchema = referenceObject.getSchema();
-                    if ((referenceObjectSchema != null) && (referenceObjectSchema.getName() != null)) { //don't filter out null-named schemas. May actually be catalog-level objects that should be included
-                        if (!StringUtils.trimToEmpty(
-                            referenceObjectSchema.toCatalogAndSchema().standardize(referenceDatabase).getSchemaName())
-                            .equalsIgnoreCase(
-                                StringUtils.trimToEmpty(schemaComparison.getReferenceSchema()
-                                .standardize(referenceDatabase).getSchemaName()))) {
-                            continue;
-                        }
-                    }
-                    T comparisonObject = comparisonSnapshot.get(referenceObject);
-                    if (comparisonObject == null) {
-                        diffResult.addMissingObject(referenceObject);
-                    } else {
-                        ObjectDifferences differences = DatabaseObjectComparatorFactory.getInstance().findDifferences(referenceObject, comparisonObject, comparisonDatabase, diffResult.getCompareControl());
-                        if (differences.hasDifferences()) {
-                            diffResult.addChangedObject(referenceObject, differences);
-                        }
-                    }
-                }
-                //
-                for (T comparisonObject : comparisonSnapshot.get(type)) {
-                    Schema comparisonObjectSchema = comparisonObject.getSchema();
-                    if (comparisonObjectSchema != null) {
-                        String comparisonObjectSchemaName = StringUtils.trimToEmpty(comparisonObjectSchema.toCatalogAndSchema().standardize(comparisonDatabase).getSchemaName());
-                        String schemaComparisonName1 = StringUtils.trimToEmpty(schemaComparison.getComparisonSchema().standardize(comparisonDatabase).getSchemaName());
-                        String schemaComparisonName2 = StringUtils.trimToEmpty(schemaComparison.getReferenceSchema().standardize(comparisonDatabase).getSchemaName());
-
-                        if (comparisonObjectSchemaName.isEmpty() && !schemaComparisonName1.isEmpty() && !schemaComparisonName2.isEmpty()) {
-                            comparisonObjectSchemaName = StringUtils.trimToEmpty(comparisonObjectSchema.getName());
-                        }
-                        if (!(comparisonObjectSchemaName.equalsIgnoreCase(schemaComparisonName1) || comparisonObjectSchemaName.equals(schemaComparisonName2))) {
-                            continue;
-                        }
-                    }
-
-                    if (referenceSnapshot.get(comparisonObject) == null) {
-                        diffResult.addUnexpectedObject(comparisonObject);
-                    }
-                }
+                compareObjectType(type, schemaComparison, referenceSnapshot, comparisonSnapshot, diffResult);
             }
 
             //todo: add logic for when container is missing or unexpected also
         }
 
     }
+
+    /**
+     * Compares the objects of the given type which belong to a single schema comparison.
+     */
+    protected <T extends DatabaseObject> void compareObjectType(Class<T> type, CompareControl.SchemaComparison schemaComparison, DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, DiffResult diffResult) {
+
+        Database comparisonDatabase = comparisonSnapshot.getDatabase();
+        Database referenceDatabase = referenceSnapshot.getDatabase();
+
+        for (T referenceObject : referenceSnapshot.get(type)) {
+            Schema referenceObjectSchema = referenceObject.getSchema();
+            if ((referenceObjectSchema != null) && (referenceObjectSchema.getName() != null)) { //don't filter out null-named schemas. May actually be catalog-level objects that should be included
+                if (!StringUtils.trimToEmpty(
+                    referenceObjectSchema.toCatalogAndSchema().standardize(referenceDatabase).getSchemaName())
+                    .equalsIgnoreCase(
+                        StringUtils.trimToEmpty(schemaComparison.getReferenceSchema()
+                        .standardize(referenceDatabase).getSchemaName()))) {
+                    continue;
+                }
+            }
+            T comparisonObject = comparisonSnapshot.get(referenceObject);
+            if (comparisonObject == null) {
+                diffResult.addMissingObject(referenceObject);
+            } else {
+                ObjectDifferences differences = DatabaseObjectComparatorFactory.getInstance().findDifferences(referenceObject, comparisonObject, comparisonDatabase, diffResult.getCompareControl());
+                if (differences.hasDifferences()) {
+                    diffResult.addChangedObject(referenceObject, differences);
+                }
+            }
+        }
+        //
+        for (T comparisonObject : comparisonSnapshot.get(type)) {
+            Schema comparisonObjectSchema = comparisonObject.getSchema();
+            if (comparisonObjectSchema != null) {
+                String comparisonObjectSchemaName = StringUtils.trimToEmpty(comparisonObjectSchema.toCatalogAndSchema().standardize(comparisonDatabase).getSchemaName());
+                String schemaComparisonName1 = StringUtils.trimToEmpty(schemaComparison.getComparisonSchema().standardize(comparisonDatabase).getSchemaName());
+                String schemaComparisonName2 = StringUtils.trimToEmpty(schemaComparison.getReferenceSchema().standardize(comparisonDatabase).getSchemaName());
+
+                if (comparisonObjectSchemaName.isEmpty() && !schemaComparisonName1.isEmpty() && !schemaComparisonName2.isEmpty()) {
+                    comparisonObjectSchemaName = StringUtils.trimToEmpty(comparisonObjectSchema.getName());
+                }
+                if (!(comparisonObjectSchemaName.equalsIgnoreCase(schemaComparisonName1) || comparisonObjectSchemaName.equals(schemaComparisonName2))) {
+                    continue;
+                }
+            }
+
+            if (referenceSnapshot.get(comparisonObject) == null) {
+                diffResult.addUnexpectedObject(comparisonObject);
+            }
+        }
+    }
 }
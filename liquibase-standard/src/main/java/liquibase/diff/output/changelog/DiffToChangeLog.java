@@ -9,7 +9,6 @@ import liquibase.change.core.*;
 import liquibase.changelog.ChangeSet;
 import liquibase.changeset.ChangeSetService;
 import liquibase.changeset.ChangeSetServiceFactory;
-import liquibase.command.core.helpers.AbstractChangelogCommandStep;
 import liquibase.configuration.core.DeprecatedConfigurationValueProvider;
 import liquibase.database.*;
 import liquibase.database.core.*;
@@ -27,11 +26,13 @@ import liquibase.resource.PathHandlerFactory;
 import liquibase.resource.Resource;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.serializer.ChangeLogSerializerFactory;
+import liquibase.serializer.ChangeLogStreamWriter;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.EmptyDatabaseSnapshot;
 import liquibase.statement.core.RawParameterizedSqlStatement;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
 import liquibase.structure.core.StoredDatabaseLogic;
 import liquibase.structure.core.Table;
 import liquibase.util.DependencyUtil;
@@ -42,6 +43,7 @@ import org.apache.commons.lang3.SystemProperties;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
@@ -76,6 +78,8 @@ public class DiffToChangeLog {
 
     private boolean skipObjectSorting = false;
 
+    private boolean streamChangeSets = false;
+
     private static final Set<Class> loggedOrderFor = new HashSet<>();
 
     /**
@@ -117,6 +121,14 @@ public class DiffToChangeLog {
         this.changeSetLabels = changeSetLabels;
     }
 
+    /**
+     * If true, the print methods write each changeset as soon as it is generated instead of generating the complete changelog first.
+     * See {@link #generateChangeSets(ChangeSetConsumer)} for the order the changesets are written in.
+     */
+    public void setStreamChangeSets(boolean streamChangeSets) {
+        this.streamChangeSets = streamChangeSets;
+    }
+
     public void print(String changeLogFile) throws ParserConfigurationException, IOException, DatabaseException {
         this.print(changeLogFile, false);
     }
@@ -256,6 +268,20 @@ public class DiffToChangeLog {
      * the reference database
      */
     public void printNew(ChangeLogSerializer changeLogSerializer, Resource file) throws ParserConfigurationException, IOException, DatabaseException {
+        if (streamChangeSets) {
+            try (StreamedChangeLogFile output = new StreamedChangeLogFile(changeLogSerializer, file)) {
+                int count = generateChangeSets(output);
+                output.finish();
+
+                Scope.getCurrentScope().getLog(getClass()).info("changeSets count: " + count);
+                if (count == 0) {
+                    Scope.getCurrentScope().getLog(getClass()).info("No changesets to add to the changelog output.");
+                } else {
+                    Scope.getCurrentScope().getLog(getClass()).info(file + " did not exist, created it and added " + count + " changesets.");
+                }
+            }
+            return;
+        }
 
         List<ChangeSet> changeSets = generateChangeSets();
 
@@ -276,6 +302,15 @@ public class DiffToChangeLog {
      * the reference database
      */
     public void print(final PrintStream out, final ChangeLogSerializer changeLogSerializer) throws ParserConfigurationException, IOException, DatabaseException {
+        if (streamChangeSets) {
+            ChangeLogStreamWriter writer = changeLogSerializer.createStreamWriter(out);
+            generateChangeSets(writer::write);
+            writer.finish();
+
+            out.flush();
+            return;
+        }
+
         List<ChangeSet> changeSets = generateChangeSets();
 
         changeLogSerializer.write(changeSets, out);
@@ -287,10 +322,7 @@ public class DiffToChangeLog {
         final ChangeGeneratorFactory changeGeneratorFactory = ChangeGeneratorFactory.getInstance();
         DatabaseObjectCollectionComparator comparator = new DatabaseObjectCollectionComparator();
 
-        String created = null;
-        if (GlobalConfiguration.GENERATE_CHANGESET_CREATED_VALUES.getCurrentValue()) {
-            created = new SimpleDateFormat("yyyy-MM-dd HH:mmZ").format(new Date());
-        }
+        String created = getCreatedValue();
 
         List<Class<? extends DatabaseObject>> types = getOrderedOutputTypes(ChangedObjectChangeGenerator.class);
         List<ChangeSet> updateChangeSets = new ArrayList<>();
@@ -365,6 +397,141 @@ public class DiffToChangeLog {
         return changeSets;
     }
 
+    /**
+     * Generates the same changesets as {@link #generateChangeSets()}, but passes each one to the consumer as soon as it is created
+     * instead of returning them all at the end. Only the objects to output and their dependency order are kept in memory.
+     * <p>
+     * Missing objects come first, then unexpected objects, then changed objects, like in {@link #generateChangeSets()}.
+     * Changesets dropping foreign keys are moved to the start as long as they are generated for unexpected or changed foreign keys,
+     * changesets dropping foreign keys for other objects stay where they are.
+     *
+     * @return the number of changesets passed to the consumer
+     */
+    public int generateChangeSets(ChangeSetConsumer consumer) throws IOException {
+        final ChangeGeneratorFactory changeGeneratorFactory = ChangeGeneratorFactory.getInstance();
+        DatabaseObjectCollectionComparator comparator = new DatabaseObjectCollectionComparator();
+        String created = getCreatedValue();
+
+        Database referenceDatabase = diffResult.getReferenceSnapshot().getDatabase();
+        Database comparisonDatabase = diffResult.getComparisonSnapshot().getDatabase();
+        ObjectQuotingStrategy quotingStrategy = diffOutputControl.getObjectQuotingStrategy();
+        List<Class<? extends DatabaseObject>> unexpectedTypes = getOrderedOutputTypes(UnexpectedObjectChangeGenerator.class);
+        List<Class<? extends DatabaseObject>> changedTypes = getOrderedOutputTypes(ChangedObjectChangeGenerator.class);
+
+        // See generateChangeSets() for why the DiffResult is stored in the comparison database
+        if (comparisonDatabase instanceof AbstractJdbcDatabase) {
+            ((AbstractJdbcDatabase) comparisonDatabase).set("diffResult", diffResult);
+        }
+        try {
+            int count = 0;
+
+            // Changesets for foreign keys that do not drop anything are written where they would be without streaming
+            Map<DatabaseObject, List<ChangeSet>> remainingForeignKeyChangeSets = new IdentityHashMap<>();
+            if (unexpectedTypes.contains(ForeignKey.class)) {
+                for (DatabaseObject object : sortUnexpectedObjects(diffResult.getUnexpectedObjects(ForeignKey.class, comparator), referenceDatabase)) {
+                    if (!comparisonDatabase.isLiquibaseObject(object) && !comparisonDatabase.isSystemObject(object)) {
+                        List<ChangeSet> changeSets = createChangeSets(changeGeneratorFactory.fixUnexpected(object, diffOutputControl, referenceDatabase, comparisonDatabase), quotingStrategy, created);
+                        count += writeDropForeignKeyChangeSets(changeSets, consumer);
+                        remainingForeignKeyChangeSets.put(object, changeSets);
+                    }
+                }
+            }
+            if (changedTypes.contains(ForeignKey.class)) {
+                for (Map.Entry<ForeignKey, ObjectDifferences> entry : diffResult.getChangedObjects(ForeignKey.class, comparator).entrySet()) {
+                    if (!referenceDatabase.isLiquibaseObject(entry.getKey()) && !referenceDatabase.isSystemObject(entry.getKey())) {
+                        List<ChangeSet> changeSets = createChangeSets(changeGeneratorFactory.fixChanged(entry.getKey(), entry.getValue(), diffOutputControl, referenceDatabase, comparisonDatabase), quotingStrategy, created);
+                        count += writeDropForeignKeyChangeSets(changeSets, consumer);
+                        remainingForeignKeyChangeSets.put(entry.getKey(), changeSets);
+                    }
+                }
+            }
+
+            List<DatabaseObject> missingObjects = new ArrayList<>();
+            for (Class<? extends DatabaseObject> type : getOrderedOutputTypes(MissingObjectChangeGenerator.class)) {
+                for (DatabaseObject object : diffResult.getMissingObjects(type, getDatabaseObjectCollectionComparator())) {
+                    if ((object != null) && !referenceDatabase.isLiquibaseObject(object) && !referenceDatabase.isSystemObject(object)) {
+                        missingObjects.add(object);
+                    }
+                }
+            }
+            for (DatabaseObject object : sortMissingObjects(missingObjects, referenceDatabase)) {
+                count += writeChangeSets(createChangeSets(changeGeneratorFactory.fixMissing(object, diffOutputControl, referenceDatabase, comparisonDatabase), quotingStrategy, created), consumer);
+            }
+
+            for (Class<? extends DatabaseObject> type : unexpectedTypes) {
+                for (DatabaseObject object : sortUnexpectedObjects(diffResult.getUnexpectedObjects(type, comparator), referenceDatabase)) {
+                    if (!comparisonDatabase.isLiquibaseObject(object) && !comparisonDatabase.isSystemObject(object)) {
+                        List<ChangeSet> changeSets = remainingForeignKeyChangeSets.remove(object);
+                        if (changeSets == null) {
+                            changeSets = createChangeSets(changeGeneratorFactory.fixUnexpected(object, diffOutputControl, referenceDatabase, comparisonDatabase), quotingStrategy, created);
+                        }
+                        count += writeChangeSets(changeSets, consumer);
+                    }
+                }
+            }
+
+            for (Class<? extends DatabaseObject> type : changedTypes) {
+                for (Map.Entry<? extends DatabaseObject, ObjectDifferences> entry : diffResult.getChangedObjects(type, comparator).entrySet()) {
+                    if (!referenceDatabase.isLiquibaseObject(entry.getKey()) && !referenceDatabase.isSystemObject(entry.getKey())) {
+                        List<ChangeSet> changeSets = remainingForeignKeyChangeSets.remove(entry.getKey());
+                        if (changeSets == null) {
+                            changeSets = createChangeSets(changeGeneratorFactory.fixChanged(entry.getKey(), entry.getValue(), diffOutputControl, referenceDatabase, comparisonDatabase), quotingStrategy, created);
+                        }
+                        count += writeChangeSets(changeSets, consumer);
+                    }
+                }
+            }
+
+            return count;
+        } finally {
+            if (comparisonDatabase instanceof AbstractJdbcDatabase) {
+                ((AbstractJdbcDatabase) comparisonDatabase).set("diffResult", null);
+            }
+        }
+    }
+
+    private String getCreatedValue() {
+        if (GlobalConfiguration.GENERATE_CHANGESET_CREATED_VALUES.getCurrentValue()) {
+            return new SimpleDateFormat("yyyy-MM-dd HH:mmZ").format(new Date());
+        }
+        return null;
+    }
+
+    private List<ChangeSet> createChangeSets(Change[] changes, ObjectQuotingStrategy quotingStrategy, String created) {
+        List<ChangeSet> changeSets = new ArrayList<>();
+        setReplaceIfExistsTrueIfApplicable(changes);
+        addToChangeSets(changes, changeSets, quotingStrategy, created);
+        return changeSets;
+    }
+
+    private static int writeChangeSets(List<ChangeSet> changeSets, ChangeSetConsumer consumer) throws IOException {
+        for (ChangeSet changeSet : changeSets) {
+            consumer.accept(changeSet);
+        }
+        return changeSets.size();
+    }
+
+    /**
+     * Passes the changesets which drop a foreign key to the consumer and removes them from the list.
+     */
+    private static int writeDropForeignKeyChangeSets(List<ChangeSet> changeSets, ChangeSetConsumer consumer) throws IOException {
+        int count = 0;
+        Iterator<ChangeSet> iterator = changeSets.iterator();
+        while (iterator.hasNext()) {
+            ChangeSet changeSet = iterator.next();
+            if (dropsForeignKey(changeSet)) {
+                consumer.accept(changeSet);
+                iterator.remove();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean dropsForeignKey(ChangeSet changeSet) {
+        return changeSet.getChanges().stream().anyMatch(DropForeignKeyConstraintChange.class::isInstance);
+    }
+
     private void setReplaceIfExistsTrueIfApplicable(Change[] changes) {
         if (changes !=null && diffOutputControl.isReplaceIfExistsSet()) {
             for (Change change : changes) {
@@ -381,9 +548,7 @@ public class DiffToChangeLog {
     // drop FK goes first
     //
     private List<ChangeSet> bringDropFKToTop(List<ChangeSet> changeSets) {
-        List<ChangeSet> dropFk = changeSets.stream().filter(cs ->
-            cs.getChanges().stream().anyMatch(DropForeignKeyConstraintChange.class::isInstance)
-        ).collect(Collectors.toList());
+        List<ChangeSet> dropFk = changeSets.stream().filter(DiffToChangeLog::dropsForeignKey).collect(Collectors.toList());
         if (dropFk.isEmpty()) {
             return changeSets;
         }
@@ -450,83 +615,107 @@ public class DiffToChangeLog {
                 schemas.add(database.getDefaultSchemaName());
             }
 
-            try {
-                final List<String> dependencyOrder = new ArrayList<>();
-                DependencyUtil.NodeValueListener<String> nameListener = dependencyOrder::add;
-
-                DependencyUtil.DependencyGraph<String> graph = new DependencyUtil.DependencyGraph<>(nameListener);
-                addDependencies(graph, schemas, database);
-                graph.computeDependencies();
+            final Map<String, Integer> dependencyOrder = getDependencyOrder(schemas, database);
 
-                if (!dependencyOrder.isEmpty()) {
+            if (!dependencyOrder.isEmpty()) {
 
-                    final List<DatabaseObject> toSort = new ArrayList<>();
-                    final List<DatabaseObject> toNotSort = new ArrayList<>();
+                final List<DatabaseObject> toSort = new ArrayList<>();
+                final List<DatabaseObject> toNotSort = new ArrayList<>();
 
-                    for (DatabaseObject obj : objects) {
-                        if (!(obj instanceof Column)) {
-                            String schemaName = null;
-                            if (obj.getSchema() != null) {
-                                schemaName = obj.getSchema().getName();
-                            }
+                for (DatabaseObject obj : objects) {
+                    if (!(obj instanceof Column)) {
+                        String schemaName = null;
+                        if (obj.getSchema() != null) {
+                            schemaName = obj.getSchema().getName();
+                        }
 
-                            String objectName = obj.getName();
-                            String name = schemaName + "." + objectName;
-                            if (dependencyOrder.contains(name) ||
-                                dependencyOrder.contains(convertStoredLogicObjectName(schemaName, objectName, database))) {
-                                toSort.add(obj);
-                            } else {
-                                toNotSort.add(obj);
-                            }
+                        String objectName = obj.getName();
+                        String name = schemaName + "." + objectName;
+                        if (dependencyOrder.containsKey(name) ||
+                            dependencyOrder.containsKey(convertStoredLogicObjectName(schemaName, objectName, database))) {
+                            toSort.add(obj);
                         } else {
                             toNotSort.add(obj);
                         }
+                    } else {
+                        toNotSort.add(obj);
                     }
+                }
 
-                    toSort.sort((o1, o2) -> {
-                        //
-                        // For Postgres, make tables appear before stored logic
-                        //
-                        if (database instanceof PostgresDatabase) {
-                            Integer x = determineOrderingForTablesAndStoredLogic(o1, o2);
-                            if (x != null) {
-                                return x;
-                            }
-                        }
-                        String o1Schema = null;
-                        if (o1.getSchema() != null) {
-                            o1Schema = o1.getSchema().getName();
+                toSort.sort((o1, o2) -> {
+                    //
+                    // For Postgres, make tables appear before stored logic
+                    //
+                    if (database instanceof PostgresDatabase) {
+                        Integer x = determineOrderingForTablesAndStoredLogic(o1, o2);
+                        if (x != null) {
+                            return x;
                         }
+                    }
+                    String o1Schema = null;
+                    if (o1.getSchema() != null) {
+                        o1Schema = o1.getSchema().getName();
+                    }
 
-                        String o2Schema = null;
-                        if (o2.getSchema() != null) {
-                            o2Schema = o2.getSchema().getName();
-                        }
+                    String o2Schema = null;
+                    if (o2.getSchema() != null) {
+                        o2Schema = o2.getSchema().getName();
+                    }
 
-                        Integer o1Order = dependencyOrder.indexOf(o1Schema + "." + o1.getName());
-                        int o2Order = dependencyOrder.indexOf(o2Schema + "." + o2.getName());
+                    int o1Order = dependencyOrder.getOrDefault(o1Schema + "." + o1.getName(), -1);
+                    int o2Order = dependencyOrder.getOrDefault(o2Schema + "." + o2.getName(), -1);
 
-                        int order = o1Order.compareTo(o2Order);
-                        if ("unexpected".equals(type)) {
-                            order = order * -1;
-                        }
-                        return order;
-                    });
+                    int order = Integer.compare(o1Order, o2Order);
+                    if ("unexpected".equals(type)) {
+                        order = order * -1;
+                    }
+                    return order;
+                });
 
-                    toSort.addAll(toNotSort);
-                    return toSort;
-                }
-            } catch (DatabaseException e) {
-                Scope.getCurrentScope().getLog(getClass()).fine("Cannot get object dependencies: " + e.getMessage());
-            } catch (StackOverflowError e) {
-                Scope.getCurrentScope().getLog(getClass()).warning("You have too many or recursive database object dependencies! " +
-                        "Liquibase is going to ignore dependency sorting and resume processing. To skip this message " +
-                        "(and save a lot of processing time) use flag " + AbstractChangelogCommandStep.SKIP_OBJECT_SORTING.getName(), e);
+                toSort.addAll(toNotSort);
+                return toSort;
             }
         }
         return new ArrayList<>(objects);
     }
 
+    /**
+     * Returns the position of each schema.object_name in dependency order. The dependencies of all schemas are read once per snapshot
+     * and kept in its scratch data, so sorting the missing objects and the unexpected objects of each type does not query them again.
+     * Returns an empty map if the dependencies cannot be read.
+     */
+    private Map<String, Integer> getDependencyOrder(List<String> schemas, Database database) {
+        DatabaseSnapshot snapshot = null;
+        if (diffResult.getReferenceSnapshot().getDatabase() == database) {
+            snapshot = diffResult.getReferenceSnapshot();
+        } else if (diffResult.getComparisonSnapshot().getDatabase() == database) {
+            snapshot = diffResult.getComparisonSnapshot();
+        }
+
+        String scratchKey = "DiffToChangeLog.dependencyOrder:" + StringUtil.join(schemas, ",");
+        if (snapshot != null) {
+            Map<String, Integer> cached = (Map<String, Integer>) snapshot.getScratchData(scratchKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Map<String, Integer> dependencyOrder = new HashMap<>();
+        DependencyUtil.DependencyGraph<String> graph = new DependencyUtil.DependencyGraph<>(name -> dependencyOrder.putIfAbsent(name, dependencyOrder.size()));
+        try {
+            addDependencies(graph, schemas, database);
+            graph.computeDependencies();
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot get object dependencies: " + e.getMessage());
+            dependencyOrder.clear();
+        }
+
+        if (snapshot != null) {
+            snapshot.setScratchData(scratchKey, dependencyOrder);
+        }
+        return dependencyOrder;
+    }
+
     private static Integer determineOrderingForTablesAndStoredLogic(DatabaseObject o1, DatabaseObject o2) {
         if (o1 instanceof Table && o2 instanceof StoredDatabaseLogic) {
             return -1;
@@ -989,6 +1178,51 @@ public class DiffToChangeLog {
         return idRoot + "-" + changeNumber++ + desc;
     }
 
+    /**
+     * Receives the changesets created by {@link #generateChangeSets(ChangeSetConsumer)}.
+     */
+    public interface ChangeSetConsumer {
+        void accept(ChangeSet changeSet) throws IOException;
+    }
+
+    /**
+     * Writes streamed changesets to a new changelog file, which is only created once the first changeset arrives.
+     */
+    private static class StreamedChangeLogFile implements ChangeSetConsumer, Closeable {
+
+        private final ChangeLogSerializer changeLogSerializer;
+        private final Resource file;
+        private OutputStream stream;
+        private ChangeLogStreamWriter writer;
+
+        private StreamedChangeLogFile(ChangeLogSerializer changeLogSerializer, Resource file) {
+            this.changeLogSerializer = changeLogSerializer;
+            this.file = file;
+        }
+
+        @Override
+        public void accept(ChangeSet changeSet) throws IOException {
+            if (writer == null) {
+                stream = file.openOutputStream(new OpenOptions());
+                writer = changeLogSerializer.createStreamWriter(stream);
+            }
+            writer.write(changeSet);
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.finish();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+
     private static class DependencyGraph {
 
         private final Map<Class<? extends DatabaseObject>, Node> allNodes = new HashMap<>();
@@ -3,6 +3,7 @@ package liquibase.executor;
 import liquibase.Scope;
 import liquibase.change.AbstractSQLChange;
 import liquibase.change.Change;
+import liquibase.change.StreamingChange;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
@@ -130,7 +131,14 @@ public abstract class AbstractExecutor implements Executor {
 
     @Override
     public void execute(Change change, List<SqlVisitor> sqlVisitors) throws DatabaseException {
-        SqlStatement[] sqlStatements = change.generateStatements(database);
+        if ((change instanceof StreamingChange) && ((StreamingChange) change).generateStatementsInParts(database)) {
+            ((StreamingChange) change).generateStatements(database, statements -> executeStatements(statements, sqlVisitors));
+            return;
+        }
+        executeStatements(change.generateStatements(database), sqlVisitors);
+    }
+
+    private void executeStatements(SqlStatement[] sqlStatements, List<SqlVisitor> sqlVisitors) throws DatabaseException {
         if (sqlStatements != null) {
             for (SqlStatement statement : sqlStatements) {
                 if (statement.skipOnUnsupported() && !SqlGeneratorFactory.getInstance().supports(statement, database)) {
@@ -0,0 +1,459 @@
+package liquibase.lockservice;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.column.LiquibaseColumn;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.executor.jvm.ChangelogJdbcMdcListener;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.SelectFromDatabaseChangeLogLockStatement;
+import liquibase.statement.core.UpdateStatement;
+import liquibase.util.ConcurrencyUtil;
+import liquibase.util.NetUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LockService} which holds the DATABASECHANGELOGLOCK lock as a lease, so that a lock left behind by a killed process
+ * is recovered automatically instead of requiring {@code release-locks}.
+ * <p>
+ * The holder writes a unique lease token to LOCKEDBY and renews it from a background thread every third of
+ * {@link GlobalConfiguration#CHANGELOGLOCK_LEASE_DURATION}, using a separate connection so that renewals are independent of
+ * the transactions of the update. Every renewal writes a new token and sets LOCKGRANTED to the current database time.
+ * A waiting instance which sees the same token for the whole lease duration, measured on its own clock, takes over the lease
+ * with an update that only succeeds if the token is still unchanged, so only one waiter can win and clock differences between
+ * machines do not matter.
+ * <p>
+ * Only locks taken by this service are taken over. If no separate connection can be opened, see
+ * {@link liquibase.database.jvm.JdbcConnection#openNewConnection()}, the lease is renewed on the connection of the update by
+ * {@link #verifyLease()} before each changeset instead, so a single changeset must then finish within the lease duration.
+ * <p>
+ * If the lease is taken over while an update runs, {@link #verifyLease()} fails before the next changeset, and the lock is not
+ * released, since it belongs to the new holder.
+ */
+public class LeaseLockService extends StandardLockService {
+
+    protected static final String LEASE_MARKER = " [lease ";
+
+    private static final int MAX_LOCKED_BY_LENGTH = 255;
+
+    private volatile String leaseOwner;
+    private volatile boolean leaseLost;
+    private String leaseId;
+    private long renewals;
+    private long lastRenewal;
+
+    private ScheduledExecutorService heartbeat;
+    private Database heartbeatDatabase;
+
+    private String observedLockedBy;
+    private long observedSince;
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE + 1;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        Long leaseDuration = GlobalConfiguration.CHANGELOGLOCK_LEASE_DURATION.getCurrentValue();
+        return (leaseDuration != null) && (leaseDuration > 0);
+    }
+
+    @Override
+    public boolean hasChangeLogLock() {
+        return super.hasChangeLogLock() && !leaseLost;
+    }
+
+    @Override
+    public boolean acquireLock() throws LockException {
+        if (hasChangeLogLock) {
+            return true;
+        }
+
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        if (executor instanceof LoggingExecutor) {
+            return super.acquireLock();
+        }
+
+        quotingStrategy = database.getObjectQuotingStrategy();
+        try {
+            database.rollback();
+            this.init();
+
+            String lockedBy = readLockedBy(database, executor);
+            String expectedOwner = null;
+            if (lockedBy != null) {
+                if (!isExpired(lockedBy)) {
+                    return false;
+                }
+                expectedOwner = lockedBy;
+            }
+
+            String newLeaseId = Long.toHexString(random.nextLong());
+            String newOwner = createLeaseOwner(newLeaseId, 0);
+            executor.comment("Lock Database");
+            SqlStatement lockStatement = createLeaseStatement(database, newOwner, expectedOwner);
+            int rowsUpdated = ChangelogJdbcMdcListener.query(database, ex -> updateLockTable(database, ex, lockStatement));
+            if (rowsUpdated == -1) {
+                rowsUpdated = newOwner.equals(readLockedBy(database, executor)) ? 1 : 0;
+            }
+            if (rowsUpdated > 1) {
+                throw new LockException("Did not update change log lock correctly");
+            }
+            if (rowsUpdated == 0) {
+                // another node was faster
+                return false;
+            }
+            database.commit();
+
+            if (expectedOwner == null) {
+                Scope.getCurrentScope().getLog(getClass()).info(coreBundle.getString("successfully.acquired.change.log.lock"));
+            } else {
+                Scope.getCurrentScope().getLog(getClass()).warning("Took over expired change log lock lease of " + expectedOwner);
+            }
+
+            hasChangeLogLock = true;
+            leaseLost = false;
+            leaseId = newLeaseId;
+            renewals = 0;
+            lastRenewal = System.nanoTime();
+            leaseOwner = newOwner;
+            observedLockedBy = null;
+
+            Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).resetAll();
+            database.setCanCacheLiquibaseTableInfo(true);
+            startHeartbeat();
+            return true;
+        } catch (LockException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LockException(e);
+        } finally {
+            try {
+                database.rollback();
+            } catch (DatabaseException e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Failed to rollback", e);
+            }
+        }
+    }
+
+    /**
+     * Fails if the lease was taken over by another instance since this service acquired it.
+     * Called before each changeset of an update, so that an update which lost its lock stops.
+     * <p>
+     * Without a heartbeat connection, this also renews the lease on the connection of the update once a third of the lease
+     * duration has passed, and otherwise checks that LOCKEDBY still holds the current lease.
+     */
+    public void verifyLease() throws LockException {
+        if (hasChangeLogLock && !leaseLost && (heartbeat == null) && (leaseOwner != null)) {
+            checkLeaseOnUpdateConnection();
+        }
+        if (hasChangeLogLock && leaseLost) {
+            throw new LockException("Lost the change log lock lease to another instance, stopping the update");
+        }
+    }
+
+    private void checkLeaseOnUpdateConnection() throws LockException {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        if (executor instanceof LoggingExecutor) {
+            return;
+        }
+        try {
+            String currentOwner = leaseOwner;
+            if ((System.nanoTime() - lastRenewal) >= getRenewalInterval()) {
+                String renewedOwner = createLeaseOwner(leaseId, renewals + 1);
+                SqlStatement renewStatement = createLeaseStatement(database, renewedOwner, currentOwner);
+                int rowsUpdated = ChangelogJdbcMdcListener.query(database, ex -> updateLockTable(database, ex, renewStatement));
+                if (rowsUpdated == -1) {
+                    rowsUpdated = renewedOwner.equals(readLockedBy(database, executor)) ? 1 : 0;
+                }
+                database.commit();
+                if (rowsUpdated == 1) {
+                    renewals++;
+                    lastRenewal = System.nanoTime();
+                    leaseOwner = renewedOwner;
+                    return;
+                }
+            } else if (currentOwner.equals(readLockedBy(database, executor))) {
+                return;
+            }
+            leaseLost = true;
+            Scope.getCurrentScope().getLog(getClass()).severe("Lost the change log lock lease, it is now held by " + readLockedBy(database, executor));
+        } catch (DatabaseException e) {
+            throw new LockException("Cannot verify the change log lock lease: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the time between two lease renewals, in nanoseconds.
+     */
+    private long getRenewalInterval() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(1000, TimeUnit.SECONDS.toMillis(getLeaseDuration()) / 3));
+    }
+
+    /**
+     * Releases the lock with a single update that only succeeds while this service still holds the lease,
+     * so a lease taken over by another instance is never released.
+     */
+    @Override
+    public void releaseLock() throws LockException {
+        stopHeartbeat();
+        String owner = leaseOwner;
+        leaseOwner = null;
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        if (!hasChangeLogLock || (owner == null) || (executor instanceof LoggingExecutor)) {
+            super.releaseLock();
+            return;
+        }
+
+        try {
+            database.rollback();
+            executor.comment("Release Database Lock");
+            SqlStatement releaseStatement = createReleaseStatement(database, owner);
+            int rowsUpdated = ChangelogJdbcMdcListener.query(database, ex -> updateLockTable(database, ex, releaseStatement));
+            if (rowsUpdated == -1) {
+                rowsUpdated = (readLockedBy(database, executor) == null) ? 1 : 0;
+            }
+            database.commit();
+            if (rowsUpdated == 0) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Not releasing change log lock, the lease was taken over by " + readLockedBy(database, executor));
+            } else {
+                Scope.getCurrentScope().getLog(getClass()).info("Successfully released change log lock");
+            }
+        } catch (Exception e) {
+            throw new LockException(e);
+        } finally {
+            hasChangeLogLock = false;
+            database.setCanCacheLiquibaseTableInfo(false);
+            try {
+                database.rollback();
+            } catch (DatabaseException e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Failed to rollback", e);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        stopHeartbeat();
+        leaseOwner = null;
+        leaseLost = false;
+        observedLockedBy = null;
+        super.reset();
+    }
+
+    /**
+     * Returns true if the given lease has not changed for the lease duration, measured from the first time this instance saw it.
+     * Locks which were not taken by a {@link LeaseLockService} never expire.
+     */
+    protected boolean isExpired(String lockedBy) {
+        if (!lockedBy.contains(LEASE_MARKER)) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (!lockedBy.equals(observedLockedBy)) {
+            observedLockedBy = lockedBy;
+            observedSince = now;
+            return false;
+        }
+        return (now - observedSince) >= TimeUnit.SECONDS.toNanos(getLeaseDuration());
+    }
+
+    protected long getLeaseDuration() {
+        return GlobalConfiguration.CHANGELOGLOCK_LEASE_DURATION.getCurrentValue();
+    }
+
+    /**
+     * Returns the LOCKEDBY value for the given renewal of a lease: the host description used by {@link StandardLockService}
+     * followed by the lease id and renewal count.
+     */
+    protected String createLeaseOwner(String leaseId, long renewal) {
+        String hostDescription = (System.getProperty("liquibase.hostDescription") == null) ? "" : ("#" + System.getProperty("liquibase.hostDescription"));
+        String host = NetUtil.getLocalHostName() + hostDescription + " (" + NetUtil.getLocalHostAddress() + ")";
+        String lease = LEASE_MARKER + leaseId + "/" + renewal + "]";
+        if (host.length() + lease.length() > MAX_LOCKED_BY_LENGTH) {
+            host = host.substring(0, MAX_LOCKED_BY_LENGTH - lease.length());
+        }
+        return host + lease;
+    }
+
+    /**
+     * Creates the statement setting the lock to the given owner. If {@code expectedOwner} is null the lock must be free,
+     * otherwise it must still be held by {@code expectedOwner}.
+     */
+    protected SqlStatement createLeaseStatement(Database database, String newOwner, String expectedOwner) {
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            UpdateStatement statement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogLockTableName())
+                    .addNewColumnValue("LOCKED", true)
+                    .addNewColumnValue("LOCKGRANTED", new DatabaseFunction(database.getCurrentDateTimeFunction()))
+                    .addNewColumnValue("LOCKEDBY", newOwner);
+            String whereClause = database.escapeObjectName("ID", LiquibaseColumn.class) + " = 1 AND " + database.escapeObjectName("LOCKED", LiquibaseColumn.class) + " = ";
+            if (expectedOwner == null) {
+                statement.setWhereClause(whereClause + DataTypeFactory.getInstance().getFalseBooleanValue(database));
+            } else {
+                statement.setWhereClause(whereClause + DataTypeFactory.getInstance().getTrueBooleanValue(database) + " AND " + database.escapeObjectName("LOCKEDBY", LiquibaseColumn.class) + " = ?")
+                        .addWhereParameter(expectedOwner);
+            }
+            return statement;
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Creates the statement freeing the lock if it is still held by the given owner.
+     */
+    protected SqlStatement createReleaseStatement(Database database, String owner) {
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            return new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogLockTableName())
+                    .addNewColumnValue("LOCKED", false)
+                    .addNewColumnValue("LOCKGRANTED", null)
+                    .addNewColumnValue("LOCKEDBY", null)
+                    .setWhereClause(database.escapeObjectName("ID", LiquibaseColumn.class) + " = 1 AND "
+                            + database.escapeObjectName("LOCKEDBY", LiquibaseColumn.class) + " = ?")
+                    .addWhereParameter(owner);
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    private int updateLockTable(Database database, Executor executor, SqlStatement statement) throws DatabaseException {
+        // use LEGACY quoting since we're dealing with system objects
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            return executor.update(statement);
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Returns the current LOCKEDBY value, or null if the lock is not held.
+     */
+    private String readLockedBy(Database database, Executor executor) throws DatabaseException {
+        List<Map<String, ?>> rows = executor.queryForList(new SelectFromDatabaseChangeLogLockStatement("LOCKED", "LOCKEDBY"));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object lockedValue = rows.get(0).get("LOCKED");
+        boolean locked;
+        if (lockedValue instanceof Number) {
+            locked = ((Number) lockedValue).intValue() == 1;
+        } else {
+            locked = Boolean.TRUE.equals(lockedValue);
+        }
+        if (!locked) {
+            return null;
+        }
+        return Objects.toString(rows.get(0).get("LOCKEDBY"), "");
+    }
+
+    private void startHeartbeat() {
+        try {
+            heartbeatDatabase = openHeartbeatDatabase();
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot open a separate connection to renew the change log lock lease: " + e.getMessage(), e);
+            heartbeatDatabase = null;
+        }
+        if (heartbeatDatabase == null) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Renewing the change log lock lease between changesets on the update connection. " +
+                    "Other instances take over the lock if a single changeset runs longer than " + getLeaseDuration() + " seconds, and the update then stops.");
+            return;
+        }
+
+        long interval = TimeUnit.NANOSECONDS.toMillis(getRenewalInterval());
+        heartbeat = Executors.newSingleThreadScheduledExecutor(ConcurrencyUtil.newScopedThreadFactory("liquibase-lock-heartbeat"));
+        heartbeat.scheduleWithFixedDelay(this::renewLease, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the connection used to renew the lease in the background, or returns null if none can be opened.
+     */
+    protected Database openHeartbeatDatabase() throws DatabaseException {
+        return DatabaseFactory.getInstance().openAdditionalDatabase(database);
+    }
+
+    /**
+     * Renews the lease on the heartbeat connection. Failures are retried on the next run, unless the lease was taken over.
+     */
+    private void renewLease() {
+        String currentOwner = leaseOwner;
+        if (leaseLost || (currentOwner == null)) {
+            return;
+        }
+        String renewedOwner = createLeaseOwner(leaseId, renewals + 1);
+        JdbcExecutor executor = new JdbcExecutor();
+        executor.setDatabase(heartbeatDatabase);
+        try {
+            int rowsUpdated = updateLockTable(heartbeatDatabase, executor, createLeaseStatement(heartbeatDatabase, renewedOwner, currentOwner));
+            if (rowsUpdated == -1) {
+                rowsUpdated = renewedOwner.equals(readLockedBy(heartbeatDatabase, executor)) ? 1 : 0;
+            }
+            heartbeatDatabase.commit();
+            if (rowsUpdated == 1) {
+                renewals++;
+                leaseOwner = renewedOwner;
+            } else {
+                leaseLost = true;
+                Scope.getCurrentScope().getLog(getClass()).severe("Lost the change log lock lease, it is now held by " +
+                        readLockedBy(heartbeatDatabase, executor) + ". The update stops before its next changeset.");
+            }
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Failed to renew the change log lock lease: " + e.getMessage(), e);
+            try {
+                heartbeatDatabase.rollback();
+            } catch (DatabaseException rollbackException) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Failed to rollback", rollbackException);
+            }
+        }
+    }
+
+    private void stopHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.shutdown();
+            try {
+                if (!heartbeat.awaitTermination(getLeaseDuration(), TimeUnit.SECONDS)) {
+                    heartbeat.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                heartbeat.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            heartbeat = null;
+        }
+        closeHeartbeatDatabase();
+    }
+
+    private void closeHeartbeatDatabase() {
+        if (heartbeatDatabase != null) {
+            try {
+                heartbeatDatabase.close();
+            } catch (DatabaseException e) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Failed to close change log lock lease connection", e);
+            }
+            heartbeatDatabase = null;
+        }
+    }
+}
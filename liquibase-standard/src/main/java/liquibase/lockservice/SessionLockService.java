@@ -0,0 +1,222 @@
+package liquibase.lockservice;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+
+import java.util.Date;
+
+/**
+ * {@link LockService} that waits on a session-level lock provided by the database before taking the DATABASECHANGELOGLOCK
+ * table lock like {@link StandardLockService}. The database wakes up a waiting instance as soon as the holder releases the
+ * lock, instead of every instance polling the lock table.
+ * <p>
+ * Uses {@code pg_advisory_lock} on PostgreSQL, {@code GET_LOCK} on MySQL and MariaDB and {@code sp_getapplock} on SQL Server.
+ * Only used if {@link GlobalConfiguration#CHANGELOGLOCK_USE_DATABASE_LOCK} is set. The lock table is still updated, so
+ * {@link #listLocks()}, {@code release-locks} and instances not using this service keep working.
+ */
+public class SessionLockService extends StandardLockService {
+
+    private boolean hasSessionLock;
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(Database database) {
+        return GlobalConfiguration.CHANGELOGLOCK_USE_DATABASE_LOCK.getCurrentValue()
+                && ((database instanceof PostgresDatabase) || (database instanceof MySQLDatabase) || (database instanceof MSSQLDatabase));
+    }
+
+    @Override
+    public void waitForLock() throws LockException {
+        if (hasChangeLogLock) {
+            return;
+        }
+        long timeToGiveUp = new Date().getTime() + (getChangeLogLockWaitTime() * 1000 * 60);
+        if (!hasSessionLock) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Waiting for database lock " + getLockName());
+            hasSessionLock = requestSessionLock(Math.max(0, timeToGiveUp - new Date().getTime()));
+            if (!hasSessionLock) {
+                throw createLockException();
+            }
+        }
+        try {
+            super.waitForLock();
+        } catch (LockException e) {
+            releaseSessionLock();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean acquireLock() throws LockException {
+        if (hasChangeLogLock) {
+            return true;
+        }
+        boolean acquiredSessionLock = false;
+        if (!hasSessionLock) {
+            hasSessionLock = requestSessionLock(0);
+            if (!hasSessionLock) {
+                return false;
+            }
+            acquiredSessionLock = true;
+        }
+        boolean locked = false;
+        try {
+            locked = super.acquireLock();
+            return locked;
+        } finally {
+            if (!locked && acquiredSessionLock) {
+                releaseSessionLock();
+            }
+        }
+    }
+
+    @Override
+    public void releaseLock() throws LockException {
+        try {
+            super.releaseLock();
+        } finally {
+            releaseSessionLock();
+        }
+    }
+
+    @Override
+    public void reset() {
+        hasSessionLock = false;
+        super.reset();
+    }
+
+    /**
+     * Waits up to the given number of milliseconds for the session lock. Returns false if it was not granted in time.
+     * Returns true without locking if statements are only being logged, e.g. for update-sql.
+     */
+    protected boolean requestSessionLock(long timeoutMillis) throws LockException {
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        if (executor instanceof LoggingExecutor) {
+            return true;
+        }
+        try {
+            if ((database instanceof PostgresDatabase) && (timeoutMillis > 0)) {
+                return requestPostgresSessionLock(executor, timeoutMillis);
+            } else if (database instanceof PostgresDatabase) {
+                return executor.queryForObject(createRequestLockStatement(timeoutMillis), Boolean.class);
+            } else if (database instanceof MySQLDatabase) {
+                return executor.queryForInt(createRequestLockStatement(timeoutMillis)) == 1;
+            } else {
+                return executor.queryForInt(createRequestLockStatement(timeoutMillis)) >= 0;
+            }
+        } catch (DatabaseException e) {
+            throw new LockException(e);
+        }
+    }
+
+    /**
+     * pg_advisory_lock has no timeout of its own, so the session lock_timeout is set while waiting and restored afterwards.
+     * A timeout aborts the current transaction, which is why the attempt runs in a savepoint when not in auto-commit mode.
+     */
+    private boolean requestPostgresSessionLock(Executor executor, long timeoutMillis) throws DatabaseException {
+        boolean inTransaction = !database.getConnection().getAutoCommit();
+        String previousTimeout = executor.queryForObject(new RawParameterizedSqlStatement("SELECT current_setting('lock_timeout')"), String.class);
+        if (inTransaction) {
+            executor.execute(new RawParameterizedSqlStatement("SAVEPOINT liquibase_session_lock"));
+        }
+        boolean locked = false;
+        try {
+            executor.queryForObject(createLockTimeoutStatement(timeoutMillis + "ms"), String.class);
+            executor.queryForObject(createRequestLockStatement(timeoutMillis), Object.class);
+            locked = true;
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Did not get database lock " + getLockName() + ": " + e.getMessage());
+        }
+        if (inTransaction) {
+            executor.execute(new RawParameterizedSqlStatement(locked ? "RELEASE SAVEPOINT liquibase_session_lock" : "ROLLBACK TO SAVEPOINT liquibase_session_lock"));
+        }
+        executor.queryForObject(createLockTimeoutStatement(previousTimeout), String.class);
+        return locked;
+    }
+
+    /**
+     * Statement requesting the session lock. On PostgreSQL a timeout of 0 uses the non-blocking pg_try_advisory_lock,
+     * otherwise the wait is bounded by the lock_timeout set through {@link #createLockTimeoutStatement(String)}.
+     */
+    protected SqlStatement createRequestLockStatement(long timeoutMillis) {
+        String lockName = getLockName();
+        if (database instanceof PostgresDatabase) {
+            String function = (timeoutMillis > 0) ? "pg_advisory_lock" : "pg_try_advisory_lock";
+            return new RawParameterizedSqlStatement("SELECT " + function + "(?)", (long) lockName.hashCode());
+        } else if (database instanceof MySQLDatabase) {
+            long timeoutSeconds = (timeoutMillis + 999) / 1000;
+            return new RawParameterizedSqlStatement("SELECT GET_LOCK(?, ?)", lockName, timeoutSeconds);
+        } else {
+            return new RawParameterizedSqlStatement("SET NOCOUNT ON; DECLARE @result INT; " +
+                    "EXEC @result = sp_getapplock @Resource = ?, @LockMode = 'Exclusive', @LockOwner = 'Session', @LockTimeout = ?; " +
+                    "SELECT @result", lockName, timeoutMillis);
+        }
+    }
+
+    /**
+     * Statement releasing the session lock.
+     */
+    protected SqlStatement createReleaseLockStatement() {
+        String lockName = getLockName();
+        if (database instanceof PostgresDatabase) {
+            return new RawParameterizedSqlStatement("SELECT pg_advisory_unlock(?)", (long) lockName.hashCode());
+        } else if (database instanceof MySQLDatabase) {
+            return new RawParameterizedSqlStatement("SELECT RELEASE_LOCK(?)", lockName);
+        } else {
+            return new RawParameterizedSqlStatement("EXEC sp_releaseapplock @Resource = ?, @LockOwner = 'Session'", lockName);
+        }
+    }
+
+    /**
+     * PostgreSQL statement setting the session-level lock_timeout, unlike SET LOCAL it does not need a new transaction.
+     */
+    protected SqlStatement createLockTimeoutStatement(String timeout) {
+        return new RawParameterizedSqlStatement("SELECT set_config('lock_timeout', ?, false)", timeout);
+    }
+
+    protected void releaseSessionLock() {
+        if (!hasSessionLock) {
+            return;
+        }
+        hasSessionLock = false;
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        if (executor instanceof LoggingExecutor) {
+            return;
+        }
+        try {
+            if (database instanceof MSSQLDatabase) {
+                executor.execute(createReleaseLockStatement());
+            } else {
+                executor.queryForObject(createReleaseLockStatement(), Object.class);
+            }
+            database.commit();
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Failed to release database lock " + getLockName() + ", it will be released when the connection is closed", e);
+        }
+    }
+
+    /**
+     * Name of the session lock, derived from the lock table so that instances using different lock tables do not block each other.
+     * Kept short because MySQL limits lock names to 64 characters.
+     */
+    protected String getLockName() {
+        String lockTable = database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(),
+                database.getDatabaseChangeLogLockTableName());
+        return "liquibase-" + Integer.toHexString(lockTable.hashCode());
+    }
+}
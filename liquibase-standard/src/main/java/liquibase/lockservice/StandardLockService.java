@@ -56,6 +56,8 @@ public class StandardLockService implements LockService {
     protected ObjectQuotingStrategy quotingStrategy;
     protected final SecureRandom random = new SecureRandom();
 
+    protected static final long ADAPTIVE_INITIAL_RECHECK_MILLIS = 250;
+
 
     public StandardLockService() {
         //Empty constructor
@@ -260,11 +262,12 @@ public class StandardLockService implements LockService {
         long timeToGiveUp = new Date().getTime() + (getChangeLogLockWaitTime() * 1000 * 60);
 
         locked = acquireLock();
+        int attempt = 0;
         do {
             if (!locked) {
                 Scope.getCurrentScope().getLog(getClass()).info("Waiting for changelog lock....");
                 try {
-                    Thread.sleep(getChangeLogLockRecheckTime() * 1000);
+                    Thread.sleep(getRecheckDelay(attempt++, timeToGiveUp));
                 } catch (InterruptedException e) {
                     // Restore thread interrupt status
                     Thread.currentThread().interrupt();
@@ -274,18 +277,43 @@ public class StandardLockService implements LockService {
         } while (!locked && (new Date().getTime() < timeToGiveUp));
 
         if (!locked) {
-            DatabaseChangeLogLock[] locks = listLocks();
-            String lockedBy;
-            if (locks.length > 0) {
-                DatabaseChangeLogLock lock = locks[0];
-                lockedBy = lock.getLockedBy() + " since " +
-                        DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT)
-                                .format(lock.getLockGranted());
-            } else {
-                lockedBy = "UNKNOWN";
-            }
-            throw new LockException("Could not acquire change log lock.  Currently locked by " + lockedBy);
+            throw createLockException();
+        }
+    }
+
+    /**
+     * Returns the number of milliseconds to wait before the given retry of {@link #acquireLock()}.
+     * Normally this is the {@link #getChangeLogLockRecheckTime()}. With {@link GlobalConfiguration#CHANGELOGLOCK_ADAPTIVE_POLL_RATE}
+     * it starts at {@link #ADAPTIVE_INITIAL_RECHECK_MILLIS} and doubles on every retry up to the recheck time, picking a random
+     * value in the upper half of that range so that instances started together do not retry in lockstep.
+     * The delay never extends past the given give-up time.
+     */
+    protected long getRecheckDelay(int attempt, long timeToGiveUp) {
+        long maxDelay = getChangeLogLockRecheckTime() * 1000;
+        long delay = maxDelay;
+        if (GlobalConfiguration.CHANGELOGLOCK_ADAPTIVE_POLL_RATE.getCurrentValue()) {
+            delay = Math.min(maxDelay, ADAPTIVE_INITIAL_RECHECK_MILLIS << Math.min(attempt, 20));
+            delay = (delay / 2) + (long) (random.nextDouble() * ((delay / 2) + 1));
+        }
+        long remaining = timeToGiveUp - new Date().getTime();
+        return Math.max(0, Math.min(delay, remaining));
+    }
+
+    /**
+     * Creates the exception thrown when the lock could not be acquired in time, describing the current lock holder.
+     */
+    protected LockException createLockException() throws LockException {
+        DatabaseChangeLogLock[] locks = listLocks();
+        String lockedBy;
+        if (locks.length > 0) {
+            DatabaseChangeLogLock lock = locks[0];
+            lockedBy = lock.getLockedBy() + " since " +
+                    DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT)
+                            .format(lock.getLockGranted());
+        } else {
+            lockedBy = "UNKNOWN";
         }
+        return new LockException("Could not acquire change log lock.  Currently locked by " + lockedBy);
     }
 
     @Override
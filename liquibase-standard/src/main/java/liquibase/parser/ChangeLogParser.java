@@ -31,4 +31,15 @@ public interface ChangeLogParser extends LiquibaseParser {
      * @return true if the file format is supported, false if it is not.
      */
     boolean supports(String changeLogFile, ResourceAccessor resourceAccessor);
+
+    /**
+     * Reads the given file ahead of a later call to {@link #parse(String, ChangeLogParameters, ResourceAccessor)} so that the
+     * call can reuse the result instead of reading the file again. Implementations must not modify any {@link ChangeLogParameters}
+     * here because this may be called concurrently for multiple included files.
+     * Results are handed over through {@link ParsedChangeLogCache}, and are only kept while {@link ParsedChangeLogCache#PREFETCHED_SCOPE_KEY} is set.
+     * <p>
+     * By default does nothing, in which case the file is only read by parse().
+     */
+    default void prefetch(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+    }
 }
@@ -15,6 +15,8 @@ public class ChangeLogParserConfiguration implements AutoloadedConfigurations {
     public static final ConfigurationDefinition<MissingIncludeConfiguration> ON_MISSING_INCLUDE_CHANGELOG;
     public static final ConfigurationDefinition<Boolean> ERROR_ON_CIRCULAR_INCLUDE_ALL;
     public static final ConfigurationDefinition<MissingIncludeConfiguration> ON_MISSING_SQL_FILE;
+    public static final ConfigurationDefinition<String> PARSED_CHANGELOG_CACHE_DIRECTORY;
+    public static final ConfigurationDefinition<Integer> CHANGELOG_PARSE_THREADS;
 
     static {
         ConfigurationDefinition.Builder builder = new ConfigurationDefinition.Builder("liquibase");
@@ -56,6 +58,15 @@ public class ChangeLogParserConfiguration implements AutoloadedConfigurations {
                 .setDefaultValue(MissingIncludeConfiguration.FAIL)
                 .setHidden(true)
                 .build();
+
+        PARSED_CHANGELOG_CACHE_DIRECTORY = builder.define("parsedChangelogCacheDirectory", String.class)
+                .setDescription("Local directory used to cache parsed XML and YAML changelog files. Files whose contents have not changed since they were cached are loaded from this directory instead of being parsed again. Caching is disabled if not set.")
+                .build();
+
+        CHANGELOG_PARSE_THREADS = builder.define("changelogParseThreads", Integer.class)
+                .setDescription("Number of threads used to read the files of an include or includeAll concurrently. Included changesets are still added in their original order. Set to 1 to read included files one at a time.")
+                .setDefaultValue(1)
+                .build();
     }
 
     public enum MissingPropertyMode {
@@ -0,0 +1,222 @@
+package liquibase.parser;
+
+import liquibase.Scope;
+import liquibase.SingletonObject;
+import liquibase.resource.Resource;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.StreamUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+/**
+ * Persists the format-neutral result of reading a single changelog file to a local directory so that unchanged files
+ * do not need to be run through the XML or YAML parsers again on the next run.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the raw file contents together with the parser, its settings and the Liquibase version,
+ * so any edit to a file causes it to be re-parsed. Only the raw, pre-expansion parse result is stored: changelog parameters are still
+ * expanded and includes are still resolved on every run, which means each included file is cached and invalidated on its own and
+ * the effective {@link liquibase.changelog.ChangeLogParameters} never need to be part of the key.
+ * <p>
+ * Caching is disabled unless {@link ChangeLogParserConfiguration#PARSED_CHANGELOG_CACHE_DIRECTORY} is set.
+ * Any problem reading or writing the cache is logged and treated as a cache miss.
+ * <p>
+ * This class also hands over results read ahead of time by {@link ChangeLogParser#prefetch(String, ResourceAccessor)}.
+ * Prefetched results are held in the map stored under {@link #PREFETCHED_SCOPE_KEY} in the current scope, and each is used at most once.
+ */
+public class ParsedChangeLogCache implements SingletonObject {
+
+    /**
+     * Scope key for the {@code Map<String, Serializable>} that holds prefetched parse results. Must be thread-safe.
+     */
+    public static final String PREFETCHED_SCOPE_KEY = "liquibase.prefetchedChangelogs";
+
+    private static final String CACHE_FILE_EXTENSION = ".parsed";
+
+    /**
+     * Parses the contents of a changelog resource into a serializable, format-neutral structure.
+     */
+    @FunctionalInterface
+    public interface ResourceParser<T extends Serializable, E extends Exception> {
+        T parse(InputStream stream) throws IOException, E;
+    }
+
+    private ParsedChangeLogCache() {
+    }
+
+    /**
+     * Returns true if a cache directory has been configured.
+     */
+    public boolean isEnabled() {
+        return getCacheDirectory() != null;
+    }
+
+    /**
+     * Returns the parsed contents of the given resource, either from the cache or by calling the given parser.
+     * A freshly parsed result is written to the cache before it is returned, so callers are free to modify the returned object.
+     *
+     * @param resource the changelog resource to parse
+     * @param parserKey identifies the parser and any settings that change its output, e.g. the parser class name plus whether it validates
+     * @param type the expected type of the parse result
+     * @param parser called with the resource contents on a cache miss
+     */
+    public <T extends Serializable, E extends Exception> T parse(Resource resource, String parserKey, Class<T> type, ResourceParser<T, E> parser) throws IOException, E {
+        Map<String, Serializable> prefetched = getPrefetched();
+        if (prefetched != null) {
+            Serializable value = prefetched.remove(getPrefetchKey(resource, parserKey));
+            if (type.isInstance(value)) {
+                return type.cast(value);
+            }
+        }
+
+        Path cacheDirectory = getCacheDirectory();
+        if (cacheDirectory == null) {
+            try (InputStream stream = resource.openInputStream()) {
+                return parser.parse(stream);
+            }
+        }
+
+        byte[] contents;
+        try (InputStream stream = resource.openInputStream()) {
+            contents = StreamUtil.readStream(stream);
+        }
+
+        Path cacheFile = cacheDirectory.resolve(computeKey(parserKey, contents) + CACHE_FILE_EXTENSION);
+        T cached = read(cacheFile, type);
+        if (cached != null) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Loaded parsed changelog " + resource.getPath() + " from cache " + cacheFile);
+            return cached;
+        }
+
+        T parsed = parser.parse(new ByteArrayInputStream(contents));
+        if (parsed != null) {
+            write(cacheDirectory, cacheFile, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses the given resource like {@link #parse(Resource, String, Class, ResourceParser)} and keeps the result for the next call to parse() for the same resource and parser.
+     * Does nothing if there is no {@link #PREFETCHED_SCOPE_KEY} map in the current scope.
+     */
+    public <T extends Serializable, E extends Exception> void prefetch(Resource resource, String parserKey, Class<T> type, ResourceParser<T, E> parser) throws IOException, E {
+        Map<String, Serializable> prefetched = getPrefetched();
+        if (prefetched == null) {
+            return;
+        }
+        String prefetchKey = getPrefetchKey(resource, parserKey);
+        if (prefetched.containsKey(prefetchKey)) {
+            return;
+        }
+        T parsed = parse(resource, parserKey, type, parser);
+        if (parsed != null) {
+            prefetched.put(prefetchKey, parsed);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Serializable> getPrefetched() {
+        return Scope.getCurrentScope().get(PREFETCHED_SCOPE_KEY, Map.class);
+    }
+
+    private String getPrefetchKey(Resource resource, String parserKey) {
+        return resource.getUri() + "\n" + parserKey;
+    }
+
+    private Path getCacheDirectory() {
+        String directory = ChangeLogParserConfiguration.PARSED_CHANGELOG_CACHE_DIRECTORY.getCurrentValue();
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        return Paths.get(directory.trim());
+    }
+
+    static String computeKey(String parserKey, byte[] contents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(LiquibaseUtil.getBuildVersion().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(parserKey.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(contents);
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T read(Path cacheFile, Class<T> type) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (ObjectInputStream stream = new RestrictedObjectInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            Object value = stream.readObject();
+            if (type.isInstance(value)) {
+                return type.cast(value);
+            }
+            Scope.getCurrentScope().getLog(getClass()).fine("Ignoring cached changelog " + cacheFile + " with unexpected type " + (value == null ? null : value.getClass().getName()));
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read cached changelog " + cacheFile + ": " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    private void write(Path cacheDirectory, Path cacheFile, Serializable value) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheDirectory);
+            tempFile = Files.createTempFile(cacheDirectory, "liquibase-", ".tmp");
+            try (ObjectOutputStream stream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                stream.writeObject(value);
+            }
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot write cached changelog " + cacheFile + ": " + e.getMessage(), e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    //nothing to clean up
+                }
+            }
+        }
+    }
+
+    /**
+     * Only allows the plain JDK value types produced by the changelog parsers to be deserialized from the cache directory.
+     */
+    private static class RestrictedObjectInputStream extends ObjectInputStream {
+
+        RestrictedObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            if (!(name.startsWith("java.lang.")
+                    || name.startsWith("java.math.")
+                    || name.startsWith("java.util.")
+                    || name.equals("java.sql.Timestamp")
+                    || name.startsWith("[")
+                    || name.equals("liquibase.parser.core.ParsedNode"))) {
+                throw new InvalidClassException(name, "Class is not allowed in the parsed changelog cache");
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
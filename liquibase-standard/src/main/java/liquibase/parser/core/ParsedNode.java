@@ -7,6 +7,7 @@ import liquibase.statement.SequenceNextValueFunction;
 import liquibase.util.ISODateFormat;
 import liquibase.util.StringUtil;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
@@ -25,7 +26,9 @@ import java.util.*;
  * <li>The value node cannot be a ParsedNode. If you attempt to set value to be or contain a ParsedNode it will actually be set as a child</li>
  * </ul>
  */
-public class ParsedNode {
+public class ParsedNode implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final String namespace;
     private final String name;
     private final List<ParsedNode> children = new ArrayList<>();
@@ -0,0 +1,43 @@
+package liquibase.parser.core.binary;
+
+import liquibase.exception.LiquibaseParseException;
+import liquibase.parser.SnapshotParser;
+import liquibase.resource.Resource;
+import liquibase.resource.ResourceAccessor;
+import liquibase.serializer.core.binary.BinarySnapshotReader;
+import liquibase.snapshot.DatabaseSnapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads snapshots saved with {@link liquibase.serializer.core.binary.BinarySnapshotSerializer}, for example as the reference
+ * of an offline diff with {@code offline:postgresql?snapshot=reference.lbsnap}.
+ */
+public class BinarySnapshotParser implements SnapshotParser {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DEFAULT;
+    }
+
+    @Override
+    public boolean supports(String path, ResourceAccessor resourceAccessor) {
+        return path.toLowerCase().endsWith(".lbsnap");
+    }
+
+    @Override
+    public DatabaseSnapshot parse(String path, ResourceAccessor resourceAccessor) throws LiquibaseParseException {
+        try {
+            Resource resource = resourceAccessor.get(path);
+            if (resource == null) {
+                throw new LiquibaseParseException(path + " does not exist");
+            }
+            try (InputStream stream = resource.openInputStream()) {
+                return new BinarySnapshotReader().read(stream);
+            }
+        } catch (IOException e) {
+            throw new LiquibaseParseException("Cannot read binary snapshot " + path + ": " + e.getMessage(), e);
+        }
+    }
+}
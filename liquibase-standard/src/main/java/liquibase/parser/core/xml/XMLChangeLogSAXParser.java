@@ -4,6 +4,7 @@ import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.ParsedChangeLogCache;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.Resource;
 import liquibase.resource.ResourceAccessor;
@@ -16,7 +17,6 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Collections;
 import java.util.Set;
 
@@ -73,9 +73,21 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
 
     @Override
     protected ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        return readNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor, false);
+    }
+
+    @Override
+    public void prefetch(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        readNode(physicalChangeLogLocation, null, resourceAccessor, true);
+    }
+
+    private ParsedNode readNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor, boolean prefetch) throws ChangeLogParseException {
         try {
             Resource resource = resourceAccessor.get(physicalChangeLogLocation);
-            SAXParser parser = saxParserFactory.newSAXParser();
+            SAXParser parser;
+            synchronized (saxParserFactory) {
+                parser = saxParserFactory.newSAXParser();
+            }
             if (GlobalConfiguration.SECURE_PARSING.getCurrentValue()) {
                 try {
                     parser.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "http,https"); //need to allow external schemas on http/https to support the liquibase.org xsd files
@@ -110,21 +122,28 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
             if (!resource.exists()) {
                 if (physicalChangeLogLocation.startsWith("WEB-INF/classes/")) {
                     // Correct physicalChangeLogLocation and try again.
-                    return parseToNode(
+                    return readNode(
                             physicalChangeLogLocation.replaceFirst("WEB-INF/classes/", ""),
-                            changeLogParameters, resourceAccessor);
+                            changeLogParameters, resourceAccessor, prefetch);
                 } else {
                     throw new ChangeLogParseException(FileUtil.getFileNotFoundMessage(physicalChangeLogLocation));
                 }
             }
 
-            XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
-            xmlReader.setContentHandler(contentHandler);
-            try (InputStream stream = resource.openInputStream()) {
+            String parserKey = getClass().getName() + ";validating=" + saxParserFactory.isValidating();
+            ParsedChangeLogCache.ResourceParser<ParsedNode, SAXException> resourceParser = stream -> {
+                XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
+                xmlReader.setContentHandler(contentHandler);
                 xmlReader.parse(new InputSource(new BomAwareInputStream(stream)));
-            }
 
-            return contentHandler.getDatabaseChangeLogTree();
+                return contentHandler.getDatabaseChangeLogTree();
+            };
+            ParsedChangeLogCache cache = Scope.getCurrentScope().getSingleton(ParsedChangeLogCache.class);
+            if (prefetch) {
+                cache.prefetch(resource, parserKey, ParsedNode.class, resourceParser);
+                return null;
+            }
+            return cache.parse(resource, parserKey, ParsedNode.class, resourceParser);
         } catch (ChangeLogParseException e) {
             throw e;
         } catch (IOException e) {
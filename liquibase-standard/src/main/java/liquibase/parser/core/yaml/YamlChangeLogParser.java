@@ -9,6 +9,7 @@ import liquibase.exception.ChangeLogParseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ParsedChangeLogCache;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.Resource;
 import liquibase.resource.ResourceAccessor;
@@ -29,18 +30,14 @@ public class YamlChangeLogParser extends YamlParser implements ChangeLogParser {
 
     @Override
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
-        Yaml yaml = new Yaml(new CustomSafeConstructor(createLoaderOptions()));
-
         try {
             Resource changelog = resourceAccessor.get(physicalChangeLogLocation);
             if (!changelog.exists()) {
                 throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
             }
 
-            Map parsedYaml;
-            try (InputStream changeLogStream = changelog.openInputStream()) {
-                parsedYaml = parseYamlStream(physicalChangeLogLocation, yaml, changeLogStream);
-            }
+            Map parsedYaml = Scope.getCurrentScope().getSingleton(ParsedChangeLogCache.class).parse(changelog, getClass().getName(), HashMap.class,
+                    changeLogStream -> readYaml(physicalChangeLogLocation, changeLogStream));
 
             if ((parsedYaml == null) || parsedYaml.isEmpty()) {
                 throw new ChangeLogParseException("Empty file " + physicalChangeLogLocation);
@@ -99,6 +96,28 @@ public class YamlChangeLogParser extends YamlParser implements ChangeLogParser {
         }
     }
 
+    @Override
+    public void prefetch(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        try {
+            Resource changelog = resourceAccessor.get(physicalChangeLogLocation);
+            if (changelog.exists()) {
+                Scope.getCurrentScope().getSingleton(ParsedChangeLogCache.class).prefetch(changelog, getClass().getName(), HashMap.class,
+                        changeLogStream -> readYaml(physicalChangeLogLocation, changeLogStream));
+            }
+        } catch (IOException e) {
+            throw new ChangeLogParseException("Error reading " + physicalChangeLogLocation + " : " + e.getMessage(), e);
+        }
+    }
+
+    private HashMap readYaml(String physicalChangeLogLocation, InputStream changeLogStream) throws ChangeLogParseException {
+        Yaml yaml = new Yaml(new CustomSafeConstructor(createLoaderOptions()));
+        Map parsed = parseYamlStream(physicalChangeLogLocation, yaml, changeLogStream);
+        if (parsed == null || parsed instanceof HashMap) {
+            return (HashMap) parsed;
+        }
+        return new LinkedHashMap(parsed);
+    }
+
     private Map parseYamlStream(String physicalChangeLogLocation, Yaml yaml, InputStream changeLogStream) throws ChangeLogParseException {
         Map parsedYaml;
         try {
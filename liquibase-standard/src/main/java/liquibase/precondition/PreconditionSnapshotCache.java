@@ -0,0 +1,173 @@
+package liquibase.precondition;
+
+import liquibase.CatalogAndSchema;
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.Change;
+import liquibase.change.core.*;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.LiquibaseTableNamesFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Schema;
+import liquibase.structure.core.Table;
+
+import java.util.*;
+
+/**
+ * Keeps the objects read by existence preconditions for the length of one update, so that a changelog with many guarded changesets
+ * does not read the same metadata again for every precondition.
+ * <p>
+ * The first check of an object type in a schema reads all objects of that type in the schema at once, and later checks are
+ * answered from it. After each changeset the schemas holding objects it changed are read again on their next check. Changes
+ * which only modify data leave the cache alone, and changes whose affected objects are not known, such as raw SQL, clear it.
+ * <p>
+ * The cache for the current update is stored under {@link #SCOPE_KEY}. Without one, or if
+ * {@link GlobalConfiguration#PRECONDITION_SNAPSHOT_CACHE} is disabled, checks go to {@link SnapshotGeneratorFactory} as before.
+ */
+public class PreconditionSnapshotCache {
+
+    public static final String SCOPE_KEY = "preconditionSnapshots";
+
+    private final Map<String, Map<Class<? extends DatabaseObject>, DatabaseSnapshot>> snapshotsBySchema = new HashMap<>();
+
+    /**
+     * Checks if the given object exists, using the cache of the current update if there is one.
+     *
+     * @see SnapshotGeneratorFactory#has(DatabaseObject, Database)
+     */
+    public static boolean has(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        PreconditionSnapshotCache cache = getCurrent(database);
+        if (cache == null) {
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+        return cache.contains(example, database);
+    }
+
+    /**
+     * Checks if the given object exists without searching nested objects, using the cache of the current update if there is one.
+     *
+     * @see SnapshotGeneratorFactory#hasIgnoreNested(DatabaseObject, Database)
+     */
+    public static boolean hasIgnoreNested(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        PreconditionSnapshotCache cache = getCurrent(database);
+        if (cache == null) {
+            return SnapshotGeneratorFactory.getInstance().hasIgnoreNested(example, database);
+        }
+        return cache.contains(example, database);
+    }
+
+    /**
+     * Returns the cache of the current update, or null if there is none or it cannot be used for the given database.
+     */
+    public static PreconditionSnapshotCache getCurrent(Database database) {
+        PreconditionSnapshotCache cache = Scope.getCurrentScope().get(SCOPE_KEY, PreconditionSnapshotCache.class);
+        if ((cache == null) || !GlobalConfiguration.PRECONDITION_SNAPSHOT_CACHE.getCurrentValue()
+                || !(database.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+        return cache;
+    }
+
+    /**
+     * Returns true if an object matching the given example is in the database.
+     */
+    public synchronized boolean contains(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        if (isLiquibaseTable(example, database)) {
+            // created and changed outside changesets, so always checked directly
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+
+        CatalogAndSchema catalogAndSchema = (example.getSchema() == null) ? database.getDefaultSchema() : example.getSchema().toCatalogAndSchema();
+        catalogAndSchema = catalogAndSchema.customize(database);
+
+        Map<Class<? extends DatabaseObject>, DatabaseSnapshot> snapshots = snapshotsBySchema.computeIfAbsent(getKey(catalogAndSchema), k -> new HashMap<>());
+        DatabaseSnapshot snapshot = snapshots.get(example.getClass());
+        if (snapshot == null) {
+            SnapshotControl snapshotControl = new SnapshotControl(database, example.getClass());
+            snapshotControl.setWarnIfObjectNotFound(false);
+            snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(catalogAndSchema, database, snapshotControl);
+            snapshots.put(example.getClass(), snapshot);
+        }
+
+        if (snapshot.get(example) != null) {
+            return true;
+        }
+        for (DatabaseObject object : snapshot.get(example.getClass())) {
+            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(example, object, null, database)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets what was read for the schemas the changes of the given changeset affected.
+     */
+    public synchronized void changeSetExecuted(ChangeSet changeSet, Database database) {
+        if (snapshotsBySchema.isEmpty()) {
+            return;
+        }
+        for (Change change : changeSet.getChanges()) {
+            if (isDataChange(change)) {
+                continue;
+            }
+            Set<DatabaseObject> affectedObjects;
+            try {
+                affectedObjects = change.getAffectedDatabaseObjects(database);
+            } catch (RuntimeException e) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Cannot determine objects affected by " + change.getClass().getName() + ": " + e.getMessage(), e);
+                affectedObjects = null;
+            }
+            if ((affectedObjects == null) || affectedObjects.isEmpty()) {
+                clear();
+                return;
+            }
+            for (DatabaseObject object : affectedObjects) {
+                Schema schema = (object instanceof Schema) ? (Schema) object : object.getSchema();
+                if (schema == null) {
+                    clear();
+                    return;
+                }
+                snapshotsBySchema.remove(getKey(schema.toCatalogAndSchema().customize(database)));
+            }
+        }
+    }
+
+    /**
+     * Forgets everything read so far.
+     */
+    public synchronized void clear() {
+        snapshotsBySchema.clear();
+    }
+
+    private static boolean isDataChange(Change change) {
+        return (change instanceof InsertDataChange) || (change instanceof AbstractModifyDataChange) || (change instanceof LoadDataChange)
+                || (change instanceof TagDatabaseChange) || (change instanceof OutputChange) || (change instanceof EmptyChange)
+                || (change instanceof StopChange);
+    }
+
+    private static boolean isLiquibaseTable(DatabaseObject example, Database database) {
+        if (!(example instanceof Table) || (example.getName() == null)) {
+            return false;
+        }
+        LiquibaseTableNamesFactory liquibaseTableNamesFactory = Scope.getCurrentScope().getSingleton(LiquibaseTableNamesFactory.class);
+        for (String tableName : liquibaseTableNamesFactory.getLiquibaseTableNames(database)) {
+            if (tableName.equalsIgnoreCase(example.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getKey(CatalogAndSchema catalogAndSchema) {
+        return catalogAndSchema.toString().toLowerCase(Locale.US);
+    }
+}
@@ -9,7 +9,7 @@ import liquibase.exception.PreconditionFailedException;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
 import liquibase.precondition.AbstractPrecondition;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionSnapshotCache;
 import liquibase.structure.core.ForeignKey;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
@@ -53,7 +53,7 @@ public class ForeignKeyExistsPrecondition extends AbstractPrecondition {
             String schemaName = getSchemaName() != null ? getSchemaName() : database.getDefaultSchemaName();
             example.getForeignKeyTable().setSchema(new Schema(catalogName, schemaName));
 
-            if (!SnapshotGeneratorFactory.getInstance().hasIgnoreNested(example, database)) {
+            if (!PreconditionSnapshotCache.hasIgnoreNested(example, database)) {
                 throw new PreconditionFailedException("Foreign Key " +
                     database.escapeIndexName(catalogName, schemaName, foreignKeyName) + " does not exist",
                     changeLog,
@@ -7,7 +7,7 @@ import liquibase.database.Database;
 import liquibase.database.core.*;
 import liquibase.exception.*;
 import liquibase.precondition.AbstractPrecondition;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionSnapshotCache;
 import liquibase.structure.core.PrimaryKey;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
@@ -54,7 +54,7 @@ public class PrimaryKeyExistsPrecondition extends AbstractPrecondition {
             example.setTable(table);
             example.setName(getPrimaryKeyName());
 
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionSnapshotCache.has(example, database)) {
                 if (tableName != null) {
                     throw new PreconditionFailedException("Primary Key does not exist on " + database.escapeObjectName(getTableName(), Table.class), changeLog, this);
                 } else {
@@ -8,7 +8,7 @@ import liquibase.database.core.PostgresDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.*;
 import liquibase.precondition.AbstractPrecondition;
-import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.precondition.PreconditionSnapshotCache;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Sequence;
 
@@ -66,7 +66,7 @@ public class SequenceExistsPrecondition extends AbstractPrecondition {
                 checkPostgresSequence(database, changeLog);
             } else {
                 Schema schema = new Schema(getCatalogName(), getSchemaName());
-                if (!SnapshotGeneratorFactory.getInstance().has(new Sequence().setName(getSequenceName()).setSchema(schema), database)) {
+                if (!PreconditionSnapshotCache.has(new Sequence().setName(getSequenceName()).setSchema(schema), database)) {
                     throw new PreconditionFailedException("Sequence " + database.escapeSequenceName(getCatalogName(), getSchemaName(), getSequenceName()) + " does not exist", changeLog, this);
                 }
             }
@@ -13,8 +13,8 @@ import liquibase.exception.PreconditionFailedException;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
 import liquibase.precondition.AbstractPrecondition;
+import liquibase.precondition.PreconditionSnapshotCache;
 import liquibase.snapshot.InvalidExampleException;
-import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.UniqueConstraint;
 import liquibase.util.StringUtil;
@@ -111,7 +111,7 @@ public class UniqueConstraintExistsPrecondition extends AbstractPrecondition {
 		}
 
 		try {
-			if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+			if (!PreconditionSnapshotCache.has(example, database)) {
 				throw new PreconditionFailedException(String.format("%s does not exist", example), changeLog, this);
 			}
 		} catch (DatabaseException | InvalidExampleException e) {
@@ -7,10 +7,30 @@ import liquibase.servicelocator.PrioritizedService;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface ChangeLogSerializer extends LiquibaseSerializer, PrioritizedService {
     <T extends ChangeLogChild> void write(List<T> children, OutputStream out) throws IOException;
 
     void append(ChangeSet changeSet, File changeLogFile) throws IOException;
+
+    /**
+     * Returns a writer which serializes changelog children to the given stream as they are passed to it.
+     * The default implementation collects the children and calls {@link #write(List, OutputStream)} when the writer is finished.
+     */
+    default ChangeLogStreamWriter createStreamWriter(OutputStream out) throws IOException {
+        List<ChangeLogChild> children = new ArrayList<>();
+        return new ChangeLogStreamWriter() {
+            @Override
+            public void write(ChangeLogChild child) {
+                children.add(child);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                ChangeLogSerializer.this.write(children, out);
+            }
+        };
+    }
 }
@@ -0,0 +1,22 @@
+package liquibase.serializer;
+
+import liquibase.changelog.ChangeLogChild;
+
+import java.io.IOException;
+
+/**
+ * Writes a changelog one child at a time, so the changesets do not all have to be kept in memory until the changelog is written.
+ * Created by {@link ChangeLogSerializer#createStreamWriter(java.io.OutputStream)}.
+ */
+public interface ChangeLogStreamWriter {
+
+    /**
+     * Writes the given changeset after the ones written before it. The start of the changelog is written before the first child.
+     */
+    void write(ChangeLogChild child) throws IOException;
+
+    /**
+     * Writes the end of the changelog and flushes it, without closing the stream. Writes an empty changelog if no children were written.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,285 @@
+package liquibase.serializer.core.binary;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.OfflineConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.RestoredDatabaseSnapshot;
+import liquibase.statement.DatabaseFunction;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.DataType;
+import liquibase.structure.core.View;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static liquibase.serializer.core.binary.BinarySnapshotSerializer.*;
+
+/**
+ * Reads snapshots written by {@link BinarySnapshotSerializer}. The input is read sequentially and objects are created directly
+ * from it, so memory use is close to the size of the restored snapshot itself.
+ */
+public class BinarySnapshotReader {
+
+    private final Map<String, Constructor<?>> constructors = new HashMap<>();
+
+    private DataInputStream in;
+    private List<String> strings;
+    private DatabaseObject[] objects;
+
+    public RestoredDatabaseSnapshot read(InputStream inputStream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(inputStream));
+        this.strings = new ArrayList<>();
+
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary snapshot");
+        }
+        int version = readVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + version);
+        }
+
+        Map<?, ?> databaseInfo = (Map<?, ?>) readValue();
+        Map<?, ?> metadata = (Map<?, ?>) readValue();
+
+        int objectCount = readVarInt();
+        objects = new DatabaseObject[objectCount];
+        int[] flags = new int[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            objects[i] = (DatabaseObject) newInstance(DatabaseObject.class, readString());
+            flags[i] = readVarInt();
+        }
+
+        for (int i = 0; i < objectCount; i++) {
+            DatabaseObject object = objects[i];
+            object.setSnapshotId(readString());
+            int attributeCount = readVarInt();
+            for (int a = 0; a < attributeCount; a++) {
+                String attribute = readString();
+                object.setAttribute(attribute, readValue());
+            }
+            restoreFields(object, flags[i]);
+        }
+
+        RestoredDatabaseSnapshot snapshot = createSnapshot(databaseInfo);
+        if (metadata != null) {
+            for (Map.Entry<?, ?> entry : metadata.entrySet()) {
+                snapshot.getMetadata().put((String) entry.getKey(), entry.getValue());
+            }
+        }
+        for (int i = 0; i < objectCount; i++) {
+            if ((flags[i] & IN_REFERENCED_OBJECTS) != 0) {
+                snapshot.addRestoredObject(objects[i], true);
+            }
+            if ((flags[i] & IN_OBJECTS) != 0) {
+                snapshot.addRestoredObject(objects[i], false);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Sets the fields some object types keep alongside their attributes, which setting the attributes alone does not restore.
+     */
+    private void restoreFields(DatabaseObject object, int flags) {
+        if (object.getAttributes().contains("name")) {
+            object.setName(object.getAttribute("name", String.class));
+        }
+        if (object instanceof Column) {
+            Column column = (Column) object;
+            Set<String> attributes = column.getAttributes();
+            if (attributes.contains("computed")) {
+                column.setComputed(column.getAttribute("computed", Boolean.class));
+            }
+            if (attributes.contains("descending")) {
+                column.setDescending(column.getAttribute("descending", Boolean.class));
+            }
+            if (attributes.contains("included")) {
+                column.setIncluded(column.getAttribute("included", Boolean.class));
+            }
+            column.setForIndex((flags & FOR_INDEX) != 0);
+        } else if (object instanceof View) {
+            ((View) object).setContainsFullDefinition((flags & CONTAINS_FULL_DEFINITION) != 0);
+        }
+    }
+
+    private RestoredDatabaseSnapshot createSnapshot(Map<?, ?> databaseInfo) throws IOException {
+        String shortName = (String) databaseInfo.get("shortName");
+        try {
+            Database database = DatabaseFactory.getInstance().getDatabase(shortName).getClass().getConstructor().newInstance();
+            database.setConnection(new OfflineConnection("offline:" + shortName, null));
+
+            DatabaseConnection connection = database.getConnection();
+            if (connection instanceof OfflineConnection) {
+                OfflineConnection offlineConnection = (OfflineConnection) connection;
+                String majorVersion = (String) databaseInfo.get("majorVersion");
+                if (majorVersion != null) {
+                    offlineConnection.setDatabaseMajorVersion(Integer.parseInt(majorVersion));
+                }
+                String minorVersion = (String) databaseInfo.get("minorVersion");
+                if (minorVersion != null) {
+                    offlineConnection.setDatabaseMinorVersion(Integer.parseInt(minorVersion));
+                }
+                offlineConnection.setProductVersion((String) databaseInfo.get("productVersion"));
+                offlineConnection.setConnectionUserName((String) databaseInfo.get("user"));
+            }
+            return new RestoredDatabaseSnapshot(database);
+        } catch (ReflectiveOperationException | DatabaseException | InvalidExampleException e) {
+            throw new IOException("Cannot create " + shortName + " database for binary snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    private Object readValue() throws IOException {
+        int tag = readVarInt();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case OBJECT:
+                return objects[readVarInt()];
+            case LIST:
+            case SET: {
+                int size = readVarInt();
+                Collection<Object> collection = (tag == SET) ? new LinkedHashSet<Object>() : new ArrayList<Object>(size);
+                for (int i = 0; i < size; i++) {
+                    collection.add(readValue());
+                }
+                return collection;
+            }
+            case MAP: {
+                int size = readVarInt();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(), readValue());
+                }
+                return map;
+            }
+            case DATE:
+                return newInstance(Date.class, readString(), long.class, in.readLong());
+            case ENUM:
+                return readEnum(readString(), readString());
+            case DATA_TYPE: {
+                DataType dataType = new DataType(readString());
+                dataType.setDataTypeId((Integer) readValue());
+                dataType.setColumnSize((Integer) readValue());
+                dataType.setColumnSizeUnit((DataType.ColumnSizeUnit) readValue());
+                dataType.setDecimalDigits((Integer) readValue());
+                dataType.setRadix((Integer) readValue());
+                dataType.setCharacterOctetLength((Integer) readValue());
+                return dataType;
+            }
+            case AUTO_INCREMENT: {
+                Column.AutoIncrementInformation autoIncrement = new Column.AutoIncrementInformation((BigInteger) readValue(), (BigInteger) readValue());
+                autoIncrement.setDefaultOnNull((Boolean) readValue());
+                autoIncrement.setGenerationType(readString());
+                return autoIncrement;
+            }
+            case FUNCTION: {
+                String className = readString();
+                String schemaName = readString();
+                String value = readString();
+                return newInstance(DatabaseFunction.class, className, String.class, schemaName, String.class, value);
+            }
+            case BYTES: {
+                byte[] bytes = new byte[readVarInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case FROM_STRING:
+                return newInstance(Number.class, readString(), String.class, readString());
+            default:
+                throw new IOException("Unknown value type " + tag + " in binary snapshot");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readEnum(String className, String name) throws IOException {
+        try {
+            return Enum.valueOf((Class<? extends Enum>) loadClass(Enum.class, className), name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Cannot read " + className + " value " + name + " from binary snapshot", e);
+        }
+    }
+
+    /**
+     * Loads the named class without initializing it, and only if it is one of the types the serializer writes, so that
+     * a crafted file cannot create or initialize arbitrary classes.
+     */
+    private Class<?> loadClass(Class<?> expectedType, String className) throws IOException {
+        Class<?> type;
+        try {
+            type = Class.forName(className, false, BinarySnapshotReader.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IOException("Cannot find " + className + " from binary snapshot", e);
+        }
+        if (!expectedType.isAssignableFrom(type)) {
+            throw new IOException("Binary snapshot contains " + className + " where a " + expectedType.getName() + " is expected");
+        }
+        return type;
+    }
+
+    private Object newInstance(Class<?> expectedType, String className, Object... typesAndArguments) throws IOException {
+        Class<?>[] types = new Class<?>[typesAndArguments.length / 2];
+        Object[] arguments = new Object[types.length];
+        StringBuilder key = new StringBuilder(className);
+        for (int i = 0; i < types.length; i++) {
+            types[i] = (Class<?>) typesAndArguments[i * 2];
+            arguments[i] = typesAndArguments[i * 2 + 1];
+            key.append(',').append(types[i].getName());
+        }
+        try {
+            Constructor<?> constructor = constructors.get(key.toString());
+            if (constructor == null) {
+                constructor = loadClass(expectedType, className).getConstructor(types);
+                constructors.put(key.toString(), constructor);
+            }
+            return constructor.newInstance(arguments);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Cannot create " + className + " from binary snapshot", e);
+        }
+    }
+
+    private String readString() throws IOException {
+        int code = readVarInt();
+        if (code == 0) {
+            return null;
+        }
+        if (code > 1) {
+            return strings.get(code - 2);
+        }
+        byte[] bytes = new byte[readVarInt()];
+        in.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
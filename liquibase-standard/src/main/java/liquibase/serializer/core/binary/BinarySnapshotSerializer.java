@@ -0,0 +1,279 @@
+package liquibase.serializer.core.binary;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.SnapshotSerializer;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.statement.DatabaseFunction;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.DatabaseObjectCollection;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.DataType;
+import liquibase.structure.core.View;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes snapshots in a compact binary format which {@link BinarySnapshotReader} reads back without building a document tree
+ * first. Large reference snapshots used for offline diffs load much faster from this format than from YAML or JSON.
+ * <p>
+ * The file starts with the database information and snapshot metadata, followed by the class of every object in the snapshot and
+ * then one record per object with its snapshot id and attributes. References between objects are written as positions in the
+ * object list, and each distinct string is written once and referenced by position after that.
+ * <p>
+ * There is no text form of the format, so {@link #serialize(LiquibaseSerializable, boolean)} is not supported.
+ * Use {@link #write(DatabaseSnapshot, OutputStream)} instead.
+ */
+public class BinarySnapshotSerializer implements SnapshotSerializer {
+
+    static final byte[] MAGIC = {'L', 'B', 'S', 'N', 'A', 'P'};
+    static final int VERSION = 1;
+
+    static final int IN_OBJECTS = 1;
+    static final int IN_REFERENCED_OBJECTS = 2;
+    static final int FOR_INDEX = 4;
+    static final int CONTAINS_FULL_DEFINITION = 8;
+
+    static final int NULL = 0;
+    static final int STRING = 1;
+    static final int TRUE = 2;
+    static final int FALSE = 3;
+    static final int INTEGER = 4;
+    static final int LONG = 5;
+    static final int OBJECT = 6;
+    static final int LIST = 7;
+    static final int SET = 8;
+    static final int MAP = 9;
+    static final int DATE = 10;
+    static final int ENUM = 11;
+    static final int DATA_TYPE = 12;
+    static final int AUTO_INCREMENT = 13;
+    static final int FUNCTION = 14;
+    static final int FROM_STRING = 15;
+    static final int BYTES = 16;
+
+    @Override
+    public String[] getValidFileExtensions() {
+        return new String[]{"binary", "lbsnap"};
+    }
+
+    @Override
+    public String serialize(LiquibaseSerializable object, boolean pretty) {
+        throw new UnexpectedLiquibaseException("Binary snapshots can only be written to a stream");
+    }
+
+    @Override
+    public void write(DatabaseSnapshot snapshot, OutputStream out) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter(new DataOutputStream(new BufferedOutputStream(out)));
+        writer.write(snapshot);
+        writer.out.flush();
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DEFAULT;
+    }
+
+    private static class SnapshotWriter {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<DatabaseObject, Integer> objectIndexes = new IdentityHashMap<>();
+        private final List<DatabaseObject> objects = new ArrayList<>();
+        private final List<Integer> objectFlags = new ArrayList<>();
+
+        private SnapshotWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        private void write(DatabaseSnapshot snapshot) throws IOException {
+            declare((DatabaseObjectCollection) snapshot.getSerializableFieldValue("objects"), IN_OBJECTS);
+            declare((DatabaseObjectCollection) snapshot.getSerializableFieldValue("referencedObjects"), IN_REFERENCED_OBJECTS);
+            for (int i = 0; i < objects.size(); i++) {
+                DatabaseObject object = objects.get(i);
+                for (String attribute : object.getAttributes()) {
+                    declareReferences(object.getAttribute(attribute, Object.class));
+                }
+            }
+
+            out.write(MAGIC);
+            writeVarInt(VERSION);
+            writeValue(snapshot.getSerializableFieldValue("database"));
+            writeValue(snapshot.getMetadata());
+
+            writeVarInt(objects.size());
+            for (int i = 0; i < objects.size(); i++) {
+                DatabaseObject object = objects.get(i);
+                int flags = objectFlags.get(i);
+                if ((object instanceof Column) && ((Column) object).isForIndex()) {
+                    flags |= FOR_INDEX;
+                }
+                if ((object instanceof View) && ((View) object).getContainsFullDefinition()) {
+                    flags |= CONTAINS_FULL_DEFINITION;
+                }
+                writeString(object.getClass().getName());
+                writeVarInt(flags);
+            }
+
+            for (DatabaseObject object : objects) {
+                writeString(object.getSnapshotId());
+                Set<String> attributes = object.getAttributes();
+                writeVarInt(attributes.size());
+                for (String attribute : attributes) {
+                    writeString(attribute);
+                    writeValue(object.getAttribute(attribute, Object.class));
+                }
+            }
+        }
+
+        private void declare(DatabaseObjectCollection collection, int flag) {
+            for (Set<? extends DatabaseObject> objectsOfType : collection.toMap().values()) {
+                for (DatabaseObject object : objectsOfType) {
+                    declare(object, flag);
+                }
+            }
+        }
+
+        private void declare(DatabaseObject object, int flag) {
+            Integer index = objectIndexes.get(object);
+            if (index == null) {
+                objectIndexes.put(object, objects.size());
+                objects.add(object);
+                objectFlags.add(flag);
+            } else {
+                objectFlags.set(index, objectFlags.get(index) | flag);
+            }
+        }
+
+        private void declareReferences(Object value) {
+            if (value instanceof DatabaseObject) {
+                declare((DatabaseObject) value, 0);
+            } else if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    declareReferences(element);
+                }
+            } else if (value instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    declareReferences(entry.getKey());
+                    declareReferences(entry.getValue());
+                }
+            }
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                writeVarInt(NULL);
+            } else if (value instanceof String) {
+                writeVarInt(STRING);
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                writeVarInt((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Integer) {
+                writeVarInt(INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                writeVarInt(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof DatabaseObject) {
+                writeVarInt(OBJECT);
+                writeVarInt(objectIndexes.get(value));
+            } else if (value instanceof Collection) {
+                writeVarInt((value instanceof Set) ? SET : LIST);
+                writeVarInt(((Collection<?>) value).size());
+                for (Object element : (Collection<?>) value) {
+                    writeValue(element);
+                }
+            } else if (value instanceof Map) {
+                writeVarInt(MAP);
+                writeVarInt(((Map<?, ?>) value).size());
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof Date) {
+                writeVarInt(DATE);
+                writeString(value.getClass().getName());
+                out.writeLong(((Date) value).getTime());
+            } else if (value instanceof Enum) {
+                writeVarInt(ENUM);
+                writeString(((Enum<?>) value).getDeclaringClass().getName());
+                writeString(((Enum<?>) value).name());
+            } else if (value instanceof DataType) {
+                DataType dataType = (DataType) value;
+                writeVarInt(DATA_TYPE);
+                writeString(dataType.getTypeName());
+                writeValue(dataType.getDataTypeId());
+                writeValue(dataType.getColumnSize());
+                writeValue(dataType.getColumnSizeUnit());
+                writeValue(dataType.getDecimalDigits());
+                writeValue(dataType.getRadix());
+                writeValue(dataType.getCharacterOctetLength());
+            } else if (value instanceof Column.AutoIncrementInformation) {
+                Column.AutoIncrementInformation autoIncrement = (Column.AutoIncrementInformation) value;
+                writeVarInt(AUTO_INCREMENT);
+                writeValue(autoIncrement.getStartWith());
+                writeValue(autoIncrement.getIncrementBy());
+                writeValue(autoIncrement.getDefaultOnNull());
+                writeString(autoIncrement.getGenerationType());
+            } else if (value instanceof DatabaseFunction) {
+                writeVarInt(FUNCTION);
+                writeString(value.getClass().getName());
+                writeString(((DatabaseFunction) value).getSchemaName());
+                writeString(((DatabaseFunction) value).getValue());
+            } else if (value instanceof byte[]) {
+                writeVarInt(BYTES);
+                writeVarInt(((byte[]) value).length);
+                out.write((byte[]) value);
+            } else if ((value instanceof Number) && hasStringConstructor(value.getClass())) {
+                writeVarInt(FROM_STRING);
+                writeString(value.getClass().getName());
+                writeString(value.toString());
+            } else {
+                throw new UnexpectedLiquibaseException("Cannot write " + value.getClass().getName() + " values to a binary snapshot");
+            }
+        }
+
+        private boolean hasStringConstructor(Class<?> type) {
+            try {
+                type.getConstructor(String.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Writes 0 for null, 1 followed by the UTF-8 bytes the first time a string is written, and its position in the
+         * string table plus 2 after that.
+         */
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(1);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+}
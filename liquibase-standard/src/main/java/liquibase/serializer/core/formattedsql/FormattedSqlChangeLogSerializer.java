@@ -9,6 +9,7 @@ import liquibase.database.DatabaseFactory;
 import liquibase.diff.output.changelog.DiffToChangeLog;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.ChangeLogStreamWriter;
 import liquibase.serializer.LiquibaseSerializable;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
@@ -131,6 +132,33 @@ public class FormattedSqlChangeLogSerializer  implements ChangeLogSerializer {
 
     }
 
+    @Override
+    public ChangeLogStreamWriter createStreamWriter(OutputStream out) {
+        String encoding = GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue();
+        return new ChangeLogStreamWriter() {
+            private boolean started;
+
+            @Override
+            public void write(ChangeLogChild child) throws IOException {
+                start();
+                out.write((serialize(child, true) + "\n").getBytes(encoding));
+            }
+
+            @Override
+            public void finish() throws IOException {
+                start();
+                out.flush();
+            }
+
+            private void start() throws IOException {
+                if (!started) {
+                    out.write("-- liquibase formatted sql\n\n".getBytes(encoding));
+                    started = true;
+                }
+            }
+        };
+    }
+
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
 
@@ -2,6 +2,7 @@ package liquibase.serializer.core.json;
 
 import liquibase.changelog.ChangeLogChild;
 import liquibase.GlobalConfiguration;
+import liquibase.serializer.ChangeLogStreamWriter;
 import liquibase.serializer.core.yaml.YamlChangeLogSerializer;
 import liquibase.util.StringUtil;
 
@@ -30,6 +31,51 @@ public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
         writer.flush();
     }
 
+    /**
+     * Writes the same output as {@link #write(List, OutputStream)}. Each changeset is held back until the next one arrives,
+     * so that every changeset but the last is followed by a comma.
+     */
+    @Override
+    public ChangeLogStreamWriter createStreamWriter(OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue()));
+        return new ChangeLogStreamWriter() {
+            private boolean started;
+            private String previous;
+
+            @Override
+            public void write(ChangeLogChild child) throws IOException {
+                start();
+                if (previous != null) {
+                    writeChild(previous.replaceFirst("}\\s*$", "},\n"));
+                }
+                previous = serialize(child, true);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                start();
+                if (previous != null) {
+                    writeChild(previous);
+                    previous = null;
+                }
+                writer.write("]}");
+                writer.flush();
+            }
+
+            private void start() throws IOException {
+                if (!started) {
+                    writer.write("{ \"databaseChangeLog\": [\n");
+                    started = true;
+                }
+            }
+
+            private void writeChild(String serialized) throws IOException {
+                writer.write(StringUtil.indent(serialized, 2));
+                writer.write("\n");
+            }
+        };
+    }
+
     @Override
     public String[] getValidFileExtensions() {
         return new String[]{
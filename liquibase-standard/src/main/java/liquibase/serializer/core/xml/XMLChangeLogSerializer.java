@@ -11,6 +11,7 @@ import liquibase.parser.NamespaceDetails;
 import liquibase.parser.NamespaceDetailsFactory;
 import liquibase.parser.core.xml.LiquibaseEntityResolver;
 import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.ChangeLogStreamWriter;
 import liquibase.serializer.LiquibaseSerializable;
 import liquibase.serializer.LiquibaseSerializable.SerializationType;
 import liquibase.util.ISODateFormat;
@@ -28,10 +29,13 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
@@ -48,6 +52,8 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
     private Document currentChangeLogFileDOM;
 
     private static final String XML_VERSION = "1.1";
+    private static final String STREAMED_CHANGESETS_MARKER = "liquibase-streamed-changesets";
+    private static final String STREAMED_CHANGESETS_END_MARKER = "liquibase-streamed-changesets-end";
     private final LiquibaseEntityResolver resolver = new LiquibaseEntityResolver();
 
     public XMLChangeLogSerializer() {
@@ -90,6 +96,82 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
 
     @Override
     public <T extends ChangeLogChild> void write(List<T> children, OutputStream out) throws IOException {
+        Document doc = createChangeLogDocument();
+
+        for (T child : children) {
+            doc.getDocumentElement().appendChild(createNode(child));
+        }
+
+        new DefaultXmlWriter().write(doc, out);
+    }
+
+    /**
+     * Writes the same output as {@link #write(List, OutputStream)}. Every child is written on its own between two marker
+     * comments, and the text between the markers is what the full document contains for it.
+     */
+    @Override
+    public ChangeLogStreamWriter createStreamWriter(OutputStream out) throws IOException {
+        Document doc = createChangeLogDocument();
+        Element changeLogElement = doc.getDocumentElement();
+        Node startMarker = changeLogElement.appendChild(doc.createComment(STREAMED_CHANGESETS_MARKER));
+        Node endMarker = changeLogElement.appendChild(doc.createComment(STREAMED_CHANGESETS_END_MARKER));
+
+        String skeleton = toXml(doc);
+        String startComment = "<!--" + STREAMED_CHANGESETS_MARKER + "-->";
+        String endComment = "<!--" + STREAMED_CHANGESETS_END_MARKER + "-->";
+        int startIndex = skeleton.indexOf(startComment);
+        int endIndex = skeleton.indexOf(endComment);
+        int lineSeparatorEnd = startIndex + startComment.length();
+        while ((skeleton.charAt(lineSeparatorEnd) == '\r') || (skeleton.charAt(lineSeparatorEnd) == '\n')) {
+            lineSeparatorEnd++;
+        }
+        String lineSeparator = skeleton.substring(startIndex + startComment.length(), lineSeparatorEnd);
+        String header = StringUtils.stripEnd(skeleton.substring(0, startIndex), " ");
+        String footer = skeleton.substring(endIndex + endComment.length() + lineSeparator.length());
+
+        Writer writer = new OutputStreamWriter(out, GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue());
+        return new ChangeLogStreamWriter() {
+            private boolean started;
+
+            @Override
+            public void write(ChangeLogChild child) throws IOException {
+                if (!started) {
+                    writer.write(header);
+                    started = true;
+                }
+                setCurrentChangeLogFileDOM(doc);
+                Node node = changeLogElement.insertBefore(createNode(child), endMarker);
+                String xml;
+                try {
+                    xml = toXml(doc);
+                } finally {
+                    changeLogElement.removeChild(node);
+                }
+                String childXml = xml.substring(xml.indexOf(startComment) + startComment.length() + lineSeparator.length(), xml.lastIndexOf(endComment));
+                writer.write(StringUtils.stripEnd(childXml, " "));
+            }
+
+            @Override
+            public void finish() throws IOException {
+                if (started) {
+                    writer.write(footer);
+                } else {
+                    changeLogElement.removeChild(startMarker);
+                    changeLogElement.removeChild(endMarker);
+                    writer.write(toXml(doc));
+                }
+                writer.flush();
+            }
+        };
+    }
+
+    private String toXml(Document doc) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new DefaultXmlWriter().write(doc, stream);
+        return new String(stream.toByteArray(), GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue());
+    }
+
+    private Document createChangeLogDocument() {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         factory.setNamespaceAware(true);
         DocumentBuilder documentBuilder;
@@ -148,11 +230,7 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
         doc.appendChild(changeLogElement);
         setCurrentChangeLogFileDOM(doc);
 
-        for (T child : children) {
-            doc.getDocumentElement().appendChild(createNode(child));
-        }
-
-        new DefaultXmlWriter().write(doc, out);
+        return doc;
     }
 
     @Override
@@ -4,6 +4,7 @@ import liquibase.changelog.ChangeLogChild;
 import liquibase.changelog.ChangeSet;
 import liquibase.GlobalConfiguration;
 import liquibase.serializer.ChangeLogSerializer;
+import liquibase.serializer.ChangeLogStreamWriter;
 import liquibase.serializer.LiquibaseSerializable;
 
 import java.io.*;
@@ -35,6 +36,37 @@ public class YamlChangeLogSerializer extends YamlSerializer implements ChangeLog
         writer.flush();
     }
 
+    /**
+     * Writes the same output as {@link #write(List, OutputStream)}, dumping each changeset on its own as an item of the
+     * databaseChangeLog list.
+     */
+    @Override
+    public ChangeLogStreamWriter createStreamWriter(OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue()));
+        return new ChangeLogStreamWriter() {
+            private boolean started;
+
+            @Override
+            public void write(ChangeLogChild child) throws IOException {
+                String serialized = yaml.dumpAsMap(Collections.singletonMap("databaseChangeLog", Collections.singletonList(toMap(child))));
+                if (started) {
+                    serialized = serialized.substring(serialized.indexOf('\n') + 1);
+                }
+                started = true;
+                writer.write(serialized);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                if (!started) {
+                    writer.write(yaml.dumpAsMap(Collections.singletonMap("databaseChangeLog", Collections.emptyList())));
+                }
+                writer.write("\n");
+                writer.flush();
+            }
+        };
+    }
+
 
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
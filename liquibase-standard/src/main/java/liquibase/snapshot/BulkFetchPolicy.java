@@ -0,0 +1,112 @@
+package liquibase.snapshot;
+
+import liquibase.database.Database;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Schema;
+
+/**
+ * Decides when a {@link ResultSetCache} reads the metadata of a whole schema at once instead of only the requested objects.
+ * <p>
+ * A snapshot of whole schemas reads everything in them, so it reads in bulk right away. A snapshot of a few objects keeps using
+ * single queries for as long as the queries still expected for the requested objects are estimated to take less time than
+ * one bulk query. The estimate uses the latencies measured by the cache. Without anything to go by, a schema is read in bulk
+ * after {@value #DEFAULT_SINGLE_QUERIES} single queries.
+ */
+public class BulkFetchPolicy {
+
+    /**
+     * Number of single queries in a schema after which it is read in bulk when nothing else is known.
+     */
+    public static final int DEFAULT_SINGLE_QUERIES = 3;
+
+    /**
+     * How many single queries a bulk query is assumed to cost before one was measured.
+     */
+    static final int ASSUMED_BULK_COST = 10;
+
+    /**
+     * Reads a schema in bulk after {@value #DEFAULT_SINGLE_QUERIES} single queries, regardless of the snapshot.
+     */
+    public static final BulkFetchPolicy DEFAULT = new BulkFetchPolicy(false, 0, null, null);
+
+    private final boolean wholeSchemas;
+    private final int requestedObjects;
+    private final SnapshotListener snapshotListener;
+    private final Database database;
+
+    BulkFetchPolicy(boolean wholeSchemas, int requestedObjects, SnapshotListener snapshotListener, Database database) {
+        this.wholeSchemas = wholeSchemas;
+        this.requestedObjects = requestedObjects;
+        this.snapshotListener = snapshotListener;
+        this.database = database;
+    }
+
+    /**
+     * Creates the policy for a snapshot of the given examples.
+     */
+    public static BulkFetchPolicy forSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) {
+        boolean wholeSchemas = false;
+        int requestedObjects = 0;
+        if (examples != null) {
+            for (DatabaseObject example : examples) {
+                if ((example instanceof Schema) || (example instanceof Catalog)) {
+                    wholeSchemas = true;
+                } else if (example != null) {
+                    requestedObjects++;
+                }
+            }
+        }
+        SnapshotListener snapshotListener = null;
+        if (snapshotControl != null) {
+            wholeSchemas = wholeSchemas && snapshotControl.shouldSearchNestedObjects();
+            snapshotListener = snapshotControl.getSnapshotListener();
+        }
+        return new BulkFetchPolicy(wholeSchemas, requestedObjects, snapshotListener, database);
+    }
+
+    public boolean isWholeSchemas() {
+        return wholeSchemas;
+    }
+
+    /**
+     * Number of objects other than schemas and catalogs the snapshot was asked for, or 0 if unknown.
+     */
+    public int getRequestedObjects() {
+        return requestedObjects;
+    }
+
+    /**
+     * Returns true if the next lookup in the given schema should read the whole schema.
+     */
+    public boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+        if (wholeSchemas) {
+            return true;
+        }
+        int singleQueries = resultSetCache.getTimesSingleQueried(schemaKey);
+        if (singleQueries < DEFAULT_SINGLE_QUERIES) {
+            return false;
+        }
+        int remainingQueries = requestedObjects - singleQueries;
+        if ((requestedObjects == 0) || (remainingQueries <= 0)) {
+            // nothing to go by, or more lookups than requested objects because of related objects
+            return true;
+        }
+
+        long singleQueryNanos = resultSetCache.getAverageFastFetchNanos();
+        long bulkQueryNanos = resultSetCache.getAverageBulkFetchNanos();
+        if (bulkQueryNanos <= 0) {
+            bulkQueryNanos = singleQueryNanos * ASSUMED_BULK_COST;
+        }
+        return (singleQueryNanos * remainingQueries) > bulkQueryNanos;
+    }
+
+    /**
+     * Reports a lookup which went to the database to the {@link SnapshotListener}, if any.
+     */
+    void fetched(String cacheName, String schemaKey, ResultSetCache.FetchStrategy strategy, long nanos) {
+        if (snapshotListener != null) {
+            snapshotListener.fetchedMetadata(cacheName, schemaKey, strategy, nanos / 1_000_000, database);
+        }
+    }
+}
@@ -1,25 +1,60 @@
 package liquibase.snapshot;
 
-import java.util.Map;
+import java.util.*;
 
+/**
+ * A row read from a metadata query.
+ * <p>
+ * Rows from the same result set share a single {@link Columns} index, so each row only keeps its values in an array.
+ * Columns added later with {@link #set(String, Object)} that are not part of the result set are kept separately.
+ */
 public class CachedRow {
-    private final Map<String, Object> row;
+    private final Columns columns;
+    private final Object[] values;
+    private Map<String, Object> extraValues;
 
     public CachedRow(Map<String, Object> row) {
-        this.row = row;
+        this.columns = new Columns(row.keySet().toArray(new String[0]));
+        this.values = row.values().toArray();
+    }
+
+    /**
+     * Creates a row backed by the given values, which are in the order of the given columns.
+     */
+    public CachedRow(Columns columns, Object[] values) {
+        if (columns.size() != values.length) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " values but got " + values.length);
+        }
+        this.columns = columns;
+        this.values = values;
     }
 
     @SuppressWarnings("unchecked")
     public <T> T get(String columnName) {
-        return (T) row.get(columnName);
+        int index = columns.indexOf(columnName);
+        if (index >= 0) {
+            return (T) values[index];
+        }
+        if (extraValues == null) {
+            return null;
+        }
+        return (T) extraValues.get(columnName);
     }
 
     public void set(String columnName, Object value) {
-        row.put(columnName, value);
+        int index = columns.indexOf(columnName);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        if (extraValues == null) {
+            extraValues = new LinkedHashMap<>(4);
+        }
+        extraValues.put(columnName, value);
     }
 
     public boolean containsColumn(String columnName) {
-        return row.containsKey(columnName);
+        return (columns.indexOf(columnName) >= 0) || ((extraValues != null) && extraValues.containsKey(columnName));
     }
 
     public String getString(String columnName) {
@@ -27,8 +62,10 @@ public class CachedRow {
     }
 
     public Integer getInt(String columnName) {
-        Object o = row.get(columnName);
-        if (o instanceof Number) {
+        Object o = get(columnName);
+        if (o instanceof Integer) {
+            return (Integer) o;
+        } else if (o instanceof Number) {
             return ((Number) o).intValue();
         } else if (o instanceof String) {
             return Integer.valueOf((String) o);
@@ -44,8 +81,10 @@ public class CachedRow {
     }
 
     public Short getShort(String columnName) {
-        Object o = row.get(columnName);
-        if (o instanceof Number) {
+        Object o = get(columnName);
+        if (o instanceof Short) {
+            return (Short) o;
+        } else if (o instanceof Number) {
             return ((Number) o).shortValue();
         } else if (o instanceof String) {
             return Short.valueOf((String) o);
@@ -54,7 +93,7 @@ public class CachedRow {
     }
 
     public Boolean getBoolean(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof Number) {
             return ((Number) o).longValue() != 0;
         }
@@ -76,10 +115,74 @@ public class CachedRow {
      * @return {@code true} if the column value is 'YES', {@code false} otherwise; or {@code null} if the column value is {@code null}
      */
     public Boolean yesNoToBoolean(String columnName) {
-        Object o = row.get(columnName);
+        Object o = get(columnName);
         if (o instanceof String && "YES".equalsIgnoreCase((String)o)) {
             return Boolean.TRUE;
         }
         return getBoolean(columnName);
     }
+
+    /**
+     * Rough estimate of the memory used by this row in bytes, assuming a 64-bit JVM with compressed references.
+     * The {@link Columns} shared with the other rows of the result set are not counted.
+     */
+    public long estimateSize() {
+        long size = 24 + 16 + (values.length * 4L);
+        for (Object value : values) {
+            size += estimateSize(value);
+        }
+        if (extraValues != null) {
+            size += 48 + (extraValues.size() * 48L);
+            for (Map.Entry<String, Object> entry : extraValues.entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSize(Object value) {
+        if ((value == null) || (value instanceof Boolean)) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        return 24;
+    }
+
+    /**
+     * The column names of a result set and their position in the values of each {@link CachedRow}.
+     * If a name is repeated, the last column with it is used, like when the values were kept in a map.
+     */
+    public static class Columns {
+        private final String[] names;
+        private final Map<String, Integer> indexes;
+
+        public Columns(String[] names) {
+            this.names = names;
+            this.indexes = new HashMap<>((int) (names.length / 0.75f) + 1);
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        public List<String> getNames() {
+            return Collections.unmodifiableList(Arrays.asList(names));
+        }
+
+        /**
+         * Returns the position of the given column, or -1 if the result set does not have it.
+         */
+        public int indexOf(String columnName) {
+            Integer index = indexes.get(columnName);
+            return (index == null) ? -1 : index;
+        }
+    }
 }
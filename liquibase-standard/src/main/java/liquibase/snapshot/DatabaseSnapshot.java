@@ -46,6 +46,9 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
     private final Map<String, Object> snapshotScratchPad = new ConcurrentHashMap<>();
 
     private final Map<String, ResultSetCache> resultSetCaches = new ConcurrentHashMap<>();
+    private final ResultSetCacheBudget resultSetCacheBudget =
+            new ResultSetCacheBudget(GlobalConfiguration.SNAPSHOT_METADATA_CACHE_SIZE.getCurrentValue() * 1024L * 1024L);
+    private final BulkFetchPolicy bulkFetchPolicy;
     @Setter
     @Getter
     private CompareControl.SchemaComparison[] schemaComparisons;
@@ -61,6 +64,7 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
         this.snapshotControl = snapshotControl;
 
         this.originalExamples = ((examples == null) ? new DatabaseObject[0] : examples);
+        this.bulkFetchPolicy = BulkFetchPolicy.forSnapshot(examples, database, snapshotControl);
 
         init(examples);
 
@@ -100,6 +104,8 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
                 }
             }
 
+            prepare(examples);
+
             if (getDatabase().supports(Catalog.class)) {
                 for (Catalog catalog : catalogs) {
                     this.snapshotControl.addType(catalog.getClass(), database);
@@ -111,9 +117,18 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
 
                 include(obj);
             }
+            releaseResultSetCaches();
         }
     }
 
+    /**
+     * Called by {@link #init(DatabaseObject[])} before the examples are included, so that implementations can read
+     * metadata ahead of time. Does nothing by default.
+     */
+    protected void prepare(DatabaseObject[] examples) throws DatabaseException {
+        // nothing to prepare by default
+    }
+
     /**
      * Searches the current snapshot content for the given examples. Returns a new DatabaseSnapshot
      * containing a clone of every object from the examples array that was found.
@@ -270,10 +285,32 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
     }
 
     public ResultSetCache getResultSetCache(String key) {
-        if (!resultSetCaches.containsKey(key)) {
-            resultSetCaches.put(key, new ResultSetCache());
+        return resultSetCaches.computeIfAbsent(key, k -> new ResultSetCache(k, resultSetCacheBudget, bulkFetchPolicy));
+    }
+
+    /**
+     * Releases the rows kept by the result set caches once the snapshot is complete, logging how the caches were used.
+     * Anything read later is queried again.
+     */
+    protected void releaseResultSetCaches() {
+        if (resultSetCaches.isEmpty()) {
+            return;
+        }
+        long hits = 0;
+        long bulkFetches = 0;
+        long fastFetches = 0;
+        long evictions = 0;
+        for (ResultSetCache cache : resultSetCaches.values()) {
+            hits += cache.getHits();
+            bulkFetches += cache.getBulkFetches();
+            fastFetches += cache.getFastFetches();
+            evictions += cache.getEvictions();
+        }
+        Scope.getCurrentScope().getLog(getClass()).fine("Snapshot metadata cache: " + hits + " hits, " + bulkFetches + " bulk queries, " +
+                fastFetches + " single queries, " + evictions + " schemas released, " + (resultSetCacheBudget.getSize() / 1024) + " KB kept at the end");
+        for (ResultSetCache cache : resultSetCaches.values()) {
+            cache.clear();
         }
-        return resultSetCaches.get(key);
     }
 
     /**
@@ -667,6 +704,18 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable {
         }
     }
 
+    /**
+     * Adds an object read back from a saved snapshot without looking it up in the database. Referenced objects are objects
+     * the snapshot points to without including them.
+     */
+    protected void addRestoredObject(DatabaseObject object, boolean referenced) {
+        if (referenced) {
+            this.referencedObjects.add(object);
+        } else {
+            this.allFound.add(object);
+        }
+    }
+
     protected void loadObjects(Map<String, DatabaseObject> objectMap, Map<String, DatabaseObject> allObjects, ParsedNode node, ResourceAccessor resourceAccessor) throws ReflectiveOperationException, ParsedNodeException {
         if (node == null) {
             return;
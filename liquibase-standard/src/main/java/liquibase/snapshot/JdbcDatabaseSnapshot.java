@@ -1,10 +1,12 @@
 package liquibase.snapshot;
 
 import liquibase.CatalogAndSchema;
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
 import liquibase.database.DatabaseConnection;
+import liquibase.database.DatabaseFactory;
 import liquibase.database.LiquibaseTableNamesFactory;
 import liquibase.database.core.*;
 import liquibase.database.jvm.JdbcConnection;
@@ -13,14 +15,23 @@ import liquibase.executor.jvm.ColumnMapRowMapper;
 import liquibase.executor.jvm.RowMapperNotNullConstraintsResultSetExtractor;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.PrimaryKey;
 import liquibase.structure.core.Schema;
 import liquibase.structure.core.Table;
+import liquibase.structure.core.UniqueConstraint;
 import liquibase.structure.core.View;
+import liquibase.util.ConcurrencyUtil;
 import liquibase.util.JdbcUtil;
 import liquibase.util.StringUtil;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
@@ -53,6 +64,114 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         return cachingDatabaseMetaData;
     }
 
+    /**
+     * If {@link GlobalConfiguration#SNAPSHOT_THREADS} is more than 1, reads the metadata of the example schemas in bulk before
+     * the snapshot walks through them, one task per object type on a pool of additional connections. The results go into the
+     * same {@link ResultSetCache}s the snapshot generators read from, so the objects are still built on the main connection,
+     * but without waiting for each bulk query in turn. The schemas of a task are read one after another because they share
+     * a cache. If additional connections cannot be opened, all metadata is read over the main connection as usual. If a read
+     * fails, the snapshot fails like it would when reading over the main connection.
+     */
+    @Override
+    protected void prepare(DatabaseObject[] examples) throws DatabaseException {
+        int threads = GlobalConfiguration.SNAPSHOT_THREADS.getCurrentValue();
+        if ((threads < 2) || !(getDatabase() instanceof AbstractJdbcDatabase)) {
+            return;
+        }
+        List<Schema> schemas = new ArrayList<>();
+        for (DatabaseObject example : examples) {
+            if (example instanceof Schema) {
+                schemas.add((Schema) example);
+            }
+        }
+        Map<Class<? extends DatabaseObject>, MetaDataPrefetch> prefetches = getMetaDataPrefetches();
+        prefetches.keySet().removeIf(type -> !getSnapshotControl().shouldInclude(type));
+        if (schemas.isEmpty() || (prefetches.size() < 2)) {
+            return;
+        }
+
+        List<Database> openedDatabases = new ArrayList<>();
+        BlockingQueue<Database> connections = new LinkedBlockingQueue<>();
+        try {
+            for (int i = 0; i < Math.min(threads, prefetches.size()); i++) {
+                Database additionalDatabase = DatabaseFactory.getInstance().openAdditionalDatabase(getDatabase());
+                if (additionalDatabase == null) {
+                    break;
+                }
+                openedDatabases.add(additionalDatabase);
+                connections.add(additionalDatabase);
+            }
+            if (openedDatabases.size() < 2) {
+                Scope.getCurrentScope().getLog(getClass()).info("Cannot open additional connections for snapshotThreads=" + threads
+                        + ", reading snapshot metadata over the main connection");
+                return;
+            }
+
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (Map.Entry<Class<? extends DatabaseObject>, MetaDataPrefetch> prefetch : prefetches.entrySet()) {
+                tasks.add(() -> {
+                    Database database = connections.take();
+                    try {
+                        CachingDatabaseMetaData metaData = new CachingDatabaseMetaData(database,
+                                ((JdbcConnection) database.getConnection()).getUnderlyingConnection().getMetaData());
+                        for (Schema schema : schemas) {
+                            prefetch.getValue().fetch(metaData, schema);
+                        }
+                    } finally {
+                        connections.add(database);
+                    }
+                    return null;
+                });
+            }
+            ConcurrencyUtil.runAll(tasks, openedDatabases.size());
+        } catch (DatabaseException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DatabaseException("Cannot read snapshot metadata in parallel: " + e.getMessage(), e);
+        } finally {
+            // a task cancelled after another one failed may not have returned its connection yet
+            for (Database database : openedDatabases) {
+                try {
+                    database.close();
+                } catch (DatabaseException e) {
+                    Scope.getCurrentScope().getLog(getClass()).fine("Failed to close snapshot connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the bulk metadata reads done by {@link #prepare(DatabaseObject[])}, using the same arguments as the snapshot
+     * generators so that they find the results. Only reads which {@link ResultSetCache} keeps for the database are included.
+     */
+    Map<Class<? extends DatabaseObject>, MetaDataPrefetch> getMetaDataPrefetches() {
+        AbstractJdbcDatabase database = (AbstractJdbcDatabase) getDatabase();
+        Map<Class<? extends DatabaseObject>, MetaDataPrefetch> prefetches = new LinkedHashMap<>();
+        prefetches.put(Column.class, (metaData, schema) ->
+                metaData.getColumns(database.getJdbcCatalogName(schema), database.getJdbcSchemaName(schema), null, null));
+        prefetches.put(Table.class, (metaData, schema) ->
+                metaData.getTables(database.getJdbcCatalogName(schema), database.getJdbcSchemaName(schema), null));
+        prefetches.put(View.class, (metaData, schema) ->
+                metaData.getViews(database.getJdbcCatalogName(schema), database.getJdbcSchemaName(schema), null));
+        prefetches.put(UniqueConstraint.class, (metaData, schema) ->
+                metaData.getUniqueConstraints(schema.getCatalogName(), schema.getName(), null));
+        if ((database instanceof OracleDatabase) || (database instanceof MSSQLDatabase)) {
+            prefetches.put(PrimaryKey.class, (metaData, schema) ->
+                    metaData.getPrimaryKeys(database.getJdbcCatalogName(schema), database.getJdbcSchemaName(schema), null));
+            prefetches.put(Index.class, (metaData, schema) ->
+                    metaData.getIndexInfo(database.getJdbcCatalogName(schema), database.getJdbcSchemaName(schema), null, null));
+        }
+        if (database instanceof OracleDatabase) {
+            prefetches.put(ForeignKey.class, (metaData, schema) ->
+                    metaData.getForeignKeys(database.getJdbcCatalogName(schema), database.getJdbcSchemaName(schema), null, null));
+        }
+        return prefetches;
+    }
+
+    interface MetaDataPrefetch {
+        void fetch(CachingDatabaseMetaData metaData, Schema schema) throws SQLException, DatabaseException;
+    }
+
     public class CachingDatabaseMetaData {
         private static final String SQL_FILTER_MATCH_ALL = "%";
         private final DatabaseMetaData databaseMetaData;
@@ -413,7 +532,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             protected boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
                 LiquibaseTableNamesFactory liquibaseTableNamesFactory = Scope.getCurrentScope().getSingleton(LiquibaseTableNamesFactory.class);
                 List<String> liquibaseTableNames = liquibaseTableNamesFactory.getLiquibaseTableNames(database);
-                return liquibaseTableNames.stream().noneMatch(tableName::equalsIgnoreCase);
+                return (tableName == null) || liquibaseTableNames.stream().noneMatch(tableName::equalsIgnoreCase);
             }
 
             @Override
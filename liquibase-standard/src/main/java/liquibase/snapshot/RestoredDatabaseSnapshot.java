@@ -9,4 +9,13 @@ public class RestoredDatabaseSnapshot extends DatabaseSnapshot {
     public RestoredDatabaseSnapshot(Database database) throws DatabaseException, InvalidExampleException {
         super(new DatabaseObject[0], database);
     }
+
+    public RestoredDatabaseSnapshot(Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        super(new DatabaseObject[0], database, snapshotControl);
+    }
+
+    @Override
+    public void addRestoredObject(DatabaseObject object, boolean referenced) {
+        super.addRestoredObject(object, referenced);
+    }
 }
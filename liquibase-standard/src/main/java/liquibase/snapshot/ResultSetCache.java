@@ -15,19 +15,72 @@ import liquibase.util.StringUtil;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ResultSetCache {
-    private final Map<String, Integer> timesSingleQueried = new HashMap<>();
-    private final Map<String, Boolean> didBulkQuery = new HashMap<>();
+    private static final long REFERENCE_SIZE = 8;
+
+    /**
+     * How a lookup which was not answered from the cache read its rows.
+     */
+    public enum FetchStrategy {
+        /**
+         * Only the requested objects were read.
+         */
+        FAST,
+        /**
+         * All objects of the schema were read and kept for later lookups.
+         */
+        BULK
+    }
+
+    private final String name;
+
+    private final Map<String, Integer> timesSingleQueried = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> didBulkQuery = new ConcurrentHashMap<>();
+    private final Set<String> evictedSchemas = ConcurrentHashMap.newKeySet();
     private boolean bulkTracking = true;
 
     private final Map<String, Map<String, List<CachedRow>>> cacheBySchema = new ConcurrentHashMap<>();
 
     private final Map<String, Object> info = new ConcurrentHashMap<>();
 
+    private final ResultSetCacheBudget budget;
+    private final BulkFetchPolicy bulkFetchPolicy;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong bulkFetches = new AtomicLong();
+    private final AtomicLong fastFetches = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bulkFetchNanos = new AtomicLong();
+    private final AtomicLong fastFetchNanos = new AtomicLong();
+
+    public ResultSetCache() {
+        this(null);
+    }
+
+    /**
+     * @param budget limits the memory used by the rows this cache keeps, shared with the other caches of the snapshot. May be null.
+     */
+    public ResultSetCache(ResultSetCacheBudget budget) {
+        this(null, budget, BulkFetchPolicy.DEFAULT);
+    }
+
+    /**
+     * @param name kind of metadata kept, reported to the {@link SnapshotListener}. May be null.
+     * @param budget limits the memory used by the rows this cache keeps, shared with the other caches of the snapshot. May be null.
+     * @param bulkFetchPolicy decides when a whole schema is read at once
+     */
+    public ResultSetCache(String name, ResultSetCacheBudget budget, BulkFetchPolicy bulkFetchPolicy) {
+        this.name = name;
+        this.budget = budget;
+        this.bulkFetchPolicy = bulkFetchPolicy;
+    }
+
     public List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
         try {
             String wantedKey = resultSetExtractor.wantedKeyParameters().createParamsKey(resultSetExtractor.database);
@@ -37,27 +90,46 @@ public class ResultSetCache {
             Map<String, List<CachedRow>> cache = cacheBySchema.computeIfAbsent(schemaKey, k -> new HashMap<>());
 
             if (cache.containsKey(wantedKey)) {
+                hits.incrementAndGet();
+                if (budget != null) {
+                    budget.touch(this, schemaKey);
+                }
                 return cache.get(wantedKey);
             }
 
             if (didBulkQuery.containsKey(schemaKey) && didBulkQuery.get(schemaKey)) {
+                hits.incrementAndGet();
+                if (budget != null) {
+                    budget.touch(this, schemaKey);
+                }
                 return new ArrayList<>();
             }
 
             List<CachedRow> results;
             boolean bulkQueried = false;
-            if (resultSetExtractor.shouldBulkSelect(schemaKey, this)) {
+            if (!evictedSchemas.contains(schemaKey) && resultSetExtractor.shouldBulkSelect(schemaKey, this)) {
 
                 //remove any existing single fetches that may be duplicated
                 if (resultSetExtractor.bulkContainsSchema(schemaKey)) {
-                    for (Map cachedValue : cacheBySchema.values()) {
-                        cachedValue.clear();
+                    for (Map.Entry<String, Map<String, List<CachedRow>>> cachedValue : cacheBySchema.entrySet()) {
+                        cachedValue.getValue().clear();
+                        if (budget != null) {
+                            budget.remove(this, cachedValue.getKey());
+                        }
                     }
                 } else {
                     cache.clear();
+                    if (budget != null) {
+                        budget.remove(this, schemaKey);
+                    }
                 }
 
+                long start = System.nanoTime();
                 results = resultSetExtractor.bulkFetch();
+                long nanos = System.nanoTime() - start;
+                bulkFetches.incrementAndGet();
+                bulkFetchNanos.addAndGet(nanos);
+                bulkFetchPolicy.fetched(name, schemaKey, FetchStrategy.BULK, nanos);
                 didBulkQuery.put(schemaKey, bulkTracking);
                 bulkQueried = true;
             } else {
@@ -68,31 +140,45 @@ public class ResultSetCache {
                     previousCount = 0;
                 }
                 timesSingleQueried.put(schemaKey, previousCount + 1);
+                long start = System.nanoTime();
                 results = resultSetExtractor.fastFetch();
+                long nanos = System.nanoTime() - start;
+                fastFetches.incrementAndGet();
+                fastFetchNanos.addAndGet(nanos);
+                bulkFetchPolicy.fetched(name, schemaKey, FetchStrategy.FAST, nanos);
             }
 
+            Map<String, Long> addedSizes = new HashMap<>();
             for (CachedRow row : results) {
-                for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
+                String rowSchemaKey = schemaKey;
+                String[] rowKeys = resultSetExtractor.rowKeyParameters(row).getKeyPermutations();
+                for (String rowKey : rowKeys) {
                     if (bulkQueried && resultSetExtractor.bulkContainsSchema(schemaKey)) {
-                        String rowSchema = CatalogAndSchema.CatalogAndSchemaCase.ORIGINAL_CASE.
+                        rowSchemaKey = CatalogAndSchema.CatalogAndSchemaCase.ORIGINAL_CASE.
                                 equals(resultSetExtractor.database.getSchemaAndCatalogCase())?resultSetExtractor.getSchemaKey(row):
                                 resultSetExtractor.getSchemaKey(row).toLowerCase();
-                        cache = cacheBySchema.computeIfAbsent(rowSchema, k -> new HashMap<>());
+                        cache = cacheBySchema.computeIfAbsent(rowSchemaKey, k -> new HashMap<>());
                     }
                     if (!cache.containsKey(rowKey)) {
                         cache.put(rowKey, new ArrayList<>());
                     }
                     cache.get(rowKey).add(row);
                 }
+                if (bulkQueried && (budget != null)) {
+                    addedSizes.merge(rowSchemaKey, resultSetExtractor.estimateSize(row) + (rowKeys.length * REFERENCE_SIZE), Long::sum);
+                }
             }
 
             if (bulkQueried) {
                 cache = cacheBySchema.get(schemaKey);
             }
-            List<CachedRow> returnList = cache.get(wantedKey);
+            List<CachedRow> returnList = (cache == null) ? null : cache.get(wantedKey);
             if (returnList == null) {
                 returnList = new ArrayList<>();
             }
+            if (bulkQueried && (budget != null)) {
+                budget.add(this, addedSizes, schemaKey);
+            }
             return returnList;
 
 
@@ -101,6 +187,76 @@ public class ResultSetCache {
         }
     }
 
+    /**
+     * Releases the rows kept for the given schema. Later lookups in that schema use single queries instead of bulk queries,
+     * so a cache which does not fit in its budget does not keep reading whole schemas again.
+     */
+    void evict(String schemaKey) {
+        evictedSchemas.add(schemaKey);
+        didBulkQuery.remove(schemaKey);
+        cacheBySchema.remove(schemaKey);
+        evictions.incrementAndGet();
+    }
+
+    /**
+     * Releases all rows kept by this cache. They are read again if needed.
+     */
+    public void clear() {
+        didBulkQuery.clear();
+        cacheBySchema.clear();
+        if (budget != null) {
+            budget.remove(this);
+        }
+    }
+
+    /**
+     * Number of lookups answered from rows kept by an earlier bulk query.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of lookups which read a whole schema at once.
+     */
+    public long getBulkFetches() {
+        return bulkFetches.get();
+    }
+
+    /**
+     * Number of lookups which only read the requested objects.
+     */
+    public long getFastFetches() {
+        return fastFetches.get();
+    }
+
+    /**
+     * Number of schemas whose rows were released to stay within the memory budget.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Average time taken by the single queries of this cache in nanoseconds, or 0 if there were none.
+     */
+    public long getAverageFastFetchNanos() {
+        long count = fastFetches.get();
+        return (count == 0) ? 0 : (fastFetchNanos.get() / count);
+    }
+
+    /**
+     * Average time taken by the bulk queries of this cache in nanoseconds, or 0 if there were none.
+     */
+    public long getAverageBulkFetchNanos() {
+        long count = bulkFetches.get();
+        return (count == 0) ? 0 : (bulkFetchNanos.get() / count);
+    }
+
+    public BulkFetchPolicy getBulkFetchPolicy() {
+        return bulkFetchPolicy;
+    }
+
     public <T> T getInfo(String key, Class<T> type) {
         return (T) info.get(key);
     }
@@ -109,7 +265,7 @@ public class ResultSetCache {
         info.put(key, value);
     }
 
-    private int getTimesSingleQueried(String schemaKey) {
+    int getTimesSingleQueried(String schemaKey) {
         Integer integer = timesSingleQueried.get(schemaKey);
         if (integer == null) {
             return 0;
@@ -224,7 +380,14 @@ public class ResultSetCache {
         }
 
         protected boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
-            return resultSetCache.getTimesSingleQueried(schemaKey) >= 3;
+            return resultSetCache.getBulkFetchPolicy().shouldBulkSelect(schemaKey, resultSetCache);
+        }
+
+        /**
+         * Estimated memory used by a row this extractor returned, counted against the {@link ResultSetCacheBudget} of the snapshot.
+         */
+        protected long estimateSize(CachedRow row) {
+            return row.estimateSize();
         }
 
         protected List<CachedRow> executeAndExtract(String sql, Database database) throws DatabaseException, SQLException {
@@ -288,7 +451,42 @@ public class ResultSetCache {
             resultSet.setFetchSize(database.getFetchSize());
             List<CachedRow> returnList = new ArrayList<>();
             try {
-                List<Map> result = (List<Map>) new RowMapperResultSetExtractor(new ColumnMapRowMapper(database.isCaseSensitive()) {
+                List<CachedRow> result = (List<CachedRow>) new RowMapperResultSetExtractor(new ColumnMapRowMapper(database.isCaseSensitive()) {
+                    private CachedRow.Columns columns;
+                    private final Map<Object, Object> sharedValues = new HashMap<>();
+
+                    @Override
+                    public Object mapRow(ResultSet rs, int rowNum) throws SQLException {
+                        if (columns == null) {
+                            ResultSetMetaData metaData = rs.getMetaData();
+                            String[] names = new String[metaData.getColumnCount()];
+                            for (int i = 0; i < names.length; i++) {
+                                names[i] = getColumnKey(metaData.getColumnLabel(i + 1));
+                            }
+                            columns = new CachedRow.Columns(names);
+                        }
+                        Object[] values = new Object[columns.size()];
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = share(getColumnValue(rs, i + 1));
+                        }
+                        return new CachedRow(columns, values);
+                    }
+
+                    /**
+                     * Metadata repeats the same catalog, schema, table and type names and the same small numbers in many rows,
+                     * so equal values are kept once per result set.
+                     */
+                    private Object share(Object value) {
+                        if (value instanceof Boolean) {
+                            return Boolean.valueOf((Boolean) value);
+                        }
+                        if (!((value instanceof String) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Long))) {
+                            return value;
+                        }
+                        Object shared = sharedValues.putIfAbsent(value, value);
+                        return (shared == null) ? value : shared;
+                    }
+
                     @Override
                     protected Object getColumnValue(ResultSet rs, int index) throws SQLException {
                         Object value = super.getColumnValue(rs, index);
@@ -313,9 +511,7 @@ public class ResultSetCache {
                     }
                 }).extractData(resultSet);
 
-                for (Map row : result) {
-                    returnList.add(new CachedRow(row));
-                }
+                returnList.addAll(result);
             } finally {
                 JdbcUtil.closeResultSet(resultSet);
             }
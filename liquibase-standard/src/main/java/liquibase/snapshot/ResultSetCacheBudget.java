@@ -0,0 +1,113 @@
+package liquibase.snapshot;
+
+import liquibase.GlobalConfiguration;
+
+import java.util.*;
+
+/**
+ * Limits the estimated memory used by the rows the {@link ResultSetCache}s of a snapshot keep after bulk queries.
+ * <p>
+ * Rows are accounted per cache and schema. When the total goes over the limit, the least recently used schemas are released,
+ * except the one the current lookup just read. A released schema is read with single queries from then on, see
+ * {@link ResultSetCache#evict(String)}.
+ *
+ * @see GlobalConfiguration#SNAPSHOT_METADATA_CACHE_SIZE
+ */
+public class ResultSetCacheBudget {
+
+    private final long maxSize;
+    private final LinkedHashMap<Entry, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * @param maxSize maximum estimated size in bytes, or 0 to only account for memory without releasing anything
+     */
+    public ResultSetCacheBudget(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the estimated size in bytes of the rows currently kept.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    synchronized void touch(ResultSetCache cache, String schemaKey) {
+        sizes.get(new Entry(cache, schemaKey));
+    }
+
+    void add(ResultSetCache cache, Map<String, Long> addedSizes, String currentSchemaKey) {
+        Entry current = new Entry(cache, currentSchemaKey);
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Long> added : addedSizes.entrySet()) {
+                sizes.merge(new Entry(cache, added.getKey()), added.getValue(), Long::sum);
+                size += added.getValue();
+            }
+            sizes.get(current);
+
+            if (maxSize > 0) {
+                Iterator<Map.Entry<Entry, Long>> iterator = sizes.entrySet().iterator();
+                while ((size > maxSize) && iterator.hasNext()) {
+                    Map.Entry<Entry, Long> next = iterator.next();
+                    if (next.getKey().equals(current)) {
+                        continue;
+                    }
+                    size -= next.getValue();
+                    iterator.remove();
+                    evicted.add(next.getKey());
+                }
+            }
+        }
+        // released outside the lock so a cache never waits on the budget while the budget waits on it
+        for (Entry entry : evicted) {
+            entry.cache.evict(entry.schemaKey);
+        }
+    }
+
+    synchronized void remove(ResultSetCache cache, String schemaKey) {
+        Long removed = sizes.remove(new Entry(cache, schemaKey));
+        if (removed != null) {
+            size -= removed;
+        }
+    }
+
+    synchronized void remove(ResultSetCache cache) {
+        Iterator<Map.Entry<Entry, Long>> iterator = sizes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Entry, Long> next = iterator.next();
+            if (next.getKey().cache == cache) {
+                size -= next.getValue();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class Entry {
+        private final ResultSetCache cache;
+        private final String schemaKey;
+
+        private Entry(ResultSetCache cache, String schemaKey) {
+            this.cache = cache;
+            this.schemaKey = schemaKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            return (cache == ((Entry) o).cache) && Objects.equals(schemaKey, ((Entry) o).schemaKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * System.identityHashCode(cache)) + Objects.hashCode(schemaKey);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package liquibase.snapshot;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.SingletonObject;
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.serializer.core.binary.BinarySnapshotReader;
+import liquibase.serializer.core.binary.BinarySnapshotSerializer;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.*;
+import liquibase.util.LiquibaseUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Keeps a copy of schema snapshots in a local directory so that later snapshots of the same schemas only read the tables and
+ * views that changed since the copy was written.
+ * <p>
+ * Changes are detected through markers the database updates on DDL, read from the catalog with a single query per schema:
+ * the {@code xmin} of the {@code pg_class}, {@code pg_attribute}, {@code pg_attrdef}, {@code pg_index}, {@code pg_constraint},
+ * {@code pg_rewrite} and {@code pg_description} rows of each relation on PostgreSQL, {@code ALL_OBJECTS.LAST_DDL_TIME} on Oracle and
+ * the {@code modify_date} of the relation and its constraints in {@code sys.objects} on SQL Server. Tables and views whose marker
+ * changed or that are new are snapshotted again and their columns, keys and indexes replace the cached ones. So are tables with
+ * foreign keys to a changed or dropped table, and all views as soon as anything changed. Object types that are not part of a
+ * table or view, such as sequences, are always read from the database.
+ * <p>
+ * Changes that do not update these markers, such as comments on SQL Server, are not picked up until the relation changes again
+ * or the cached copy is deleted. Other databases, including MySQL where {@code information_schema.TABLES.UPDATE_TIME} tracks data
+ * rather than DDL changes, always take a full snapshot.
+ * <p>
+ * Caching is disabled unless {@link GlobalConfiguration#SNAPSHOT_CACHE_DIRECTORY} is set.
+ * Any problem reading or writing the cache is logged and causes a full snapshot.
+ */
+public class SnapshotCache implements SingletonObject {
+
+    private static final String CACHE_FILE_EXTENSION = ".lbsnap";
+
+    private static final String[] OWNER_ATTRIBUTES = {"relation", "table", "foreignKeyTable"};
+
+    private SnapshotCache() {
+    }
+
+    /**
+     * Returns true if a cache directory has been configured and the given snapshot can be refreshed from a cached copy:
+     * the examples are schemas and the database provides change markers.
+     */
+    public boolean supports(DatabaseObject[] examples, Database database) {
+        if (getCacheDirectory() == null || !(database.getConnection() instanceof JdbcConnection) || getChangeMarkerQuery(database) == null
+                || examples == null || examples.length == 0) {
+            return false;
+        }
+        for (DatabaseObject example : examples) {
+            if (!(example instanceof Schema)) {
+                return false;
+            }
+            if (database instanceof MSSQLDatabase) {
+                // sys.objects only covers the current database
+                String catalogName = ((Schema) example).getCatalogName();
+                if ((catalogName != null) && !catalogName.equalsIgnoreCase(database.getDefaultCatalogName())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a snapshot of the given schemas, reusing the tables and views of the cached copy that did not change,
+     * and replaces the cached copy with the result.
+     */
+    public DatabaseSnapshot createSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        Set<Class<? extends DatabaseObject>> relationTypes = getRelationTypes(snapshotControl, database);
+        if (relationTypes.isEmpty()) {
+            return new JdbcDatabaseSnapshot(examples, database, snapshotControl);
+        }
+
+        Map<String, String> markers;
+        try {
+            markers = readChangeMarkers(examples, database);
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read change markers, taking a full snapshot: " + e.getMessage(), e);
+            return new JdbcDatabaseSnapshot(examples, database, snapshotControl);
+        }
+
+        Path cacheFile = getCacheFile(examples, database, snapshotControl);
+        DatabaseSnapshot snapshot = null;
+        CachedSnapshot cached = read(cacheFile);
+        if (cached != null) {
+            snapshot = refresh(cached, markers, examples, database, snapshotControl, relationTypes);
+        }
+        if (snapshot == null) {
+            snapshot = new JdbcDatabaseSnapshot(examples, database, snapshotControl);
+        }
+        write(cacheFile, markers, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Builds the new snapshot from the unchanged relations of the cached copy, a snapshot of the changed relations and a snapshot
+     * of all other object types. Returns null if the cached copy contains objects that cannot be matched to a relation.
+     */
+    private DatabaseSnapshot refresh(CachedSnapshot cached, Map<String, String> markers, DatabaseObject[] examples, Database database,
+                                     SnapshotControl snapshotControl, Set<Class<? extends DatabaseObject>> relationTypes)
+            throws DatabaseException, InvalidExampleException {
+        Set<String> changedKeys = getChangedKeys(markers, cached.markers, cached.snapshot);
+        List<DatabaseObject> reused = getReusedObjects(cached.snapshot, relationTypes, markers, changedKeys);
+        if (reused == null) {
+            return null;
+        }
+        List<DatabaseObject> changedExamples = new ArrayList<>();
+        for (String key : changedKeys) {
+            changedExamples.add(createExample(key, markers.get(key), examples));
+        }
+        Scope.getCurrentScope().getLog(getClass()).info("Refreshing cached snapshot: " + changedKeys.size() + " of " + markers.size() + " tables and views changed");
+
+        Set<Class<? extends DatabaseObject>> otherTypes = new HashSet<>(snapshotControl.getTypesToInclude());
+        otherTypes.removeAll(relationTypes);
+        SnapshotControl otherControl = new SnapshotControl(database, otherTypes.toArray(new Class[0]));
+        DatabaseSnapshot otherSnapshot = new JdbcDatabaseSnapshot(examples, database, otherControl);
+
+        RestoredDatabaseSnapshot snapshot = new RestoredDatabaseSnapshot(database, snapshotControl);
+        Map<String, Schema> schemas = new HashMap<>();
+        for (Class<? extends DatabaseObject> type : otherTypes) {
+            for (DatabaseObject object : otherSnapshot.get(type)) {
+                if (object instanceof Schema) {
+                    schemas.put(object.getName(), (Schema) object);
+                }
+                snapshot.addRestoredObject(object, false);
+            }
+        }
+
+        if (!changedExamples.isEmpty()) {
+            SnapshotControl relationControl = new SnapshotControl(database, relationTypes.toArray(new Class[0]));
+            relationControl.setWarnIfObjectNotFound(false);
+            DatabaseSnapshot changedSnapshot = new JdbcDatabaseSnapshot(changedExamples.toArray(new DatabaseObject[0]), database, relationControl);
+            for (Class<? extends DatabaseObject> type : relationTypes) {
+                for (DatabaseObject object : changedSnapshot.get(type)) {
+                    Relation owner = getOwner(object);
+                    if ((owner == null) || changedKeys.contains(getKey(owner))) {
+                        addRelationObject(snapshot, object, schemas);
+                    }
+                }
+            }
+        }
+        for (DatabaseObject object : reused) {
+            addRelationObject(snapshot, object, schemas);
+        }
+
+        snapshot.getMetadata().putAll(cached.snapshot.getMetadata());
+        return snapshot;
+    }
+
+    /**
+     * Returns the keys of the tables and views to snapshot again. These are the relations whose marker changed or that are new,
+     * and the tables with foreign keys to such a relation or to one outside the cached markers: renaming or dropping the
+     * referenced table or its columns does not change the marker of the referencing table. Once anything changed, all views
+     * are included as well, since the markers do not cover the tables and columns a view reads from.
+     */
+    Set<String> getChangedKeys(Map<String, String> markers, Map<String, String> cachedMarkers, DatabaseSnapshot cachedSnapshot) {
+        Set<String> changedKeys = new HashSet<>();
+        for (Map.Entry<String, String> entry : markers.entrySet()) {
+            if (!entry.getValue().equals(cachedMarkers.get(entry.getKey()))) {
+                changedKeys.add(entry.getKey());
+            }
+        }
+
+        for (ForeignKey foreignKey : cachedSnapshot.get(ForeignKey.class)) {
+            if ((foreignKey.getForeignKeyTable() == null) || (foreignKey.getPrimaryKeyTable() == null)) {
+                continue;
+            }
+            String key = getKey(foreignKey.getForeignKeyTable());
+            String referencedKey = getKey(foreignKey.getPrimaryKeyTable());
+            if (markers.containsKey(key) && (changedKeys.contains(referencedKey) || !markers.containsKey(referencedKey))) {
+                changedKeys.add(key);
+            }
+        }
+
+        if (!changedKeys.isEmpty() || !markers.keySet().equals(cachedMarkers.keySet())) {
+            for (Map.Entry<String, String> entry : markers.entrySet()) {
+                if (entry.getValue().startsWith("V:")) {
+                    changedKeys.add(entry.getKey());
+                }
+            }
+        }
+        return changedKeys;
+    }
+
+    /**
+     * Returns the objects of the cached copy that belong to a relation which still exists and is not snapshotted again, or null
+     * if the cached copy contains objects that cannot be matched to a relation.
+     */
+    List<DatabaseObject> getReusedObjects(DatabaseSnapshot cachedSnapshot, Set<Class<? extends DatabaseObject>> relationTypes,
+                                          Map<String, String> markers, Set<String> changedKeys) {
+        List<DatabaseObject> reused = new ArrayList<>();
+        for (Class<? extends DatabaseObject> type : relationTypes) {
+            for (DatabaseObject object : cachedSnapshot.get(type)) {
+                Relation owner = getOwner(object);
+                if (owner == null) {
+                    Scope.getCurrentScope().getLog(getClass()).fine("Cannot find the table or view of cached " + object.getClass().getSimpleName()
+                            + " " + object.getName() + ", taking a full snapshot");
+                    return null;
+                }
+                String key = getKey(owner);
+                if (markers.containsKey(key) && !changedKeys.contains(key)) {
+                    reused.add(object);
+                }
+            }
+        }
+        return reused;
+    }
+
+    /**
+     * Points relations at the schema objects of the new snapshot, so the result does not mix cached and current schemas.
+     */
+    private void addRelationObject(RestoredDatabaseSnapshot snapshot, DatabaseObject object, Map<String, Schema> schemas) {
+        if ((object instanceof Relation) && (((Relation) object).getSchema() != null)) {
+            Schema schema = schemas.get(((Relation) object).getSchema().getName());
+            if (schema != null) {
+                ((Relation) object).setSchema(schema);
+            }
+        }
+        snapshot.addRestoredObject(object, false);
+    }
+
+    /**
+     * Returns the snapshot types that are tables and views or are only found as part of one.
+     */
+    private Set<Class<? extends DatabaseObject>> getRelationTypes(SnapshotControl snapshotControl, Database database) {
+        Set<Class<? extends DatabaseObject>> relationTypes = new HashSet<>();
+        for (Class<? extends DatabaseObject> type : snapshotControl.getTypesToInclude()) {
+            Set<Class<? extends DatabaseObject>> containerTypes = SnapshotGeneratorFactory.getInstance().getContainerTypes(type, database);
+            if (containerTypes.contains(Table.class) || containerTypes.contains(View.class)) {
+                relationTypes.add(type);
+            }
+        }
+        return relationTypes;
+    }
+
+    private Relation getOwner(DatabaseObject object) {
+        if (object instanceof Relation) {
+            return (Relation) object;
+        }
+        for (String attribute : OWNER_ATTRIBUTES) {
+            Object value = object.getAttribute(attribute, Object.class);
+            if (value instanceof Relation) {
+                return (Relation) value;
+            }
+        }
+        return null;
+    }
+
+    private String getKey(Relation relation) {
+        return getKey((relation.getSchema() == null) ? null : relation.getSchema().getName(), relation.getName());
+    }
+
+    private String getKey(String schemaName, String relationName) {
+        return schemaName + "." + relationName;
+    }
+
+    private Relation createExample(String key, String marker, DatabaseObject[] examples) {
+        int separator = key.indexOf('.');
+        String schemaName = key.substring(0, separator);
+        String catalogName = null;
+        for (DatabaseObject example : examples) {
+            if (schemaName.equals(example.getName())) {
+                catalogName = ((Schema) example).getCatalogName();
+            }
+        }
+        Relation relation = marker.startsWith("V:") ? new View() : new Table();
+        relation.setName(key.substring(separator + 1));
+        relation.setSchema(catalogName, schemaName);
+        return relation;
+    }
+
+    /**
+     * Returns the change marker of each table and view in the given schemas, prefixed with {@code T:} for tables and {@code V:} for views.
+     */
+    private Map<String, String> readChangeMarkers(DatabaseObject[] examples, Database database) throws DatabaseException {
+        String sql = getChangeMarkerQuery(database);
+        Map<String, String> markers = new HashMap<>();
+        for (DatabaseObject example : examples) {
+            String schemaName = (example.getName() == null) ? database.getDefaultSchemaName() : example.getName();
+            List<Map<String, ?>> rows = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database)
+                    .queryForList(new RawParameterizedSqlStatement(sql, schemaName));
+            for (Map<String, ?> row : rows) {
+                List<?> values = new ArrayList<>(row.values());
+                markers.put(getKey((String) values.get(0), (String) values.get(1)), values.get(2) + ":" + values.get(3));
+            }
+        }
+        return markers;
+    }
+
+    private String getChangeMarkerQuery(Database database) {
+        if (database instanceof PostgresDatabase) {
+            return "SELECT n.nspname, c.relname, CASE WHEN c.relkind = 'v' THEN 'V' ELSE 'T' END, md5(concat_ws(':', c.xmin::text, " +
+                    "(SELECT string_agg(a.attnum::text || '/' || a.xmin::text, ',' ORDER BY a.attnum) FROM pg_attribute a WHERE a.attrelid = c.oid), " +
+                    "(SELECT string_agg(d.oid::text || '/' || d.xmin::text, ',' ORDER BY d.oid) FROM pg_attrdef d WHERE d.adrelid = c.oid), " +
+                    "(SELECT string_agg(i.indexrelid::text || '/' || i.xmin::text || '/' || ic.xmin::text, ',' ORDER BY i.indexrelid) " +
+                    "FROM pg_index i JOIN pg_class ic ON ic.oid = i.indexrelid WHERE i.indrelid = c.oid), " +
+                    "(SELECT string_agg(k.oid::text || '/' || k.xmin::text, ',' ORDER BY k.oid) FROM pg_constraint k WHERE k.conrelid = c.oid), " +
+                    "(SELECT string_agg(r.oid::text || '/' || r.xmin::text, ',' ORDER BY r.oid) FROM pg_rewrite r WHERE r.ev_class = c.oid), " +
+                    "(SELECT string_agg(s.objsubid::text || '/' || s.xmin::text, ',' ORDER BY s.objsubid) FROM pg_description s " +
+                    "WHERE s.objoid = c.oid AND s.classoid = 'pg_class'::regclass))) " +
+                    "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.relkind IN ('r', 'p', 'v') AND n.nspname = ?";
+        }
+        if (database instanceof OracleDatabase) {
+            return "SELECT OWNER, OBJECT_NAME, CASE WHEN OBJECT_TYPE = 'VIEW' THEN 'V' ELSE 'T' END, TO_CHAR(LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') " +
+                    "FROM ALL_OBJECTS WHERE OWNER = ? AND OBJECT_TYPE IN ('TABLE', 'VIEW') AND OBJECT_NAME NOT LIKE 'BIN$%'";
+        }
+        if (database instanceof MSSQLDatabase) {
+            return "SELECT s.name, o.name, CASE WHEN o.type = 'V' THEN 'V' ELSE 'T' END, CONVERT(varchar(30), o.modify_date, 126) + '/' + " +
+                    "COALESCE((SELECT CONVERT(varchar(30), MAX(c.modify_date), 126) + '/' + CAST(COUNT(*) AS varchar(10)) " +
+                    "FROM sys.objects c WHERE c.parent_object_id = o.object_id), '') " +
+                    "FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id WHERE o.type IN ('U', 'V') AND s.name = ?";
+        }
+        return null;
+    }
+
+    private CachedSnapshot read(Path cacheFile) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(cacheFile))) {
+            DataInputStream data = new DataInputStream(stream);
+            int markerCount = data.readInt();
+            Map<String, String> markers = new HashMap<>();
+            for (int i = 0; i < markerCount; i++) {
+                markers.put(data.readUTF(), data.readUTF());
+            }
+            return new CachedSnapshot(markers, new BinarySnapshotReader().read(stream));
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read cached snapshot " + cacheFile + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void write(Path cacheFile, Map<String, String> markers, DatabaseSnapshot snapshot) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), "liquibase-", ".tmp");
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                DataOutputStream data = new DataOutputStream(stream);
+                data.writeInt(markers.size());
+                for (Map.Entry<String, String> entry : markers.entrySet()) {
+                    data.writeUTF(entry.getKey());
+                    data.writeUTF(entry.getValue());
+                }
+                data.flush();
+                new BinarySnapshotSerializer().write(snapshot, stream);
+            }
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot write cached snapshot " + cacheFile + ": " + e.getMessage(), e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    //nothing to clean up
+                }
+            }
+        }
+    }
+
+    private Path getCacheFile(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) {
+        List<String> parts = new ArrayList<>();
+        parts.add(LiquibaseUtil.getBuildVersion());
+        parts.add(database.getConnection().getURL());
+        parts.add(database.getConnection().getConnectionUserName());
+        for (DatabaseObject example : examples) {
+            parts.add(((Schema) example).getCatalogName() + "." + example.getName());
+        }
+        SortedSet<String> types = new TreeSet<>();
+        for (Class<? extends DatabaseObject> type : snapshotControl.getTypesToInclude()) {
+            types.add(type.getName());
+        }
+        parts.addAll(types);
+        return getCacheDirectory().resolve(computeKey(parts) + CACHE_FILE_EXTENSION);
+    }
+
+    private Path getCacheDirectory() {
+        String directory = GlobalConfiguration.SNAPSHOT_CACHE_DIRECTORY.getCurrentValue();
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        return Paths.get(directory.trim());
+    }
+
+    static String computeKey(List<String> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedSnapshot {
+        private final Map<String, String> markers;
+        private final DatabaseSnapshot snapshot;
+
+        private CachedSnapshot(Map<String, String> markers, DatabaseSnapshot snapshot) {
+            this.markers = markers;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -322,6 +322,10 @@ public class SnapshotGeneratorFactory {
             }
             return snapshot;
         }
+        SnapshotCache snapshotCache = Scope.getCurrentScope().getSingleton(SnapshotCache.class);
+        if (snapshotCache.supports(examples, database)) {
+            return snapshotCache.createSnapshot(examples, database, snapshotControl);
+        }
         return new JdbcDatabaseSnapshot(examples, database, snapshotControl);
     }
 
@@ -22,4 +22,15 @@ public interface SnapshotListener {
      * @param database Database read from
      */
     void finishedSnapshot(DatabaseObject example, DatabaseObject snapshot, Database database);
+
+    /**
+     * Called after metadata was read from the database to snapshot objects. Does nothing by default.
+     * @param cacheName Kind of metadata read, such as "getColumns"
+     * @param schemaKey Schema the metadata was read for
+     * @param strategy Whether only the requested objects or the whole schema was read
+     * @param durationMillis Time the query took
+     * @param database Database read from
+     */
+    default void fetchedMetadata(String cacheName, String schemaKey, ResultSetCache.FetchStrategy strategy, long durationMillis, Database database) {
+    }
 }
@@ -0,0 +1,33 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.BulkLoadDataStatement;
+import liquibase.statement.SqlStatement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SQL generator for {@link liquibase.statement.BulkLoadDataStatement}. The bulk load itself is only executed against a JDBC
+ * connection, so the generated SQL is that of the fallback insert statements, which load the same rows.
+ */
+public class BulkLoadDataGenerator extends AbstractSqlGenerator<BulkLoadDataStatement> {
+    @Override
+    public ValidationErrors validate(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(BulkLoadDataStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<Sql> sql = new ArrayList<>();
+        for (SqlStatement fallbackStatement : statement.getFallbackStatements()) {
+            sql.addAll(Arrays.asList(SqlGeneratorFactory.getInstance().generateSql(fallbackStatement, database)));
+        }
+        return sql.toArray(EMPTY_SQL);
+    }
+}
@@ -0,0 +1,105 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * Base class for generators which insert or update all rows of an {@link InsertOrUpdateSetStatement} at once.
+ * There is no generic implementation: databases without one run the rows as separate {@link InsertOrUpdateStatement}s.
+ */
+public abstract class InsertOrUpdateSetGenerator extends AbstractSqlGenerator<InsertOrUpdateSetStatement> {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public ValidationErrors validate(InsertOrUpdateSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("primaryKey", statement.getPrimaryKey());
+        validationErrors.checkRequiredField("statements", statement.getStatements());
+        return validationErrors;
+    }
+
+    protected List<String> getColumnNames(InsertOrUpdateSetStatement statement) {
+        return new ArrayList<>(statement.peek().getColumnValues().keySet());
+    }
+
+    protected List<String> getPrimaryKeyColumns(InsertOrUpdateSetStatement statement) {
+        List<String> primaryKeyColumns = new ArrayList<>();
+        for (String column : statement.getPrimaryKey().split(",")) {
+            primaryKeyColumns.add(column.trim());
+        }
+        return primaryKeyColumns;
+    }
+
+    /**
+     * Returns the columns which are updated in existing rows: all columns but the primary key and the ones which do not allow updates.
+     */
+    protected List<String> getUpdateColumnNames(InsertOrUpdateSetStatement statement) {
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(statement);
+        List<String> updateColumns = new ArrayList<>();
+        for (String column : getColumnNames(statement)) {
+            if (!primaryKeyColumns.contains(column) && statement.peek().getAllowColumnUpdate(column)) {
+                updateColumns.add(column);
+            }
+        }
+        return updateColumns;
+    }
+
+    protected String escapeColumnName(InsertOrUpdateSetStatement statement, String column, Database database) {
+        return database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column);
+    }
+
+    protected String escapeColumnNames(InsertOrUpdateSetStatement statement, List<String> columns, String prefix, Database database) {
+        StringBuilder sql = new StringBuilder();
+        for (String column : columns) {
+            if (sql.length() > 0) {
+                sql.append(", ");
+            }
+            sql.append(prefix).append(escapeColumnName(statement, column, database));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Appends the values of all rows, as a comma separated list of parenthesized rows.
+     */
+    protected void appendValues(StringBuilder sql, InsertOrUpdateSetStatement statement, Database database) {
+        InsertGenerator insertGenerator = getInsertGenerator(database);
+        boolean first = true;
+        for (InsertOrUpdateStatement row : statement.getStatements()) {
+            if (!first) {
+                sql.append(", ");
+            }
+            insertGenerator.generateValues(sql, row, database);
+            first = false;
+        }
+    }
+
+    protected InsertGenerator getInsertGenerator(Database database) {
+        SortedSet<SqlGenerator> generators = SqlGeneratorFactory.getInstance().getGenerators(new InsertStatement(null, null, null), database);
+        if ((generators == null) || generators.isEmpty()) {
+            return new InsertGenerator();
+        }
+        return (InsertGenerator) generators.iterator().next();
+    }
+
+    protected Relation getAffectedTable(InsertOrUpdateSetStatement statement) {
+        return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+}
@@ -0,0 +1,33 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+
+/**
+ * Inserts or updates all rows with one MERGE INTO ... KEY statement. MERGE updates every given column, so rows with
+ * columns which do not allow updates are left to the row by row generator.
+ */
+public class InsertOrUpdateSetGeneratorH2 extends InsertOrUpdateSetGenerator {
+
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        if (!(database instanceof H2Database) || statement.getOnlyUpdate() || (statement.peek() == null)) {
+            return false;
+        }
+        return getUpdateColumnNames(statement).size() + getPrimaryKeyColumns(statement).size() == getColumnNames(statement).size();
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        StringBuilder sql = new StringBuilder("MERGE INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" (").append(escapeColumnNames(statement, getColumnNames(statement), "", database)).append(") KEY(")
+                .append(escapeColumnNames(statement, getPrimaryKeyColumns(statement), "", database)).append(") VALUES ");
+        appendValues(sql, statement, database);
+        return new Sql[]{new UnparsedSql(sql.toString(), getAffectedTable(statement))};
+    }
+}
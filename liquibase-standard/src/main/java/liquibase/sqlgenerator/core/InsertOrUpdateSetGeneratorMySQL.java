@@ -0,0 +1,50 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+
+import java.util.List;
+
+/**
+ * Inserts all rows with one INSERT ... ON DUPLICATE KEY UPDATE statement, which like the row by row generator relies on
+ * a primary key or unique constraint on the primary key columns. If no column may be updated, the update sets the first
+ * primary key column to itself, so that only duplicate keys are ignored and other errors still fail the statement.
+ */
+public class InsertOrUpdateSetGeneratorMySQL extends InsertOrUpdateSetGenerator {
+
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        return (database instanceof MySQLDatabase) && !statement.getOnlyUpdate();
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<String> updateColumns = getUpdateColumnNames(statement);
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" (").append(escapeColumnNames(statement, getColumnNames(statement), "", database)).append(") VALUES ");
+        appendValues(sql, statement, database);
+
+        sql.append(" ON DUPLICATE KEY UPDATE ");
+        if (updateColumns.isEmpty()) {
+            String escapedColumn = escapeColumnName(statement, getPrimaryKeyColumns(statement).get(0), database);
+            sql.append(escapedColumn).append(" = ").append(escapedColumn);
+        }
+        boolean first = true;
+        for (String column : updateColumns) {
+            if (!first) {
+                sql.append(", ");
+            }
+            String escapedColumn = escapeColumnName(statement, column, database);
+            sql.append(escapedColumn).append(" = VALUES(").append(escapedColumn).append(")");
+            first = false;
+        }
+
+        return new Sql[]{new UnparsedSql(sql.toString(), getAffectedTable(statement))};
+    }
+}
@@ -0,0 +1,97 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.CockroachDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the rows into a temporary staging table created from the target table's column types, then updates the
+ * matching rows and inserts the missing ones with one statement each. Like the row by row generator, this does not
+ * need a unique constraint on the primary key columns.
+ * <p>
+ * The staging table is only created for the first of several sets, see {@link InsertOrUpdateSetStatement#isFirstSet()}.
+ * Later sets replace its rows while loading their own, so each set takes three statements. The table is left in place
+ * until the next first set or the end of the session.
+ */
+public class InsertOrUpdateSetGeneratorPostgres extends InsertOrUpdateSetGenerator {
+
+    static final String STAGING_TABLE = "pg_temp.liquibase_upsert_stage";
+
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        if (database instanceof CockroachDatabase) {
+            return false;
+        }
+        if (database instanceof PostgresDatabase) {
+            try {
+                // data-modifying WITH clauses are available from 9.1
+                return (database.getDatabaseMajorVersion() > 9)
+                        || ((database.getDatabaseMajorVersion() == 9) && (database.getDatabaseMinorVersion() >= 1));
+            } catch (DatabaseException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String tableName = database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+        List<String> columns = getColumnNames(statement);
+        String columnList = escapeColumnNames(statement, columns, "", database);
+
+        StringBuilder keyMatch = new StringBuilder();
+        for (String column : getPrimaryKeyColumns(statement)) {
+            if (keyMatch.length() > 0) {
+                keyMatch.append(" AND ");
+            }
+            String escapedColumn = escapeColumnName(statement, column, database);
+            keyMatch.append("t.").append(escapedColumn).append(" = s.").append(escapedColumn);
+        }
+
+        List<Sql> sql = new ArrayList<>();
+        if (statement.isFirstSet()) {
+            sql.add(new UnparsedSql("DROP TABLE IF EXISTS " + STAGING_TABLE));
+            sql.add(new UnparsedSql("CREATE TEMP TABLE " + STAGING_TABLE.substring("pg_temp.".length()) + " AS SELECT " + columnList +
+                    " FROM " + tableName + " WHERE 1 = 0"));
+        }
+
+        // the delete runs on the snapshot taken before the insert, so it only removes the rows of the previous set
+        StringBuilder insertStage = new StringBuilder("WITH cleared AS (DELETE FROM ").append(STAGING_TABLE).append(") INSERT INTO ")
+                .append(STAGING_TABLE).append(" (").append(columnList).append(") VALUES ");
+        appendValues(insertStage, statement, database);
+        sql.add(new UnparsedSql(insertStage.toString()));
+
+        List<String> updateColumns = getUpdateColumnNames(statement);
+        if (!updateColumns.isEmpty()) {
+            StringBuilder update = new StringBuilder("UPDATE ").append(tableName).append(" t SET ");
+            boolean first = true;
+            for (String column : updateColumns) {
+                if (!first) {
+                    update.append(", ");
+                }
+                String escapedColumn = escapeColumnName(statement, column, database);
+                update.append(escapedColumn).append(" = s.").append(escapedColumn);
+                first = false;
+            }
+            update.append(" FROM ").append(STAGING_TABLE).append(" s WHERE ").append(keyMatch);
+            sql.add(new UnparsedSql(update.toString(), getAffectedTable(statement)));
+        }
+
+        if (!statement.getOnlyUpdate()) {
+            sql.add(new UnparsedSql("INSERT INTO " + tableName + " (" + columnList + ") SELECT " +
+                    escapeColumnNames(statement, columns, "s.", database) + " FROM " + STAGING_TABLE + " s WHERE NOT EXISTS (SELECT 1 FROM " +
+                    tableName + " t WHERE " + keyMatch + ")", getAffectedTable(statement)));
+        }
+
+        return sql.toArray(EMPTY_SQL);
+    }
+}
@@ -39,77 +39,89 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
 
     @Override
     public Sql[] generateSql(MarkChangeSetRanStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        // use LEGACY quoting since we're dealing with system objects
+        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            SqlStatement runStatement = createRunStatement(statement, database);
+            if (runStatement == null) {
+                return EMPTY_SQL; //don't mark
+            }
+            return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
+        } finally {
+            database.setObjectQuotingStrategy(currentStrategy);
+        }
+    }
+
+    /**
+     * Creates the {@link InsertStatement} or, for changesets that ran before, the {@link UpdateStatement} that records the given statement's changeset.
+     * Returns null for exec types that are not recorded. Takes the next ORDEREXECUTED value from the history service, so the
+     * returned statement should be executed.
+     */
+    public SqlStatement createRunStatement(MarkChangeSetRanStatement statement, Database database) {
         String dateValue = database.getCurrentDateTimeFunction();
 
         ChangeSet changeSet = statement.getChangeSet();
 
         SqlStatement runStatement;
-        // use LEGACY quoting since we're dealing with system objects
-        ObjectQuotingStrategy currentStrategy = database.getObjectQuotingStrategy();
-        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
         try {
-            try {
-                if (statement.getExecType().equals(ChangeSet.ExecType.FAILED) || statement.getExecType().equals(ChangeSet.ExecType.SKIPPED)) {
-                    return EMPTY_SQL; //don't mark
-                }
+            if (statement.getExecType().equals(ChangeSet.ExecType.FAILED) || statement.getExecType().equals(ChangeSet.ExecType.SKIPPED)) {
+                return null;
+            }
 
-                final String tag = getTagFromChangeset(changeSet);
-                final int orderExecuted = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getNextSequenceValue();
-	            final DatabaseFunction dateExecuted = new DatabaseFunction(dateValue);
-                final String liquibaseVersion = getLiquibaseBuildVersion();
-                final String description = StringUtil.limitSize(changeSet.getDescription(), 250);
-                final String md5Sum = changeSet.generateCheckSum(ChecksumVersion.latest()).toString();
-				final String execType = statement.getExecType().value;
-				final String deploymentId = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getDeploymentId();
-
-				if (statement.getExecType().ranBefore) {
-	                runStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
-	                        .addNewColumnValue("DATEEXECUTED", dateExecuted)
-	                        .addNewColumnValue("ORDEREXECUTED", orderExecuted)
-	                        .addNewColumnValue("MD5SUM", md5Sum)
-	                        .addNewColumnValue("EXECTYPE", execType)
-	                        .addNewColumnValue("DEPLOYMENT_ID", deploymentId)
-	                        .addNewColumnValue(COMMENTS, getCommentsColumn(changeSet))
-	                        .addNewColumnValue(CONTEXTS, getContextsColumn(changeSet))
-	                        .addNewColumnValue(LABELS, getLabelsColumn(changeSet))
-                            .addNewColumnValue("LIQUIBASE", liquibaseVersion)
-                            .addNewColumnValue("DESCRIPTION", description)
-	                        .setWhereClause(database.escapeObjectName("ID", LiquibaseColumn.class) + " = ? " +
-	                                "AND " + database.escapeObjectName("AUTHOR", LiquibaseColumn.class) + " = ? " +
-	                                "AND " + database.escapeObjectName("FILENAME", LiquibaseColumn.class) + " = ?")
-	                        .addWhereParameters(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
-
-                    if (tag != null) {
-                        ((UpdateStatement) runStatement).addNewColumnValue("TAG", tag);
-                    }
-                } else {
-					runStatement = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
-                            .addColumnValue("ID", changeSet.getId())
-                            .addColumnValue("AUTHOR", changeSet.getAuthor())
-                            .addColumnValue("FILENAME", changeSet.getFilePath())
-                            .addColumnValue("DATEEXECUTED", dateExecuted)
-                            .addColumnValue("ORDEREXECUTED", orderExecuted)
-                            .addColumnValue("MD5SUM", md5Sum)
-                            .addColumnValue("DESCRIPTION", description)
-                            .addColumnValue(COMMENTS, getCommentsColumn(changeSet))
-                            .addColumnValue("EXECTYPE", execType)
-                            .addColumnValue(CONTEXTS, getContextsColumn(changeSet))
-                            .addColumnValue(LABELS, getLabelsColumn(changeSet))
-                            .addColumnValue("LIQUIBASE", liquibaseVersion)
-                            .addColumnValue("DEPLOYMENT_ID", deploymentId);
-
-                    if (tag != null) {
-                        ((InsertStatement) runStatement).addColumnValue("TAG", tag);
-                    }
+            final String tag = getTagFromChangeset(changeSet);
+            final int orderExecuted = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getNextSequenceValue();
+            final DatabaseFunction dateExecuted = new DatabaseFunction(dateValue);
+            final String liquibaseVersion = getLiquibaseBuildVersion();
+            final String description = StringUtil.limitSize(changeSet.getDescription(), 250);
+            final String md5Sum = changeSet.generateCheckSum(ChecksumVersion.latest()).toString();
+            final String execType = statement.getExecType().value;
+            final String deploymentId = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class).getChangeLogService(database).getDeploymentId();
+
+            if (statement.getExecType().ranBefore) {
+                runStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
+                        .addNewColumnValue("DATEEXECUTED", dateExecuted)
+                        .addNewColumnValue("ORDEREXECUTED", orderExecuted)
+                        .addNewColumnValue("MD5SUM", md5Sum)
+                        .addNewColumnValue("EXECTYPE", execType)
+                        .addNewColumnValue("DEPLOYMENT_ID", deploymentId)
+                        .addNewColumnValue(COMMENTS, getCommentsColumn(changeSet))
+                        .addNewColumnValue(CONTEXTS, getContextsColumn(changeSet))
+                        .addNewColumnValue(LABELS, getLabelsColumn(changeSet))
+                        .addNewColumnValue("LIQUIBASE", liquibaseVersion)
+                        .addNewColumnValue("DESCRIPTION", description)
+                        .setWhereClause(database.escapeObjectName("ID", LiquibaseColumn.class) + " = ? " +
+                                "AND " + database.escapeObjectName("AUTHOR", LiquibaseColumn.class) + " = ? " +
+                                "AND " + database.escapeObjectName("FILENAME", LiquibaseColumn.class) + " = ?")
+                        .addWhereParameters(changeSet.getId(), changeSet.getAuthor(), changeSet.getFilePath());
+
+                if (tag != null) {
+                    ((UpdateStatement) runStatement).addNewColumnValue("TAG", tag);
+                }
+            } else {
+                runStatement = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
+                        .addColumnValue("ID", changeSet.getId())
+                        .addColumnValue("AUTHOR", changeSet.getAuthor())
+                        .addColumnValue("FILENAME", changeSet.getFilePath())
+                        .addColumnValue("DATEEXECUTED", dateExecuted)
+                        .addColumnValue("ORDEREXECUTED", orderExecuted)
+                        .addColumnValue("MD5SUM", md5Sum)
+                        .addColumnValue("DESCRIPTION", description)
+                        .addColumnValue(COMMENTS, getCommentsColumn(changeSet))
+                        .addColumnValue("EXECTYPE", execType)
+                        .addColumnValue(CONTEXTS, getContextsColumn(changeSet))
+                        .addColumnValue(LABELS, getLabelsColumn(changeSet))
+                        .addColumnValue("LIQUIBASE", liquibaseVersion)
+                        .addColumnValue("DEPLOYMENT_ID", deploymentId);
+
+                if (tag != null) {
+                    ((InsertStatement) runStatement).addColumnValue("TAG", tag);
                 }
-            } catch (LiquibaseException e) {
-                throw new UnexpectedLiquibaseException(e);
             }
-
-            return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
-        } finally {
-            database.setObjectQuotingStrategy(currentStrategy);
+        } catch (LiquibaseException e) {
+            throw new UnexpectedLiquibaseException(e);
         }
+        return runStatement;
     }
 
     public static String getTagFromChangeset(ChangeSet changeSet) {
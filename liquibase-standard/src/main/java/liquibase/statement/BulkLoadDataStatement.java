@@ -0,0 +1,112 @@
+package liquibase.statement;
+
+import liquibase.Scope;
+import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.change.core.loaddata.BulkLoader;
+import liquibase.change.core.loaddata.BulkLoaderFactory;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Loads rows of simple values into a table with the {@link BulkLoader} selected for the database, such as COPY on PostgreSQL.
+ * If no loader can be used when the statement is executed, the fallback statements are generated and executed instead.
+ * <p>
+ * All rows have the same columns, in the order of {@link #getColumnNames()}, and their values are null, strings, numbers,
+ * booleans or dates.
+ */
+public class BulkLoadDataStatement extends AbstractSqlStatement implements ExecutablePreparedStatement {
+
+    private final Database database;
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final List<String> columnNames;
+    private final List<List<LoadDataColumnConfig>> rows;
+    private final Supplier<SqlStatement[]> fallbackStatements;
+
+    public BulkLoadDataStatement(Database database, String catalogName, String schemaName, String tableName,
+                                 List<String> columnNames, List<List<LoadDataColumnConfig>> rows,
+                                 Supplier<SqlStatement[]> fallbackStatements) {
+        this.database = database;
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.columnNames = new ArrayList<>(columnNames);
+        this.rows = rows;
+        this.fallbackStatements = fallbackStatements;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Returns the rows to load. Each row holds one {@link LoadDataColumnConfig} per column name, in the same order.
+     */
+    public List<List<LoadDataColumnConfig>> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the value of the given column in the given row. Values which insert statements write as NULL, such as the
+     * string "NULL", are returned as null.
+     */
+    public Object getValue(List<LoadDataColumnConfig> row, int columnIndex) {
+        Object value = row.get(columnIndex).getValueObject();
+        if ((value instanceof String) && "NULL".equalsIgnoreCase((String) value)) {
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the statements which insert the same rows without the bulk loader. They are executed if no loader can be
+     * used, and they are the SQL shown when the change is not executed against a database.
+     */
+    public SqlStatement[] getFallbackStatements() {
+        return fallbackStatements.get();
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        BulkLoader bulkLoader = Scope.getCurrentScope().getSingleton(BulkLoaderFactory.class).getBulkLoader(database);
+        if ((bulkLoader != null) && bulkLoader.load(this, database)) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Loaded " + rows.size() + " rows into " + tableName + " with " + bulkLoader.getClass().getName());
+            return;
+        }
+
+        Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+        for (SqlStatement statement : getFallbackStatements()) {
+            executor.execute(statement);
+        }
+    }
+
+    @Override
+    public boolean continueOnError() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "Bulk load of " + rows.size() + " rows into " + tableName;
+    }
+}
@@ -15,6 +15,7 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.listener.SqlListener;
 import liquibase.logging.Logger;
+import liquibase.resource.Resource;
 import liquibase.resource.ResourceAccessor;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
@@ -32,6 +33,15 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Level;
@@ -392,6 +402,16 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 
     @SuppressWarnings("java:S2583")
     protected LOBContent<InputStream> toBinaryStream(String valueLobFile) throws LiquibaseException, IOException {
+        Path localFile = getLocalFile(valueLobFile);
+        if (localFile != null) {
+            // the size of a local file is known without reading it, so it is streamed to the driver in a single pass
+            FileChannel channel = FileChannel.open(localFile, StandardOpenOption.READ);
+            closeables.add(channel);
+            InputStream in = createStream(Channels.newInputStream(channel));
+            closeables.add(in);
+            return new LOBContent<>(in, channel.size());
+        }
+
         InputStream in = getResourceAsStream(valueLobFile);
 
         if (in == null) {
@@ -437,6 +457,16 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
     @SuppressWarnings("java:S2583")
     protected LOBContent<Reader> toCharacterStream(String valueLobFile, String encoding)
             throws IOException, LiquibaseException {
+        Path localFile = getLocalFile(valueLobFile);
+        if ((localFile != null) && (encoding != null) && (Charset.forName(encoding).newEncoder().maxBytesPerChar() == 1.0f)) {
+            // with a single byte encoding, the number of characters is the size of the file
+            FileChannel channel = FileChannel.open(localFile, StandardOpenOption.READ);
+            closeables.add(channel);
+            Reader reader = StreamUtil.readStreamWithReader(Channels.newInputStream(channel), encoding);
+            closeables.add(reader);
+            return new LOBContent<>(reader, channel.size());
+        }
+
         InputStream in = getResourceAsStream(valueLobFile);
 
         if (in == null) {
@@ -484,6 +514,24 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
         return this.resourceAccessor.getExisting(fileName).openInputStream();
     }
 
+    /**
+     * Returns the path of the given LOB file if it is a plain file in the local file system, or null if it has to be
+     * read through its resource, for example because it is inside an archive or compressed.
+     */
+    protected Path getLocalFile(String valueLobFile) throws IOException {
+        Resource resource = this.resourceAccessor.getExisting(getFileName(valueLobFile));
+        URI uri = resource.getUri();
+        if ((uri == null) || !"file".equalsIgnoreCase(uri.getScheme()) || resource.getPath().toLowerCase().endsWith(".gz")) {
+            return null;
+        }
+        try {
+            Path path = Paths.get(uri);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+    }
+
     private String getFileName(String fileName) {
         String relativeBaseFileName = changeSet.getChangeLog().getPhysicalFilePath();
 
@@ -0,0 +1,78 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts or updates a set of rows with one set-based statement where the database supports it, instead of one
+ * {@link InsertOrUpdateStatement} per row.
+ * <p>
+ * All rows have the same columns in the same order, the same primary key and the same column update settings, and no
+ * two rows have the same primary key values.
+ */
+public class InsertOrUpdateSetStatement extends AbstractSqlStatement {
+
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final String primaryKey;
+    private final boolean onlyUpdate;
+    private boolean firstSet = true;
+    private final List<InsertOrUpdateStatement> statements = new ArrayList<>();
+
+    public InsertOrUpdateSetStatement(String catalogName, String schemaName, String tableName, String primaryKey, boolean onlyUpdate) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.primaryKey = primaryKey;
+        this.onlyUpdate = onlyUpdate;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getPrimaryKey() {
+        return primaryKey;
+    }
+
+    public boolean getOnlyUpdate() {
+        return onlyUpdate;
+    }
+
+    /**
+     * Returns false if the last set run before this one on the same connection had the same
+     * table and columns. Generators which stage the rows in a temporary table only create it for the first set.
+     */
+    public boolean isFirstSet() {
+        return firstSet;
+    }
+
+    public InsertOrUpdateSetStatement setFirstSet(boolean firstSet) {
+        this.firstSet = firstSet;
+        return this;
+    }
+
+    public InsertOrUpdateSetStatement addStatement(InsertOrUpdateStatement statement) {
+        statements.add(statement);
+        return this;
+    }
+
+    public List<InsertOrUpdateStatement> getStatements() {
+        return statements;
+    }
+
+    public InsertOrUpdateStatement peek() {
+        return statements.isEmpty() ? null : statements.get(0);
+    }
+}
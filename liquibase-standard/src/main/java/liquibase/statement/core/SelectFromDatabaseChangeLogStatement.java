@@ -98,4 +98,24 @@ public class SelectFromDatabaseChangeLogStatement extends AbstractSqlStatement {
         }
     }
 
+    @Data
+    public static class ByOrderExecutedAbove implements WhereClause {
+        private final int orderExecuted;
+
+        @Override
+        public String generateSql(Database database) {
+            return String.format(" WHERE %s > %d", database.escapeColumnName(null, null, null, "ORDEREXECUTED"), orderExecuted);
+        }
+    }
+
+    public static class ByMaxOrderExecuted implements WhereClause {
+
+        @Override
+        public String generateSql(Database database) {
+            final String orderExecutedColumnName = database.escapeColumnName(null, null, null, "ORDEREXECUTED");
+            return String.format(" WHERE %s = (SELECT MAX(%s) FROM %s)", orderExecutedColumnName, orderExecutedColumnName,
+                    database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName()));
+        }
+    }
+
 }
@@ -9,6 +9,7 @@ import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.structure.core.*;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -16,6 +17,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DatabaseObjectCollection implements LiquibaseSerializable {
 
     private final Map<Class<? extends DatabaseObject>, Map<String, Set<DatabaseObject>>> cache = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<Class<? extends DatabaseObject>, Map<String, DatabaseObject>> identityIndex = new ConcurrentHashMap<>();
     private final Database database;
 
     public DatabaseObjectCollection(Database database) {
@@ -82,10 +84,19 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
             Set<DatabaseObject> collection = collectionMap.computeIfAbsent(hash, k -> new HashSet<>());
             collection.add(databaseObject);
         }
+
+        String identityKey = getIdentityKey(databaseObject);
+        if (identityKey != null) {
+            identityIndex.computeIfAbsent(databaseObject.getClass(), k -> new ConcurrentHashMap<>()).putIfAbsent(identityKey, databaseObject);
+        }
     }
 
     /**
      * Returns the object described by the passed example if it is already included in this snapshot.
+     * <p>
+     * The object with the same identity key as the example is checked first.
+     * Otherwise the objects sharing a {@link DatabaseObjectComparatorFactory#hash(DatabaseObject, CompareControl.SchemaComparison[], Database)}
+     * value with the example are compared, starting with the smallest group.
      */
     public <DatabaseObjectType extends DatabaseObject> DatabaseObjectType get(DatabaseObjectType example, CompareControl.SchemaComparison[] schemaComparisons) {
         Map<String, Set<DatabaseObject>> databaseObjectsByHash = cache.get(example.getClass());
@@ -94,22 +105,26 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
             return null;
         }
 
-        String[] hashes = DatabaseObjectComparatorFactory.getInstance().hash(example, null, database);
-
-        SortedSet<Set<DatabaseObject>> objectSets = new TreeSet<>((o1, o2) -> {
-            int sizeComparison = Integer.compare(o1.size(), o2.size());
-            if (sizeComparison == 0) {
-                return o1.toString().compareTo(o2.toString());
+        Map<String, DatabaseObject> objectsByIdentity = identityIndex.get(example.getClass());
+        if (objectsByIdentity != null) {
+            String identityKey = getIdentityKey(example);
+            DatabaseObject identical = (identityKey == null) ? null : objectsByIdentity.get(identityKey);
+            if ((identical != null) && DatabaseObjectComparatorFactory.getInstance().isSameObject(identical, example, schemaComparisons, database)) {
+                //noinspection unchecked
+                return (DatabaseObjectType) identical;
             }
-            return sizeComparison;
-        });
+        }
+
+        String[] hashes = DatabaseObjectComparatorFactory.getInstance().hash(example, null, database);
 
+        List<Set<DatabaseObject>> objectSets = new ArrayList<>(hashes.length);
         for (String hash : hashes) {
             Set<DatabaseObject> databaseObjects = databaseObjectsByHash.get(hash);
-            if (databaseObjects != null) {
+            if ((databaseObjects != null) && !containsSameInstance(objectSets, databaseObjects)) {
                 objectSets.add(databaseObjects);
             }
         }
+        objectSets.sort(Comparator.comparingInt(Set::size));
 
         for (Set<DatabaseObject> databaseObjects : objectSets) {
             for (DatabaseObject obj : databaseObjects) {
@@ -123,6 +138,59 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
         return null;
     }
 
+    private static boolean containsSameInstance(List<Set<DatabaseObject>> objectSets, Set<DatabaseObject> databaseObjects) {
+        for (Set<DatabaseObject> objectSet : objectSets) {
+            if (objectSet == databaseObjects) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a key made of the catalog, schema, containing table or view and name of the given object, lower-cased unless the
+     * database is case-sensitive. Returns null for objects without a name. Objects with the same key are not necessarily the same
+     * object according to their comparator, so a match still has to be confirmed.
+     */
+    protected String getIdentityKey(DatabaseObject object) {
+        String name = object.getName();
+        if (name == null) {
+            return null;
+        }
+        DatabaseObject container = null;
+        if (object instanceof Column) {
+            container = ((Column) object).getRelation();
+        } else if (object instanceof Index) {
+            container = ((Index) object).getRelation();
+        } else if (object instanceof PrimaryKey) {
+            container = ((PrimaryKey) object).getTable();
+        } else if (object instanceof UniqueConstraint) {
+            container = ((UniqueConstraint) object).getRelation();
+        } else if (object instanceof ForeignKey) {
+            container = ((ForeignKey) object).getForeignKeyTable();
+        }
+
+        StringBuilder key = new StringBuilder();
+        if (object instanceof Schema) {
+            key.append(((Schema) object).getCatalogName());
+        } else if (!(object instanceof Catalog)) {
+            Schema schema = (container == null) ? object.getSchema() : container.getSchema();
+            if (schema != null) {
+                key.append(schema.getCatalogName()).append('.').append(schema.getName());
+            }
+        }
+        key.append(':');
+        if (container != null) {
+            key.append(container.getName());
+        }
+        key.append(':').append(name);
+
+        if ((database == null) || !database.isCaseSensitive()) {
+            return key.toString().toLowerCase(Locale.US);
+        }
+        return key.toString();
+    }
+
     /**
      * Returns all objects of the given type that are already included in this snapshot.
      */
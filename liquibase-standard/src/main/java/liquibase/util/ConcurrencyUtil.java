@@ -0,0 +1,116 @@
+package liquibase.util;
+
+import liquibase.Scope;
+import liquibase.ScopeManager;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ConcurrencyUtil {
+
+    /**
+     * Runs the given tasks on at most {@code threads} worker threads and returns their results in the same order as the tasks.
+     * <p>
+     * Each worker sees the {@link Scope} that was current when this method was called, and gets its own scope stack so that
+     * {@link Scope#child(java.util.Map, Scope.ScopedRunner)} calls made by a task do not affect the calling thread or other tasks.
+     * If {@code threads} is less than 2 or there is only one task, the tasks are simply run in order on the calling thread.
+     * <p>
+     * If any task fails, the remaining tasks are cancelled and the exception from the first failed task (in task order) is thrown.
+     */
+    public static <T> List<T> runAll(List<? extends Callable<T>> tasks, int threads) throws Exception {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (threads < 2 || tasks.size() < 2) {
+            for (Callable<T> task : tasks) {
+                results.add(task.call());
+            }
+            return results;
+        }
+
+        Scope callerScope = Scope.getCurrentScope();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "liquibase-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    Scope.setScopeManager(new WorkerScopeManager(callerScope));
+                    return task.call();
+                }));
+            }
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    for (Future<T> other : futures) {
+                        other.cancel(true);
+                    }
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a factory for daemon threads named {@code namePrefix-1}, {@code namePrefix-2} and so on. Like the workers of
+     * {@link #runAll(List, int)}, each thread sees the {@link Scope} that was current when this method was called and gets its own scope stack.
+     */
+    public static ThreadFactory newScopedThreadFactory(String namePrefix) {
+        Scope callerScope = Scope.getCurrentScope();
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                Scope.setScopeManager(new WorkerScopeManager(callerScope));
+                runnable.run();
+            }, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Scope manager for worker threads, rooted at the scope of the thread which started the work.
+     */
+    private static class WorkerScopeManager extends ScopeManager {
+
+        private final Scope rootScope;
+        private Scope currentScope;
+
+        private WorkerScopeManager(Scope rootScope) {
+            this.rootScope = rootScope;
+            this.currentScope = rootScope;
+        }
+
+        @Override
+        public synchronized Scope getCurrentScope() {
+            return currentScope;
+        }
+
+        @Override
+        protected synchronized void setCurrentScope(Scope scope) {
+            this.currentScope = scope;
+        }
+
+        @Override
+        protected Scope init(Scope scope) throws Exception {
+            return rootScope;
+        }
+    }
+}
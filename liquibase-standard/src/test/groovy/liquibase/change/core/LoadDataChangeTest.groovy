@@ -5,6 +5,7 @@ import liquibase.GlobalConfiguration
 import liquibase.Scope
 import liquibase.change.ChangeStatus
 import liquibase.change.StandardChangeTest
+import liquibase.change.StreamingChange
 import liquibase.changelog.ChangeSet
 import liquibase.changelog.DatabaseChangeLog
 import liquibase.database.Database
@@ -189,6 +190,45 @@ class LoadDataChangeTest extends StandardChangeTest {
         "liquibase/change/core/sample.data1.csv"    | null      | null
     }
 
+    def "statements are generated in chunks when loadDataChunkSize is set"() throws Exception {
+        when:
+        LoadDataChange change = new LoadDataChange() {
+            @Override
+            protected InsertSetStatement createStatementSet(String catalogName, String schemaName, String tableName) {
+                return new InsertSetStatement(catalogName, schemaName, tableName, 0)
+            }
+        }
+        change.setSchemaName("SCHEMA_NAME")
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+
+        List<SqlStatement[]> parts = []
+        boolean inParts = Scope.child([(GlobalConfiguration.LOAD_DATA_CHUNK_SIZE.getKey()): 1], {
+            change.generateStatements(new MSSQLDatabase(), { SqlStatement[] statements -> parts.add(statements) } as StreamingChange.StatementConsumer)
+            return change.generateStatementsInParts(new MSSQLDatabase())
+        } as Scope.ScopedRunnerWithReturn<Boolean>)
+
+        then:
+        inParts
+        !change.generateStatementsInParts(new MSSQLDatabase())
+        parts*.length == [1, 1]
+        ((InsertStatement) ((InsertSetStatement) parts[0][0]).getStatementsArray()[0]).getColumnValue("name") == "Bob Johnson"
+        ((InsertStatement) ((InsertSetStatement) parts[1][0]).getStatementsArray()[0]).getColumnValue("name") == "John Doe"
+    }
+
+    def "chunk size is rounded up to whole multi-row inserts"() {
+        when:
+        def change = new LoadDataChange()
+        change.setTableName("TABLE_NAME")
+        int chunkSize = Scope.child([(GlobalConfiguration.LOAD_DATA_CHUNK_SIZE.getKey()): 60], {
+            return change.getChunkSize(new MSSQLDatabase())
+        } as Scope.ScopedRunnerWithReturn<Integer>)
+
+        then:
+        chunkSize == 102
+        change.getChunkSize(new MSSQLDatabase()) == 0
+    }
+
     @Unroll("multiple formats with the same data for #fileName")
     def "multiple formats with the same data not using InsertSetStatement"() throws Exception {
         when:
@@ -4,6 +4,7 @@ import liquibase.ChecksumVersion
 import liquibase.Scope
 import liquibase.change.ChangeStatus
 import liquibase.database.core.PostgresDatabase
+import liquibase.database.Database
 import liquibase.database.DatabaseConnection
 import liquibase.integration.commandline.LiquibaseCommandLineConfiguration
 import liquibase.snapshot.MockSnapshotGeneratorFactory
@@ -12,6 +13,8 @@ import liquibase.change.StandardChangeTest;
 import liquibase.database.core.MockDatabase
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.statement.SqlStatement
+import liquibase.statement.core.DeleteStatement
+import liquibase.statement.core.InsertOrUpdateSetStatement
 import liquibase.statement.core.InsertOrUpdateStatement
 import liquibase.database.core.MSSQLDatabase
 import spock.lang.Unroll
@@ -100,6 +103,81 @@ public class LoadUpdateDataChangeTest extends StandardChangeTest {
         assert !statements[0].getOnlyUpdate()
     }
 
+    def "loadUpdate keeps one statement per row unless loaded resumably"() throws Exception {
+        when:
+        LoadUpdateDataChange change = new LoadUpdateDataChange();
+        change.setSchemaName("SCHEMA_NAME");
+        change.setTableName("TABLE_NAME");
+        change.setFile("liquibase/change/core/jhi_text.csv");
+        change.setPrimaryKey("id");
+
+        SqlStatement[] statements = change.generateStatements(new PostgresDatabase());
+
+        then:
+        statements.length == 2
+        statements.every { it instanceof InsertOrUpdateStatement }
+    }
+
+    def "loadUpdate combines rows into set-based statements of limited size when loaded resumably"() throws Exception {
+        when:
+        PostgresDatabase database = new PostgresDatabase();
+
+        LoadUpdateDataChange change = new LoadUpdateDataChange() {
+            @Override
+            protected boolean isResumable(Database db) {
+                return true
+            }
+
+            @Override
+            protected int getRowsPerInsert() {
+                return 2
+            }
+        }
+        change.setSchemaName("SCHEMA_NAME");
+        change.setTableName("TABLE_NAME");
+        change.setFile("liquibase/change/core/sample.data1-removedComments.csv");
+        change.setPrimaryKey("username");
+
+        SqlStatement[] statements = change.generateStatements(database);
+        SqlStatement[] rollbackStatements = change.generateRollbackStatements(database);
+
+        then:
+        statements.length == 2
+        statements[0] instanceof InsertOrUpdateSetStatement
+        ((InsertOrUpdateSetStatement) statements[0]).getStatements().size() == 2
+        ((InsertOrUpdateSetStatement) statements[0]).isFirstSet()
+        statements[1] instanceof InsertOrUpdateStatement
+        rollbackStatements.length == 3
+        rollbackStatements.every { it instanceof DeleteStatement }
+    }
+
+    def "loadUpdate marks only the first of several sets with the same columns"() throws Exception {
+        when:
+        LoadUpdateDataChange change = new LoadUpdateDataChange() {
+            @Override
+            protected boolean isResumable(Database db) {
+                return true
+            }
+
+            @Override
+            protected int getRowsPerInsert() {
+                return 2
+            }
+        }
+        change.setSchemaName("SCHEMA_NAME");
+        change.setTableName("TABLE_NAME");
+        change.setFile("liquibase/change/core/sample.data.temporal.csv");
+        change.setPrimaryKey("id");
+
+        SqlStatement[] statements = change.generateStatements(new PostgresDatabase());
+
+        then:
+        statements.length == 3
+        statements[0..1].every { it instanceof InsertOrUpdateSetStatement }
+        statements[0..1]*.firstSet == [true, false]
+        statements[2] instanceof InsertOrUpdateStatement
+    }
+
     def "loadUpdate generates InsertOrUpdateStatements with onlyUpdate"() throws Exception {
         when:
         MockDatabase database = new MockDatabase();
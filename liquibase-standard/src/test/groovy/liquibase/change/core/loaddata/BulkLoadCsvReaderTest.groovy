@@ -0,0 +1,60 @@
+package liquibase.change.core.loaddata
+
+import liquibase.change.core.LoadDataColumnConfig
+import liquibase.database.core.MySQLDatabase
+import liquibase.statement.BulkLoadDataStatement
+import spock.lang.Specification
+
+import java.util.function.Function
+
+class BulkLoadCsvReaderTest extends Specification {
+
+    def "values are quoted and nulls are written unquoted"() {
+        given:
+        def statement = new BulkLoadDataStatement(null, null, null, "person", ["name", "age", "active"], [
+                [column("name", 'Joe "J" \\ Smith'), numeric("age", 42), bool("active", true)],
+                [column("name", ""), column("age", null), column("active", "null")]
+        ], null)
+        def toText = { it.toString() } as Function<Object, String>
+
+        expect:
+        new BulkLoadCsvReader(statement, toText, "", false, "C0,C1,C2").text == 'C0,C1,C2\n"Joe ""J"" \\ Smith","42","true"\n"",,\n'
+        new BulkLoadCsvReader(statement, toText, "\\N", true, null).text == '"Joe \\"J\\" \\\\ Smith","42","true"\n"",\\N,\\N\n'
+    }
+
+    def "MySQL loads booleans through variables"() {
+        given:
+        def statement = new BulkLoadDataStatement(null, null, null, "person", ["person_name", "enabled"], [
+                [column("person_name", "Joe"), column("enabled", null)],
+                [column("person_name", "Bob"), bool("enabled", false)]
+        ], null)
+
+        when:
+        def sql = new MySQLLoadDataBulkLoader().generateSql(statement, new MySQLDatabase())
+
+        then:
+        sql.startsWith("LOAD DATA LOCAL INFILE ")
+        sql.endsWith("(person_name, @v1) SET enabled = CAST(@v1 AS UNSIGNED)")
+    }
+
+    private static LoadDataColumnConfig column(String name, String value) {
+        def column = new LoadDataColumnConfig()
+        column.setName(name)
+        column.setValue(value)
+        return column
+    }
+
+    private static LoadDataColumnConfig numeric(String name, Number value) {
+        def column = new LoadDataColumnConfig()
+        column.setName(name)
+        column.setValueNumeric(value)
+        return column
+    }
+
+    private static LoadDataColumnConfig bool(String name, Boolean value) {
+        def column = new LoadDataColumnConfig()
+        column.setName(name)
+        column.setValueBoolean(value)
+        return column
+    }
+}
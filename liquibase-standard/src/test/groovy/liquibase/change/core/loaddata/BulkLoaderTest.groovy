@@ -0,0 +1,173 @@
+package liquibase.change.core.loaddata
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.change.core.LoadDataChange
+import liquibase.change.core.LoadDataColumnConfig
+import liquibase.changelog.ChangeSet
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.core.H2Database
+import liquibase.database.core.MockDatabase
+import liquibase.database.core.MySQLDatabase
+import liquibase.database.core.OracleDatabase
+import liquibase.database.core.PostgresDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import liquibase.sql.visitor.ReplaceSqlVisitor
+import liquibase.sqlgenerator.SqlGeneratorFactory
+import liquibase.statement.BulkLoadDataStatement
+import liquibase.statement.SqlStatement
+import liquibase.statement.core.InsertStatement
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.file.Paths
+import java.sql.DriverManager
+
+class BulkLoaderTest extends Specification {
+
+    def "loaders generate their load command"() {
+        given:
+        def statement = statement()
+
+        expect:
+        new PostgresCopyBulkLoader().generateSql(statement, new PostgresDatabase()).equalsIgnoreCase("COPY person (name, age) FROM STDIN WITH (FORMAT csv)")
+        new OracleArrayBulkLoader().generateSql(statement, new OracleDatabase()).equalsIgnoreCase("INSERT INTO person (name, age) VALUES (?, ?)")
+        new H2CsvReadBulkLoader().generateSql(statement, new H2Database(), Paths.get("/tmp/it's.csv"))
+                .equalsIgnoreCase("INSERT INTO person (name, age) SELECT * FROM CSVREAD('" + Paths.get("/tmp/it's.csv").toAbsolutePath().toString().replace("'", "''") + "', NULL, 'charset=UTF-8')")
+        new MySQLLoadDataBulkLoader().generateSql(statement, new MySQLDatabase()).endsWith("LINES TERMINATED BY '\\n' (name, age)")
+    }
+
+    @Unroll
+    def "#loader.class.simpleName falls back to insert statements without a JDBC connection"() {
+        expect:
+        !loader.load(statement(), new MockDatabase())
+
+        where:
+        loader << [new PostgresCopyBulkLoader(), new OracleArrayBulkLoader(), new H2CsvReadBulkLoader(), new MySQLLoadDataBulkLoader()]
+    }
+
+    def "MySQL load fails if rows were skipped or converted"() {
+        given:
+        def loader = new MySQLLoadDataBulkLoader()
+
+        when:
+        loader.verifyLoad(statement(), 2, [])
+
+        then:
+        noExceptionThrown()
+
+        when:
+        loader.verifyLoad(statement(), 1, [])
+
+        then:
+        def skipped = thrown(DatabaseException)
+        skipped.message.startsWith("LOAD DATA loaded 1 of 2 rows into person")
+
+        when:
+        loader.verifyLoad(statement(), 2, ["Warning 1366: Incorrect integer value"])
+
+        then:
+        def converted = thrown(DatabaseException)
+        converted.message.contains("Warning 1366: Incorrect integer value")
+    }
+
+    def "generated SQL is that of the fallback statements"() {
+        given:
+        def insert = new InsertStatement(null, null, "person").addColumnValue("name", "Joe")
+        def statement = new BulkLoadDataStatement(null, null, null, "person", ["name"], [[column("name", "Joe")]],
+                { [insert] as SqlStatement[] })
+        def database = new H2Database()
+
+        expect:
+        SqlGeneratorFactory.instance.generateSql(statement, database)*.toSql() == SqlGeneratorFactory.instance.generateSql(insert, database)*.toSql()
+    }
+
+    def "loadData is bulk loaded only when enabled and without modifySql"() {
+        given:
+        def database = h2Database()
+
+        expect:
+        bulkLoad(database, false, false) == null
+        bulkLoad(database, true, true) == null
+        bulkLoad(new MockDatabase(), true, false) == null
+        bulkLoad(database, true, false) != null
+
+        cleanup:
+        database?.close()
+    }
+
+    def "H2 bulk load inserts all rows"() {
+        given:
+        def database = h2Database()
+        def statement = bulkLoad(database, true, false)
+
+        when:
+        statement.execute(null)
+
+        then:
+        def resultSet = ((JdbcConnection) database.connection).createStatement().executeQuery("select count(*) from person")
+        resultSet.next()
+        resultSet.getInt(1) == 2
+
+        cleanup:
+        database?.close()
+    }
+
+    private static BulkLoadDataStatement bulkLoad(Database database, boolean enabled, boolean withSqlVisitor) {
+        def change = new LoadDataChange()
+        change.setTableName("person")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        // typed columns, so that reading the file does not snapshot the table
+        ["name", "username"].each {
+            def column = new LoadDataColumnConfig()
+            column.setName(it)
+            column.setType("STRING")
+            change.addColumn(column)
+        }
+        if (withSqlVisitor) {
+            def changeSet = new ChangeSet("1", "test", false, false, "changelog.xml", null, null, null)
+            def visitor = new ReplaceSqlVisitor()
+            visitor.setReplace("person")
+            visitor.setWith("people")
+            changeSet.addSqlVisitor(visitor)
+            change.setChangeSet(changeSet)
+        }
+
+        SqlStatement[] statements = Scope.child([(GlobalConfiguration.LOAD_DATA_BULK_LOAD.key): enabled], {
+            return change.generateStatements(database)
+        } as Scope.ScopedRunnerWithReturn<SqlStatement[]>)
+        if ((statements.length == 1) && (statements[0] instanceof BulkLoadDataStatement)) {
+            return (BulkLoadDataStatement) statements[0]
+        }
+        return null
+    }
+
+    private static Database h2Database() {
+        def connection = new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:BulkLoaderTest" + System.nanoTime(), "sa", ""))
+        connection.createStatement().execute("create table person (name varchar(255), username varchar(255))")
+        return DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection)
+    }
+
+    private static BulkLoadDataStatement statement() {
+        return new BulkLoadDataStatement(null, null, null, "person", ["name", "age"], [
+                [column("name", "Joe"), numeric("age", 42)],
+                [column("name", "Bob"), numeric("age", 7)]
+        ], null)
+    }
+
+    private static LoadDataColumnConfig column(String name, String value) {
+        def column = new LoadDataColumnConfig()
+        column.setName(name)
+        column.setValue(value)
+        return column
+    }
+
+    private static LoadDataColumnConfig numeric(String name, Number value) {
+        def column = new LoadDataColumnConfig()
+        column.setName(name)
+        column.setValueNumeric(value)
+        return column
+    }
+}
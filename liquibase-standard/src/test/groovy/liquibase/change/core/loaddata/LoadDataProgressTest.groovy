@@ -0,0 +1,110 @@
+package liquibase.change.core.loaddata
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.change.StreamingChange
+import liquibase.change.core.LoadDataChange
+import liquibase.change.core.LoadDataColumnConfig
+import liquibase.changelog.ChangeSet
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import liquibase.executor.ExecutorService
+import liquibase.resource.DirectoryResourceAccessor
+import liquibase.statement.SqlStatement
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.sql.DriverManager
+
+class LoadDataProgressTest extends Specification {
+
+    @TempDir
+    Path tempDir
+
+    def "table name follows the DATABASECHANGELOG table name"() {
+        when:
+        def database = Mock(Database)
+        database.getDatabaseChangeLogTableName() >> changeLogTableName
+
+        then:
+        LoadDataProgress.getTableName(database) == expected
+
+        where:
+        changeLogTableName   | expected
+        "DATABASECHANGELOG"  | "DATABASECHANGELOGLOAD"
+        "databasechangelog"  | "databasechangelogload"
+    }
+
+    def "loads are identified by their changeset, data and partitioning"() {
+        given:
+        def changeSet = new ChangeSet("1", "test", false, false, "path/changelog", null, null, null)
+        def change = new LoadDataChange(tableName: "person", file: "liquibase/change/core/sample.data.csv")
+        changeSet.addChange(change)
+
+        expect:
+        LoadDataProgress.forChange(new LoadDataChange(tableName: "person", file: "liquibase/change/core/sample.data.csv"), "parts of 10") == null
+        LoadDataProgress.forChange(change, "parts of 10").loadId.length() == 32
+        LoadDataProgress.forChange(change, "parts of 10").loadId == LoadDataProgress.forChange(change, "parts of 10").loadId
+        LoadDataProgress.forChange(change, "parts of 10").loadId != LoadDataProgress.forChange(change, "parts of 20").loadId
+    }
+
+    def "parallel load without additional connections commits its parts and continues after a failure"() {
+        given:
+        def database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(
+                new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:LoadDataProgressTest" + System.nanoTime(), "sa", "")))
+        execute(database, "create table person (name varchar(255), username varchar(255))")
+        def change = new LoadDataChange(tableName: "person", file: "people.csv", parallelism: 4)
+        ["name", "username"].each { change.addColumn(new LoadDataColumnConfig(name: it, type: "STRING")) }
+        def changeSet = new ChangeSet("1", "test", false, false, "changelog.xml", null, null, null)
+        changeSet.addChange(change)
+        int partSize = change.getRowsPerInsert()
+        Files.write(tempDir.resolve("people.csv"), ["name,username"] + (1..(2 * partSize + 5)).collect { "Person " + it + ",user" + it })
+
+        when: "the second part fails"
+        load(database, change) { int call -> if (call == 1) throw new DatabaseException("second part failed") }
+
+        then: "the first part and its progress record are committed"
+        thrown(DatabaseException)
+        database.rollback()
+        count(database, "person") == partSize
+        count(database, LoadDataProgress.getTableName(database)) == 1
+
+        when: "the load runs again"
+        load(database, change) { int call -> }
+        database.commit()
+
+        then: "only the missing parts are loaded and the progress record is removed"
+        count(database, "person") == 2 * partSize + 5
+        count(database, LoadDataProgress.getTableName(database)) == 0
+
+        cleanup:
+        database?.close()
+    }
+
+    private void load(Database database, LoadDataChange change, Closure beforePart) {
+        Scope.child([(Scope.Attr.resourceAccessor.name()): new DirectoryResourceAccessor(tempDir.toFile()),
+                     (GlobalConfiguration.LOAD_DATA_CHUNK_SIZE.key): 1], {
+            def executor = Scope.getCurrentScope().getSingleton(ExecutorService).getExecutor("jdbc", database)
+            int calls = 0
+            change.generateStatements(database, { SqlStatement[] statements ->
+                beforePart(calls++)
+                statements.each { executor.execute(it) }
+            } as StreamingChange.StatementConsumer)
+        } as Scope.ScopedRunner)
+    }
+
+    private static int count(Database database, String table) {
+        def resultSet = ((JdbcConnection) database.connection).createStatement().executeQuery("select count(*) from " + table)
+        resultSet.next()
+        return resultSet.getInt(1)
+    }
+
+    private static void execute(Database database, String sql) {
+        ((JdbcConnection) database.connection).createStatement().execute(sql)
+        database.commit()
+    }
+}
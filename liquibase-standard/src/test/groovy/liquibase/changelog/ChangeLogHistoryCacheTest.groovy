@@ -0,0 +1,122 @@
+package liquibase.changelog
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.database.DatabaseFactory
+import liquibase.database.MockDatabaseConnection
+import liquibase.database.core.MockDatabase
+import liquibase.database.jvm.JdbcConnection
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.sql.DriverManager
+import java.sql.Timestamp
+
+class ChangeLogHistoryCacheTest extends Specification {
+
+    Path cacheDirectory
+
+    def setup() {
+        cacheDirectory = Files.createTempDirectory("liquibase-history-cache")
+    }
+
+    def cleanup() {
+        cacheDirectory.toFile().deleteDir()
+    }
+
+    def "cache is disabled without a configured directory"() {
+        when:
+        def cache = Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache)
+        def database = new MockDatabase()
+        database.setConnection(new MockDatabaseConnection())
+        cache.write(database, [[ID: "1"]])
+
+        then:
+        !cache.isEnabled()
+        cache.read(database) == null
+    }
+
+    def "rows are written, read back and invalidated"() {
+        when:
+        def database = new MockDatabase()
+        database.setConnection(new MockDatabaseConnection())
+        def dateExecuted = new Timestamp(1000)
+
+        def results = Scope.child([(GlobalConfiguration.CHANGELOG_HISTORY_CACHE_DIRECTORY.getKey()): cacheDirectory.toString()], {
+            def cache = Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache)
+            cache.write(database, [[ID: "1", AUTHOR: "example", ORDEREXECUTED: 3, DATEEXECUTED: dateExecuted, TAG: null]])
+            def read = cache.read(database)
+            cache.invalidate(database)
+            return [read, cache.read(database)]
+        } as Scope.ScopedRunnerWithReturn<List>)
+
+        then:
+        results[0].size() == 1
+        results[0][0].ID == "1"
+        results[0][0].ORDEREXECUTED == 3L
+        results[0][0].DATEEXECUTED.getTime() == 1000
+        results[0][0].containsKey("TAG")
+        results[1] == null
+    }
+
+    def "history marker ignores row order and value types but not the row count or the newest rows"() {
+        given:
+        def rows = [[ORDEREXECUTED: "1", MD5SUM: "9:abc", TAG: null], [ORDEREXECUTED: "2", MD5SUM: "9:def", TAG: "v1"]]
+
+        expect:
+        ChangeLogHistoryCache.computeHistoryMarker(rows) == ChangeLogHistoryCache.computeHistoryMarker(
+                [[ORDEREXECUTED: new BigDecimal("2"), MD5SUM: "9:def", TAG: "v1"], [ORDEREXECUTED: 1L, MD5SUM: "9:abc", TAG: null]])
+        ChangeLogHistoryCache.computeHistoryMarker(rows) != ChangeLogHistoryCache.computeHistoryMarker(
+                [[ORDEREXECUTED: "1", MD5SUM: "9:abc", TAG: null], [ORDEREXECUTED: "2", MD5SUM: "9:xyz", TAG: "v1"]])
+        ChangeLogHistoryCache.computeHistoryMarker(rows) != ChangeLogHistoryCache.computeHistoryMarker(
+                [[ORDEREXECUTED: "1", MD5SUM: "9:abc", TAG: null], [ORDEREXECUTED: "2", MD5SUM: "9:def", TAG: "v2"]])
+        ChangeLogHistoryCache.computeHistoryMarker(rows) != ChangeLogHistoryCache.computeHistoryMarker(
+                [[ORDEREXECUTED: "1", MD5SUM: "9:abc", TAG: null], [ORDEREXECUTED: "3", MD5SUM: "9:def", TAG: "v1"]])
+        ChangeLogHistoryCache.computeHistoryMarker(rows) != ChangeLogHistoryCache.computeHistoryMarker(rows.subList(1, 2))
+    }
+
+    def "history marker read from the table matches the marker of its rows"() {
+        given:
+        def database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(
+                new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:ChangeLogHistoryCacheTest" + System.nanoTime(), "sa", "")))
+        def historyService = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory).getChangeLogService(database)
+        def changeLog = new DatabaseChangeLog("com/example/test.xml")
+        (1..3).each { changeLog.addChangeSet(new ChangeSet(it.toString(), "example", false, false, "com/example/test.xml", null, null, changeLog)) }
+        historyService.init()
+
+        when: "rows are added after the cached rows were written"
+        def emptyMarker = ChangeLogHistoryCache.readHistoryMarker(database)
+        def rows = Scope.child([(GlobalConfiguration.CHANGELOG_HISTORY_CACHE_DIRECTORY.getKey()): cacheDirectory.toString()], {
+            historyService.setExecType(changeLog.changeSets[0], ChangeSet.ExecType.EXECUTED)
+            ((StandardChangeLogHistoryService) historyService).queryDatabaseChangeLogTable(database)
+            changeLog.changeSets.subList(1, 3).each { historyService.setExecType(it, ChangeSet.ExecType.EXECUTED) }
+            return ((StandardChangeLogHistoryService) historyService).queryDatabaseChangeLogTable(database)
+        } as Scope.ScopedRunnerWithReturn<List<Map<String, ?>>>)
+
+        then:
+        emptyMarker == ChangeLogHistoryCache.computeHistoryMarker([])
+        rows*.ID == ["1", "2", "3"]
+        ChangeLogHistoryCache.readHistoryMarker(database) == ChangeLogHistoryCache.computeHistoryMarker(rows)
+        ChangeLogHistoryCache.readHistoryMarker(database) != ChangeLogHistoryCache.computeHistoryMarker(rows.subList(0, 2))
+
+        cleanup:
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory).resetAll()
+        database?.close()
+    }
+
+    def "merged rows are ordered by DATEEXECUTED and ORDEREXECUTED"() {
+        given:
+        List<Map<String, ?>> rows = [
+                [ID: "3", DATEEXECUTED: new Timestamp(1000), ORDEREXECUTED: 5],
+                [ID: "1", DATEEXECUTED: new Timestamp(1000), ORDEREXECUTED: "2"],
+                [ID: "2", DATEEXECUTED: new Timestamp(500), ORDEREXECUTED: "4"]
+        ]
+
+        when:
+        ChangeLogHistoryCache.sortByExecution(rows)
+
+        then:
+        rows*.ID == ["2", "1", "3"]
+    }
+}
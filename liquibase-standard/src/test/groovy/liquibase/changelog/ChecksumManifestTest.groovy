@@ -0,0 +1,66 @@
+package liquibase.changelog
+
+import liquibase.ChecksumVersion
+import liquibase.Scope
+import liquibase.change.CheckSum
+import liquibase.change.core.LoadDataChange
+import liquibase.database.core.MockDatabase
+import liquibase.parser.core.ParsedNode
+import spock.lang.Specification
+
+class ChecksumManifestTest extends Specification {
+
+    private ChangeSet loadChangeSet(String tableName) {
+        def node = new ParsedNode(null, "changeSet")
+                .addChildren([id: "1", author: "example"])
+                .addChild(new ParsedNode(null, "createTable").addChildren([tableName: tableName]))
+        def changeSet = new ChangeSet(new DatabaseChangeLog("com/example/changelog.xml"))
+        Scope.child([(ChecksumManifest.GENERATING_MANIFEST_SCOPE_KEY): true], {
+            changeSet.load(node, null)
+        } as Scope.ScopedRunner)
+        return changeSet
+    }
+
+    def "get returns the stored checksum while the changeset definition is unchanged"() {
+        when:
+        def manifest = new ChecksumManifest()
+        def checkSum = CheckSum.parse("9:0123456789abcdef0123456789abcdef")
+        def database = new MockDatabase()
+
+        then:
+        manifest.put(loadChangeSet("person"), ChecksumVersion.V9, database, checkSum)
+        manifest.get(loadChangeSet("person"), ChecksumVersion.V9, database) == checkSum
+        manifest.get(loadChangeSet("address"), ChecksumVersion.V9, database) == null
+        manifest.get(loadChangeSet("person"), ChecksumVersion.V8, database) == null
+    }
+
+    def "manifest survives a write and load"() {
+        when:
+        def manifest = new ChecksumManifest()
+        def checkSum = CheckSum.parse("9:0123456789abcdef0123456789abcdef")
+        manifest.put(loadChangeSet("person"), ChecksumVersion.V9, null, checkSum)
+
+        def out = new ByteArrayOutputStream()
+        manifest.write(out)
+        def loaded = new ChecksumManifest()
+        loaded.load(new ByteArrayInputStream(out.toByteArray()))
+
+        then:
+        loaded.size() == 1
+        loaded.get(loadChangeSet("person"), ChecksumVersion.V9, null) == checkSum
+    }
+
+    def "changesets without a source digest or reading other files are not added"() {
+        when:
+        def manifest = new ChecksumManifest()
+        def checkSum = CheckSum.parse("9:0123456789abcdef0123456789abcdef")
+        def notLoaded = new ChangeSet("1", "example", false, false, "com/example/changelog.xml", null, null, null)
+        def loadData = loadChangeSet("person")
+        loadData.addChange(new LoadDataChange(file: "data.csv", tableName: "person"))
+
+        then:
+        !manifest.put(notLoaded, ChecksumVersion.V9, null, checkSum)
+        !manifest.put(loadData, ChecksumVersion.V9, null, checkSum)
+        manifest.size() == 0
+    }
+}
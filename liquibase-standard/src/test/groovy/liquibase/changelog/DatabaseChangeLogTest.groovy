@@ -1,5 +1,6 @@
 package liquibase.changelog
 
+import liquibase.ChecksumVersion
 import liquibase.ContextExpression
 import liquibase.LabelExpression
 import liquibase.Labels
@@ -13,6 +14,7 @@ import liquibase.exception.SetupException
 import liquibase.exception.UnexpectedLiquibaseException
 import liquibase.logging.core.BufferedLogService
 import liquibase.parser.ChangeLogParserConfiguration
+import liquibase.parser.ChangeLogParserFactory
 import liquibase.parser.core.ParsedNode
 import liquibase.precondition.core.OrPrecondition
 import liquibase.precondition.core.PreconditionContainer
@@ -1077,4 +1079,50 @@ http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbch
         "5.xml"         | 0
     }
 
+    def "nested includes are parsed into the same changesets in the same order with changelogParseThreads"() {
+        given:
+        def resourceAccessor = new MockResourceAccessor([
+                "com/example/root.xml"      : parseTestXml('<property name="nestedDir" value="nested"/>' + parseTestChangeSet("root") +
+                        '<include file="com/example/a.xml"/><include file="b.xml" relativeToChangelogFile="true"/>' +
+                        '<include file="com/example/${nestedDir}/c.xml"/><includeAll path="com/example/all/"/>' + parseTestChangeSet("root-last")),
+                "com/example/a.xml"         : parseTestXml(parseTestChangeSet("a") +
+                        '<include file="com/example/nested/a1.xml"/><include file="com/example/nested/a2.yaml"/>'),
+                "com/example/b.xml"         : parseTestXml(parseTestChangeSet("b1") + parseTestChangeSet("b2")),
+                "com/example/nested/a1.xml" : parseTestXml(parseTestChangeSet("a1") + '<include file="com/example/nested/deeper.xml"/>'),
+                "com/example/nested/a2.yaml": "databaseChangeLog:\n  - changeSet:\n      id: a2\n      author: example\n      changes:\n        - sql:\n            sql: select 'a2'\n",
+                "com/example/nested/deeper.xml": parseTestXml(parseTestChangeSet("deeper")),
+                "com/example/nested/c.xml"  : parseTestXml(parseTestChangeSet("c")),
+                "com/example/all/1.xml"     : parseTestXml(parseTestChangeSet("all1")),
+                "com/example/all/2.xml"     : parseTestXml(parseTestChangeSet("all2")),
+                "com/example/all/3.xml"     : parseTestXml(parseTestChangeSet("all3")),
+        ])
+
+        when:
+        def sequential = parseChangeSets(resourceAccessor, 1)
+        def parallel = parseChangeSets(resourceAccessor, 4)
+
+        then:
+        sequential*.split("::")*.getAt(1) == ["root", "a", "a1", "deeper", "a2", "b1", "b2", "c", "all1", "all2", "all3", "root-last"]
+        parallel == sequential
+    }
+
+    private static String parseTestXml(String content) {
+        return '<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog" ' +
+                'xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" ' +
+                'xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-latest.xsd">' +
+                content + '</databaseChangeLog>'
+    }
+
+    private static String parseTestChangeSet(String id) {
+        return '<changeSet id="' + id + '" author="example"><sql>select \'' + id + '\'</sql></changeSet>'
+    }
+
+    private static List<String> parseChangeSets(ResourceAccessor resourceAccessor, int threads) {
+        return Scope.child([(ChangeLogParserConfiguration.CHANGELOG_PARSE_THREADS.key): threads], {
+            def changeLog = ChangeLogParserFactory.getInstance().getParser("com/example/root.xml", resourceAccessor)
+                    .parse("com/example/root.xml", new ChangeLogParameters(), resourceAccessor)
+            return changeLog.changeSets.collect { it.toString(false) + "::" + it.generateCheckSum(ChecksumVersion.latest()) }
+        } as Scope.ScopedRunnerWithReturn<List<String>>)
+    }
+
 }
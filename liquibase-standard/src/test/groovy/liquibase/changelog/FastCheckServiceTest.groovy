@@ -0,0 +1,84 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.GlobalConfiguration
+import liquibase.LabelExpression
+import liquibase.Scope
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.core.MockDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.lockservice.LockServiceFactory
+import spock.lang.Specification
+
+import java.sql.DriverManager
+
+class FastCheckServiceTest extends Specification {
+
+    def "deployment fingerprint changes with changesets, contexts and labels"() {
+        when:
+        def service = Scope.getCurrentScope().getSingleton(FastCheckService)
+        def database = new MockDatabase()
+        def changeLog = new DatabaseChangeLog("com/example/test.xml")
+        changeLog.addChangeSet(new ChangeSet("1", "example", false, false, "com/example/test.xml", null, null, changeLog))
+
+        def fingerprint = service.computeDeploymentFingerprint([], database, changeLog, new Contexts("test"), new LabelExpression())
+        def sameFingerprint = service.computeDeploymentFingerprint([], database, changeLog, new Contexts("test"), new LabelExpression())
+        def otherContexts = service.computeDeploymentFingerprint([], database, changeLog, new Contexts("prod"), new LabelExpression())
+        def otherLabels = service.computeDeploymentFingerprint([], database, changeLog, new Contexts("test"), new LabelExpression("feature"))
+        changeLog.addChangeSet(new ChangeSet("2", "example", false, false, "com/example/test.xml", null, null, changeLog))
+        def otherChangeSets = service.computeDeploymentFingerprint([], database, changeLog, new Contexts("test"), new LabelExpression())
+
+        then:
+        fingerprint == sameFingerprint
+        fingerprint.length() == 64
+        [otherContexts, otherLabels, otherChangeSets].every { it != fingerprint }
+    }
+
+    def "deployment fingerprint is only used while the newest history rows are unchanged"() {
+        given:
+        def database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(
+                new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:FastCheckServiceTest" + System.nanoTime(), "sa", "")))
+        def service = Scope.getCurrentScope().getSingleton(FastCheckService)
+        def historyService = Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory).getChangeLogService(database)
+        def changeLog = new DatabaseChangeLog("com/example/test.xml")
+        (1..2).each { changeLog.addChangeSet(new ChangeSet(it.toString(), "example", false, false, "com/example/test.xml", null, null, changeLog)) }
+        historyService.init()
+        LockServiceFactory.getInstance().getLockService(database).init()
+        changeLog.changeSets.each { historyService.setExecType(it, ChangeSet.ExecType.EXECUTED) }
+
+        when: "nothing was saved yet"
+        def beforeSave = matches(service, database, changeLog, "test")
+
+        and: "the fingerprint is saved"
+        Scope.child([(GlobalConfiguration.PERSIST_DEPLOYMENT_FINGERPRINT.key): true], {
+            service.saveDeploymentFingerprint(null, database, changeLog, new Contexts("test"), new LabelExpression())
+        } as Scope.ScopedRunner)
+
+        then: "the fast check can be skipped for the same changelog, contexts and labels only"
+        !beforeSave
+        matches(service, database, changeLog, "test")
+        !matches(service, database, changeLog, "prod")
+
+        when: "the newest history row changes but the number of rows stays the same"
+        execute(database, "UPDATE " + database.databaseChangeLogTableName + " SET MD5SUM = NULL WHERE ID = '2'")
+
+        then: "the changelog has to be checked against the history again"
+        !matches(service, database, changeLog, "test")
+
+        cleanup:
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory).resetAll()
+        LockServiceFactory.getInstance().resetAll()
+        service?.clearCache()
+        database?.close()
+    }
+
+    private static boolean matches(FastCheckService service, Database database, DatabaseChangeLog changeLog, String contexts) {
+        return service.matchesDeploymentFingerprint(null, database, changeLog, new Contexts(contexts), new LabelExpression())
+    }
+
+    private static void execute(Database database, String sql) {
+        ((JdbcConnection) database.connection).createStatement().execute(sql)
+        database.commit()
+    }
+}
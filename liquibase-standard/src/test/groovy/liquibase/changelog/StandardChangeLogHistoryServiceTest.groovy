@@ -0,0 +1,116 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.GlobalConfiguration
+import liquibase.LabelExpression
+import liquibase.RuntimeEnvironment
+import liquibase.Scope
+import liquibase.changelog.filter.ChangeSetFilterResult
+import liquibase.changelog.visitor.ChangeLogSyncVisitor
+import liquibase.changelog.visitor.ChangeSetVisitor
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.LiquibaseException
+import spock.lang.Specification
+
+import java.sql.DriverManager
+
+class StandardChangeLogHistoryServiceTest extends Specification {
+
+    Database database
+    DatabaseChangeLog changeLog
+
+    def setup() {
+        def connection = new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:StandardChangeLogHistoryServiceTest" + System.nanoTime(), "sa", ""))
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection)
+        changeLog = new DatabaseChangeLog("changelog.xml")
+        (1..5).each { changeLog.addChangeSet(new ChangeSet(it.toString(), "test", false, false, "changelog.xml", null, null, changeLog)) }
+        service().init()
+        service().getRanChangeSets()
+    }
+
+    def cleanup() {
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory).resetAll()
+        database.close()
+    }
+
+    def "queued rows are written when the batch size is reached and keep their order"() {
+        when:
+        def written = Scope.child([(GlobalConfiguration.CHANGELOG_HISTORY_BATCH_SIZE.getKey()): 3], {
+            def written = []
+            changeLog.changeSets.each {
+                service().queueExecType(it, ChangeSet.ExecType.EXECUTED)
+                written.add(historyIds())
+            }
+            return written
+        } as Scope.ScopedRunnerWithReturn<List>)
+
+        then:
+        written == [[], [], ["1", "2", "3"], ["1", "2", "3"], ["1", "2", "3"]]
+        service().ranChangeSets*.id == ["1", "2", "3", "4", "5"]
+
+        when:
+        service().flushExecTypes()
+
+        then:
+        historyIds() == ["1", "2", "3", "4", "5"]
+    }
+
+    def "queued rows are written at the end of changelog-sync"() {
+        when:
+        sync(new ChangeLogSyncVisitor(database))
+
+        then:
+        historyIds() == ["1", "2", "3", "4", "5"]
+    }
+
+    def "queued rows are written when changelog-sync fails"() {
+        given:
+        def syncVisitor = new ChangeLogSyncVisitor(database)
+        def failingVisitor = new ChangeSetVisitor() {
+            @Override
+            ChangeSetVisitor.Direction getDirection() {
+                return ChangeSetVisitor.Direction.FORWARD
+            }
+
+            @Override
+            void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
+                if (changeSet.id == "4") {
+                    throw new LiquibaseException("sync failed")
+                }
+                syncVisitor.visit(changeSet, databaseChangeLog, database, filterResults)
+            }
+        }
+
+        when:
+        sync(failingVisitor)
+
+        then:
+        thrown(LiquibaseException)
+        historyIds() == ["1", "2", "3"]
+    }
+
+    private void sync(ChangeSetVisitor visitor) {
+        Scope.child([(GlobalConfiguration.CHANGELOG_HISTORY_BATCH_SIZE.getKey()): 10], {
+            new ChangeLogIterator(changeLog).run(visitor, new RuntimeEnvironment(database, new Contexts(), new LabelExpression()))
+        } as Scope.ScopedRunner)
+    }
+
+    private ChangeLogHistoryService service() {
+        return Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory).getChangeLogService(database)
+    }
+
+    /**
+     * Returns the changeset ids in the history table, ordered by ORDEREXECUTED.
+     */
+    private List<String> historyIds() {
+        def resultSet = ((JdbcConnection) database.connection).createStatement()
+                .executeQuery("SELECT ID FROM " + database.databaseChangeLogTableName + " ORDER BY ORDEREXECUTED")
+        def ids = []
+        while (resultSet.next()) {
+            ids.add(resultSet.getString(1))
+        }
+        return ids
+    }
+}
@@ -0,0 +1,78 @@
+package liquibase.diff.core
+
+import liquibase.CatalogAndSchema
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.output.DiffOutputControl
+import liquibase.diff.output.changelog.DiffToChangeLog
+import liquibase.serializer.core.xml.XMLChangeLogSerializer
+import liquibase.snapshot.DatabaseSnapshot
+import liquibase.snapshot.SnapshotControl
+import liquibase.snapshot.SnapshotGeneratorFactory
+import spock.lang.Specification
+
+import java.sql.DriverManager
+
+class StandardDiffGeneratorTest extends Specification {
+
+    Database reference
+    Database comparison
+
+    def setup() {
+        reference = h2Database("Reference",
+                "create table person (id int primary key, name varchar(50) not null)",
+                "create table address (id int primary key, person_id int, street varchar(100), constraint fk_address_person foreign key (person_id) references person(id))",
+                "create index idx_address_street on address(street)",
+                "create table city (id int primary key, name varchar(50))",
+                "create view person_view as select id, name from person")
+        comparison = h2Database("Comparison",
+                "create table person (id int primary key, name varchar(20))",
+                "create table city (id int primary key, name varchar(50), population int)",
+                "create table old_table (id int)")
+    }
+
+    def cleanup() {
+        reference?.close()
+        comparison?.close()
+    }
+
+    def "diff written with several threads is the same as with one thread"() {
+        given:
+        def referenceSnapshot = snapshot(reference)
+        def comparisonSnapshot = snapshot(comparison)
+
+        when:
+        def singleThreaded = diffChangeLog(referenceSnapshot, comparisonSnapshot, 1)
+        def multiThreaded = diffChangeLog(referenceSnapshot, comparisonSnapshot, 4)
+
+        then:
+        singleThreaded.contains("tableName=\"ADDRESS\"")
+        singleThreaded.contains("tableName=\"OLD_TABLE\"")
+        multiThreaded == singleThreaded
+    }
+
+    private static String diffChangeLog(DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, int threads) {
+        return Scope.child([(GlobalConfiguration.DIFF_THREADS.key): threads], {
+            def diffResult = new StandardDiffGenerator().compare(referenceSnapshot, comparisonSnapshot, new CompareControl())
+            def diffToChangeLog = new DiffToChangeLog(diffResult, new DiffOutputControl())
+            diffToChangeLog.setIdRoot("test")
+            def out = new ByteArrayOutputStream()
+            diffToChangeLog.print(new PrintStream(out, true, "UTF-8"), new XMLChangeLogSerializer())
+            return out.toString("UTF-8")
+        } as Scope.ScopedRunnerWithReturn<String>)
+    }
+
+    private static DatabaseSnapshot snapshot(Database database) {
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(CatalogAndSchema.DEFAULT, database, new SnapshotControl(database))
+    }
+
+    private static Database h2Database(String name, String... statements) {
+        def connection = DriverManager.getConnection("jdbc:h2:mem:StandardDiffGeneratorTest" + name + System.nanoTime(), "sa", "")
+        statements.each { connection.createStatement().execute(it) }
+        return DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+    }
+}
@@ -0,0 +1,74 @@
+package liquibase.parser
+
+import liquibase.Scope
+import liquibase.parser.core.ParsedNode
+import liquibase.sdk.resource.MockResource
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ParsedChangeLogCacheTest extends Specification {
+
+    Path cacheDirectory
+
+    def setup() {
+        cacheDirectory = Files.createTempDirectory("liquibase-parse-cache")
+    }
+
+    def cleanup() {
+        cacheDirectory.toFile().deleteDir()
+    }
+
+    def "parse without a configured directory always calls the parser"() {
+        when:
+        def cache = Scope.getCurrentScope().getSingleton(ParsedChangeLogCache)
+        def calls = 0
+        def parser = { InputStream stream -> calls++; new ParsedNode(null, stream.text) } as ParsedChangeLogCache.ResourceParser
+        def resource = new MockResource("changelog.xml", "databaseChangeLog")
+
+        then:
+        !cache.isEnabled()
+        cache.parse(resource, "test", ParsedNode, parser).getName() == "databaseChangeLog"
+        cache.parse(resource, "test", ParsedNode, parser).getName() == "databaseChangeLog"
+        calls == 2
+    }
+
+    def "parse reuses cached results until the contents change"() {
+        when:
+        def calls = 0
+        def parser = { InputStream stream -> calls++; new ParsedNode(null, stream.text).addChild(null, "id", "1") } as ParsedChangeLogCache.ResourceParser
+
+        def results = Scope.child([(ChangeLogParserConfiguration.PARSED_CHANGELOG_CACHE_DIRECTORY.getKey()): cacheDirectory.toString()], {
+            def cache = Scope.getCurrentScope().getSingleton(ParsedChangeLogCache)
+            return [
+                    cache.parse(new MockResource("changelog.xml", "first"), "test", ParsedNode, parser),
+                    cache.parse(new MockResource("changelog.xml", "first"), "test", ParsedNode, parser),
+                    cache.parse(new MockResource("changelog.xml", "second"), "test", ParsedNode, parser),
+                    cache.parse(new MockResource("changelog.xml", "first"), "other", ParsedNode, parser),
+            ]
+        } as Scope.ScopedRunnerWithReturn<List<ParsedNode>>)
+
+        then:
+        calls == 3
+        results*.name == ["first", "first", "second", "first"]
+        results[1].getChildValue(null, "id") == "1"
+        !results[0].is(results[1])
+    }
+
+    def "unreadable cache entries are treated as a miss"() {
+        when:
+        def resource = new MockResource("changelog.xml", "contents")
+        Files.write(cacheDirectory.resolve(ParsedChangeLogCache.computeKey("test", "contents".bytes) + ".parsed"), "not serialized".bytes)
+        def calls = 0
+        def parser = { InputStream stream -> calls++; new ParsedNode(null, stream.text) } as ParsedChangeLogCache.ResourceParser
+
+        def result = Scope.child([(ChangeLogParserConfiguration.PARSED_CHANGELOG_CACHE_DIRECTORY.getKey()): cacheDirectory.toString()], {
+            return Scope.getCurrentScope().getSingleton(ParsedChangeLogCache).parse(resource, "test", ParsedNode, parser)
+        } as Scope.ScopedRunnerWithReturn<ParsedNode>)
+
+        then:
+        calls == 1
+        result.name == "contents"
+    }
+}
@@ -0,0 +1,50 @@
+package liquibase.precondition
+
+import liquibase.Scope
+import liquibase.change.core.InsertDataChange
+import liquibase.change.core.RawSQLChange
+import liquibase.changelog.ChangeSet
+import liquibase.database.MockDatabaseConnection
+import liquibase.database.core.MockDatabase
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+class PreconditionSnapshotCacheTest extends Specification {
+
+    def "cache is only used during an update on a JDBC connection"() {
+        when:
+        def database = new MockDatabase()
+        database.setConnection(new MockDatabaseConnection())
+
+        then:
+        PreconditionSnapshotCache.getCurrent(database) == null
+        Scope.child([(PreconditionSnapshotCache.SCOPE_KEY): new PreconditionSnapshotCache()], {
+            return PreconditionSnapshotCache.getCurrent(database)
+        } as Scope.ScopedRunnerWithReturn<PreconditionSnapshotCache>) == null
+    }
+
+    def "data changes keep what was read and unknown changes clear it"() {
+        given:
+        def database = new MockDatabase()
+        def cache = new PreconditionSnapshotCache()
+        cache.snapshotsBySchema.put("cat.schem", [(Table): null])
+
+        def insert = new ChangeSet("1", "test", false, false, "path/changelog", null, null, null)
+        insert.addChange(new InsertDataChange(tableName: "person"))
+
+        def sql = new ChangeSet("2", "test", false, false, "path/changelog", null, null, null)
+        sql.addChange(new RawSQLChange("create table person (id int)"))
+
+        when:
+        cache.changeSetExecuted(insert, database)
+
+        then:
+        cache.snapshotsBySchema.size() == 1
+
+        when:
+        cache.changeSetExecuted(sql, database)
+
+        then:
+        cache.snapshotsBySchema.isEmpty()
+    }
+}
@@ -0,0 +1,160 @@
+package liquibase.serializer.core.binary
+
+import liquibase.database.OfflineConnection
+import liquibase.database.core.H2Database
+import liquibase.exception.UnexpectedLiquibaseException
+import liquibase.snapshot.RestoredDatabaseSnapshot
+import liquibase.statement.DatabaseFunction
+import liquibase.structure.core.*
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static liquibase.serializer.core.binary.BinarySnapshotSerializer.*
+
+class BinarySnapshotSerializerTest extends Specification {
+
+    def "snapshot is read back with the same objects"() {
+        given:
+        def database = new H2Database()
+        database.setConnection(new OfflineConnection("offline:h2", null))
+        def snapshot = new RestoredDatabaseSnapshot(database)
+        snapshot.getMetadata().put("source", "test")
+
+        def catalog = new Catalog("TESTDB").setDefault(true)
+        catalog.setSnapshotId("1")
+        def schema = new Schema(catalog, "PUBLIC").setDefault(true)
+        schema.setSnapshotId("2")
+        def table = new Table().setName("PERSON").setSchema(schema)
+        table.setSnapshotId("3")
+        def id = new Column("ID").setRelation(table).setType(new DataType("INT")).setNullable(false)
+        id.setAutoIncrementInformation(new Column.AutoIncrementInformation(1, 5))
+        id.setSnapshotId("4")
+        def created = new Column("CREATED").setRelation(table).setDefaultValue(new DatabaseFunction("CURRENT_TIMESTAMP"))
+        created.setSnapshotId("5")
+        table.addColumn(id).addColumn(created)
+        [catalog, schema, table, id, created].each { snapshot.addRestoredObject(it, false) }
+
+        when:
+        def out = new ByteArrayOutputStream()
+        new BinarySnapshotSerializer().write(snapshot, out)
+        def restored = new BinarySnapshotReader().read(new ByteArrayInputStream(out.toByteArray()))
+        def restoredTable = restored.get(Table).iterator().next()
+
+        then:
+        restored.getDatabase() instanceof H2Database
+        restored.getMetadata().source == "test"
+        restored.get(Column).size() == 2
+        restoredTable.name == "PERSON"
+        restoredTable.snapshotId == "3"
+        restoredTable.schema.name == "PUBLIC"
+        restoredTable.schema.catalog.isDefault()
+        restoredTable.columns*.name == ["ID", "CREATED"]
+        restoredTable.columns[0].relation.is(restoredTable)
+        restoredTable.columns[0].type.typeName == "INT"
+        restoredTable.columns[0].autoIncrementInformation.incrementBy == 5
+        restoredTable.columns[0].isNullable() == false
+        restoredTable.columns[1].defaultValue == new DatabaseFunction("CURRENT_TIMESTAMP")
+    }
+
+    def "other files are rejected"() {
+        when:
+        new BinarySnapshotReader().read(new ByteArrayInputStream("snapshot:".getBytes("UTF-8")))
+
+        then:
+        def e = thrown(IOException)
+        e.message == "Not a binary snapshot"
+    }
+
+    @Unroll
+    def "#rejected is not created from a binary snapshot"() {
+        when:
+        new BinarySnapshotReader().read(new ByteArrayInputStream(craftedSnapshot(className, value)))
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains(rejected)
+
+        where:
+        className                  | value                                                 | rejected
+        "java.lang.ProcessBuilder" | null                                                  | "java.lang.ProcessBuilder"
+        Catalog.name               | [FROM_STRING, "java.io.File", "/tmp"]                 | "java.io.File"
+        Catalog.name               | [DATE, "java.lang.Thread", 0L]                        | "java.lang.Thread"
+        Catalog.name               | [FUNCTION, "java.net.URL", null, "http://localhost"] | "java.net.URL"
+        Catalog.name               | [ENUM, "java.lang.Thread", "MIN_PRIORITY"]           | "java.lang.Thread"
+    }
+
+    def "only numbers are written from their string form"() {
+        given:
+        def database = new H2Database()
+        database.setConnection(new OfflineConnection("offline:h2", null))
+        def snapshot = new RestoredDatabaseSnapshot(database)
+        def catalog = new Catalog("TESTDB")
+        catalog.setSnapshotId("1")
+        catalog.setAttribute("number", new BigDecimal("1.5"))
+        snapshot.addRestoredObject(catalog, false)
+
+        when:
+        def out = new ByteArrayOutputStream()
+        new BinarySnapshotSerializer().write(snapshot, out)
+
+        then:
+        new BinarySnapshotReader().read(new ByteArrayInputStream(out.toByteArray())).get(Catalog).iterator().next()
+                .getAttribute("number", BigDecimal) == new BigDecimal("1.5")
+
+        when:
+        catalog.setAttribute("file", new File("/tmp"))
+        new BinarySnapshotSerializer().write(snapshot, new ByteArrayOutputStream())
+
+        then:
+        thrown(UnexpectedLiquibaseException)
+    }
+
+    /**
+     * Builds a snapshot with a single object of the given class, and with the given tag and values as its only attribute.
+     */
+    private static byte[] craftedSnapshot(String className, List value) {
+        def bytes = new ByteArrayOutputStream()
+        def out = new DataOutputStream(bytes)
+        out.write(MAGIC)
+        out.write(VERSION)
+        out.write(MAP)
+        out.write(1)
+        writeString(out, STRING, "shortName")
+        writeString(out, STRING, "h2")
+        out.write(NULL)
+        out.write(1)
+        writeString(out, null, className)
+        out.write(IN_OBJECTS)
+        writeString(out, null, "1")
+        out.write(1)
+        writeString(out, null, "name")
+        if (value == null) {
+            out.write(NULL)
+        } else {
+            out.write((int) value[0])
+            value.drop(1).each {
+                if (it instanceof Long) {
+                    out.writeLong(it)
+                } else {
+                    writeString(out, null, (String) it)
+                }
+            }
+        }
+        out.flush()
+        return bytes.toByteArray()
+    }
+
+    private static void writeString(DataOutputStream out, Integer tag, String value) {
+        if (tag != null) {
+            out.write(tag)
+        }
+        if (value == null) {
+            out.write(0)
+            return
+        }
+        def utf8 = value.getBytes("UTF-8")
+        out.write(1)
+        out.write(utf8.length)
+        out.write(utf8)
+    }
+}
@@ -0,0 +1,136 @@
+package liquibase.snapshot
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import liquibase.structure.DatabaseObject
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.SQLException
+
+class JdbcDatabaseSnapshotTest extends Specification {
+
+    private static final List<String> PREFETCHED_CACHES = ["getColumns", "getTables", "getViews", "getUniqueConstraints"]
+
+    /**
+     * Contents of the result set caches right after {@link JdbcDatabaseSnapshot#prepare(DatabaseObject[])}, before the snapshot
+     * releases them.
+     */
+    static Map<String, Map> preparedCaches
+
+    Database database
+
+    def setup() {
+        database = openDatabase("jdbc:h2:mem:JdbcDatabaseSnapshotTest" + System.nanoTime())
+        [
+                "create table person (id int primary key, name varchar(50) not null, constraint uq_person_name unique (name))",
+                "create table address (id int primary key, person_id int, street varchar(100))",
+                "create view person_view as select id, name from person",
+        ].each { ((JdbcConnection) database.connection).createStatement().execute(it) }
+        preparedCaches = null
+    }
+
+    def cleanup() {
+        database.close()
+    }
+
+    def "parallel prefetch fills the same result set caches as reading the metadata serially"() {
+        when:
+        withSnapshotThreads(1) { new SerialPrefetchSnapshot(examples(), database, new SnapshotControl(database)) }
+        def serial = preparedCaches
+        withSnapshotThreads(2) { new CapturingSnapshot(examples(), database, new SnapshotControl(database)) }
+        def parallel = preparedCaches
+
+        then:
+        serial.getColumns.rows.values().any { !it.isEmpty() }
+        parallel == serial
+    }
+
+    def "prefetch failures fail the snapshot"() {
+        when:
+        withSnapshotThreads(2) { new FailingPrefetchSnapshot(examples(), database, new SnapshotControl(database)) }
+
+        then:
+        def e = thrown(DatabaseException)
+        e.message.contains("prefetch failed")
+    }
+
+    private DatabaseObject[] examples() {
+        return [new Schema(database.defaultCatalogName, database.defaultSchemaName)] as DatabaseObject[]
+    }
+
+    private static void withSnapshotThreads(int threads, Closure snapshot) {
+        Scope.child([(GlobalConfiguration.SNAPSHOT_THREADS.key): threads], snapshot as Scope.ScopedRunner)
+    }
+
+    /**
+     * Opens the database like Liquibase does from a URL, so that the snapshot can open additional connections.
+     */
+    private static Database openDatabase(String url) {
+        def connection = new JdbcConnection()
+        def properties = new Properties()
+        properties.setProperty("user", "sa")
+        connection.open(url, new org.h2.Driver(), properties)
+        return DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection)
+    }
+
+    static Map<String, Map> cacheContents(DatabaseSnapshot snapshot) {
+        return PREFETCHED_CACHES.collectEntries { name ->
+            def cache = snapshot.getResultSetCache(name)
+            def rows = cache.@cacheBySchema.collectEntries { schemaKey, rowsByKey ->
+                [(schemaKey): rowsByKey.collectEntries { key, cachedRows ->
+                    [(key): cachedRows.collect { row -> row.@columns.names.collectEntries { [(it): row.get(it)] } }]
+                }]
+            }
+            [(name): [bulk: new HashMap(cache.@didBulkQuery), rows: rows]]
+        }
+    }
+
+    static class CapturingSnapshot extends JdbcDatabaseSnapshot {
+        CapturingSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) {
+            super(examples, database, snapshotControl)
+        }
+
+        @Override
+        protected void prepare(DatabaseObject[] examples) throws DatabaseException {
+            super.prepare(examples)
+            preparedCaches = cacheContents(this)
+        }
+    }
+
+    /**
+     * Runs the same reads as the parallel prefetch, one after another over the main connection.
+     */
+    static class SerialPrefetchSnapshot extends JdbcDatabaseSnapshot {
+        SerialPrefetchSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) {
+            super(examples, database, snapshotControl)
+        }
+
+        @Override
+        protected void prepare(DatabaseObject[] examples) throws DatabaseException {
+            def metaData = getMetaDataFromCache()
+            getMetaDataPrefetches().values().each { prefetch ->
+                examples.findAll { it instanceof Schema }.each { prefetch.fetch(metaData, (Schema) it) }
+            }
+            preparedCaches = cacheContents(this)
+        }
+    }
+
+    static class FailingPrefetchSnapshot extends JdbcDatabaseSnapshot {
+        FailingPrefetchSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) {
+            super(examples, database, snapshotControl)
+        }
+
+        @Override
+        Map<Class<? extends DatabaseObject>, JdbcDatabaseSnapshot.MetaDataPrefetch> getMetaDataPrefetches() {
+            def prefetches = super.getMetaDataPrefetches()
+            prefetches.put(Table, { metaData, schema -> throw new SQLException("prefetch failed") } as JdbcDatabaseSnapshot.MetaDataPrefetch)
+            return prefetches
+        }
+    }
+}
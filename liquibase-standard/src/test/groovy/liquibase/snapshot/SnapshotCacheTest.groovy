@@ -0,0 +1,147 @@
+package liquibase.snapshot
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.database.MockDatabaseConnection
+import liquibase.database.OfflineConnection
+import liquibase.database.core.H2Database
+import liquibase.database.core.MockDatabase
+import liquibase.structure.DatabaseObject
+import liquibase.structure.core.Column
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import liquibase.structure.core.View
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class SnapshotCacheTest extends Specification {
+
+    Path cacheDirectory
+
+    def setup() {
+        cacheDirectory = Files.createTempDirectory("liquibase-snapshot-cache")
+    }
+
+    def cleanup() {
+        cacheDirectory.toFile().deleteDir()
+    }
+
+    def "cache is disabled without a configured directory"() {
+        when:
+        def database = new MockDatabase()
+        database.setConnection(new MockDatabaseConnection())
+
+        then:
+        !Scope.getCurrentScope().getSingleton(SnapshotCache).supports([new Schema("cat", "schem")] as DatabaseObject[], database)
+    }
+
+    def "cache is not used for databases without change markers or for single objects"() {
+        when:
+        def database = new MockDatabase()
+        database.setConnection(new MockDatabaseConnection())
+
+        def results = Scope.child([(GlobalConfiguration.SNAPSHOT_CACHE_DIRECTORY.getKey()): cacheDirectory.toString()], {
+            def cache = Scope.getCurrentScope().getSingleton(SnapshotCache)
+            return [cache.supports([new Schema("cat", "schem")] as DatabaseObject[], database),
+                    cache.supports([new Table("cat", "schem", "tab")] as DatabaseObject[], database)]
+        } as Scope.ScopedRunnerWithReturn<List>)
+
+        then:
+        results == [false, false]
+    }
+
+    def "cache keys depend on every part"() {
+        expect:
+        SnapshotCache.computeKey(["a", "b"]) == SnapshotCache.computeKey(["a", "b"])
+        SnapshotCache.computeKey(["a", "b"]) != SnapshotCache.computeKey(["ab", ""])
+        SnapshotCache.computeKey(["a", null]) != SnapshotCache.computeKey(["a", ""])
+    }
+
+    def "unchanged relations are reused"() {
+        when:
+        def cached = cachedSnapshot()
+        def cache = Scope.getCurrentScope().getSingleton(SnapshotCache)
+        def changedKeys = cache.getChangedKeys(MARKERS, MARKERS, cached.snapshot)
+
+        then:
+        changedKeys.isEmpty()
+        cache.getReusedObjects(cached.snapshot, RELATION_TYPES, MARKERS, changedKeys).toSet() == cached.objects.values().toSet()
+    }
+
+    def "changed relations and all views are snapshotted again"() {
+        when:
+        def cached = cachedSnapshot()
+        def cache = Scope.getCurrentScope().getSingleton(SnapshotCache)
+        def markers = MARKERS + ["PUBLIC.CITY": "T:2"]
+        def changedKeys = cache.getChangedKeys(markers, MARKERS, cached.snapshot)
+
+        then:
+        changedKeys == ["PUBLIC.CITY", "PUBLIC.PERSON_VIEW"] as Set
+        cache.getReusedObjects(cached.snapshot, RELATION_TYPES, markers, changedKeys)*.name.toSet() ==
+                ["PERSON", "PERSON_ID", "ADDRESS_ID", "FK_PERSON_ADDRESS", "ADDRESS", "ID"] as Set
+    }
+
+    def "tables with foreign keys to a changed table are snapshotted again"() {
+        when:
+        def cached = cachedSnapshot()
+        def changedKeys = Scope.getCurrentScope().getSingleton(SnapshotCache)
+                .getChangedKeys(MARKERS + ["PUBLIC.ADDRESS": "T:2"], MARKERS, cached.snapshot)
+
+        then:
+        changedKeys == ["PUBLIC.ADDRESS", "PUBLIC.PERSON", "PUBLIC.PERSON_VIEW"] as Set
+    }
+
+    def "dropped relations are removed"() {
+        when:
+        def cached = cachedSnapshot()
+        def cache = Scope.getCurrentScope().getSingleton(SnapshotCache)
+        def markers = MARKERS.findAll { it.key != "PUBLIC.ADDRESS" }
+        def changedKeys = cache.getChangedKeys(markers, MARKERS, cached.snapshot)
+
+        then:
+        changedKeys == ["PUBLIC.PERSON", "PUBLIC.PERSON_VIEW"] as Set
+        cache.getReusedObjects(cached.snapshot, RELATION_TYPES, markers, changedKeys)*.name.toSet() == ["CITY", "NAME"] as Set
+    }
+
+    def "cached objects without a relation cause a full snapshot"() {
+        when:
+        def cached = cachedSnapshot()
+        cached.snapshot.addRestoredObject(new Column("ORPHAN"), false)
+
+        then:
+        Scope.getCurrentScope().getSingleton(SnapshotCache).getReusedObjects(cached.snapshot, RELATION_TYPES, MARKERS, [] as Set) == null
+    }
+
+    private static final Map<String, String> MARKERS = ["PUBLIC.PERSON": "T:1", "PUBLIC.ADDRESS": "T:1", "PUBLIC.CITY": "T:1", "PUBLIC.PERSON_VIEW": "V:1"]
+
+    private static final Set<Class<? extends DatabaseObject>> RELATION_TYPES = [Table, View, Column, ForeignKey] as Set
+
+    /**
+     * PERSON has a foreign key to ADDRESS, CITY is not referenced, and PERSON_VIEW reads from PERSON.
+     */
+    private static Map cachedSnapshot() {
+        def database = new H2Database()
+        database.setConnection(new OfflineConnection("offline:h2", null))
+        def snapshot = new RestoredDatabaseSnapshot(database)
+        def schema = new Schema("TESTDB", "PUBLIC")
+
+        def person = new Table().setName("PERSON").setSchema(schema)
+        def address = new Table().setName("ADDRESS").setSchema(schema)
+        def city = new Table().setName("CITY").setSchema(schema)
+        def view = new View().setName("PERSON_VIEW").setSchema(schema)
+        def personId = new Column("PERSON_ID").setRelation(person)
+        def addressId = new Column("ADDRESS_ID").setRelation(person)
+        def id = new Column("ID").setRelation(address)
+        def name = new Column("NAME").setRelation(city)
+        def viewId = new Column("VIEW_ID").setRelation(view)
+        def foreignKey = new ForeignKey("FK_PERSON_ADDRESS").setForeignKeyTable(person).setPrimaryKeyTable(address)
+
+        def objects = [person: person, address: address, city: city, view: view, personId: personId, addressId: addressId,
+                       id: id, name: name, viewId: viewId, foreignKey: foreignKey]
+        objects.values().each { snapshot.addRestoredObject(it, false) }
+        return [snapshot: snapshot, objects: objects]
+    }
+}
@@ -0,0 +1,27 @@
+package liquibase.structure
+
+import liquibase.database.core.MockDatabase
+import liquibase.structure.core.Column
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+class DatabaseObjectCollectionTest extends Specification {
+
+    def "get finds objects by identity and by comparator"() {
+        when:
+        def collection = new DatabaseObjectCollection(new MockDatabase())
+        def table1 = new Table("CAT", "SCHEM", "TABLE1")
+        def table2 = new Table("CAT", "SCHEM", "TABLE2")
+        def column1 = new Column(Table, "CAT", "SCHEM", "TABLE1", "ID")
+        def column2 = new Column(Table, "CAT", "SCHEM", "TABLE2", "ID")
+        [table1, table2, column1, column2].each { collection.add(it) }
+
+        then:
+        collection.get(new Table("CAT", "SCHEM", "TABLE1"), null).is(table1)
+        collection.get(new Table("cat", "schem", "table2"), null).is(table2)
+        collection.get(new Table(null, "SCHEM", "TABLE2"), null).is(table2)
+        collection.get(new Column(Table, "CAT", "SCHEM", "TABLE2", "ID"), null).is(column2)
+        collection.get(new Column(Table, "CAT", "SCHEM", "TABLE1", "id"), null).is(column1)
+        collection.get(new Table("CAT", "SCHEM", "TABLE3"), null) == null
+    }
+}
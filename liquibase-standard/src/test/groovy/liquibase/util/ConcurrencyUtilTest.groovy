@@ -0,0 +1,47 @@
+package liquibase.util
+
+import liquibase.Scope
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.Callable
+
+class ConcurrencyUtilTest extends Specification {
+
+    @Unroll
+    def "runAll returns results in task order with #threads threads"() {
+        when:
+        def tasks = (1..20).collect { i -> { -> Thread.sleep(20 - i); return i } as Callable<Integer> }
+
+        then:
+        ConcurrencyUtil.runAll(tasks, threads) == (1..20).toList()
+
+        where:
+        threads << [1, 2, 8]
+    }
+
+    def "runAll workers see the calling scope"() {
+        when:
+        def tasks = (1..4).collect { { -> Scope.getCurrentScope().get("testKey", String) } as Callable<String> }
+        def results = Scope.child(["testKey": "testValue"], {
+            return ConcurrencyUtil.runAll(tasks, 4)
+        } as Scope.ScopedRunnerWithReturn<List<String>>)
+
+        then:
+        results == ["testValue"] * 4
+        Scope.getCurrentScope().get("testKey", String) == null
+    }
+
+    def "runAll rethrows the first failure"() {
+        when:
+        ConcurrencyUtil.runAll([
+                { -> "ok" } as Callable<String>,
+                { -> throw new IOException("first") } as Callable<String>,
+                { -> throw new IllegalStateException("second") } as Callable<String>,
+        ], 3)
+
+        then:
+        def e = thrown(IOException)
+        e.message == "first"
+    }
+}
@@ -139,4 +139,33 @@ class DependencyUtilTest extends Specification {
         then:
         Assert.assertThat(dependencyOrder, CoreMatchers.hasItems("a", "b"))
     }
+
+    void cycleMembersAreEvaluatedOnce() {
+        when:
+        // a > B > c > d > B
+        graph.add("a", "B")
+        graph.add("B", "c")
+        graph.add("c", "d")
+        graph.add("d", "B")
+        graph.computeDependencies()
+
+        then:
+        dependencyOrder == ["a", "B", "c", "d"]
+    }
+
+    @Timeout(3)
+    void largeGraph() {
+        when:
+        for (int i = 0; i < 100000; i++) {
+            graph.add("n" + i, "n" + (i + 1))
+            graph.add("root", "n" + i)
+        }
+        graph.computeDependencies()
+
+        then:
+        dependencyOrder.size() == 100002
+        dependencyOrder[0] == "root"
+        dependencyOrder[1] == "n0"
+        dependencyOrder[100001] == "n100000"
+    }
 }
@@ -0,0 +1,38 @@
+package liquibase.changelog;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class RanChangeSetIndexTest {
+
+    @Test
+    public void get_matches_like_is_same_as() {
+        RanChangeSet ranChangeSet = new RanChangeSet("classpath:/db/File.xml", "Id1", "Author", null, null, null, null, null, null, null, null, null);
+        RanChangeSetIndex index = new RanChangeSetIndex(Arrays.asList(ranChangeSet));
+
+        ChangeSet sameChangeSet = new ChangeSet("id1", "author", false, false, "db/../db/file.xml", null, null, null);
+        ChangeSet otherChangeSet = new ChangeSet("id2", "author", false, false, "db/file.xml", null, null, null);
+
+        assertTrue(ranChangeSet.isSameAs(sameChangeSet));
+        assertSame(ranChangeSet, index.get(sameChangeSet));
+        assertNull(index.get(otherChangeSet));
+        assertFalse(index.contains(otherChangeSet));
+    }
+
+    @Test
+    public void duplicate_entries_are_returned_in_execution_order() {
+        RanChangeSet first = new RanChangeSet("db/file.xml", "1", "author", null, null, null, null, null, null, null, null, null);
+        RanChangeSet second = new RanChangeSet("db/file.xml", "1", "author", null, null, "v1", null, null, null, null, null, null);
+        RanChangeSetIndex index = new RanChangeSetIndex(Arrays.asList(first, second));
+
+        ChangeSet changeSet = new ChangeSet("1", "author", false, false, "db/file.xml", null, null, null);
+        assertSame(first, index.get(changeSet));
+        assertEquals(Arrays.asList(first, second), index.getAll(changeSet));
+        assertEquals(Arrays.asList(second), index.getByTag("V1"));
+        assertTrue(index.getByTag("v2").isEmpty());
+        assertEquals(2, index.size());
+    }
+}
@@ -1,14 +1,24 @@
 package liquibase.diff.output.changelog;
 
+import liquibase.change.Change;
+import liquibase.change.core.CreateTableChange;
+import liquibase.change.core.DropForeignKeyConstraintChange;
+import liquibase.change.core.DropTableChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.OfflineConnection;
+import liquibase.database.core.H2Database;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.diff.DiffResult;
 import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.serializer.core.xml.XMLChangeLogSerializer;
 import liquibase.snapshot.EmptyDatabaseSnapshot;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -63,4 +73,56 @@ public class DiffToChangeLogTest {
                 View.class
         )));
     }
+
+    @Test
+    public void generateChangeSets_streamsTheSameChangeSetsInTheSameOrder() throws Exception {
+        H2Database database = new H2Database();
+        database.setConnection(new OfflineConnection("offline:h2", null));
+        DiffResult diffResult = new DiffResult(new EmptyDatabaseSnapshot(database), new EmptyDatabaseSnapshot(database), new CompareControl());
+        Table person = new Table("TESTDB", "PUBLIC", "PERSON");
+        person.addColumn(new Column("ID").setRelation(person).setType(new DataType("INT")));
+        diffResult.addMissingObject(person);
+        diffResult.addUnexpectedObject(new Table("TESTDB", "PUBLIC", "OLD_PERSON"));
+        diffResult.addUnexpectedObject(new ForeignKey("FK_OLD_PERSON", "TESTDB", "PUBLIC", "ADDRESS", new Column("OLD_PERSON_ID")));
+
+        List<ChangeSet> changeSets = diffToChangeLog(diffResult).generateChangeSets();
+        List<ChangeSet> streamed = new ArrayList<>();
+        int count = diffToChangeLog(diffResult).generateChangeSets(streamed::add);
+
+        assertThat(count, equalTo(3));
+        assertThat(changeTypes(streamed), equalTo(Arrays.<Class<?>>asList(
+                DropForeignKeyConstraintChange.class,
+                CreateTableChange.class,
+                DropTableChange.class
+        )));
+        assertThat(serializeChanges(streamed), equalTo(serializeChanges(changeSets)));
+    }
+
+    private static DiffToChangeLog diffToChangeLog(DiffResult diffResult) {
+        return new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false, null));
+    }
+
+    private static List<Class<?>> changeTypes(List<ChangeSet> changeSets) {
+        List<Class<?>> types = new ArrayList<>();
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changeSet.getChanges()) {
+                types.add(change.getClass());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Serializes the changes of every changeset, leaving out the changeset ids which are numbered in the order the changesets are created.
+     */
+    private static List<String> serializeChanges(List<ChangeSet> changeSets) {
+        XMLChangeLogSerializer serializer = new XMLChangeLogSerializer();
+        List<String> changes = new ArrayList<>();
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changeSet.getChanges()) {
+                changes.add(serializer.serialize(change, true));
+            }
+        }
+        return changes;
+    }
 }
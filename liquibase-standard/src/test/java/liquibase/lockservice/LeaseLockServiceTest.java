@@ -0,0 +1,216 @@
+package liquibase.lockservice;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class LeaseLockServiceTest {
+
+    private final String url = "jdbc:h2:mem:LeaseLockServiceTest" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+    private final List<Database> databases = new ArrayList<>();
+    private final List<LeaseLockService> lockServices = new ArrayList<>();
+
+    @After
+    public void tearDown() throws Exception {
+        for (LeaseLockService lockService : lockServices) {
+            lockService.reset();
+        }
+        for (Database database : databases) {
+            database.close();
+        }
+    }
+
+    @Test
+    public void leaseOwner_fitsLockedByColumn() {
+        LeaseLockService lockService = new LeaseLockService();
+        String owner = lockService.createLeaseOwner("1a2b3c", 4);
+
+        assertTrue(owner.contains(LeaseLockService.LEASE_MARKER));
+        assertTrue(owner.endsWith(" [lease 1a2b3c/4]"));
+        assertTrue(owner.length() <= 255);
+        assertNotEquals(owner, lockService.createLeaseOwner("1a2b3c", 5));
+    }
+
+    @Test
+    public void isExpired_onlyAfterLeaseWasUnchangedForLeaseDuration() {
+        LeaseLockService lockService = new LeaseLockService() {
+            @Override
+            protected long getLeaseDuration() {
+                return 0;
+            }
+        };
+        String owner = lockService.createLeaseOwner("1a2b3c", 0);
+        String renewedOwner = lockService.createLeaseOwner("1a2b3c", 1);
+
+        assertFalse(lockService.isExpired(owner));
+        assertTrue(lockService.isExpired(owner));
+        assertFalse(lockService.isExpired(renewedOwner));
+        assertTrue(lockService.isExpired(renewedOwner));
+    }
+
+    @Test
+    public void isExpired_neverForLocksWithoutLease() {
+        LeaseLockService lockService = new LeaseLockService() {
+            @Override
+            protected long getLeaseDuration() {
+                return 0;
+            }
+        };
+
+        assertFalse(lockService.isExpired("somehost (127.0.0.1)"));
+        assertFalse(lockService.isExpired("somehost (127.0.0.1)"));
+    }
+
+    @Test
+    public void lease_isRenewedWhileHeld() throws Exception {
+        LeaseLockService holder = createLockService(3);
+
+        assertTrue(holder.acquireLock());
+        String lockedBy = readLockedBy();
+        assertTrue(lockedBy.endsWith("/0]"));
+
+        Thread.sleep(2500);
+
+        assertNotEquals(lockedBy, readLockedBy());
+        assertTrue(holder.hasChangeLogLock());
+
+        holder.releaseLock();
+        assertNull(readLockedBy());
+    }
+
+    @Test
+    public void expiredLease_isTakenOver() throws Exception {
+        LeaseLockService holder = createLockService(1);
+        LeaseLockService waiter = createLockService(1);
+
+        assertTrue(holder.acquireLock());
+        // the holder stops renewing without releasing the lock, as if its process was killed
+        holder.reset();
+        String deadOwner = readLockedBy();
+
+        assertFalse(waiter.acquireLock());
+        Thread.sleep(1200);
+        assertTrue(waiter.acquireLock());
+        assertNotEquals(deadOwner, readLockedBy());
+
+        waiter.releaseLock();
+        assertNull(readLockedBy());
+    }
+
+    @Test
+    public void lostLease_stopsUpdateAndIsNotReleased() throws Exception {
+        LeaseLockService holder = createLockService(3);
+        assertTrue(holder.acquireLock());
+
+        String newOwner = "otherhost (127.0.0.2)" + LeaseLockService.LEASE_MARKER + "ffff/0]";
+        execute("UPDATE DATABASECHANGELOGLOCK SET LOCKEDBY = '" + newOwner + "' WHERE ID = 1");
+        Thread.sleep(2500);
+
+        assertFalse(holder.hasChangeLogLock());
+        try {
+            holder.verifyLease();
+            fail("Expected the lost lease to stop the update");
+        } catch (LockException e) {
+            assertTrue(e.getMessage().contains("Lost the change log lock lease"));
+        }
+
+        holder.releaseLock();
+        assertEquals(newOwner, readLockedBy());
+    }
+
+    @Test
+    public void withoutHeartbeatConnection_leaseIsRenewedBeforeChangeSets() throws Exception {
+        LeaseLockService holder = createLockService(3, false);
+
+        assertTrue(holder.acquireLock());
+        String lockedBy = readLockedBy();
+        holder.verifyLease();
+        assertEquals(lockedBy, readLockedBy());
+
+        Thread.sleep(1100);
+        holder.verifyLease();
+
+        assertTrue(readLockedBy().endsWith("/1]"));
+        assertTrue(holder.hasChangeLogLock());
+        holder.releaseLock();
+        assertNull(readLockedBy());
+    }
+
+    @Test
+    public void withoutHeartbeatConnection_lostLeaseStopsUpdate() throws Exception {
+        LeaseLockService holder = createLockService(3, false);
+        assertTrue(holder.acquireLock());
+
+        String newOwner = "otherhost (127.0.0.2)" + LeaseLockService.LEASE_MARKER + "ffff/0]";
+        execute("UPDATE DATABASECHANGELOGLOCK SET LOCKEDBY = '" + newOwner + "' WHERE ID = 1");
+
+        try {
+            holder.verifyLease();
+            fail("Expected the lost lease to stop the update");
+        } catch (LockException e) {
+            assertTrue(e.getMessage().contains("Lost the change log lock lease"));
+        }
+        assertFalse(holder.hasChangeLogLock());
+
+        holder.releaseLock();
+        assertEquals(newOwner, readLockedBy());
+    }
+
+    private LeaseLockService createLockService(long leaseDuration) throws DatabaseException {
+        return createLockService(leaseDuration, true);
+    }
+
+    private LeaseLockService createLockService(long leaseDuration, boolean withHeartbeat) throws DatabaseException {
+        JdbcConnection connection = new JdbcConnection();
+        Properties properties = new Properties();
+        properties.setProperty("user", "sa");
+        connection.open(url, new org.h2.Driver(), properties);
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection);
+        databases.add(database);
+
+        LeaseLockService lockService = new LeaseLockService() {
+            @Override
+            protected long getLeaseDuration() {
+                return leaseDuration;
+            }
+
+            @Override
+            protected Database openHeartbeatDatabase() throws DatabaseException {
+                return withHeartbeat ? super.openHeartbeatDatabase() : null;
+            }
+        };
+        lockService.setDatabase(database);
+        lockServices.add(lockService);
+        return lockService;
+    }
+
+    /**
+     * Returns LOCKEDBY of the lock row if it is locked, read on the first connection.
+     */
+    private String readLockedBy() throws Exception {
+        try (Statement statement = ((JdbcConnection) databases.get(0).getConnection()).createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT LOCKED, LOCKEDBY FROM DATABASECHANGELOGLOCK WHERE ID = 1")) {
+            assertTrue(resultSet.next());
+            return resultSet.getBoolean(1) ? resultSet.getString(2) : null;
+        }
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Statement statement = ((JdbcConnection) databases.get(0).getConnection()).createStatement()) {
+            statement.execute(sql);
+        }
+        databases.get(0).commit();
+    }
+}
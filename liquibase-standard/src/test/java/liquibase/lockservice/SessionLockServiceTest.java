@@ -0,0 +1,147 @@
+package liquibase.lockservice;
+
+import liquibase.Scope;
+import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SessionLockServiceTest {
+
+    private static final String LOCK_NAME = "liquibase-test";
+
+    private Database database;
+
+    @After
+    public void after() {
+        if (database != null) {
+            Scope.getCurrentScope().getSingleton(ExecutorService.class).clearExecutor("jdbc", database);
+        }
+    }
+
+    @Test
+    public void postgresStatements() {
+        SessionLockService lockService = lockService(new PostgresDatabase());
+
+        assertStatement("SELECT pg_try_advisory_lock(?)", Collections.singletonList((long) LOCK_NAME.hashCode()), lockService.createRequestLockStatement(0));
+        assertStatement("SELECT pg_advisory_lock(?)", Collections.singletonList((long) LOCK_NAME.hashCode()), lockService.createRequestLockStatement(5000));
+        assertStatement("SELECT pg_advisory_unlock(?)", Collections.singletonList((long) LOCK_NAME.hashCode()), lockService.createReleaseLockStatement());
+        assertStatement("SELECT set_config('lock_timeout', ?, false)", Collections.singletonList("5000ms"), lockService.createLockTimeoutStatement("5000ms"));
+    }
+
+    @Test
+    public void mysqlStatements() {
+        SessionLockService lockService = lockService(new MySQLDatabase());
+
+        assertStatement("SELECT GET_LOCK(?, ?)", Arrays.asList(LOCK_NAME, 0L), lockService.createRequestLockStatement(0));
+        assertStatement("SELECT GET_LOCK(?, ?)", Arrays.asList(LOCK_NAME, 2L), lockService.createRequestLockStatement(1500));
+        assertStatement("SELECT RELEASE_LOCK(?)", Collections.singletonList(LOCK_NAME), lockService.createReleaseLockStatement());
+    }
+
+    @Test
+    public void mssqlStatements() {
+        SessionLockService lockService = lockService(new MSSQLDatabase());
+
+        RawParameterizedSqlStatement request = (RawParameterizedSqlStatement) lockService.createRequestLockStatement(1500);
+        assertTrue(request.getSql().contains("sp_getapplock @Resource = ?, @LockMode = 'Exclusive', @LockOwner = 'Session', @LockTimeout = ?"));
+        assertEquals(Arrays.asList(LOCK_NAME, 1500L), request.getParameters());
+        assertStatement("EXEC sp_releaseapplock @Resource = ?, @LockOwner = 'Session'", Collections.singletonList(LOCK_NAME), lockService.createReleaseLockStatement());
+    }
+
+    @Test
+    public void postgresNonBlockingRequestDoesNotTouchTheTransaction() throws Exception {
+        database = Mockito.spy(new PostgresDatabase());
+        List<String> sql = new ArrayList<>();
+        recordingExecutor(sql);
+
+        assertTrue(lockService(database).requestSessionLock(0));
+
+        assertEquals(Collections.singletonList("SELECT pg_try_advisory_lock(?)"), sql);
+        Mockito.verify(database, Mockito.never()).rollback();
+        Mockito.verify(database, Mockito.never()).commit();
+    }
+
+    @Test
+    public void postgresTimedOutRequestRollsBackToSavepointAndRestoresTimeout() throws Exception {
+        database = Mockito.spy(new PostgresDatabase());
+        DatabaseConnection connection = Mockito.mock(DatabaseConnection.class);
+        Mockito.when(connection.getAutoCommit()).thenReturn(false);
+        Mockito.doReturn(connection).when(database).getConnection();
+        List<String> sql = new ArrayList<>();
+        List<Object> timeouts = new ArrayList<>();
+        Executor executor = recordingExecutor(sql);
+        Mockito.doAnswer(invocation -> {
+            RawParameterizedSqlStatement statement = invocation.getArgument(0);
+            sql.add(statement.getSql());
+            if (statement.getSql().startsWith("SELECT current_setting")) {
+                return "0";
+            } else if (statement.getSql().startsWith("SELECT set_config")) {
+                timeouts.add(statement.getParameters().get(0));
+                return null;
+            }
+            throw new DatabaseException("canceling statement due to lock timeout");
+        }).when(executor).queryForObject(Mockito.any(SqlStatement.class), Mockito.any());
+
+        assertFalse(lockService(database).requestSessionLock(5000));
+
+        assertEquals(Arrays.asList(
+                "SELECT current_setting('lock_timeout')",
+                "SAVEPOINT liquibase_session_lock",
+                "SELECT set_config('lock_timeout', ?, false)",
+                "SELECT pg_advisory_lock(?)",
+                "ROLLBACK TO SAVEPOINT liquibase_session_lock",
+                "SELECT set_config('lock_timeout', ?, false)"), sql);
+        assertEquals(Arrays.asList("5000ms", "0"), timeouts);
+        Mockito.verify(database, Mockito.never()).rollback();
+        Mockito.verify(database, Mockito.never()).commit();
+    }
+
+    private Executor recordingExecutor(List<String> sql) throws DatabaseException {
+        Executor executor = Mockito.mock(Executor.class);
+        Mockito.doAnswer(invocation -> {
+            sql.add(((RawParameterizedSqlStatement) invocation.getArgument(0)).getSql());
+            return true;
+        }).when(executor).queryForObject(Mockito.any(SqlStatement.class), Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            sql.add(((RawParameterizedSqlStatement) invocation.getArgument(0)).getSql());
+            return null;
+        }).when(executor).execute(Mockito.any(SqlStatement.class));
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).setExecutor("jdbc", database, executor);
+        return executor;
+    }
+
+    private static SessionLockService lockService(Database database) {
+        SessionLockService lockService = new SessionLockService() {
+            @Override
+            protected String getLockName() {
+                return LOCK_NAME;
+            }
+        };
+        lockService.setDatabase(database);
+        return lockService;
+    }
+
+    private static void assertStatement(String expectedSql, List<?> expectedParameters, SqlStatement statement) {
+        RawParameterizedSqlStatement rawStatement = (RawParameterizedSqlStatement) statement;
+        assertEquals(expectedSql, rawStatement.getSql());
+        assertEquals(expectedParameters, rawStatement.getParameters());
+    }
+}
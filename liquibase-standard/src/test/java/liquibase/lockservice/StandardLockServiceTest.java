@@ -1,5 +1,6 @@
 package liquibase.lockservice;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.database.core.MockDatabase;
 import liquibase.exception.DatabaseException;
@@ -77,6 +78,27 @@ public class StandardLockServiceTest {
         }
     }
 
+    @Test
+    public void recheckDelayUsesPollRateByDefault() {
+        lockService.setChangeLogLockRecheckTime(10);
+        long timeToGiveUp = new Date().getTime() + 60_000;
+
+        Assertions.assertThat(lockService.getRecheckDelay(0, timeToGiveUp)).isEqualTo(10_000);
+        Assertions.assertThat(lockService.getRecheckDelay(0, new Date().getTime() + 2_000)).isBetween(0L, 2_000L);
+    }
+
+    @Test
+    public void adaptiveRecheckDelayBacksOffUpToPollRate() throws Exception {
+        lockService.setChangeLogLockRecheckTime(10);
+        long timeToGiveUp = new Date().getTime() + 60_000;
+
+        Scope.child(GlobalConfiguration.CHANGELOGLOCK_ADAPTIVE_POLL_RATE.getKey(), true, () -> {
+            Assertions.assertThat(lockService.getRecheckDelay(0, timeToGiveUp)).isBetween(125L, 250L);
+            Assertions.assertThat(lockService.getRecheckDelay(2, timeToGiveUp)).isBetween(500L, 1_000L);
+            Assertions.assertThat(lockService.getRecheckDelay(30, timeToGiveUp)).isBetween(5_000L, 10_000L);
+        });
+    }
+
     private static List<Map<String, ?>> sampleLockData() {
         Map<String, Object> columnMapRow0 = new TreeMap<>();
 
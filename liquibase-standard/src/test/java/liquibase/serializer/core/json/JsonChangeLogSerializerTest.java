@@ -4,6 +4,7 @@ import liquibase.change.AddColumnConfig;
 import liquibase.change.core.AddColumnChange;
 import liquibase.changelog.ChangeSet;
 import liquibase.precondition.core.PreconditionContainer;
+import liquibase.serializer.ChangeLogStreamWriter;
 import liquibase.precondition.core.PreconditionContainer.ErrorOption;
 import liquibase.precondition.core.PreconditionContainer.FailOption;
 import liquibase.precondition.core.PreconditionContainer.OnSqlOutputOption;
@@ -11,7 +12,10 @@ import liquibase.statement.DatabaseFunction;
 import liquibase.statement.SequenceNextValueFunction;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 
@@ -114,6 +118,28 @@ public class JsonChangeLogSerializerTest {
                 "}\n", serializedJson);
     }
 
+    @Test
+    public void createStreamWriter_writes_same_output_as_write() throws Exception {
+        List<ChangeSet> changeSets = Arrays.asList(
+                new ChangeSet("1", "example", false, false, "com/example/changelog.json", null, null, null),
+                new ChangeSet("2", "example", false, false, "com/example/changelog.json", null, null, null));
+        JsonChangeLogSerializer serializer = new JsonChangeLogSerializer();
+
+        for (int size = 0; size <= changeSets.size(); size++) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            serializer.write(changeSets.subList(0, size), expected);
+
+            ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+            ChangeLogStreamWriter writer = serializer.createStreamWriter(streamed);
+            for (ChangeSet changeSet : changeSets.subList(0, size)) {
+                writer.write(changeSet);
+            }
+            writer.finish();
+
+            assertEquals(expected.toString("UTF-8"), streamed.toString("UTF-8"));
+        }
+    }
+
     private PreconditionContainer newSamplePreconditions() {
         PreconditionContainer precondition = new PreconditionContainer();
         precondition.setOnError(ErrorOption.CONTINUE);
@@ -10,6 +10,7 @@ import liquibase.changelog.ChangeSet;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.precondition.CustomPreconditionWrapper;
 import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.serializer.ChangeLogStreamWriter;
 import liquibase.statement.SequenceNextValueFunction;
 import org.junit.Test;
 import org.w3c.dom.Element;
@@ -18,9 +19,12 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -1015,6 +1019,35 @@ public class XMLChangeLogSerializerTest {
         return map;
     }
 
+    @Test
+    public void createStreamWriter_writes_same_output_as_write() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "example", false, false, "com/example/changelog.xml", null, null, null);
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("testTable");
+        createTable.addColumn(new ColumnConfig().setName("id").setType("int"));
+        changeSet.addChange(createTable);
+        ChangeSet sqlChangeSet = new ChangeSet("2", "example", false, false, "com/example/changelog.xml", null, null, null);
+        RawSQLChange sql = new RawSQLChange("select 1\n  from testTable");
+        sqlChangeSet.addChange(sql);
+        List<ChangeSet> changeSets = Arrays.asList(changeSet, sqlChangeSet,
+                new ChangeSet("3", "example", false, false, "com/example/changelog.xml", null, null, null));
+        XMLChangeLogSerializer serializer = new XMLChangeLogSerializer();
+
+        for (int size = 0; size <= changeSets.size(); size++) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            serializer.write(changeSets.subList(0, size), expected);
+
+            ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+            ChangeLogStreamWriter writer = serializer.createStreamWriter(streamed);
+            for (ChangeSet child : changeSets.subList(0, size)) {
+                writer.write(child);
+            }
+            writer.finish();
+
+            assertEquals(expected.toString("UTF-8"), streamed.toString("UTF-8"));
+        }
+    }
+
     private static Map<String, String> attsMap(Node elem) {
         Map<String, String> map = new LinkedHashMap<>();
         NamedNodeMap attributes = elem.getAttributes();
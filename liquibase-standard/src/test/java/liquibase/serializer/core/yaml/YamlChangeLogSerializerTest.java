@@ -3,8 +3,15 @@ package liquibase.serializer.core.yaml;
 import liquibase.change.ColumnConfig;
 import liquibase.change.core.CreateTableChange;
 import liquibase.changelog.ChangeSet;
+import liquibase.serializer.ChangeLogStreamWriter;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
 public class YamlChangeLogSerializerTest {
 
     @Test
@@ -23,6 +30,32 @@ public class YamlChangeLogSerializerTest {
         System.out.println(out);
     }
 
+    @Test
+    public void createStreamWriter_writes_same_output_as_write() throws Exception {
+        ChangeSet changeSet = new ChangeSet("1", "example", false, false, "com/example/changelog.yaml", null, null, null);
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("testTable");
+        change.addColumn(new ColumnConfig().setName("id").setType("int"));
+        changeSet.addChange(change);
+        List<ChangeSet> changeSets = Arrays.asList(changeSet,
+                new ChangeSet("2", "example", false, false, "com/example/changelog.yaml", null, null, null));
+        YamlChangeLogSerializer serializer = new YamlChangeLogSerializer();
+
+        for (int size = 0; size <= changeSets.size(); size++) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            serializer.write(changeSets.subList(0, size), expected);
+
+            ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+            ChangeLogStreamWriter writer = serializer.createStreamWriter(streamed);
+            for (ChangeSet child : changeSets.subList(0, size)) {
+                writer.write(child);
+            }
+            writer.finish();
+
+            assertEquals(expected.toString("UTF-8"), streamed.toString("UTF-8"));
+        }
+    }
+
 //    @Test
 //    public void serialize_changelog() {
 //        ChangeSet changeSet = new ChangeSet("test1", "nvoxland", false, true, "/test/me.txt", null, null);
@@ -0,0 +1,51 @@
+package liquibase.snapshot;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CachedRowTest {
+
+    @Test
+    public void rows_share_columns_and_keep_added_values() {
+        CachedRow.Columns columns = new CachedRow.Columns(new String[]{"TABLE_NAME", "COLUMN_SIZE", "NULLABLE"});
+        CachedRow first = new CachedRow(columns, new Object[]{"table1", 10L, "YES"});
+        CachedRow second = new CachedRow(columns, new Object[]{"table2", null, 0});
+
+        assertEquals("table1", first.getString("TABLE_NAME"));
+        assertEquals(Integer.valueOf(10), first.getInt("COLUMN_SIZE"));
+        assertTrue(first.yesNoToBoolean("NULLABLE"));
+        assertNull(second.getInt("COLUMN_SIZE"));
+        assertFalse(second.getBoolean("NULLABLE"));
+        assertNull(first.get("REMARKS"));
+        assertFalse(first.containsColumn("REMARKS"));
+
+        first.set("COLUMN_SIZE", 20);
+        first.set("REMARKS", "added");
+        assertEquals(Integer.valueOf(20), first.getInt("COLUMN_SIZE"));
+        assertEquals("added", first.getString("REMARKS"));
+        assertTrue(first.containsColumn("REMARKS"));
+        assertFalse(second.containsColumn("REMARKS"));
+    }
+
+    @Test
+    public void map_rows_behave_like_before() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("COLUMN_DEF", null);
+        values.put("DECIMAL_DIGITS", (short) 2);
+
+        CachedRow row = new CachedRow(values);
+        assertTrue(row.containsColumn("COLUMN_DEF"));
+        assertNull(row.get("COLUMN_DEF"));
+        assertEquals(Short.valueOf((short) 2), row.getShort("DECIMAL_DIGITS"));
+        assertTrue(row.estimateSize() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void values_must_match_columns() {
+        new CachedRow(new CachedRow.Columns(new String[]{"A", "B"}), new Object[]{"a"});
+    }
+}
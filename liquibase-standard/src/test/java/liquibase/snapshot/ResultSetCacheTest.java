@@ -1,7 +1,149 @@
 package liquibase.snapshot;
 
+import liquibase.database.Database;
+import liquibase.database.core.MockDatabase;
+import liquibase.structure.DatabaseObject;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
 public class ResultSetCacheTest {
 
+    @Test
+    public void repeated_lookups_switch_to_bulk_query() throws Exception {
+        Database database = new MockDatabase();
+        ResultSetCache cache = new ResultSetCache(new ResultSetCacheBudget(0));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("table" + i, cache.get(new TableExtractor(database, "a", "table" + i)).get(0).getString("TABLE_NAME"));
+        }
+        assertEquals("table5", cache.get(new TableExtractor(database, "a", "table5")).get(0).getString("TABLE_NAME"));
+        assertTrue(cache.get(new TableExtractor(database, "a", "missing")).isEmpty());
+
+        assertEquals(3, cache.getFastFetches());
+        assertEquals(1, cache.getBulkFetches());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void schemas_over_budget_are_released_and_read_with_single_queries() throws Exception {
+        Database database = new MockDatabase();
+        ResultSetCacheBudget budget = new ResultSetCacheBudget(1);
+        ResultSetCache cache = new ResultSetCache(budget);
+
+        for (String schema : Arrays.asList("a", "b")) {
+            for (int i = 0; i < 4; i++) {
+                cache.get(new TableExtractor(database, schema, "table" + i));
+            }
+        }
+        assertEquals(2, cache.getBulkFetches());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(budget.getSize() > 1);
+
+        assertEquals("table1", cache.get(new TableExtractor(database, "a", "table1")).get(0).getString("TABLE_NAME"));
+        assertEquals(2, cache.getBulkFetches());
+        assertEquals(7, cache.getFastFetches());
+
+        cache.clear();
+        assertEquals(0, budget.getSize());
+    }
+
+    @Test
+    public void whole_schema_snapshots_read_in_bulk_right_away() throws Exception {
+        Database database = new MockDatabase();
+        ResultSetCache cache = new ResultSetCache("getTables", null, new BulkFetchPolicy(true, 0, null, database));
+
+        assertEquals("table0", cache.get(new TableExtractor(database, "a", "table0")).get(0).getString("TABLE_NAME"));
+        assertEquals("table1", cache.get(new TableExtractor(database, "a", "table1")).get(0).getString("TABLE_NAME"));
+
+        assertEquals(0, cache.getFastFetches());
+        assertEquals(1, cache.getBulkFetches());
+    }
+
+    @Test
+    public void few_requested_objects_keep_single_queries() throws Exception {
+        Database database = new MockDatabase();
+        List<ResultSetCache.FetchStrategy> strategies = new ArrayList<>();
+        SnapshotListener listener = new SnapshotListener() {
+            @Override
+            public void willSnapshot(DatabaseObject example, Database database) {
+            }
+
+            @Override
+            public void finishedSnapshot(DatabaseObject example, DatabaseObject snapshot, Database database) {
+            }
+
+            @Override
+            public void fetchedMetadata(String cacheName, String schemaKey, ResultSetCache.FetchStrategy strategy, long durationMillis, Database database) {
+                assertEquals("getTables", cacheName);
+                strategies.add(strategy);
+            }
+        };
+        ResultSetCache cache = new ResultSetCache("getTables", null, new BulkFetchPolicy(false, 5, listener, database));
+
+        for (int i = 0; i < 5; i++) {
+            cache.get(new TableExtractor(database, "a", "table" + i));
+        }
+        assertEquals(5, cache.getFastFetches());
+        assertEquals(0, cache.getBulkFetches());
+
+        cache.get(new TableExtractor(database, "a", "table5"));
+        assertEquals(1, cache.getBulkFetches());
+        assertEquals(ResultSetCache.FetchStrategy.BULK, strategies.get(strategies.size() - 1));
+        assertEquals(6, strategies.size());
+    }
+
+    private static class TableExtractor extends ResultSetCache.SingleResultSetExtractor {
+        private final Database database;
+        private final String schema;
+        private final String table;
+
+        private TableExtractor(Database database, String schema, String table) {
+            super(database);
+            this.database = database;
+            this.schema = schema;
+            this.table = table;
+        }
+
+        @Override
+        public boolean bulkContainsSchema(String schemaKey) {
+            return false;
+        }
+
+        @Override
+        public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+            return new ResultSetCache.RowData("cat", row.getString("TABLE_SCHEM"), database, row.getString("TABLE_NAME"));
+        }
+
+        @Override
+        public ResultSetCache.RowData wantedKeyParameters() {
+            return new ResultSetCache.RowData("cat", schema, database, table);
+        }
+
+        @Override
+        public List<CachedRow> fastFetchQuery() {
+            return Collections.singletonList(row(table));
+        }
+
+        @Override
+        public List<CachedRow> bulkFetchQuery() {
+            List<CachedRow> rows = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                rows.add(row("table" + i));
+            }
+            return rows;
+        }
+
+        private CachedRow row(String name) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("TABLE_SCHEM", schema);
+            row.put("TABLE_NAME", name);
+            return new CachedRow(row);
+        }
+    }
+
 //    @Test
 //    public void permutations() {
 //        assertEquals(4, new ResultSetCache().permutations(new String[]{"a", "b"}).length);
@@ -0,0 +1,42 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.MySQLDatabase;
+import liquibase.sql.Sql;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InsertOrUpdateSetGeneratorMySQLTest {
+
+    private static InsertOrUpdateSetStatement createStatement(boolean allowUpdate) {
+        InsertOrUpdateSetStatement statement = new InsertOrUpdateSetStatement("mycatalog", "myschema", "mytable", "pk_col1", false);
+        for (int i = 1; i <= 2; i++) {
+            InsertOrUpdateStatement row = new InsertOrUpdateStatement("mycatalog", "myschema", "mytable", "pk_col1", false);
+            row.addColumnValue("pk_col1", "key" + i);
+            row.addColumnValue("col2", "value" + i);
+            row.setAllowColumnUpdate("col2", allowUpdate);
+            statement.addStatement(row);
+        }
+        return statement;
+    }
+
+    @Test
+    public void testUpsert() {
+        Sql[] sql = new InsertOrUpdateSetGeneratorMySQL().generateSql(createStatement(true), new MySQLDatabase(), null);
+
+        assertEquals(1, sql.length);
+        assertTrue(sql[0].toSql().startsWith("INSERT INTO "));
+        assertTrue(sql[0].toSql().endsWith("(pk_col1, col2) VALUES ('key1', 'value1'), ('key2', 'value2') " +
+                "ON DUPLICATE KEY UPDATE col2 = VALUES(col2)"));
+    }
+
+    @Test
+    public void testOnlyDuplicatesAreIgnoredWithoutUpdateColumns() {
+        Sql[] sql = new InsertOrUpdateSetGeneratorMySQL().generateSql(createStatement(false), new MySQLDatabase(), null);
+
+        assertFalse(sql[0].toSql().contains("IGNORE"));
+        assertTrue(sql[0].toSql().endsWith(" ON DUPLICATE KEY UPDATE pk_col1 = pk_col1"));
+    }
+}
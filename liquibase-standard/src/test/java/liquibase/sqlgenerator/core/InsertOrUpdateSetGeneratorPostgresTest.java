@@ -0,0 +1,57 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InsertOrUpdateSetGeneratorPostgresTest {
+
+    private static InsertOrUpdateSetStatement createStatement(boolean onlyUpdate) {
+        InsertOrUpdateSetStatement statement = new InsertOrUpdateSetStatement("mycatalog", "myschema", "mytable", "pk_col1", onlyUpdate);
+        for (int i = 1; i <= 2; i++) {
+            InsertOrUpdateStatement row = new InsertOrUpdateStatement("mycatalog", "myschema", "mytable", "pk_col1", onlyUpdate);
+            row.addColumnValue("pk_col1", "key" + i);
+            row.addColumnValue("col2", "value" + i);
+            statement.addStatement(row);
+        }
+        return statement;
+    }
+
+    @Test
+    public void testUpsertThroughStagingTable() {
+        Sql[] sql = new InsertOrUpdateSetGeneratorPostgres().generateSql(createStatement(false), new PostgresDatabase(), null);
+
+        assertEquals(5, sql.length);
+        assertEquals("DROP TABLE IF EXISTS pg_temp.liquibase_upsert_stage", sql[0].toSql());
+        assertEquals("CREATE TEMP TABLE liquibase_upsert_stage AS SELECT pk_col1, col2 FROM myschema.mytable WHERE 1 = 0", sql[1].toSql());
+        assertEquals("WITH cleared AS (DELETE FROM pg_temp.liquibase_upsert_stage) INSERT INTO pg_temp.liquibase_upsert_stage (pk_col1, col2) " +
+                "VALUES ('key1', 'value1'), ('key2', 'value2')", sql[2].toSql());
+        assertEquals("UPDATE myschema.mytable t SET col2 = s.col2 FROM pg_temp.liquibase_upsert_stage s WHERE t.pk_col1 = s.pk_col1", sql[3].toSql());
+        assertEquals("INSERT INTO myschema.mytable (pk_col1, col2) SELECT s.pk_col1, s.col2 FROM pg_temp.liquibase_upsert_stage s " +
+                "WHERE NOT EXISTS (SELECT 1 FROM myschema.mytable t WHERE t.pk_col1 = s.pk_col1)", sql[4].toSql());
+    }
+
+    @Test
+    public void testFollowingSetReusesStagingTable() {
+        Sql[] sql = new InsertOrUpdateSetGeneratorPostgres().generateSql(createStatement(false).setFirstSet(false), new PostgresDatabase(), null);
+
+        assertEquals(3, sql.length);
+        assertTrue(sql[0].toSql().startsWith("WITH cleared AS (DELETE FROM pg_temp.liquibase_upsert_stage) INSERT INTO pg_temp.liquibase_upsert_stage"));
+        assertTrue(sql[1].toSql().startsWith("UPDATE myschema.mytable t"));
+        assertTrue(sql[2].toSql().startsWith("INSERT INTO myschema.mytable"));
+    }
+
+    @Test
+    public void testOnlyUpdateFlag() {
+        Sql[] sql = new InsertOrUpdateSetGeneratorPostgres().generateSql(createStatement(true), new PostgresDatabase(), null);
+
+        assertEquals(4, sql.length);
+        for (Sql statement : sql) {
+            assertFalse("should not have had insert statement", statement.toSql().startsWith("INSERT INTO myschema.mytable"));
+        }
+    }
+}
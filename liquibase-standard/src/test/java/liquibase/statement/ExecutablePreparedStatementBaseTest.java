@@ -2,10 +2,13 @@ package liquibase.statement;
 
 import liquibase.change.ColumnConfig;
 import liquibase.change.core.LoadDataChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
 import liquibase.database.PreparedStatementFactory;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.resource.DirectoryResourceAccessor;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -21,6 +24,8 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
 import java.util.Date;
@@ -113,6 +118,26 @@ public class ExecutablePreparedStatementBaseTest {
         verify(inputStreamMock).close();
     }
 
+    @Test
+    public void testLocalLobFilesAreStreamedWithTheirSize() throws Exception {
+        Path directory = Files.createTempDirectory("lob");
+        Files.write(directory.resolve("data.bin"), new byte[]{1, 2, 3, 4, 5});
+        Files.write(directory.resolve("data.txt"), "abc".getBytes(StandardCharsets.ISO_8859_1));
+        ChangeSet changeSet = new ChangeSet("1", "test", false, false, "changelog.xml", null, null, new DatabaseChangeLog("changelog.xml"));
+        ExecutablePreparedStatementBaseMock statement = new ExecutablePreparedStatementBaseMock(null, null, null, null,
+                Collections.emptyList(), changeSet, new DirectoryResourceAccessor(directory));
+
+        ExecutablePreparedStatementBase.LOBContent<InputStream> blob = statement.toBinaryStream("data.bin");
+        ExecutablePreparedStatementBase.LOBContent<Reader> clob = statement.toCharacterStream("data.txt", "ISO-8859-1");
+
+        assertEquals(5, blob.getLength());
+        assertEquals(1, blob.getContent().read());
+        assertEquals(3, clob.getLength());
+        assertEquals('a', clob.getContent().read());
+        blob.getContent().close();
+        clob.getContent().close();
+    }
+
     @Test
     public void testExecute() throws DatabaseException, SQLException, IOException {
 